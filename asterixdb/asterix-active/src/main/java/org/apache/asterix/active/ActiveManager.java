@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import org.apache.asterix.active.message.ActiveManagerMessage;
 import org.apache.asterix.active.message.ActiveStatsRequestMessage;
@@ -51,6 +52,7 @@ public class ActiveManager {
 
     private final ExecutorService executor;
     private final ConcurrentMap<ActiveRuntimeId, IActiveRuntime> runtimes;
+    private final ConcurrentMap<ActiveRuntimeId, Supplier<String>> inputHandlerStats;
     private final ConcurrentFramePool activeFramePool;
     private final String nodeId;
     private final INCServiceContext serviceCtx;
@@ -62,6 +64,7 @@ public class ActiveManager {
         this.nodeId = nodeId;
         this.activeFramePool = new ConcurrentFramePool(nodeId, activeMemoryBudget, frameSize);
         this.runtimes = new ConcurrentHashMap<>();
+        this.inputHandlerStats = new ConcurrentHashMap<>();
         this.serviceCtx = serviceCtx;
     }
 
@@ -82,6 +85,36 @@ public class ActiveManager {
         runtimes.remove(id);
     }
 
+    /**
+     * Registers the stats of the input handler of a runtime that consumes the data of an active entity, so that they
+     * are reported with the stats of the entity's source runtime on this node
+     */
+    public void registerInputHandler(ActiveRuntimeId runtimeId, Supplier<String> stats) {
+        inputHandlerStats.put(runtimeId, stats);
+    }
+
+    public void deregisterInputHandler(ActiveRuntimeId runtimeId) {
+        inputHandlerStats.remove(runtimeId);
+    }
+
+    /**
+     * @return a JSON object with the stats of the input handlers of the entity's runtimes on this node, keyed by
+     *         runtime name and partition
+     */
+    public String getInputHandlerStats(EntityId entityId) {
+        StringBuilder stats = new StringBuilder("{");
+        inputHandlerStats.forEach((runtimeId, handlerStats) -> {
+            if (runtimeId.getEntityId().equals(entityId)) {
+                if (stats.length() > 1) {
+                    stats.append(", ");
+                }
+                stats.append('"').append(runtimeId.getRuntimeName()).append('[').append(runtimeId.getPartition())
+                        .append("]\": ").append(handlerStats.get());
+            }
+        });
+        return stats.append('}').toString();
+    }
+
     public Set<ActiveRuntimeId> getRuntimeIds() {
         return Collections.unmodifiableSet(runtimes.keySet());
     }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.PhysicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InsertDeleteUpsertOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.ReplicateOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.ReplicatePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.StableSortPOperator;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+
+/**
+ * When a dataset with secondary indexes is bulk loaded, the secondary index branches are fed from the output of the
+ * primary index bulk load. The secondary branches can therefore only start sorting their keys once the sort of the
+ * primary keys is complete. This rule moves the fan out below that sort, right after the records are partitioned on
+ * their primary keys, so that the primary index sort and all the secondary index sorts consume the loaded records
+ * concurrently:
+ *
+ * <pre>
+ * idx1 bulkload   idx2 bulkload                   primary bulkload   idx1 bulkload   idx2 bulkload
+ * |               |                               |                  |               |
+ * ...             ...                             sort(pk)           ...             ...
+ * \_______________/                                \_________________|_______________/
+ *         |                             ==>                          |
+ *     replicate                                                  replicate
+ *         |                                                          |
+ * primary bulkload                                      hash partition exchange(pk)
+ *         |
+ *     sort(pk)
+ *         |
+ * hash partition exchange(pk)
+ * </pre>
+ *
+ * A single secondary index is fed directly by the primary index bulk load, in which case a replicate operator is
+ * introduced. The rule only applies if every secondary branch sorts its own input since the branches no longer see
+ * the records in primary key order.
+ * Since all the sorts now run at the same time, they share the memory of a single sort: each of them gets an equal part
+ * of the external sort frame budget. If that part is too small for a sort, the plan is left alone.
+ */
+public class ParallelizeBulkloadBranchesRule implements IAlgebraicRewriteRule {
+
+    // an input frame, the tuple pointers of the frame, an output frame and a frame to merge the runs two at a time
+    private static final int MIN_SORT_FRAMES = 4;
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        AbstractLogicalOperator sink = (AbstractLogicalOperator) opRef.getValue();
+        if (sink.getOperatorTag() != LogicalOperatorTag.SINK) {
+            return false;
+        }
+        // the references to the operator from which the secondary branches are fed
+        List<Mutable<ILogicalOperator>> branchRefs = new ArrayList<>();
+        // the operators that consume these references
+        List<ILogicalOperator> branchOps = new ArrayList<>();
+        // the sorts of the secondary branches
+        List<AbstractLogicalOperator> sortOps = new ArrayList<>();
+        ILogicalOperator fanOutOp = null;
+        for (Mutable<ILogicalOperator> inputRef : sink.getInputs()) {
+            ILogicalOperator branchOp = sink;
+            Mutable<ILogicalOperator> branchRef = inputRef;
+            boolean sorted = false;
+            while (!isFanOut(branchRef.getValue())) {
+                ILogicalOperator op = branchRef.getValue();
+                if (op.getInputs().size() != 1) {
+                    return false;
+                }
+                if (op.getOperatorTag() == LogicalOperatorTag.ORDER) {
+                    sorted = true;
+                    sortOps.add((AbstractLogicalOperator) op);
+                }
+                branchOp = op;
+                branchRef = op.getInputs().get(0);
+            }
+            if (!sorted || (fanOutOp != null && fanOutOp != branchRef.getValue())) {
+                return false;
+            }
+            fanOutOp = branchRef.getValue();
+            branchRefs.add(branchRef);
+            branchOps.add(branchOp);
+        }
+        if (fanOutOp == null) {
+            return false;
+        }
+
+        ReplicateOperator oldReplicateOp = null;
+        ILogicalOperator primaryOp = fanOutOp;
+        if (fanOutOp.getOperatorTag() == LogicalOperatorTag.REPLICATE) {
+            oldReplicateOp = (ReplicateOperator) fanOutOp;
+            if (oldReplicateOp.isBlocker() || oldReplicateOp.getOutputArity() != branchRefs.size()) {
+                // a branch relies on the primary key order of the bulk loaded records
+                return false;
+            }
+            primaryOp = oldReplicateOp.getInputs().get(0).getValue();
+            if (!isBulkload(primaryOp)) {
+                return false;
+            }
+        } else if (branchRefs.size() != 1) {
+            return false;
+        }
+        AbstractLogicalOperator primarySortOp = (AbstractLogicalOperator) primaryOp.getInputs().get(0).getValue();
+        if (primarySortOp.getOperatorTag() != LogicalOperatorTag.ORDER) {
+            return false;
+        }
+
+        sortOps.add(primarySortOp);
+        int sortFrames = context.getPhysicalOptimizationConfig().getMaxFramesExternalSort() / sortOps.size();
+        if (sortFrames < MIN_SORT_FRAMES) {
+            return false;
+        }
+
+        int numOutputs = branchRefs.size() + 1;
+        ReplicateOperator replicateOp = new ReplicateOperator(numOutputs, new boolean[numOutputs]);
+        replicateOp.setPhysicalOperator(new ReplicatePOperator());
+        replicateOp.setExecutionMode(primarySortOp.getExecutionMode());
+        replicateOp.getInputs().add(new MutableObject<>(primarySortOp.getInputs().get(0).getValue()));
+        if (oldReplicateOp != null) {
+            replicateOp.getOutputs().addAll(oldReplicateOp.getOutputs());
+        } else {
+            replicateOp.getOutputs().add(new MutableObject<>(branchOps.get(0)));
+        }
+        replicateOp.getOutputs().add(new MutableObject<>(primarySortOp));
+        context.computeAndSetTypeEnvironmentForOperator(replicateOp);
+        replicateOp.getPhysicalOperator().computeDeliveredProperties(replicateOp, context);
+
+        primarySortOp.getInputs().clear();
+        primarySortOp.getInputs().add(new MutableObject<>(replicateOp));
+        for (Mutable<ILogicalOperator> branchRef : branchRefs) {
+            branchRef.setValue(replicateOp);
+        }
+        sink.getInputs().add(new MutableObject<>(primaryOp));
+        context.computeAndSetTypeEnvironmentForOperator(sink);
+
+        for (AbstractLogicalOperator sortOp : sortOps) {
+            if (sortOp.getPhysicalOperator().getOperatorTag() == PhysicalOperatorTag.STABLE_SORT) {
+                sortOp.setPhysicalOperator(new StableSortPOperator(sortFrames));
+                sortOp.computeDeliveredPhysicalProperties(context);
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFanOut(ILogicalOperator op) {
+        return op.getOperatorTag() == LogicalOperatorTag.REPLICATE || isBulkload(op);
+    }
+
+    private static boolean isBulkload(ILogicalOperator op) {
+        return op.getOperatorTag() == LogicalOperatorTag.INSERT_DELETE_UPSERT
+                && ((InsertDeleteUpsertOperator) op).isBulkload();
+    }
+}
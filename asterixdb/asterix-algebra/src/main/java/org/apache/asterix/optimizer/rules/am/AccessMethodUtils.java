@@ -68,6 +68,7 @@ import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.base.OperatorAnnotations;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
@@ -1357,6 +1358,8 @@ public class AccessMethodUtils {
                     new MutableObject<ILogicalExpression>(primaryIndexSearchFunc), primaryIndexOutputTypes,
                     retainInput);
         }
+        // The primary keys coming from the secondary index search can be looked up a frame at a time.
+        primaryIndexUnnestMapOp.getAnnotations().put(OperatorAnnotations.USE_BATCH_POINT_LOOKUP, Boolean.TRUE);
         return primaryIndexUnnestMapOp;
     }
 
@@ -715,6 +715,9 @@ class LangExpressionToPlanTranslator
         if (f == null) {
             throw new CompilationException(" Unknown function " + signature.getName() + "@" + signature.getArity());
         }
+        if (BuiltinFunctions.isBuiltinWindowFunction(f.getFunctionIdentifier())) {
+            throw new CompilationException(" Window function " + signature.getName() + " requires an OVER clause");
+        }
 
         // Put hints into function call expr.
         if (fcall.hasHints()) {
@@ -1399,7 +1402,7 @@ class LangExpressionToPlanTranslator
                 || k == Kind.FIELD_ACCESSOR_EXPRESSION;
         noNesting = noNesting || k == Kind.INDEX_ACCESSOR_EXPRESSION || k == Kind.UNARY_EXPRESSION
                 || k == Kind.IF_EXPRESSION;
-        return noNesting || k == Kind.CASE_EXPRESSION;
+        return noNesting || k == Kind.CASE_EXPRESSION || k == Kind.WINDOW_EXPRESSION;
 
     }
 
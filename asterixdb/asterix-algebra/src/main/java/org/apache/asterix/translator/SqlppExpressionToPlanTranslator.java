@@ -22,10 +22,12 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.asterix.algebra.base.ILangExpressionToPlanTranslator;
 import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.functions.FunctionConstants;
 import org.apache.asterix.common.functions.FunctionSignature;
 import org.apache.asterix.lang.common.base.Clause.ClauseType;
 import org.apache.asterix.lang.common.base.Expression;
@@ -33,6 +35,7 @@ import org.apache.asterix.lang.common.base.Expression.Kind;
 import org.apache.asterix.lang.common.base.ILangExpression;
 import org.apache.asterix.lang.common.clause.GroupbyClause;
 import org.apache.asterix.lang.common.clause.LetClause;
+import org.apache.asterix.lang.common.clause.OrderbyClause.OrderModifier;
 import org.apache.asterix.lang.common.expression.CallExpr;
 import org.apache.asterix.lang.common.expression.FieldBinding;
 import org.apache.asterix.lang.common.expression.GbyVariableExpressionPair;
@@ -57,6 +60,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.optype.JoinType;
 import org.apache.asterix.lang.sqlpp.optype.SetOpType;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationInput;
@@ -78,13 +82,16 @@ import org.apache.hyracks.algebricks.common.utils.Pair;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalPlan;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AggregateFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.StatefulFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.UnnestingFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractUnnestNonMapOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AggregateOperator;
@@ -93,11 +100,14 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.DistinctOper
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.LeftOuterUnnestOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.NestedTupleSourceOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.ProjectOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.SubplanOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.WindowOperator;
 import org.apache.hyracks.algebricks.core.algebra.plan.ALogicalPlanImpl;
+import org.apache.hyracks.algebricks.core.algebra.properties.UnpartitionedPropertyComputer;
 
 /**
  * Each visit returns a pair of an operator and a variable. The variable
@@ -547,6 +557,89 @@ class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTranslator imp
         return new Pair<>(finalAssignOp, resultVar);
     }
 
+    @Override
+    public Pair<ILogicalOperator, LogicalVariable> visit(WindowExpression winExpr, Mutable<ILogicalOperator> tupSource)
+            throws CompilationException {
+        FunctionSignature signature = winExpr.getFunctionSignature();
+        FunctionIdentifier fi =
+                new FunctionIdentifier(FunctionConstants.ASTERIX_NS, signature.getName(), signature.getArity());
+        if (!BuiltinFunctions.isBuiltinWindowFunction(fi)) {
+            throw new CompilationException(" Unknown window function " + signature.getName());
+        }
+        List<Expression> argList = winExpr.getExprList();
+        boolean isLag = BuiltinFunctions.LAG.equals(fi);
+        if (isLag ? argList.isEmpty() || argList.size() > 3 : !argList.isEmpty()) {
+            throw new CompilationException(
+                    " Invalid number of arguments for window function " + signature.getName() + ": " + argList.size());
+        }
+
+        // Assigns the partition and the order keys to variables, the window operator only takes variables.
+        Mutable<ILogicalOperator> topOp = tupSource;
+        AssignOperator keyAssignOp = new AssignOperator(new ArrayList<>(), new ArrayList<>());
+        List<Mutable<ILogicalExpression>> partExprs = new ArrayList<>();
+        for (Expression partExpr : winExpr.getPartitionList()) {
+            Pair<ILogicalExpression, Mutable<ILogicalOperator>> p = langExprToAlgExpression(partExpr, topOp);
+            topOp = p.second;
+            partExprs.add(new MutableObject<>(assignKey(keyAssignOp, p.first)));
+        }
+        List<Pair<OrderOperator.IOrder, Mutable<ILogicalExpression>>> orderExprs = new ArrayList<>();
+        List<Mutable<ILogicalExpression>> orderKeyRefs = new ArrayList<>();
+        Iterator<OrderModifier> modifIter = winExpr.getOrderbyModifierList().iterator();
+        for (Expression orderExpr : winExpr.getOrderbyList()) {
+            Pair<ILogicalExpression, Mutable<ILogicalOperator>> p = langExprToAlgExpression(orderExpr, topOp);
+            topOp = p.second;
+            ILogicalExpression keyRef = assignKey(keyAssignOp, p.first);
+            OrderOperator.IOrder order =
+                    modifIter.next() == OrderModifier.ASC ? OrderOperator.ASC_ORDER : OrderOperator.DESC_ORDER;
+            orderExprs.add(new Pair<>(order, new MutableObject<>(keyRef)));
+            orderKeyRefs.add(new MutableObject<>(keyRef.cloneExpression()));
+        }
+        if (!keyAssignOp.getVariables().isEmpty()) {
+            keyAssignOp.getInputs().add(topOp);
+            topOp = new MutableObject<>(keyAssignOp);
+        }
+
+        // rank() and dense-rank() detect peers on the order keys, lag() takes its own arguments.
+        List<Mutable<ILogicalExpression>> args;
+        if (isLag) {
+            args = new ArrayList<>();
+            for (Expression argExpr : argList) {
+                Pair<ILogicalExpression, Mutable<ILogicalOperator>> p = langExprToAlgExpression(argExpr, topOp);
+                topOp = p.second;
+                args.add(new MutableObject<>(p.first));
+            }
+        } else if (BuiltinFunctions.ROW_NUMBER.equals(fi)) {
+            args = new ArrayList<>();
+        } else {
+            args = orderKeyRefs;
+        }
+        StatefulFunctionCallExpression winFunc = new StatefulFunctionCallExpression(FunctionUtil.getFunctionInfo(fi),
+                UnpartitionedPropertyComputer.INSTANCE, args);
+
+        LogicalVariable winVar = context.newVar();
+        WindowOperator winOp = new WindowOperator(partExprs, orderExprs);
+        winOp.getVariables().add(winVar);
+        winOp.getExpressions().add(new MutableObject<>(winFunc));
+        winOp.getInputs().add(topOp);
+
+        // Exposes the result through an assign so that the window operator stays in the pipeline of its input.
+        LogicalVariable resultVar = context.newVar();
+        AssignOperator resultAssignOp =
+                new AssignOperator(resultVar, new MutableObject<>(new VariableReferenceExpression(winVar)));
+        resultAssignOp.getInputs().add(new MutableObject<>(winOp));
+        return new Pair<>(resultAssignOp, resultVar);
+    }
+
+    private ILogicalExpression assignKey(AssignOperator keyAssignOp, ILogicalExpression keyExpr) {
+        if (keyExpr.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            return keyExpr;
+        }
+        LogicalVariable keyVar = context.newVar();
+        keyAssignOp.getVariables().add(keyVar);
+        keyAssignOp.getExpressions().add(new MutableObject<>(keyExpr));
+        return new VariableReferenceExpression(keyVar);
+    }
+
     private Pair<ILogicalOperator, LogicalVariable> produceSelectPlan(boolean isSubquery,
             Mutable<ILogicalOperator> returnOpRef, LogicalVariable resVar) {
         if (isSubquery) {
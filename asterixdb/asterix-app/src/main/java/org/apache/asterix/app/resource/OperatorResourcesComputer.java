@@ -81,6 +81,7 @@ public class OperatorResourcesComputer {
             case UNNEST:
             case LEFT_OUTER_UNNEST:
             case UPDATE:
+            case WINDOW:
             case WRITE:
             case WRITE_RESULT:
             case INDEX_INSERT_DELETE_UPSERT:
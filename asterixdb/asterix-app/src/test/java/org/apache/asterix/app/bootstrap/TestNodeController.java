@@ -654,20 +654,24 @@ public class TestNodeController {
                 storageComponentProvider, primaryIndexInfo.index, IndexOperation.UPSERT, keyIndexes);
         ISearchOperationCallbackFactory searchCallbackFactory = dataset.getSearchCallbackFactory(
                 storageComponentProvider, primaryIndexInfo.index, IndexOperation.UPSERT, keyIndexes);
-        IRecordDescriptorProvider recordDescProvider = primaryIndexInfo.getInsertRecordDescriptorProvider();
+        // the filter value follows the record (and meta) in the input tuples
+        RecordDescriptor upsertInRecDesc = getUpsertInRecDesc(keyTypes, recordType, metaType, filterFields);
+        int[] fieldPermutation = new int[upsertInRecDesc.getFieldCount()];
+        for (int i = 0; i < fieldPermutation.length; i++) {
+            fieldPermutation[i] = i;
+        }
         IIndexDataflowHelperFactory indexHelperFactory = new IndexDataflowHelperFactory(
                 storageComponentProvider.getStorageManager(), primaryIndexInfo.getFileSplitProvider());
-        LSMPrimaryUpsertOperatorNodePushable insertOp =
-                new LSMPrimaryUpsertOperatorNodePushable(ctx, ctx.getTaskAttemptId().getTaskId().getPartition(),
-                        indexHelperFactory, primaryIndexInfo.primaryIndexInsertFieldsPermutations,
-                        recordDescProvider.getInputRecordDescriptor(new ActivityId(new OperatorDescriptorId(0), 0), 0),
-                        modificationCallbackFactory, searchCallbackFactory, keyIndexes.length, recordType, -1,
-                        frameOpCallbackFactory == null ? dataset.getFrameOpCallbackFactory() : frameOpCallbackFactory,
-                        MissingWriterFactory.INSTANCE, hasSecondaries);
-        RecordDescriptor upsertOutRecDesc = getUpsertOutRecDesc(primaryIndexInfo.rDesc, dataset,
+        LSMPrimaryUpsertOperatorNodePushable insertOp = new LSMPrimaryUpsertOperatorNodePushable(ctx,
+                ctx.getTaskAttemptId().getTaskId().getPartition(), indexHelperFactory, fieldPermutation,
+                upsertInRecDesc, modificationCallbackFactory, searchCallbackFactory, keyIndexes.length, recordType,
+                filterFields == null ? -1 : filterFields[0],
+                frameOpCallbackFactory == null ? dataset.getFrameOpCallbackFactory() : frameOpCallbackFactory,
+                MissingWriterFactory.INSTANCE, hasSecondaries);
+        RecordDescriptor upsertOutRecDesc = getUpsertOutRecDesc(upsertInRecDesc, dataset,
                 filterFields == null ? 0 : filterFields.length, recordType, metaType);
         // fix pk fields
-        int diff = upsertOutRecDesc.getFieldCount() - primaryIndexInfo.rDesc.getFieldCount();
+        int diff = upsertOutRecDesc.getFieldCount() - upsertInRecDesc.getFieldCount();
         int[] pkFieldsInCommitOp = new int[dataset.getPrimaryKeys().size()];
         for (int i = 0; i < pkFieldsInCommitOp.length; i++) {
             pkFieldsInCommitOp[i] = diff + i;
@@ -679,7 +683,31 @@ public class TestNodeController {
         return Pair.of(insertOp, commitOp);
     }
 
-    private RecordDescriptor getUpsertOutRecDesc(RecordDescriptor inputRecordDesc, Dataset dataset, int numFilterFields,
+    /**
+     * @param filterFields
+     *            the positions, in the record type, of the filter fields, or null if the dataset is not filtered
+     * @return the descriptor of the tuples upserted into the primary index: the key, the record, the meta if any and
+     *         the filter values
+     */
+    public RecordDescriptor getUpsertInRecDesc(IAType[] keyTypes, ARecordType recordType, ARecordType metaType,
+            int[] filterFields) {
+        RecordDescriptor searchOutputDesc = getSearchOutputDesc(keyTypes, recordType, metaType);
+        if (filterFields == null) {
+            return searchOutputDesc;
+        }
+        int numFields = searchOutputDesc.getFieldCount() + filterFields.length;
+        ITypeTraits[] typeTraits = Arrays.copyOf(searchOutputDesc.getTypeTraits(), numFields);
+        ISerializerDeserializer<?>[] serdes = Arrays.copyOf(searchOutputDesc.getFields(), numFields);
+        for (int i = 0; i < filterFields.length; i++) {
+            IAType filterType = recordType.getFieldTypes()[filterFields[i]];
+            typeTraits[searchOutputDesc.getFieldCount() + i] = TypeTraitProvider.INSTANCE.getTypeTrait(filterType);
+            serdes[searchOutputDesc.getFieldCount() + i] =
+                    SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(filterType);
+        }
+        return new RecordDescriptor(serdes, typeTraits);
+    }
+
+    public RecordDescriptor getUpsertOutRecDesc(RecordDescriptor inputRecordDesc, Dataset dataset, int numFilterFields,
             ARecordType itemType, ARecordType metaItemType) throws Exception {
         ITypeTraits[] outputTypeTraits =
                 new ITypeTraits[inputRecordDesc.getFieldCount() + (dataset.hasMetaPart() ? 2 : 1) + numFilterFields];
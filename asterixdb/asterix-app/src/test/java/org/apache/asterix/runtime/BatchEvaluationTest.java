@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.asterix.runtime;
+
+import static org.mockito.Mockito.mock;
+
+import java.io.DataOutput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.functions.FunctionCollection;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the batch evaluation of functions gives the results, and raises the errors, of their tuple at a time
+ * evaluation
+ */
+public class BatchEvaluationTest {
+
+    private static final int FRAME_SIZE = 32768;
+    private static final IAObject[] VALUES = { AMissing.MISSING, ANull.NULL, new AInt32(3), new AInt64(2L),
+            new AInt64(3L), new ADouble(2.5), ABoolean.TRUE, ABoolean.FALSE, new AString("a"), new AString("b") };
+    private static final FunctionIdentifier[] FUNCTIONS =
+            { BuiltinFunctions.LT, BuiltinFunctions.EQ, BuiltinFunctions.GE, BuiltinFunctions.NUMERIC_ADD,
+                    BuiltinFunctions.NUMERIC_MULTIPLY, BuiltinFunctions.AND, BuiltinFunctions.OR };
+    private static final FunctionIdentifier[] COMPARISONS = { BuiltinFunctions.LT, BuiltinFunctions.LE,
+            BuiltinFunctions.EQ, BuiltinFunctions.NEQ, BuiltinFunctions.GE, BuiltinFunctions.GT };
+
+    @Test
+    public void test() throws Exception {
+        FrameTupleAccessor accessor = createFrame();
+        List<IFunctionDescriptorFactory> functions =
+                FunctionCollection.createDefaultFunctionCollection().getFunctionDescriptorFactories();
+        for (FunctionIdentifier fid : FUNCTIONS) {
+            testFunction(getFunctionDescriptor(functions, fid), accessor);
+        }
+    }
+
+    @Test
+    public void testConstantArgument() throws Exception {
+        FrameTupleAccessor accessor = createFrame();
+        List<IFunctionDescriptorFactory> functions =
+                FunctionCollection.createDefaultFunctionCollection().getFunctionDescriptorFactories();
+        for (FunctionIdentifier fid : COMPARISONS) {
+            AbstractScalarFunctionDynamicDescriptor funcDesc = getFunctionDescriptor(functions, fid);
+            for (int c = 0; c < VALUES.length; c++) {
+                testConstantArgument(funcDesc, accessor, c, true);
+                testConstantArgument(funcDesc, accessor, c, false);
+            }
+        }
+    }
+
+    @Test
+    public void testSideEffects() throws Exception {
+        List<IFunctionDescriptorFactory> functions =
+                FunctionCollection.createDefaultFunctionCollection().getFunctionDescriptorFactories();
+        IHyracksTaskContext ctx = mock(IHyracksTaskContext.class);
+        // an argument without a batch version can call any function
+        IScalarEvaluatorFactory tupleAtATimeFactory = new IScalarEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IScalarEvaluator createScalarEvaluator(IHyracksTaskContext context) throws HyracksDataException {
+                IScalarEvaluator eval = new ColumnAccessEvalFactory(1).createScalarEvaluator(context);
+                return (tuple, result) -> eval.evaluate(tuple, result);
+            }
+        };
+        for (FunctionIdentifier fid : FUNCTIONS) {
+            IBatchScalarEvaluator eval = (IBatchScalarEvaluator) getFunctionDescriptor(functions, fid)
+                    .createEvaluatorFactory(
+                            new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), tupleAtATimeFactory })
+                    .createScalarEvaluator(ctx);
+            Assert.assertTrue(fid.toString(), eval.mayHaveSideEffects());
+        }
+    }
+
+    /**
+     * Creates a frame with one tuple for each pair of values
+     */
+    @SuppressWarnings("unchecked")
+    private FrameTupleAccessor createFrame() throws HyracksDataException {
+        FrameTupleAppender appender = new FrameTupleAppender(new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE)));
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        DataOutput out = tb.getDataOutput();
+        for (IAObject left : VALUES) {
+            for (IAObject right : VALUES) {
+                tb.reset();
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(left.getType()).serialize(left, out);
+                tb.addFieldEndOffset();
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(right.getType()).serialize(right,
+                        out);
+                tb.addFieldEndOffset();
+                Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+            }
+        }
+        FrameTupleAccessor accessor = new FrameTupleAccessor(new RecordDescriptor(new ISerializerDeserializer[] {
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY),
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY) }));
+        accessor.reset(appender.getBuffer());
+        return accessor;
+    }
+
+    /**
+     * Checks that a function with a constant argument gives the results, and raises the errors, of the function with
+     * the same value in a column
+     */
+    @SuppressWarnings("unchecked")
+    private void testConstantArgument(AbstractScalarFunctionDynamicDescriptor funcDesc, FrameTupleAccessor accessor,
+            int constant, boolean onLeft) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(VALUES[constant].getType())
+                .serialize(VALUES[constant], storage.getDataOutput());
+        IScalarEvaluatorFactory constantFactory = new ConstantEvalFactory(
+                Arrays.copyOfRange(storage.getByteArray(), storage.getStartOffset(), storage.getLength()));
+        IHyracksTaskContext ctx = mock(IHyracksTaskContext.class);
+        IScalarEvaluator eval = funcDesc.createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), new ColumnAccessEvalFactory(1) })
+                .createScalarEvaluator(ctx);
+        IScalarEvaluator constantEval = funcDesc
+                .createEvaluatorFactory(
+                        onLeft ? new IScalarEvaluatorFactory[] { constantFactory, new ColumnAccessEvalFactory(1) }
+                                : new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), constantFactory })
+                .createScalarEvaluator(ctx);
+
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable result = VoidPointable.FACTORY.createPointable();
+        for (int other = 0; other < VALUES.length; other++) {
+            int t = onLeft ? constant * VALUES.length + other : other * VALUES.length + constant;
+            String message = funcDesc.getIdentifier() + " of tuple " + t + " with a constant on the "
+                    + (onLeft ? "left" : "right");
+            tuple.reset(accessor, t);
+            byte[] expected;
+            try {
+                eval.evaluate(tuple, result);
+                expected = Arrays.copyOfRange(result.getByteArray(), result.getStartOffset(),
+                        result.getStartOffset() + result.getLength());
+            } catch (HyracksDataException e) {
+                expected = null;
+            }
+            try {
+                constantEval.evaluate(tuple, result);
+                Assert.assertNotNull(message + " should fail", expected);
+                Assert.assertArrayEquals(message, expected, Arrays.copyOfRange(result.getByteArray(),
+                        result.getStartOffset(), result.getStartOffset() + result.getLength()));
+            } catch (HyracksDataException e) {
+                Assert.assertNull(message + " should not fail", expected);
+            }
+        }
+    }
+
+    private AbstractScalarFunctionDynamicDescriptor getFunctionDescriptor(List<IFunctionDescriptorFactory> functions,
+            FunctionIdentifier fid) {
+        for (IFunctionDescriptorFactory func : functions) {
+            IFunctionDescriptor funcDesc = func.createFunctionDescriptor();
+            if (funcDesc.getIdentifier().equals(fid) && funcDesc instanceof AbstractScalarFunctionDynamicDescriptor) {
+                return (AbstractScalarFunctionDynamicDescriptor) funcDesc;
+            }
+        }
+        throw new IllegalArgumentException(fid.toString());
+    }
+
+    private void testFunction(AbstractScalarFunctionDynamicDescriptor funcDesc, FrameTupleAccessor accessor)
+            throws Exception {
+        IScalarEvaluatorFactory evalFactory = funcDesc.createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), new ColumnAccessEvalFactory(1) });
+        IHyracksTaskContext ctx = mock(IHyracksTaskContext.class);
+        IScalarEvaluator eval = evalFactory.createScalarEvaluator(ctx);
+        Assert.assertTrue(funcDesc.getIdentifier().toString(), eval instanceof IBatchScalarEvaluator);
+        IBatchScalarEvaluator batchEval = (IBatchScalarEvaluator) evalFactory.createScalarEvaluator(ctx);
+        Assert.assertFalse(funcDesc.getIdentifier().toString(), batchEval.mayHaveSideEffects());
+
+        // evaluates the tuples one at a time
+        int tupleCount = accessor.getTupleCount();
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable result = VoidPointable.FACTORY.createPointable();
+        List<byte[]> expected = new ArrayList<>();
+        int[] selection = new int[tupleCount];
+        int size = 0;
+        List<Integer> failing = new ArrayList<>();
+        for (int t = 0; t < tupleCount; t++) {
+            tuple.reset(accessor, t);
+            try {
+                eval.evaluate(tuple, result);
+                expected.add(Arrays.copyOfRange(result.getByteArray(), result.getStartOffset(),
+                        result.getStartOffset() + result.getLength()));
+                selection[size++] = t;
+            } catch (HyracksDataException e) {
+                failing.add(t);
+            }
+        }
+
+        // evaluates the tuples that do not fail in one batch
+        IPointable[] results = BatchEvaluatorUtil.ensureCapacity(new IPointable[0], size);
+        batchEval.evaluate(accessor, selection, size, results);
+        for (int i = 0; i < size; i++) {
+            byte[] actual = Arrays.copyOfRange(results[i].getByteArray(), results[i].getStartOffset(),
+                    results[i].getStartOffset() + results[i].getLength());
+            Assert.assertArrayEquals(funcDesc.getIdentifier() + " of tuple " + selection[i], expected.get(i), actual);
+        }
+
+        // the tuples that fail also fail in a batch
+        for (int t : failing) {
+            try {
+                batchEval.evaluate(accessor, new int[] { t }, 1, results);
+                Assert.fail(funcDesc.getIdentifier() + " of tuple " + t + " should fail");
+            } catch (HyracksDataException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.dataflow;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.app.bootstrap.TestNodeController;
+import org.apache.asterix.app.bootstrap.TestNodeController.PrimaryIndexInfo;
+import org.apache.asterix.app.data.gen.TestTupleCounterFrameWriter;
+import org.apache.asterix.app.data.gen.TupleGenerator;
+import org.apache.asterix.app.data.gen.TupleGenerator.GenerationFunction;
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.context.PrimaryIndexOperationTracker;
+import org.apache.asterix.common.transactions.ILogManager;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.ITransactionManager;
+import org.apache.asterix.common.transactions.TransactionOptions;
+import org.apache.asterix.external.util.DataflowUtils;
+import org.apache.asterix.file.StorageComponentProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.metadata.entities.InternalDatasetDetails;
+import org.apache.asterix.metadata.entities.InternalDatasetDetails.PartitioningStrategy;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.ARecord;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.operators.LSMPrimaryUpsertOperatorNodePushable;
+import org.apache.asterix.test.common.TestHelper;
+import org.apache.asterix.transaction.management.runtime.CommitRuntime;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hyracks.algebricks.runtime.base.IPushRuntime;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IIndexDataflowHelper;
+import org.apache.hyracks.storage.am.common.dataflow.IndexDataflowHelperFactory;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMemoryComponent;
+import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoMergePolicyFactory;
+import org.apache.hyracks.util.ThrowingAction;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UpsertOperatorTest {
+
+    private static final IAType[] KEY_TYPES = { BuiltinType.AINT32 };
+    private static final ARecordType RECORD_TYPE = new ARecordType("TestRecordType", new String[] { "key", "value" },
+            new IAType[] { BuiltinType.AINT32, BuiltinType.AINT64 }, false);
+    private static final GenerationFunction[] RECORD_GEN_FUNCTION =
+            { GenerationFunction.INCREASING, GenerationFunction.DETERMINISTIC };
+    private static final boolean[] UNIQUE_RECORD_FIELDS = { true, false };
+    private static final ARecordType META_TYPE = null;
+    private static final GenerationFunction[] META_GEN_FUNCTION = null;
+    private static final boolean[] UNIQUE_META_FIELDS = null;
+    private static final int[] KEY_INDEXES = { 0 };
+    private static final int[] KEY_INDICATORS = { Index.RECORD_INDICATOR };
+    private static final List<Integer> KEY_INDICATORS_LIST = Arrays.asList(new Integer[] { Index.RECORD_INDICATOR });
+    private static final int NUM_OF_RECORDS = 100;
+    private static final int DATASET_ID = 101;
+    private static final String DATAVERSE_NAME = "TestDV";
+    private static final String DATASET_NAME = "TestDS";
+    private static final String DATA_TYPE_NAME = "DUMMY";
+    private static final String NODE_GROUP_NAME = "DEFAULT";
+    private static final int[] FILTER_FIELDS = { 1 };
+    // the output of the upsert operator without meta or filter is <prev record, key, record>
+    private static final int PREV_RECORD_FIELD = 0;
+    private static final int RECORD_FIELD = 2;
+
+    @Before
+    public void setUp() throws Exception {
+        System.out.println("SetUp: ");
+        TestHelper.deleteExistingInstanceFiles();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.out.println("TearDown");
+        TestHelper.deleteExistingInstanceFiles();
+    }
+
+    @Test
+    public void testDeleteMissingKeys() throws Exception {
+        TestNodeController nc = new TestNodeController(null, false);
+        nc.init();
+        StorageComponentProvider storageManager = new StorageComponentProvider();
+        List<List<String>> partitioningKeys = new ArrayList<>();
+        partitioningKeys.add(Collections.singletonList("key"));
+        Dataset dataset = new Dataset(DATAVERSE_NAME, DATASET_NAME, DATAVERSE_NAME, DATA_TYPE_NAME,
+                NODE_GROUP_NAME, NoMergePolicyFactory.NAME, null, new InternalDatasetDetails(null,
+                        PartitioningStrategy.HASH, partitioningKeys, null, null, null, false, null),
+                null, DatasetType.INTERNAL, DATASET_ID, 0);
+        try {
+            nc.createPrimaryIndex(dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, null, storageManager, KEY_INDEXES,
+                    KEY_INDICATORS_LIST, 0);
+            JobId jobId = nc.newJobId();
+            IHyracksTaskContext ctx = nc.createTestContext(jobId, 0, false);
+            ITransactionContext txnCtx = nc.getTransactionManager().beginTransaction(nc.getTxnJobId(ctx),
+                    new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL));
+            // without secondary indexes, upserts are written without looking up the previous record
+            Pair<LSMPrimaryUpsertOperatorNodePushable, CommitRuntime> pipeline =
+                    nc.getUpsertPipeline(ctx, dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, null, KEY_INDEXES,
+                            KEY_INDICATORS_LIST, storageManager, null, false);
+            LSMPrimaryUpsertOperatorNodePushable upsertOp = pipeline.getLeft();
+            RecordDescriptor outputDesc = nc.getUpsertOutRecDesc(
+                    nc.getSearchOutputDesc(KEY_TYPES, RECORD_TYPE, META_TYPE), dataset, 0, RECORD_TYPE, META_TYPE);
+            TupleCounter counter = new TupleCounter(pipeline.getRight(), outputDesc);
+            upsertOp.setOutputFrameWriter(0, counter, outputDesc);
+            ILogManager logManager = nc.getTransactionSubsystem().getLogManager();
+            upsertOp.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            FrameTupleAppender tupleAppender = new FrameTupleAppender(frame);
+
+            // keys 1 to NUM_OF_RECORDS
+            TupleGenerator tupleGenerator = new TupleGenerator(RECORD_TYPE, META_TYPE, KEY_INDEXES, KEY_INDICATORS,
+                    RECORD_GEN_FUNCTION, UNIQUE_RECORD_FIELDS, META_GEN_FUNCTION, UNIQUE_META_FIELDS);
+            for (int j = 0; j < NUM_OF_RECORDS; j++) {
+                DataflowUtils.addTupleToFrame(tupleAppender, tupleGenerator.next(), upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(NUM_OF_RECORDS, counter.count);
+
+            // deleting keys which do not exist neither logs nor outputs anything
+            long lsn = logManager.getAppendLSN();
+            for (int j = NUM_OF_RECORDS + 1; j <= 2 * NUM_OF_RECORDS; j++) {
+                addDeleteTuple(tupleAppender, j, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(NUM_OF_RECORDS, counter.count);
+            Assert.assertEquals(lsn, logManager.getAppendLSN());
+
+            // deleting keys which exist does
+            for (int j = 1; j <= NUM_OF_RECORDS / 2; j++) {
+                addDeleteTuple(tupleAppender, j, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(NUM_OF_RECORDS + NUM_OF_RECORDS / 2, counter.count);
+            Assert.assertTrue(logManager.getAppendLSN() > lsn);
+            upsertOp.close();
+            nc.getTransactionManager().commitTransaction(txnCtx.getTxnId());
+
+            nc.newJobId();
+            TestTupleCounterFrameWriter countOp =
+                    LogMarkerTest.create(nc.getSearchOutputDesc(KEY_TYPES, RECORD_TYPE, META_TYPE),
+                            Collections.emptyList(), Collections.emptyList(), false);
+            IPushRuntime emptyTupleOp = nc.getFullScanPipeline(countOp, ctx, dataset, KEY_TYPES, RECORD_TYPE, META_TYPE,
+                    new NoMergePolicyFactory(), null, null, KEY_INDEXES, KEY_INDICATORS_LIST, storageManager);
+            emptyTupleOp.open();
+            emptyTupleOp.close();
+            Assert.assertEquals(NUM_OF_RECORDS - NUM_OF_RECORDS / 2, countOp.getCount());
+        } finally {
+            nc.deInit();
+        }
+    }
+
+    @Test
+    public void testUpsertSameKeyInFrame() throws Exception {
+        TestNodeController nc = new TestNodeController(null, false);
+        nc.init();
+        StorageComponentProvider storageManager = new StorageComponentProvider();
+        Dataset dataset = createDataset(null);
+        try {
+            nc.createPrimaryIndex(dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, null, storageManager, KEY_INDEXES,
+                    KEY_INDICATORS_LIST, 0);
+            JobId jobId = nc.newJobId();
+            IHyracksTaskContext ctx = nc.createTestContext(jobId, 0, false);
+            ITransactionContext txnCtx = nc.getTransactionManager().beginTransaction(nc.getTxnJobId(ctx),
+                    new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL));
+            // with secondary indexes, the previous record of every key is looked up
+            Pair<LSMPrimaryUpsertOperatorNodePushable, CommitRuntime> pipeline =
+                    nc.getUpsertPipeline(ctx, dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, null, KEY_INDEXES,
+                            KEY_INDICATORS_LIST, storageManager, null, true);
+            LSMPrimaryUpsertOperatorNodePushable upsertOp = pipeline.getLeft();
+            RecordDescriptor outputDesc = nc.getUpsertOutRecDesc(
+                    nc.getSearchOutputDesc(KEY_TYPES, RECORD_TYPE, META_TYPE), dataset, 0, RECORD_TYPE, META_TYPE);
+            TupleCounter counter = new TupleCounter(pipeline.getRight(), outputDesc);
+            upsertOp.setOutputFrameWriter(0, counter, outputDesc);
+            upsertOp.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            FrameTupleAppender tupleAppender = new FrameTupleAppender(frame);
+
+            // every key is upserted twice in the same frame
+            for (int j = 1; j <= NUM_OF_RECORDS; j++) {
+                addUpsertTuple(tupleAppender, j, j, false, upsertOp);
+                addUpsertTuple(tupleAppender, j, NUM_OF_RECORDS + j, false, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(2 * NUM_OF_RECORDS, counter.count);
+            for (int j = 0; j < NUM_OF_RECORDS; j++) {
+                byte[][] first = counter.tuples.get(2 * j);
+                byte[][] second = counter.tuples.get(2 * j + 1);
+                // the first upsert of a key has no previous record, the second sees the record of the first
+                Assert.assertEquals(ATypeTag.SERIALIZED_MISSING_TYPE_TAG, first[PREV_RECORD_FIELD][0]);
+                Assert.assertArrayEquals(first[RECORD_FIELD], second[PREV_RECORD_FIELD]);
+            }
+
+            // deleting every key in the frame that upserts it again deletes the upserted record
+            counter.tuples.clear();
+            for (int j = 1; j <= NUM_OF_RECORDS; j++) {
+                addUpsertTuple(tupleAppender, j, 2 * NUM_OF_RECORDS + j, false, upsertOp);
+                addDeleteTuple(tupleAppender, j, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(4 * NUM_OF_RECORDS, counter.count);
+            for (int j = 0; j < NUM_OF_RECORDS; j++) {
+                Assert.assertArrayEquals(counter.tuples.get(2 * j)[RECORD_FIELD],
+                        counter.tuples.get(2 * j + 1)[PREV_RECORD_FIELD]);
+            }
+            upsertOp.close();
+            nc.getTransactionManager().commitTransaction(txnCtx.getTxnId());
+            Assert.assertEquals(0, countRecords(nc, ctx, dataset, storageManager));
+        } finally {
+            nc.deInit();
+        }
+    }
+
+    @Test
+    public void testFlushRequestedDuringFrame() throws Exception {
+        TestNodeController nc = new TestNodeController(null, false);
+        nc.init();
+        StorageComponentProvider storageManager = new StorageComponentProvider();
+        Dataset dataset = createDataset(null);
+        try {
+            PrimaryIndexInfo primaryIndexInfo = nc.createPrimaryIndex(dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, null,
+                    storageManager, KEY_INDEXES, KEY_INDICATORS_LIST, 0);
+            JobId jobId = nc.newJobId();
+            IHyracksTaskContext ctx = nc.createTestContext(jobId, 0, false);
+            AbstractLSMIndex primaryIndex = getIndexInstance(nc, ctx, primaryIndexInfo);
+            ITransactionContext txnCtx = nc.getTransactionManager().beginTransaction(nc.getTxnJobId(ctx),
+                    new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL));
+            Pair<LSMPrimaryUpsertOperatorNodePushable, CommitRuntime> pipeline =
+                    nc.getUpsertPipeline(ctx, dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, null, KEY_INDEXES,
+                            KEY_INDICATORS_LIST, storageManager, null, true);
+            LSMPrimaryUpsertOperatorNodePushable upsertOp = pipeline.getLeft();
+            RecordDescriptor outputDesc = nc.getUpsertOutRecDesc(
+                    nc.getSearchOutputDesc(KEY_TYPES, RECORD_TYPE, META_TYPE), dataset, 0, RECORD_TYPE, META_TYPE);
+            TupleCounter counter = new TupleCounter(pipeline.getRight(), outputDesc);
+            upsertOp.setOutputFrameWriter(0, counter, outputDesc);
+            upsertOp.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            FrameTupleAppender tupleAppender = new FrameTupleAppender(frame);
+
+            // a flush is requested while the frame is processed: it only switches the memory component once the
+            // frame is done, so that the lookups of the frame see all the records written by the frame
+            PrimaryIndexOperationTracker opTracker = (PrimaryIndexOperationTracker) primaryIndex.getOperationTracker();
+            ILSMMemoryComponent[] mutableComponent = new ILSMMemoryComponent[1];
+            counter.onNextFrame = () -> {
+                mutableComponent[0] = primaryIndex.getCurrentMemoryComponent();
+                opTracker.setFlushOnExit(true);
+                opTracker.flushIfNeeded();
+                // the frame still writes to the memory component that the flush is requested for
+                Assert.assertSame(mutableComponent[0], primaryIndex.getCurrentMemoryComponent());
+                counter.onNextFrame = null;
+            };
+            for (int j = 1; j <= NUM_OF_RECORDS; j++) {
+                addUpsertTuple(tupleAppender, j, j, false, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            waitForDiskComponents(nc, dataset, primaryIndex, 1);
+            Assert.assertNotSame(mutableComponent[0], primaryIndex.getCurrentMemoryComponent());
+
+            // the first upsert of a key finds the record in the flushed component, the second in the memory component
+            counter.onNextFrame = () -> {
+                opTracker.setFlushOnExit(true);
+                opTracker.flushIfNeeded();
+                counter.onNextFrame = null;
+            };
+            for (int j = 1; j <= NUM_OF_RECORDS; j++) {
+                addUpsertTuple(tupleAppender, j, NUM_OF_RECORDS + j, false, upsertOp);
+                addUpsertTuple(tupleAppender, j, 2 * NUM_OF_RECORDS + j, false, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(3 * NUM_OF_RECORDS, counter.count);
+            for (int j = 0; j < NUM_OF_RECORDS; j++) {
+                byte[][] inserted = counter.tuples.get(j);
+                byte[][] first = counter.tuples.get(NUM_OF_RECORDS + 2 * j);
+                byte[][] second = counter.tuples.get(NUM_OF_RECORDS + 2 * j + 1);
+                Assert.assertArrayEquals(inserted[RECORD_FIELD], first[PREV_RECORD_FIELD]);
+                Assert.assertArrayEquals(first[RECORD_FIELD], second[PREV_RECORD_FIELD]);
+            }
+            upsertOp.close();
+            nc.getTransactionManager().commitTransaction(txnCtx.getTxnId());
+            waitForDiskComponents(nc, dataset, primaryIndex, 2);
+            Assert.assertEquals(NUM_OF_RECORDS, countRecords(nc, ctx, dataset, storageManager));
+        } finally {
+            nc.deInit();
+        }
+    }
+
+    @Test
+    public void testUpsertFilteredWithSecondaries() throws Exception {
+        TestNodeController nc = new TestNodeController(null, false);
+        nc.init();
+        StorageComponentProvider storageManager = new StorageComponentProvider();
+        Dataset dataset = createDataset(Collections.singletonList("value"));
+        try {
+            PrimaryIndexInfo primaryIndexInfo = nc.createPrimaryIndex(dataset, KEY_TYPES, RECORD_TYPE, META_TYPE,
+                    FILTER_FIELDS, storageManager, KEY_INDEXES, KEY_INDICATORS_LIST, 0);
+            JobId jobId = nc.newJobId();
+            IHyracksTaskContext ctx = nc.createTestContext(jobId, 0, false);
+            AbstractLSMIndex primaryIndex = getIndexInstance(nc, ctx, primaryIndexInfo);
+            ITransactionContext txnCtx = nc.getTransactionManager().beginTransaction(nc.getTxnJobId(ctx),
+                    new TransactionOptions(ITransactionManager.AtomicityLevel.ENTITY_LEVEL));
+            Pair<LSMPrimaryUpsertOperatorNodePushable, CommitRuntime> pipeline =
+                    nc.getUpsertPipeline(ctx, dataset, KEY_TYPES, RECORD_TYPE, META_TYPE, FILTER_FIELDS, KEY_INDEXES,
+                            KEY_INDICATORS_LIST, storageManager, null, true);
+            LSMPrimaryUpsertOperatorNodePushable upsertOp = pipeline.getLeft();
+            RecordDescriptor outputDesc =
+                    nc.getUpsertOutRecDesc(nc.getUpsertInRecDesc(KEY_TYPES, RECORD_TYPE, META_TYPE, FILTER_FIELDS),
+                            dataset, FILTER_FIELDS.length, RECORD_TYPE, META_TYPE);
+            TupleCounter counter = new TupleCounter(pipeline.getRight(), outputDesc);
+            upsertOp.setOutputFrameWriter(0, counter, outputDesc);
+            upsertOp.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            FrameTupleAppender tupleAppender = new FrameTupleAppender(frame);
+
+            // the output is <prev record, prev filter, key, record, filter>
+            final int prevFilterField = 1;
+            final int recordField = 3;
+            final int filterField = 4;
+            for (int j = 1; j <= NUM_OF_RECORDS; j++) {
+                addUpsertTuple(tupleAppender, j, j, true, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            StorageTestUtils.waitForOperations(primaryIndex);
+            nc.getDatasetLifecycleManager().flushDataset(dataset.getDatasetId(), false);
+
+            for (int j = 1; j <= NUM_OF_RECORDS; j++) {
+                addUpsertTuple(tupleAppender, j, NUM_OF_RECORDS + j, true, upsertOp);
+                addUpsertTuple(tupleAppender, j, 2 * NUM_OF_RECORDS + j, true, upsertOp);
+            }
+            tupleAppender.write(upsertOp, true);
+            Assert.assertEquals(3 * NUM_OF_RECORDS, counter.count);
+            for (int j = 0; j < NUM_OF_RECORDS; j++) {
+                byte[][] inserted = counter.tuples.get(j);
+                byte[][] first = counter.tuples.get(NUM_OF_RECORDS + 2 * j);
+                byte[][] second = counter.tuples.get(NUM_OF_RECORDS + 2 * j + 1);
+                Assert.assertEquals(ATypeTag.SERIALIZED_MISSING_TYPE_TAG, inserted[PREV_RECORD_FIELD][0]);
+                Assert.assertEquals(ATypeTag.SERIALIZED_MISSING_TYPE_TAG, inserted[prevFilterField][0]);
+                // the previous filter value is the filter value of the previous record
+                Assert.assertArrayEquals(inserted[recordField], first[PREV_RECORD_FIELD]);
+                Assert.assertArrayEquals(inserted[filterField], first[prevFilterField]);
+                Assert.assertArrayEquals(first[recordField], second[PREV_RECORD_FIELD]);
+                Assert.assertArrayEquals(first[filterField], second[prevFilterField]);
+            }
+            // the filter of the memory component covers the values of the records that were replaced
+            ITupleReference minTuple = primaryIndex.getCurrentMemoryComponent().getLSMComponentFilter().getMinTuple();
+            Assert.assertArrayEquals(counter.tuples.get(0)[filterField], copyField(minTuple, 0));
+            upsertOp.close();
+            nc.getTransactionManager().commitTransaction(txnCtx.getTxnId());
+        } finally {
+            nc.deInit();
+        }
+    }
+
+    private static Dataset createDataset(List<String> filterField) {
+        List<List<String>> partitioningKeys = new ArrayList<>();
+        partitioningKeys.add(Collections.singletonList("key"));
+        return new Dataset(DATAVERSE_NAME, DATASET_NAME, DATAVERSE_NAME, DATA_TYPE_NAME, NODE_GROUP_NAME,
+                NoMergePolicyFactory.NAME, null, new InternalDatasetDetails(null, PartitioningStrategy.HASH,
+                        partitioningKeys, null, null, null, false, filterField),
+                null, DatasetType.INTERNAL, DATASET_ID, 0);
+    }
+
+    private static AbstractLSMIndex getIndexInstance(TestNodeController nc, IHyracksTaskContext ctx,
+            PrimaryIndexInfo primaryIndexInfo) throws HyracksDataException {
+        IIndexDataflowHelper indexDataflowHelper =
+                new IndexDataflowHelperFactory(nc.getStorageManager(), primaryIndexInfo.getFileSplitProvider())
+                        .create(ctx.getJobletContext().getServiceContext(), 0);
+        indexDataflowHelper.open();
+        AbstractLSMIndex index = (AbstractLSMIndex) indexDataflowHelper.getIndexInstance();
+        indexDataflowHelper.close();
+        return index;
+    }
+
+    private static void waitForDiskComponents(TestNodeController nc, Dataset dataset, AbstractLSMIndex index,
+            int numOfComponents) throws Exception {
+        StorageTestUtils.waitForOperations(index);
+        long before = System.currentTimeMillis();
+        while (index.getDiskComponents().size() < numOfComponents) {
+            Thread.sleep(5); // NOSONAR: Test code with a timeout
+            if (System.currentTimeMillis() - before > TimeUnit.MINUTES.toMillis(1)) {
+                throw new IllegalStateException("The requested flush was not performed");
+            }
+        }
+        nc.getDatasetLifecycleManager().getDatasetInfo(dataset.getDatasetId()).waitForIO();
+    }
+
+    private static int countRecords(TestNodeController nc, IHyracksTaskContext ctx, Dataset dataset,
+            StorageComponentProvider storageManager) throws Exception {
+        nc.newJobId();
+        TestTupleCounterFrameWriter countOp =
+                LogMarkerTest.create(nc.getSearchOutputDesc(KEY_TYPES, RECORD_TYPE, META_TYPE), Collections.emptyList(),
+                        Collections.emptyList(), false);
+        IPushRuntime emptyTupleOp = nc.getFullScanPipeline(countOp, ctx, dataset, KEY_TYPES, RECORD_TYPE, META_TYPE,
+                new NoMergePolicyFactory(), null, null, KEY_INDEXES, KEY_INDICATORS_LIST, storageManager);
+        emptyTupleOp.open();
+        emptyTupleOp.close();
+        return countOp.getCount();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addUpsertTuple(FrameTupleAppender appender, int key, long value, boolean filtered,
+            IFrameWriter writer) throws Exception {
+        ISerializerDeserializer<AInt32> int32Serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT32);
+        ISerializerDeserializer<AInt64> int64Serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT64);
+        ISerializerDeserializer<ARecord> recordSerde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(RECORD_TYPE);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(filtered ? 3 : 2);
+        tb.addField(int32Serde, new AInt32(key));
+        tb.addField(recordSerde, new ARecord(RECORD_TYPE, new IAObject[] { new AInt32(key), new AInt64(value) }));
+        if (filtered) {
+            // the filter value follows the record
+            tb.addField(int64Serde, new AInt64(value));
+        }
+        DataflowUtils.addTupleToFrame(appender, tb, writer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addDeleteTuple(FrameTupleAppender appender, int key, IFrameWriter writer) throws Exception {
+        ISerializerDeserializer<AInt32> int32Serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT32);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        tb.addField(int32Serde, new AInt32(key));
+        // a missing record deletes the key
+        tb.getDataOutput().writeByte(ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
+        tb.addFieldEndOffset();
+        DataflowUtils.addTupleToFrame(appender, tb, writer);
+    }
+
+    private static byte[] copyField(ITupleReference tuple, int field) {
+        return Arrays.copyOfRange(tuple.getFieldData(field), tuple.getFieldStart(field),
+                tuple.getFieldStart(field) + tuple.getFieldLength(field));
+    }
+
+    /**
+     * Counts and keeps the tuples written by the upsert operator before passing them on to the commit
+     */
+    private static class TupleCounter implements IFrameWriter {
+        private final IFrameWriter writer;
+        private final FrameTupleAccessor accessor;
+        private final FrameTupleReference tuple = new FrameTupleReference();
+        private final List<byte[][]> tuples = new ArrayList<>();
+        private int count = 0;
+        // called when the next frame is written, which may be while the upsert operator processes its input frame
+        private ThrowingAction onNextFrame;
+
+        TupleCounter(IFrameWriter writer, RecordDescriptor recordDesc) {
+            this.writer = writer;
+            this.accessor = new FrameTupleAccessor(recordDesc);
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+            writer.open();
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            if (onNextFrame != null) {
+                try {
+                    onNextFrame.run();
+                } catch (Exception e) {
+                    throw HyracksDataException.create(e);
+                }
+            }
+            accessor.reset(buffer);
+            count += accessor.getTupleCount();
+            for (int i = 0; i < accessor.getTupleCount(); i++) {
+                tuple.reset(accessor, i);
+                byte[][] fields = new byte[tuple.getFieldCount()][];
+                for (int j = 0; j < fields.length; j++) {
+                    fields[j] = copyField(tuple, j);
+                }
+                tuples.add(fields);
+            }
+            writer.nextFrame(buffer);
+        }
+
+        @Override
+        public void flush() throws HyracksDataException {
+            writer.flush();
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            writer.fail();
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            writer.close();
+        }
+    }
+}
@@ -257,6 +257,11 @@ public class ErrorCode {
     public static final int FEED_FAILED_WHILE_GETTING_A_NEW_RECORD = 3110;
     public static final int FEED_START_FEED_WITHOUT_CONNECTION = 3111;
     public static final int PARSER_COLLECTION_ITEM_CANNOT_BE_NULL = 3112;
+    public static final int EXTERNAL_PROJECTED_FIELD_NOT_FOUND = 3113;
+    public static final int EXTERNAL_NON_PROJECTED_FIELD_NOT_OPTIONAL = 3114;
+    public static final int EXTERNAL_UNSUPPORTED_COMPRESSION = 3115;
+    public static final int EXTERNAL_SPLIT_FILES_UNSUPPORTED_FORMAT = 3116;
+    public static final int EXTERNAL_INVALID_POSITIVE_INTEGER_PARAMETER = 3117;
 
     // Lifecycle management errors
     public static final int DUPLICATE_PARTITION_ID = 4000;
@@ -44,6 +44,8 @@ public class ConcurrentFramePool {
     private final ArrayDeque<ByteBuffer> pool;
     private final ArrayDeque<FrameAction> subscribers = new ArrayDeque<>();
     private final Map<Integer, ArrayDeque<ByteBuffer>> largeFramesPools;
+    // the number of runtimes that buffer frames from this pool, per consumer (e.g. feed)
+    private final Map<Object, Integer> consumers = new HashMap<>();
     private int handedOut;
     private int created;
 
@@ -59,6 +61,21 @@ public class ConcurrentFramePool {
         return budget * defaultFrameSize;
     }
 
+    public synchronized void registerConsumer(Object consumerId) {
+        consumers.merge(consumerId, 1, Integer::sum);
+    }
+
+    public synchronized void deregisterConsumer(Object consumerId) {
+        consumers.computeIfPresent(consumerId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * @return the bytes of the pool divided evenly between the registered consumers
+     */
+    public synchronized int getConsumerShare() {
+        return getMaxFrameSize() / Math.max(consumers.size(), 1);
+    }
+
     public synchronized ByteBuffer get() {
         // Subscribers have higher priority
         if (subscribers.isEmpty()) {
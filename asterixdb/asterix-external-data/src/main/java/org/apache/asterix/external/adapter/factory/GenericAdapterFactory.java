@@ -144,6 +144,7 @@ public class GenericAdapterFactory implements IIndexingAdapterFactory, IAdapterF
         this.configuration = configuration;
         IApplicationContext appCtx = (IApplicationContext) serviceContext.getApplicationContext();
         ExternalDataUtils.validateDataSourceParameters(configuration);
+        ExternalDataUtils.prepareProjection(configuration, recordType);
         dataSourceFactory =
                 DatasourceFactoryProvider.getExternalDataSourceFactory(appCtx.getLibraryManager(), configuration);
         if (dataSourceFactory.isIndexible() && (files != null)) {
@@ -32,6 +32,7 @@ import org.apache.asterix.external.indexing.RecordIdReader;
 import org.apache.asterix.external.indexing.RecordIdReaderFactory;
 import org.apache.asterix.external.provider.LookupReaderFactoryProvider;
 import org.apache.asterix.external.provider.ParserFactoryProvider;
+import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.api.application.IServiceContext;
@@ -82,6 +83,7 @@ public class LookupAdapterFactory<T> implements Serializable {
             throws HyracksDataException, AlgebricksException {
         this.configuration = configuration;
         IApplicationContext appCtx = (IApplicationContext) serviceContext.getApplicationContext();
+        ExternalDataUtils.prepareProjection(configuration, recordType);
         readerFactory = LookupReaderFactoryProvider.getLookupReaderFactory(serviceContext, configuration);
         dataParserFactory = (IRecordDataParserFactory<T>) ParserFactoryProvider
                 .getDataParserFactory(appCtx.getLibraryManager(), configuration);
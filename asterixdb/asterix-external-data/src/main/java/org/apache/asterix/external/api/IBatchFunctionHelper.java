@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.api;
+
+import java.util.List;
+
+import org.apache.asterix.external.library.java.JTypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+public interface IBatchFunctionHelper {
+
+    /**
+     * @return the number of argument tuples in the current batch
+     */
+    int getBatchSize();
+
+    /**
+     * @param index
+     *            the argument index
+     * @return the values of the argument for every tuple in the batch. Only the first {@link #getBatchSize()} entries
+     *         are valid and the objects are reused across batches.
+     */
+    IJObject[] getArguments(int index);
+
+    IJObject getResultObject();
+
+    /**
+     * Sets the result for the tuple at position row of the batch. Every row must get a result.
+     */
+    void setResult(int row, IJObject result) throws HyracksDataException;
+
+    IJObject getObject(JTypeTag jtypeTag) throws HyracksDataException;
+
+    List<String> getParameters();
+}
@@ -0,0 +1,30 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.api;
+
+/**
+ * A scalar function that is evaluated over a batch of argument tuples (up to a frame's worth) per call. The batch is
+ * handed over as columns of reusable {@link IJObject}s, which amortizes the per-call and conversion overhead of
+ * {@link IExternalScalarFunction}.
+ */
+public interface IExternalBatchScalarFunction extends IExternalFunction {
+
+    public void evaluate(IBatchFunctionHelper functionHelper) throws Exception;
+
+}
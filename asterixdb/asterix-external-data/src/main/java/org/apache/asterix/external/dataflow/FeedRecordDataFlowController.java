@@ -165,7 +165,7 @@ public class FeedRecordDataFlowController<T> extends AbstractFeedDataFlowControl
         Throwable th = CleanupUtils.close(recordReader, failure);
         if (th == null) {
             try {
-                tupleForwarder.complete();
+                complete();
             } catch (Throwable completeFailure) {
                 th = completeFailure;
             }
@@ -175,7 +175,14 @@ public class FeedRecordDataFlowController<T> extends AbstractFeedDataFlowControl
         return th;
     }
 
-    private boolean parseAndForward(IRawRecord<? extends T> record) throws IOException {
+    /**
+     * Pushes the remaining tuples once the reader is exhausted.
+     */
+    protected void complete() throws HyracksDataException {
+        tupleForwarder.complete();
+    }
+
+    protected boolean parseAndForward(IRawRecord<? extends T> record) throws IOException {
         try {
             dataParser.parse(record, tb.getDataOutput());
         } catch (Exception e) {
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.dataflow;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.exceptions.RuntimeDataException;
+import org.apache.asterix.external.api.IRawRecord;
+import org.apache.asterix.external.api.IRecordDataParser;
+import org.apache.asterix.external.api.IRecordReader;
+import org.apache.asterix.external.input.record.CharArrayRecord;
+import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.FeedLogManager;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A feed data flow controller that decouples parsing from the intake thread. The intake thread reads raw records
+ * into batches and hands each batch to a parser thread, which parses it into frames of its own. The intake thread
+ * then forwards the parsed frames, either in the order the batches were read or as soon as they are parsed.
+ */
+public class ParallelFeedRecordDataFlowController extends FeedRecordDataFlowController<char[]> {
+    public static final String PARSER_THREADS_FIELD_NAME = "parser-threads";
+    public static final String PARSE_TIME_FIELD_NAME = "parse-time-ms";
+    public static final String PARSER_WAIT_TIME_FIELD_NAME = "parser-wait-time-ms";
+    public static final String FORWARD_TIME_FIELD_NAME = "forward-time-ms";
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final BlockingQueue<ParserWorker> idleWorkers;
+    private final int numOfWorkers;
+    private final int batchSize;
+    private final boolean ordered;
+    private final int maxBatchesInFlight;
+    // batches that were submitted to the parsers, in reading order
+    private final Deque<Batch> batchesInFlight = new ArrayDeque<>();
+    private final Deque<Batch> freeBatches = new ArrayDeque<>();
+    private final AtomicLong parseTime = new AtomicLong();
+    private long parserWaitTime = 0;
+    private long forwardTime = 0;
+    private IFrameWriter writer;
+    private Batch currentBatch;
+
+    public ParallelFeedRecordDataFlowController(IHyracksTaskContext ctx, FeedLogManager feedLogManager,
+            IRecordDataParser<char[]>[] dataParsers, IRecordReader<char[]> recordReader, int batchSize, boolean ordered)
+            throws HyracksDataException {
+        super(ctx, feedLogManager, 1, dataParsers[0], recordReader);
+        this.numOfWorkers = dataParsers.length;
+        this.batchSize = batchSize;
+        this.ordered = ordered;
+        this.maxBatchesInFlight = 2 * numOfWorkers;
+        idleWorkers = new ArrayBlockingQueue<>(numOfWorkers);
+        for (IRecordDataParser<char[]> dataParser : dataParsers) {
+            idleWorkers.add(new ParserWorker(dataParser));
+        }
+    }
+
+    @Override
+    public void start(IFrameWriter writer) throws HyracksDataException, InterruptedException {
+        this.writer = writer;
+        try {
+            super.start(writer);
+        } finally {
+            // the batches in flight are only left after a failure
+            for (Batch batch : batchesInFlight) {
+                batch.future.cancel(true);
+            }
+            batchesInFlight.clear();
+        }
+    }
+
+    @Override
+    protected boolean parseAndForward(IRawRecord<? extends char[]> record) throws IOException {
+        if (currentBatch == null) {
+            currentBatch = nextFreeBatch();
+        }
+        currentBatch.add(record);
+        if (currentBatch.size == batchSize) {
+            submit();
+            forwardParsedBatches();
+        }
+        // parse failures are counted when the batch is forwarded
+        return true;
+    }
+
+    @Override
+    public void flush() throws HyracksDataException {
+        if (currentBatch != null) {
+            submit();
+        }
+        while (!batchesInFlight.isEmpty()) {
+            forward(batchesInFlight.poll());
+        }
+        super.flush();
+    }
+
+    @Override
+    protected void complete() throws HyracksDataException {
+        flush();
+        super.complete();
+    }
+
+    private Batch nextFreeBatch() throws HyracksDataException {
+        if (freeBatches.isEmpty()) {
+            if (batchesInFlight.size() < maxBatchesInFlight) {
+                return new Batch();
+            }
+            forward(removeParsedBatch());
+        }
+        Batch batch = freeBatches.poll();
+        batch.reset();
+        return batch;
+    }
+
+    private void submit() {
+        currentBatch.future = ctx.getExecutorService().submit(currentBatch);
+        batchesInFlight.add(currentBatch);
+        currentBatch = null;
+    }
+
+    /**
+     * Forwards the batches that are already parsed without waiting for the others.
+     */
+    private void forwardParsedBatches() throws HyracksDataException {
+        if (ordered) {
+            while (!batchesInFlight.isEmpty() && batchesInFlight.peek().future.isDone()) {
+                forward(batchesInFlight.poll());
+            }
+        } else {
+            Iterator<Batch> it = batchesInFlight.iterator();
+            while (it.hasNext()) {
+                Batch batch = it.next();
+                if (batch.future.isDone()) {
+                    it.remove();
+                    forward(batch);
+                }
+            }
+        }
+    }
+
+    private Batch removeParsedBatch() {
+        if (!ordered) {
+            Iterator<Batch> it = batchesInFlight.iterator();
+            while (it.hasNext()) {
+                Batch batch = it.next();
+                if (batch.future.isDone()) {
+                    it.remove();
+                    return batch;
+                }
+            }
+        }
+        return batchesInFlight.poll();
+    }
+
+    private void forward(Batch batch) throws HyracksDataException {
+        long start = System.nanoTime();
+        try {
+            batch.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        } catch (ExecutionException e) {
+            throw HyracksDataException.create(e.getCause());
+        }
+        long parsed = System.nanoTime();
+        parserWaitTime += parsed - start;
+        for (int i = 0; i < batch.numOfFrames; i++) {
+            if (i < batch.numOfFrames - 1 || batch.appender.getTupleCount() > 0) {
+                FrameUtils.flushFrame(batch.frames.get(i).getBuffer(), writer);
+            }
+        }
+        forwardTime += System.nanoTime() - parsed;
+        failedRecordsCount += batch.failedRecordsCount;
+        freeBatches.add(batch);
+    }
+
+    @Override
+    public String getStats() {
+        return "{\"" + INCOMING_RECORDS_COUNT_FIELD_NAME + "\": " + incomingRecordsCount + ", \""
+                + FAILED_AT_PARSER_RECORDS_COUNT_FIELD_NAME + "\": " + failedRecordsCount + ", \""
+                + PARSER_THREADS_FIELD_NAME + "\": " + numOfWorkers + ", \"" + PARSE_TIME_FIELD_NAME + "\": "
+                + parseTime.get() / 1000000 + ", \"" + PARSER_WAIT_TIME_FIELD_NAME + "\": " + parserWaitTime / 1000000
+                + ", \"" + FORWARD_TIME_FIELD_NAME + "\": " + forwardTime / 1000000 + "}";
+    }
+
+    private static class ParserWorker {
+        private final IRecordDataParser<char[]> dataParser;
+        private final ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+
+        ParserWorker(IRecordDataParser<char[]> dataParser) {
+            this.dataParser = dataParser;
+        }
+    }
+
+    private class Batch implements Callable<Void> {
+        private final CharArrayRecord[] records = new CharArrayRecord[batchSize];
+        private final List<VSizeFrame> frames = new ArrayList<>();
+        private final FrameTupleAppender appender = new FrameTupleAppender();
+        private int size;
+        private int numOfFrames;
+        private int failedRecordsCount;
+        private Future<Void> future;
+
+        Batch() throws HyracksDataException {
+            for (int i = 0; i < records.length; i++) {
+                records[i] = new CharArrayRecord();
+            }
+            frames.add(new VSizeFrame(ctx));
+            reset();
+        }
+
+        void reset() throws HyracksDataException {
+            size = 0;
+            numOfFrames = 1;
+            failedRecordsCount = 0;
+            future = null;
+            appender.reset(frames.get(0), true);
+        }
+
+        void add(IRawRecord<? extends char[]> record) throws IOException {
+            CharArrayRecord copy = records[size++];
+            copy.reset();
+            copy.append(record.get(), 0, record.size());
+        }
+
+        @Override
+        public Void call() throws Exception {
+            ParserWorker worker = idleWorkers.take();
+            try {
+                long start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    parse(worker, records[i]);
+                }
+                parseTime.addAndGet(System.nanoTime() - start);
+            } finally {
+                idleWorkers.add(worker);
+            }
+            return null;
+        }
+
+        private void parse(ParserWorker worker, CharArrayRecord record) throws IOException {
+            ArrayTupleBuilder tb = worker.tb;
+            tb.reset();
+            try {
+                worker.dataParser.parse(record, tb.getDataOutput());
+            } catch (Exception e) {
+                LOGGER.log(Level.WARN, ExternalDataConstants.ERROR_PARSE_RECORD, e);
+                feedLogManager.logRecord(record.toString(), ExternalDataConstants.ERROR_PARSE_RECORD);
+                failedRecordsCount++;
+                return;
+            }
+            tb.addFieldEndOffset();
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                if (numOfFrames == frames.size()) {
+                    frames.add(new VSizeFrame(ctx));
+                }
+                appender.reset(frames.get(numOfFrames++), true);
+                if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                    throw new RuntimeDataException(ErrorCode.UTIL_DATAFLOW_UTILS_TUPLE_TOO_LARGE);
+                }
+            }
+        }
+    }
+}
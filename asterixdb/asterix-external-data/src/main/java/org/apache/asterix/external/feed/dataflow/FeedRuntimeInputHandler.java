@@ -19,10 +19,14 @@
 package org.apache.asterix.external.feed.dataflow;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.active.ActiveRuntimeId;
+import org.apache.asterix.active.EntityId;
 import org.apache.asterix.common.memory.ConcurrentFramePool;
 import org.apache.asterix.common.memory.FrameAction;
 import org.apache.asterix.external.feed.management.FeedConnectionId;
@@ -47,6 +51,10 @@ import org.apache.logging.log4j.Logger;
  * ^^^^^^^^^^^^|______|............
  * .Input Side.
  * ..Handler...
+ * Frames are handed to the core operator through a bounded ring. The frames held in memory are bounded by the feed's
+ * share of the node's feed frame pool and, optionally, by "max.buffer.size.in.memory". When the budget is exhausted,
+ * the policy decides whether to spill to disk, discard, or block the producer. With "throttle.on.congestion", the
+ * producer is slowed down as the buffer fills up so that the other policies kick in less often.
  **/
 public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperatorNodePushable {
 
@@ -56,6 +64,11 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
     private static final ByteBuffer POISON_PILL = ByteBuffer.allocate(0);
     private static final ByteBuffer SPILLED = ByteBuffer.allocate(0);
     private static final ByteBuffer FAIL = ByteBuffer.allocate(0);
+    // one slot for each of SPILLED, POISON_PILL and FAIL
+    private static final int CONTROL_SLOTS = 3;
+    private static final double THROTTLE_START = 0.8;
+    private static final double THROTTLE_RESUME = 0.5;
+    private static final long MAX_THROTTLE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
 
     private final FeedExceptionHandler exceptionHandler;
     private final FrameSpiller spiller;
@@ -66,12 +79,21 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
     private final Thread consumerThread;
     private final BlockingQueue<ByteBuffer> inbox;
     private final ConcurrentFramePool framePool;
+    private final EntityId feedId;
+    private final long maxBufferInMemory;
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicBoolean spillSignaled = new AtomicBoolean();
+    private final Object memoryLock = new Object();
+    private volatile boolean producerWaiting = false;
+    private volatile int maxQueueDepth = 0;
+    private volatile long throttleTime = 0;
     private Mode mode = Mode.PROCESS;
     private int total = 0;
     private int numDiscarded = 0;
     private int numSpilled = 0;
     private int numProcessedInMemory = 0;
     private int numStalled = 0;
+    private int numThrottled = 0;
 
     public FeedRuntimeInputHandler(IHyracksTaskContext ctx, FeedConnectionId connectionId, ActiveRuntimeId runtimeId,
             IFrameWriter writer, FeedPolicyAccessor fpa, FrameTupleAccessor fta, ConcurrentFramePool framePool)
@@ -83,25 +105,39 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         this.exceptionHandler = new FeedExceptionHandler(ctx, fta);
         this.fpa = fpa;
         this.framePool = framePool;
-        this.inbox = new LinkedBlockingQueue<>();
+        this.feedId = connectionId.getFeedId();
+        this.maxBufferInMemory = fpa.getMaxBufferInMemory();
+        this.initialFrameSize = ctx.getInitialFrameSize();
+        long maxMemoryBudget = maxBufferInMemory > 0 ? Math.min(maxBufferInMemory, framePool.getMaxFrameSize())
+                : framePool.getMaxFrameSize();
+        this.inbox = new ArrayBlockingQueue<>((int) (maxMemoryBudget / initialFrameSize) + CONTROL_SLOTS);
         this.consumer = new FrameTransporter();
         this.consumerThread = new Thread(consumer, "FeedRuntimeInputHandler-FrameTransporter");
-        this.initialFrameSize = ctx.getInitialFrameSize();
         this.frameAction = new FrameAction();
     }
 
     @Override
     public void open() throws HyracksDataException {
+        framePool.registerConsumer(feedId);
         writer.open();
         consumerThread.start();
     }
 
+    /**
+     * Unless "max.buffer.size.in.memory" is set, a runtime may buffer the share of the frame pool of its feed, so
+     * that the feeds running on a node do not compete for the whole pool.
+     */
+    private long memoryBudget() {
+        long share = framePool.getConsumerShare();
+        return maxBufferInMemory > 0 ? Math.min(maxBufferInMemory, share) : share;
+    }
+
     @Override
     public void fail() throws HyracksDataException {
         ByteBuffer buffer = inbox.poll();
         while (buffer != null) {
             if (buffer != SPILLED) {
-                framePool.release(buffer);
+                release(buffer);
             }
             buffer = inbox.poll();
         }
@@ -133,6 +169,10 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         } catch (Throwable th) {
             LOGGER.log(Level.WARN, "exception closing spiller", th);
         } finally {
+            framePool.deregisterConsumer(feedId);
+            if (fpa.loggingStatistics() && LOGGER.isInfoEnabled()) {
+                LOGGER.info("Input handler statistics: " + getStats());
+            }
             writer.close();
         }
     }
@@ -147,6 +187,9 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
             if (DEBUG) {
                 LOGGER.info("nextFrame() called. inputHandler is in mode: " + mode.toString());
             }
+            if (fpa.throttleOnCongestion()) {
+                throttle();
+            }
             switch (mode) {
                 case PROCESS:
                     process(frame);
@@ -177,6 +220,10 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
     }
 
     private ByteBuffer getFreeBuffer(int frameSize) throws HyracksDataException {
+        long used = bufferedBytes.get();
+        if (frameSize > framePool.getMaxFrameSize() || (used > 0 && used + frameSize > memoryBudget())) {
+            return null;
+        }
         int numFrames = frameSize / initialFrameSize;
         if (numFrames == 1) {
             return framePool.get();
@@ -195,6 +242,7 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
             }
             if (spiller.spill(frame)) {
                 numSpilled++;
+                signalSpilled();
                 mode = Mode.SPILL;
                 return;
             }
@@ -209,7 +257,7 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
                 }
                 numProcessedInMemory++;
                 next.put(frame);
-                inbox.put(next);
+                enqueue(next);
                 mode = Mode.PROCESS;
                 return;
             }
@@ -265,17 +313,18 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
             waitforSpillSpace();
             spiller.spill(frame);
             numSpilled++;
-            inbox.put(SPILLED);
+            signalSpilled();
             return;
         }
         if (DEBUG) {
             LOGGER.info("in stall(frame). Spilling is disabled. We will subscribe to frame pool");
         }
-        // Spilling is disabled, we subscribe to feedMemoryManager
+        // Spilling is disabled, we wait for our own budget then subscribe to feedMemoryManager
+        awaitBufferedBytes(Math.max(0, memoryBudget() - frame.capacity()), Long.MAX_VALUE);
         frameAction.setFrame(frame);
         framePool.subscribe(frameAction);
         ByteBuffer temp = frameAction.retrieve();
-        inbox.put(temp);
+        enqueue(temp);
         numProcessedInMemory++;
         if (DEBUG) {
             LOGGER.info("stall(frame) has been completed. Notifying the consumer that a frame is ready");
@@ -297,12 +346,12 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
 
     private void process(ByteBuffer frame) throws HyracksDataException, InterruptedException {
         // Get a page from frame pool
-        ByteBuffer next = (frame.capacity() <= framePool.getMaxFrameSize()) ? getFreeBuffer(frame.capacity()) : null;
+        ByteBuffer next = getFreeBuffer(frame.capacity());
         if (next != null) {
             // Got a page from memory pool
             numProcessedInMemory++;
             next.put(frame);
-            inbox.put(next);
+            enqueue(next);
         } else {
             if (DEBUG) {
                 LOGGER.info("Couldn't allocate memory --> exitProcessState(frame)");
@@ -315,26 +364,23 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
     private void spill(ByteBuffer frame) throws HyracksDataException, InterruptedException {
         if (spiller.switchToMemory()) {
             // Check if there is memory
-            ByteBuffer next = null;
-            if (frame.capacity() <= framePool.getMaxFrameSize()) {
-                next = getFreeBuffer(frame.capacity());
-            }
+            ByteBuffer next = getFreeBuffer(frame.capacity());
             if (next != null) {
                 spiller.close();
                 numProcessedInMemory++;
                 next.put(frame);
-                inbox.put(next);
+                enqueue(next);
                 mode = Mode.PROCESS;
             } else {
                 // spill. This will always succeed since spilled = 0 (TODO must verify that budget can't be 0)
                 spiller.spill(frame);
                 numSpilled++;
-                inbox.put(SPILLED);
+                signalSpilled();
             }
         } else {
             // try to spill. If failed switch to either discard or stall
             if (spiller.spill(frame)) {
-                inbox.put(SPILLED);
+                signalSpilled();
                 numSpilled++;
             } else {
                 if (fpa.discardOnCongestion()) {
@@ -347,6 +393,58 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         }
     }
 
+    private void enqueue(ByteBuffer buffer) throws InterruptedException {
+        bufferedBytes.addAndGet(buffer.capacity());
+        inbox.put(buffer);
+        int depth = inbox.size();
+        if (depth > maxQueueDepth) {
+            maxQueueDepth = depth;
+        }
+    }
+
+    private void release(ByteBuffer buffer) throws HyracksDataException {
+        framePool.release(buffer);
+        bufferedBytes.addAndGet(-buffer.capacity());
+        if (producerWaiting) {
+            synchronized (memoryLock) {
+                memoryLock.notifyAll();
+            }
+        }
+    }
+
+    private void signalSpilled() throws InterruptedException {
+        // a single pending marker is enough since the consumer drains the spiller until it is empty
+        if (spillSignaled.compareAndSet(false, true)) {
+            inbox.put(SPILLED);
+        }
+    }
+
+    private void throttle() throws InterruptedException {
+        long memoryBudget = memoryBudget();
+        if (memoryBudget == 0 || bufferedBytes.get() < memoryBudget * THROTTLE_START) {
+            return;
+        }
+        long start = System.nanoTime();
+        awaitBufferedBytes((long) (memoryBudget * THROTTLE_RESUME), start + MAX_THROTTLE_NANOS);
+        numThrottled++;
+        throttleTime += System.nanoTime() - start;
+    }
+
+    private void awaitBufferedBytes(long limit, long deadline) throws InterruptedException {
+        synchronized (memoryLock) {
+            producerWaiting = true;
+            try {
+                long now = System.nanoTime();
+                while (bufferedBytes.get() > limit && now < deadline && consumer.cause() == null) {
+                    TimeUnit.NANOSECONDS.timedWait(memoryLock, deadline - now);
+                    now = System.nanoTime();
+                }
+            } finally {
+                producerWaiting = false;
+            }
+        }
+    }
+
     public int getNumDiscarded() {
         return numDiscarded;
     }
@@ -363,6 +461,38 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         return numStalled;
     }
 
+    public int getNumThrottled() {
+        return numThrottled;
+    }
+
+    public long getThrottleTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(throttleTime);
+    }
+
+    public int getQueueDepth() {
+        return inbox.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    public long getSpilledBytes() {
+        return spiller == null ? 0 : spiller.getSpilledBytes();
+    }
+
+    public String getStats() {
+        return "{\"queue-depth\": " + getQueueDepth() + ", \"max-queue-depth\": " + maxQueueDepth
+                + ", \"buffered-bytes\": " + getBufferedBytes() + ", \"spilled-frames\": " + numSpilled
+                + ", \"spilled-bytes\": " + getSpilledBytes() + ", \"discarded-frames\": " + numDiscarded
+                + ", \"stalled-frames\": " + numStalled + ", \"throttled-frames\": " + numThrottled
+                + ", \"throttle-time-ms\": " + getThrottleTimeMs() + "}";
+    }
+
     private class FrameTransporter implements Runnable {
         private volatile Throwable cause;
         private int consumed = 0;
@@ -415,6 +545,7 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
                         frame = inbox.take();
                     }
                     if (frame == SPILLED) {
+                        spillSignaled.set(false);
                         running = clearLocalFrames();
                     } else if (frame == POISON_PILL) {
                         running = false;
@@ -429,7 +560,7 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
                         try {
                             running = consume(frame) == null;
                         } finally {
-                            framePool.release(frame);
+                            release(frame);
                         }
                     }
                 }
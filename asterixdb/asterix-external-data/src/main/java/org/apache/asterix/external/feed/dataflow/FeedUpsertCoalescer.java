@@ -0,0 +1,414 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.feed.dataflow;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.common.memory.ConcurrentFramePool;
+import org.apache.asterix.external.feed.policy.FeedPolicyAccessor;
+import org.apache.asterix.external.util.FeedUtils;
+import org.apache.hyracks.api.comm.FrameHelper;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.CleanupUtils;
+import org.apache.hyracks.api.util.ExceptionUtils;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.dataflow.common.io.MessagingFrameTupleAppender;
+import org.apache.hyracks.dataflow.std.base.AbstractUnaryInputUnaryOutputOperatorNodePushable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Coalesces the records of an upsert feed before they are stored: within a window, only the latest version of each
+ * primary key is kept, so a key that is updated many times is written (and logged) once per window. The records and
+ * keys of the window are kept in "coalesce.window.frames" frames taken from the feed frame pool of the node. The
+ * window is closed, and its records are passed on, when these frames are full, when a frame arrives after its oldest
+ * record has waited "coalesce.window.ms" milliseconds, and when the feed is flushed or closed. Feed sources flush
+ * when they run out of records, so an idle feed does not hold records back. Keys keep the order in which they
+ * entered the window. When the frame pool has no frame left for the window, the records are passed on as they come.
+ * The coalescer takes the feed message out of the incoming frames itself. With the "strict" durability, a marker
+ * closes the window and is passed on with its last frame, so it is only logged after the records that came before
+ * it. With the "relaxed" durability, a marker is passed on right away with an empty frame, and the records that are
+ * still in the window are lost if the feed fails before the window is closed.
+ */
+public class FeedUpsertCoalescer extends AbstractUnaryInputUnaryOutputOperatorNodePushable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final FrameTupleAccessor fta;
+    private final FrameTupleReference tuple = new FrameTupleReference();
+    private final FrameTupleAppender appender;
+    private final VSizeFrame message;
+    private final int[] keyFields;
+    private final long windowNanos;
+    private final int windowFrames;
+    private final boolean strict;
+    private final ConcurrentFramePool framePool;
+    // the frames which hold the keys and records of the window
+    private final List<ByteBuffer> frames = new ArrayList<>();
+    private final Map<Key, Version> window = new LinkedHashMap<>();
+    private final ArrayBackedValueStorage keyStorage = new ArrayBackedValueStorage();
+    private final Key probe = new Key();
+    private int frameIndex;
+    private int framePosition;
+    private boolean reserved = false;
+    private byte[] savedMessage = new byte[0];
+    private int savedMessageLength;
+    private long windowStart;
+    private long numRecords = 0;
+    private long numCoalesced = 0;
+
+    public FeedUpsertCoalescer(IHyracksTaskContext ctx, IFrameWriter writer, RecordDescriptor recordDesc,
+            VSizeFrame message, int[] keyFields, FeedPolicyAccessor fpa, ConcurrentFramePool framePool)
+            throws HyracksDataException {
+        this.writer = writer;
+        this.fta = new FrameTupleAccessor(recordDesc);
+        this.appender = new FrameTupleAppender(new VSizeFrame(ctx));
+        this.message = message;
+        this.keyFields = keyFields;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(fpa.getCoalesceWindowMillis());
+        this.windowFrames = Math.max(1, fpa.getCoalesceWindowFrames());
+        this.strict = fpa.coalesceDurabilityStrict();
+        this.framePool = framePool;
+    }
+
+    @Override
+    public void open() throws HyracksDataException {
+        writer.open();
+    }
+
+    /**
+     * Takes as many of the requested frames as the feed memory can spare
+     */
+    private void reserveFrames() {
+        reserved = true;
+        int n = windowFrames;
+        while (n > 0 && !framePool.get(frames, n)) {
+            n /= 2;
+        }
+        if (frames.isEmpty()) {
+            LOGGER.warn("No feed memory left for the coalescing window, the records are not coalesced");
+        }
+    }
+
+    @Override
+    public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        if (!reserved) {
+            reserveFrames();
+        }
+        FeedUtils.processFeedMessage(buffer, message, fta);
+        if (frames.isEmpty()) {
+            writer.nextFrame(buffer);
+            return;
+        }
+        fta.reset(buffer);
+        long now = System.nanoTime();
+        int tupleCount = fta.getTupleCount();
+        for (int i = 0; i < tupleCount; i++) {
+            add(i, now);
+        }
+        if (MessagingFrameTupleAppender.getMessageType(message) == MessagingFrameTupleAppender.MARKER_MESSAGE) {
+            if (strict) {
+                closeWindow(true);
+            } else {
+                appender.write(writer, true);
+            }
+            // the marker has been passed on, it must not go with a later frame again
+            clearMessage();
+        } else if (!window.isEmpty() && now - windowStart >= windowNanos) {
+            closeWindow(true);
+        }
+    }
+
+    private void add(int tupleIndex, long now) throws HyracksDataException {
+        tuple.reset(fta, tupleIndex);
+        keyStorage.reset();
+        try {
+            for (int field : keyFields) {
+                keyStorage.getDataOutput().write(tuple.getFieldData(field), tuple.getFieldStart(field),
+                        tuple.getFieldLength(field));
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        byte[] source = fta.getBuffer().array();
+        int offset = fta.getTupleStartOffset(tupleIndex);
+        int length = fta.getTupleLength(tupleIndex);
+        numRecords++;
+        probe.set(keyStorage.getByteArray(), 0, keyStorage.getLength());
+        Version version = window.get(probe);
+        if (version != null) {
+            numCoalesced++;
+            if (length <= version.capacity) {
+                // the new version takes the place of the old one
+                version.set(source, offset, length);
+                return;
+            }
+            if (allocate(length)) {
+                version.allocate(frames.get(frameIndex), framePosition, length);
+                framePosition += length;
+                version.set(source, offset, length);
+                return;
+            }
+        }
+        int keyLength = keyStorage.getLength();
+        if (!allocate(keyLength + length)) {
+            // the window is full, the records in it go first
+            closeWindow(false);
+            if (!allocate(keyLength + length)) {
+                // larger than a frame of the window
+                passOn(source, offset, length);
+                return;
+            }
+        }
+        if (window.isEmpty()) {
+            windowStart = now;
+        }
+        ByteBuffer frame = frames.get(frameIndex);
+        System.arraycopy(keyStorage.getByteArray(), 0, frame.array(), framePosition, keyLength);
+        Key key = new Key();
+        key.set(frame.array(), framePosition, keyLength);
+        framePosition += keyLength;
+        version = new Version();
+        version.allocate(frame, framePosition, length);
+        framePosition += length;
+        version.set(source, offset, length);
+        window.put(key, version);
+    }
+
+    /**
+     * Finds the room for the given number of bytes in the frames of the window
+     *
+     * @return true if the room starts at the position of the current frame, false if the window is full
+     */
+    private boolean allocate(int length) {
+        while (frameIndex < frames.size()) {
+            if (frames.get(frameIndex).capacity() - framePosition >= length) {
+                return true;
+            }
+            frameIndex++;
+            framePosition = 0;
+        }
+        return false;
+    }
+
+    private void passOn(byte[] source, int offset, int length) throws HyracksDataException {
+        boolean marker = isMarker();
+        if (marker) {
+            saveMessage();
+        }
+        try {
+            appender.append(source, offset, length);
+            appender.write(writer, true);
+        } finally {
+            if (marker) {
+                restoreMessage();
+            }
+        }
+    }
+
+    /**
+     * Passes the records of the window on. A marker is hidden from all the frames but the last one, so that it is
+     * logged after all of them, and from all the frames if it is not to be passed on.
+     */
+    private void closeWindow(boolean withMessage) throws HyracksDataException {
+        boolean marker = isMarker();
+        if (window.isEmpty() && !(marker && withMessage)) {
+            return;
+        }
+        if (marker) {
+            saveMessage();
+        }
+        try {
+            for (Version version : window.values()) {
+                if (!appender.append(version.frame.array(), version.offset, version.length)) {
+                    appender.write(writer, true);
+                    appender.append(version.frame.array(), version.offset, version.length);
+                }
+            }
+            window.clear();
+            frameIndex = 0;
+            framePosition = 0;
+            if (!withMessage) {
+                appender.write(writer, true);
+            }
+        } finally {
+            if (marker) {
+                restoreMessage();
+            }
+        }
+        if (withMessage) {
+            appender.write(writer, true);
+        }
+    }
+
+    private boolean isMarker() throws HyracksDataException {
+        return MessagingFrameTupleAppender.getMessageType(message) == MessagingFrameTupleAppender.MARKER_MESSAGE;
+    }
+
+    private void saveMessage() {
+        ByteBuffer buffer = message.getBuffer();
+        savedMessageLength = buffer.limit();
+        if (savedMessage.length < savedMessageLength) {
+            savedMessage = new byte[savedMessageLength];
+        }
+        System.arraycopy(buffer.array(), 0, savedMessage, 0, savedMessageLength);
+        clearMessage();
+    }
+
+    private void clearMessage() {
+        ByteBuffer buffer = message.getBuffer();
+        buffer.clear();
+        buffer.put(MessagingFrameTupleAppender.NULL_FEED_MESSAGE);
+        buffer.flip();
+    }
+
+    private void restoreMessage() throws HyracksDataException {
+        message.reset();
+        message.ensureFrameSize(FrameHelper.calcAlignedFrameSizeToStore(1, savedMessageLength, message.getMinSize()));
+        ByteBuffer buffer = message.getBuffer();
+        buffer.clear();
+        buffer.put(savedMessage, 0, savedMessageLength);
+        buffer.flip();
+    }
+
+    private Throwable releaseFrames(Throwable th) {
+        window.clear();
+        try {
+            framePool.release(frames);
+        } catch (Throwable e) { // NOSONAR: Reported by the caller
+            th = ExceptionUtils.suppress(th, e);
+        }
+        frames.clear();
+        return th;
+    }
+
+    @Override
+    public void fail() throws HyracksDataException {
+        Throwable th = releaseFrames(null);
+        try {
+            writer.fail();
+        } catch (Throwable e) { // NOSONAR: Reported after the frames were released
+            th = ExceptionUtils.suppress(th, e);
+        }
+        if (th != null) {
+            throw HyracksDataException.create(th);
+        }
+    }
+
+    @Override
+    public void close() throws HyracksDataException {
+        Throwable th = null;
+        try {
+            closeWindow(true);
+        } catch (Throwable e) { // NOSONAR: Reported after closing the writer
+            th = e;
+        }
+        th = releaseFrames(th);
+        th = CleanupUtils.close(writer, th);
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Coalesced " + numCoalesced + " of the " + numRecords + " records of the feed");
+        }
+        if (th != null) {
+            throw HyracksDataException.create(th);
+        }
+    }
+
+    @Override
+    public void flush() throws HyracksDataException {
+        closeWindow(true);
+        writer.flush();
+    }
+
+    /**
+     * A key of the window, kept in a frame of the window
+     */
+    private static class Key {
+        private byte[] bytes;
+        private int offset;
+        private int length;
+        private int hash;
+
+        void set(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            int h = 1;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + bytes[offset + i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            if (length != other.length || hash != other.hash) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[offset + i] != other.bytes[other.offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The latest version of the record of a key, kept in a frame of the window
+     */
+    private static class Version {
+        private ByteBuffer frame;
+        private int offset;
+        private int capacity;
+        private int length;
+
+        void allocate(ByteBuffer frame, int offset, int capacity) {
+            this.frame = frame;
+            this.offset = offset;
+            this.capacity = capacity;
+        }
+
+        void set(byte[] source, int sourceOffset, int length) {
+            System.arraycopy(source, sourceOffset, frame.array(), offset, length);
+            this.length = length;
+        }
+    }
+}
@@ -27,6 +27,10 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.asterix.common.utils.StoragePathUtil;
 import org.apache.hyracks.api.comm.VSizeFrame;
@@ -41,25 +45,40 @@ import org.apache.logging.log4j.Logger;
  * cannot process incoming data at its arrival rate. The maximum size of data (tuples) that can be spilled to disk is
  * configured using the property
  * "max.spill.size.on.disk"
+ * Spilled frames are copied into a small set of write-behind buffers and written to disk by a dedicated writer thread
+ * so that the producer does not wait on disk I/O. The reader only sees frames once they have been flushed.
  */
 public class FrameSpiller {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int FRAMES_PER_FILE = 1024;
+    private static final int WRITE_BEHIND_FRAMES = 8;
+    private static final long WRITE_BUFFER_WAIT_MS = 100;
+    private static final ByteBuffer STOP = ByteBuffer.allocate(0);
     public static final double MAX_SPILL_USED_BEFORE_RESUME = 0.8;
 
     private final String fileNamePrefix;
     private final ArrayDeque<File> files = new ArrayDeque<>();
     private final VSizeFrame frame;
     private final int budget; // Max current frames in disk allowed
-    private BufferedOutputStream bos; // Current output stream
+    private final BlockingQueue<ByteBuffer> freeWriteBuffers = new ArrayBlockingQueue<>(WRITE_BEHIND_FRAMES);
+    private final BlockingQueue<ByteBuffer> pendingWrites = new ArrayBlockingQueue<>(WRITE_BEHIND_FRAMES + 1);
+    // files created by the producer for the writer thread to continue with once the current file is full
+    private final BlockingQueue<File> nextWriteFiles = new LinkedBlockingQueue<>();
+    private BufferedOutputStream bos; // Current output stream (used by the writer thread only)
     private BufferedInputStream bis; // Current input stream
     private File currentWriteFile; // Current write file
     private File currentReadFile; // Current read file
-    private int currentWriteCount = 0; // Current file write count
+    private Thread writerThread; // Writes spilled frames to disk
+    private volatile Throwable writeFailure; // Failure of the writer thread
+    private int allocatedWriteBuffers = 0; // How many write-behind buffers were created?
+    private int currentWriteCount = 0; // Current file write count (used by the writer thread only)
+    private int currentSpillCount = 0; // Current file spill count (used by the producer only)
     private int currentReadCount = 0; // Current file read count
     private int totalWriteCount = 0; // Total frames spilled
+    private int totalFlushedCount = 0; // Total frames flushed to disk
     private int totalReadCount = 0; // Total frames read
     private int fileCount = 0; // How many spill files?
+    private volatile long spilledBytes = 0; // Total bytes spilled since creation
 
     public FrameSpiller(IHyracksTaskContext ctx, String fileNamePrefix, long budgetInBytes)
             throws HyracksDataException {
@@ -81,6 +100,10 @@ public class FrameSpiller {
             LOGGER.fatal("Unable to create spill file", e);
             throw HyracksDataException.create(e);
         }
+        writeFailure = null;
+        writerThread = new Thread(this::write, "FrameSpiller-Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
     }
 
     public boolean switchToMemory() {
@@ -91,12 +114,21 @@ public class FrameSpiller {
         return totalWriteCount - totalReadCount;
     }
 
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
     public synchronized ByteBuffer next() throws HyracksDataException {
         frame.reset();
         if (totalReadCount == totalWriteCount) {
             return null;
         }
         try {
+            // wait for the writer to make the frame durable
+            while (totalFlushedCount == totalReadCount) {
+                checkWriteFailure();
+                wait();
+            }
             if (currentReadFile == null) {
                 if (!files.isEmpty()) {
                     currentReadFile = files.pop();
@@ -128,12 +160,13 @@ public class FrameSpiller {
                 }
             }
             return frame.getBuffer();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
         } catch (Exception e) {
             throw HyracksDataException.create(e);
         } finally {
-            synchronized (this) {
-                notify();
-            }
+            notifyAll();
         }
     }
 
@@ -141,30 +174,132 @@ public class FrameSpiller {
         return (double) (totalWriteCount - totalReadCount) / (double) budget;
     }
 
-    public synchronized boolean spill(ByteBuffer frame) throws HyracksDataException {
-        try {
+    public boolean spill(ByteBuffer frame) throws HyracksDataException {
+        synchronized (this) {
+            checkWriteFailure();
             if (totalWriteCount - totalReadCount >= budget) {
                 return false;
             }
-            currentWriteCount++;
             totalWriteCount++;
-            bos.write(frame.array());
-            bos.flush();
-            if (currentWriteCount >= FRAMES_PER_FILE) {
-                bos.close();
-                currentWriteCount = 0;
-                currentWriteFile = StoragePathUtil.createFile(fileNamePrefix, fileCount++);
-                files.add(currentWriteFile);
-                bos = new BufferedOutputStream(new FileOutputStream(currentWriteFile));
+            spilledBytes += frame.capacity();
+        }
+        try {
+            ByteBuffer buffer = getWriteBuffer(frame.capacity());
+            System.arraycopy(frame.array(), 0, buffer.array(), 0, frame.capacity());
+            if (++currentSpillCount >= FRAMES_PER_FILE) {
+                // this frame fills the current file, the writer continues with the next one
+                currentSpillCount = 0;
+                nextWriteFiles.add(StoragePathUtil.createFile(fileNamePrefix, fileCount++));
             }
+            pendingWrites.put(buffer);
             return true;
-        } catch (IOException e) {
-            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw HyracksDataException.create(e);
         }
     }
 
-    public synchronized void close() {
+    private ByteBuffer getWriteBuffer(int size) throws InterruptedException, HyracksDataException {
+        ByteBuffer buffer = freeWriteBuffers.poll();
+        if (buffer == null && allocatedWriteBuffers < WRITE_BEHIND_FRAMES) {
+            allocatedWriteBuffers++;
+            buffer = ByteBuffer.allocate(size);
+        }
+        while (buffer == null) {
+            checkWriteFailure();
+            buffer = freeWriteBuffers.poll(WRITE_BUFFER_WAIT_MS, TimeUnit.MILLISECONDS);
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+        }
+        buffer.clear();
+        buffer.limit(size);
+        return buffer;
+    }
+
+    private void checkWriteFailure() throws HyracksDataException {
+        Throwable failure = writeFailure;
+        if (failure != null) {
+            throw HyracksDataException.create(failure);
+        }
+    }
+
+    private void write() {
+        try {
+            ByteBuffer buffer = pendingWrites.take();
+            while (buffer != STOP) {
+                int written = 0;
+                // write everything that is pending and flush once
+                while (buffer != null && buffer != STOP) {
+                    bos.write(buffer.array(), 0, buffer.limit());
+                    freeWriteBuffers.offer(buffer);
+                    written++;
+                    currentWriteCount++;
+                    if (currentWriteCount >= FRAMES_PER_FILE) {
+                        bos.close();
+                        currentWriteCount = 0;
+                        currentWriteFile = nextWriteFiles.remove();
+                        bos = new BufferedOutputStream(new FileOutputStream(currentWriteFile));
+                        synchronized (this) {
+                            files.add(currentWriteFile);
+                            totalFlushedCount += written;
+                            notifyAll();
+                        }
+                        written = 0;
+                    }
+                    buffer = pendingWrites.poll();
+                }
+                bos.flush();
+                synchronized (this) {
+                    totalFlushedCount += written;
+                    notifyAll();
+                }
+                if (buffer == null) {
+                    buffer = pendingWrites.take();
+                }
+            }
+        } catch (InterruptedException e) {
+            writeFailure = e;
+            Thread.currentThread().interrupt();
+        } catch (Throwable th) {
+            LOGGER.warn("Failure writing spilled frames", th);
+            writeFailure = th;
+        } finally {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private void stopWriter() {
+        Thread writer = writerThread;
+        if (writer == null) {
+            return;
+        }
+        writerThread = null;
+        try {
+            pendingWrites.put(STOP);
+            writer.join();
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while stopping the spill writer", e);
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+        }
+        pendingWrites.clear();
+        freeWriteBuffers.clear();
+        files.addAll(nextWriteFiles);
+        nextWriteFiles.clear();
+        allocatedWriteBuffers = 0;
+    }
+
+    public void close() {
+        stopWriter();
+        synchronized (this) {
+            doClose();
+        }
+    }
+
+    private void doClose() {
         // Do proper cleanup
         if (bos != null) {
             try {
@@ -198,8 +333,10 @@ public class FrameSpiller {
             }
         }
         currentWriteCount = 0;
+        currentSpillCount = 0;
         currentReadCount = 0;
         totalWriteCount = 0;
+        totalFlushedCount = 0;
         totalReadCount = 0;
     }
 }
@@ -49,6 +49,37 @@ public class FeedPolicyAccessor implements Serializable {
     /** maximum fraction of ingested data that can be discarded **/
     public static final String MAX_FRACTION_DISCARD = "max.fraction.discard";
 
+    /** the maximum size of data (frames) that a feed runtime can buffer in memory **/
+    public static final String MAX_BUFFER_SIZE_IN_MEMORY = "max.buffer.size.in.memory";
+
+    /** slow down the source before the in-memory buffer runs out if an operator cannot keep up **/
+    public static final String THROTTLE_ON_CONGESTION = "throttle.on.congestion";
+
+    /**
+     * --------------------------
+     * upsert coalescing configuration
+     * --------------------------
+     **/
+
+    /** keep only the latest version of each primary key that an upsert feed receives within a window **/
+    public static final String COALESCE_ENABLED = "coalesce.enabled";
+
+    /** the longest time (in milliseconds) that a record waits in the coalescing window **/
+    public static final String COALESCE_WINDOW_MS = "coalesce.window.ms";
+
+    /** the number of frames of the feed memory that hold the records of the coalescing window **/
+    public static final String COALESCE_WINDOW_FRAMES = "coalesce.window.frames";
+
+    /**
+     * "strict": a marker is only logged once the records received before it are stored;
+     * "relaxed": a marker is logged right away, so the records in the window may be lost on failure
+     **/
+    public static final String COALESCE_DURABILITY = "coalesce.durability";
+
+    public static final String COALESCE_DURABILITY_STRICT = "strict";
+
+    public static final String COALESCE_DURABILITY_RELAXED = "relaxed";
+
     /** elasticity **/
     public static final String ELASTIC = "elastic";
 
@@ -92,6 +123,35 @@ public class FeedPolicyAccessor implements Serializable {
         return getFloatPropertyValue(MAX_FRACTION_DISCARD, 0);
     }
 
+    public boolean coalesceEnabled() {
+        return getBooleanPropertyValue(COALESCE_ENABLED, false);
+    }
+
+    public long getCoalesceWindowMillis() {
+        return getLongPropertyValue(COALESCE_WINDOW_MS, 1000);
+    }
+
+    public int getCoalesceWindowFrames() {
+        return (int) getLongPropertyValue(COALESCE_WINDOW_FRAMES, 32);
+    }
+
+    public boolean coalesceDurabilityStrict() {
+        String v = feedPolicy.get(COALESCE_DURABILITY);
+        return v == null || !COALESCE_DURABILITY_RELAXED.equalsIgnoreCase(v);
+    }
+
+    public long getMaxBufferInMemory() {
+        return getLongPropertyValue(MAX_BUFFER_SIZE_IN_MEMORY, NO_LIMIT);
+    }
+
+    public boolean throttleOnCongestion() {
+        return getBooleanPropertyValue(THROTTLE_ON_CONGESTION, false);
+    }
+
+    public boolean loggingStatistics() {
+        return getBooleanPropertyValue(LOGGING_STATISTICS, false);
+    }
+
     private boolean getBooleanPropertyValue(String key, boolean defValue) {
         String v = feedPolicy.get(key);
         return v == null ? defValue : Boolean.valueOf(v);
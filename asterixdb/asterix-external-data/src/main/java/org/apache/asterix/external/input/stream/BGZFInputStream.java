@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.input.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.exceptions.RuntimeDataException;
+import org.apache.asterix.external.util.ExternalDataConstants;
+
+/**
+ * Decompresses a BGZF (blocked gzip) file. A BGZF file is a series of gzip members of at most 64KB whose headers
+ * carry the compressed size of the member, so any gzip reader can read it while a reader that starts in the middle
+ * of the file can find the next block. The stream starts at the first block at or after a given offset and never
+ * returns bytes of two blocks from a single read, which lets callers know the block of every byte they read.
+ */
+public class BGZFInputStream extends InputStream {
+
+    private static final int MAX_BLOCK_SIZE = 65536;
+    // ID1, ID2, CM, FLG, MTIME, XFL, OS and XLEN
+    private static final int HEADER_SIZE = 12;
+    // CRC32 and ISIZE
+    private static final int TRAILER_SIZE = 8;
+    private static final int SYNC_BUFFER_SIZE = 4096;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final ByteBuffer block = ByteBuffer.allocate(MAX_BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final byte[] data = new byte[MAX_BLOCK_SIZE];
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private int dataLength;
+    private int dataPosition;
+    // the offset of the block of the bytes that were read last
+    private long blockOffset;
+    private long nextBlockOffset;
+
+    public BGZFInputStream(FileChannel channel, long start) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.nextBlockOffset = start == 0 ? 0 : findBlock(start);
+        this.blockOffset = nextBlockOffset;
+    }
+
+    /**
+     * @return true if the file starts with a BGZF block
+     */
+    public static boolean isBGZF(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+                BGZFInputStream in = new BGZFInputStream(channel, 0)) {
+            return in.getBlockSize(0) > 0;
+        }
+    }
+
+    /**
+     * @return the offset in the compressed file of the block that contains the bytes returned by the last read
+     */
+    public long getBlockOffset() {
+        return blockOffset;
+    }
+
+    /**
+     * Skips the bytes up to and including the next line feed.
+     *
+     * @return false if the end of the file was reached before a line feed
+     */
+    public boolean skipLine() throws IOException {
+        while (dataPosition < dataLength || nextBlock()) {
+            while (dataPosition < dataLength) {
+                if (data[dataPosition++] == ExternalDataConstants.BYTE_LF) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (dataPosition == dataLength && !nextBlock()) {
+            return -1;
+        }
+        return data[dataPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (dataPosition == dataLength && !nextBlock()) {
+            return -1;
+        }
+        int read = Math.min(len, dataLength - dataPosition);
+        System.arraycopy(data, dataPosition, b, off, read);
+        dataPosition += read;
+        return read;
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    /**
+     * Decompresses the next non-empty block.
+     */
+    private boolean nextBlock() throws IOException {
+        while (nextBlockOffset < fileSize) {
+            int size = getBlockSize(nextBlockOffset);
+            if (size < 0) {
+                throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM);
+            }
+            block.clear();
+            block.limit(size);
+            readFully(block, nextBlockOffset);
+            int dataOffset = HEADER_SIZE + (block.getShort(HEADER_SIZE - 2) & 0xffff);
+            int expectedCrc = block.getInt(size - TRAILER_SIZE);
+            int uncompressedSize = block.getInt(size - TRAILER_SIZE / 2);
+            if (uncompressedSize < 0 || uncompressedSize > MAX_BLOCK_SIZE) {
+                throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM);
+            }
+            inflater.reset();
+            inflater.setInput(block.array(), dataOffset, size - dataOffset - TRAILER_SIZE);
+            int inflated = 0;
+            try {
+                while (inflated < uncompressedSize && !inflater.finished()) {
+                    int n = inflater.inflate(data, inflated, uncompressedSize - inflated);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += n;
+                }
+            } catch (DataFormatException e) {
+                throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM, e);
+            }
+            crc.reset();
+            crc.update(data, 0, inflated);
+            if (inflated != uncompressedSize || (int) crc.getValue() != expectedCrc) {
+                throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM);
+            }
+            blockOffset = nextBlockOffset;
+            nextBlockOffset += size;
+            dataLength = inflated;
+            dataPosition = 0;
+            if (inflated > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the offset of the first block at or after {@code start}, or the file size if there is none. A block
+     *         is a position with a valid BGZF header that is followed by another valid header or by the end of file
+     */
+    private long findBlock(long start) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SYNC_BUFFER_SIZE);
+        long offset = start;
+        while (offset + HEADER_SIZE < fileSize) {
+            buffer.clear();
+            int read = readFully(buffer, offset);
+            for (int i = 0; i + 3 < read; i++) {
+                if (buffer.get(i) == 31 && buffer.get(i + 1) == (byte) 139 && buffer.get(i + 2) == 8
+                        && (buffer.get(i + 3) & 4) != 0) {
+                    long candidate = offset + i;
+                    int size = getBlockSize(candidate);
+                    if (size > 0 && (candidate + size == fileSize || getBlockSize(candidate + size) > 0)) {
+                        return candidate;
+                    }
+                }
+            }
+            // the last three bytes may start a header
+            offset += Math.max(read - 3, 1);
+        }
+        return fileSize;
+    }
+
+    /**
+     * @return the size of the block whose header is at {@code offset} or -1 if there is no valid header there
+     */
+    private int getBlockSize(long offset) throws IOException {
+        if (offset + HEADER_SIZE + TRAILER_SIZE > fileSize) {
+            return -1;
+        }
+        block.clear();
+        block.limit(HEADER_SIZE);
+        readFully(block, offset);
+        if (block.get(0) != 31 || block.get(1) != (byte) 139 || block.get(2) != 8 || (block.get(3) & 4) == 0) {
+            return -1;
+        }
+        int extraLength = block.getShort(HEADER_SIZE - 2) & 0xffff;
+        if (HEADER_SIZE + extraLength + TRAILER_SIZE > MAX_BLOCK_SIZE
+                || offset + HEADER_SIZE + extraLength > fileSize) {
+            return -1;
+        }
+        block.limit(HEADER_SIZE + extraLength);
+        readFully(block, offset);
+        // look for the BC subfield which holds the block size minus one
+        int field = HEADER_SIZE;
+        while (field + 4 <= HEADER_SIZE + extraLength) {
+            int fieldLength = block.getShort(field + 2) & 0xffff;
+            if (block.get(field) == 'B' && block.get(field + 1) == 'C' && fieldLength == 2
+                    && field + 6 <= HEADER_SIZE + extraLength) {
+                int size = (block.getShort(field + 4) & 0xffff) + 1;
+                boolean valid = size >= HEADER_SIZE + extraLength + TRAILER_SIZE && offset + size <= fileSize;
+                return valid ? size : -1;
+            }
+            field += 4 + fieldLength;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads from {@code offset} until the buffer is full or the file ends, from the buffer position
+     *
+     * @return the number of bytes in the buffer
+     */
+    private int readFully(ByteBuffer buffer, long offset) throws IOException {
+        long position = offset + buffer.position();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        return buffer.position();
+    }
+}
@@ -21,12 +21,14 @@ package org.apache.asterix.external.input.stream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.exceptions.ExceptionUtils;
 import org.apache.asterix.external.api.AsterixInputStream;
 import org.apache.asterix.external.dataflow.AbstractFeedDataFlowController;
 import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.external.util.FeedLogManager;
 import org.apache.asterix.external.util.FileSystemWatcher;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -38,12 +40,19 @@ public class LocalFSInputStream extends AsterixInputStream {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private final FileSystemWatcher watcher;
-    private FileInputStream in;
+    // the configured compression of the files or null to detect it from their extensions
+    private final String compression;
+    private InputStream in;
     private byte lastByte;
     private File currentFile;
 
     public LocalFSInputStream(FileSystemWatcher watcher) {
+        this(watcher, null);
+    }
+
+    public LocalFSInputStream(FileSystemWatcher watcher, String compression) {
         this.watcher = watcher;
+        this.compression = compression;
     }
 
     @Override
@@ -105,7 +114,14 @@ public class LocalFSInputStream extends AsterixInputStream {
             currentFile = watcher.take();
         }
         if (currentFile != null) {
-            in = new FileInputStream(currentFile);
+            FileInputStream fileIn = new FileInputStream(currentFile);
+            try {
+                in = ExternalDataUtils.decompress(fileIn,
+                        ExternalDataUtils.getCompression(compression, currentFile.getName()));
+            } catch (IOException e) {
+                fileIn.close();
+                throw e;
+            }
             if (notificationHandler != null) {
                 notificationHandler.notifyNewSource();
             }
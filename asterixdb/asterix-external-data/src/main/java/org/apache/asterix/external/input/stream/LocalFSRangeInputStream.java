@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.input.stream;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.exceptions.ExceptionUtils;
+import org.apache.asterix.external.api.AsterixInputStream;
+import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.ExternalDataUtils;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Reads a list of byte ranges of local files. A range owns every line that starts inside it: reading begins at the
+ * first line boundary at or after the range start and continues past the range end up to the end of the last line
+ * that starts inside the range. Ranges of the same file that are read by different partitions therefore produce
+ * every line exactly once, as long as no record spans more than one line.
+ * <p>
+ * Compressed files are decompressed while they are read. A BGZF file is split by compressed offsets: a range owns
+ * the blocks that start inside it and every line that starts after the first line feed of its first block. Other
+ * compressed files cannot be split, so each is read whole by the range that contains its first byte.
+ */
+public class LocalFSRangeInputStream extends AsterixInputStream {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int SYNC_BUFFER_SIZE = 4096;
+    private final List<FileRange> ranges;
+    private int nextRange;
+    private FileRange currentRange;
+    private FileChannel channel;
+    // the decompressed bytes of a range of a BGZF file
+    private BGZFInputStream blocks;
+    // the decompressed bytes of a whole compressed file
+    private InputStream decompressed;
+    // position in the current file of the next byte to read
+    private long position;
+    private boolean endOfRange;
+    private byte lastByte;
+
+    public LocalFSRangeInputStream(List<FileRange> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Divides the bytes of the given files into {@code numRanges} contiguous parts of (almost) equal size and
+     * returns the file ranges that make up part {@code rangeIndex}.
+     *
+     * @param compression
+     *            the configured compression of the files or null to detect it from their extensions
+     */
+    public static List<FileRange> getRanges(List<File> files, int numRanges, int rangeIndex, String compression)
+            throws IOException {
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        long rangeStart = total / numRanges * rangeIndex + Math.min(rangeIndex, total % numRanges);
+        long rangeEnd = rangeStart + total / numRanges + (rangeIndex < total % numRanges ? 1 : 0);
+        List<FileRange> fileRanges = new ArrayList<>();
+        long fileStart = 0;
+        for (File file : files) {
+            long fileEnd = fileStart + file.length();
+            String fileCompression = ExternalDataUtils.getCompression(compression, file.getName());
+            boolean compressed = !ExternalDataConstants.COMPRESSION_NONE.equals(fileCompression);
+            boolean blocked = compressed && fileStart < fileEnd
+                    && ExternalDataConstants.COMPRESSION_GZIP.equals(fileCompression) && BGZFInputStream.isBGZF(file);
+            if (compressed && !blocked) {
+                if (fileStart < fileEnd && rangeStart <= fileStart && fileStart < rangeEnd) {
+                    fileRanges.add(new FileRange(file, 0, file.length(), fileCompression, false));
+                }
+            } else {
+                long start = Math.max(fileStart, rangeStart);
+                long end = Math.min(fileEnd, rangeEnd);
+                if (start < end) {
+                    fileRanges.add(new FileRange(file, start - fileStart, end - fileStart, fileCompression, blocked));
+                }
+            }
+            fileStart = fileEnd;
+        }
+        return fileRanges;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeRange();
+        nextRange = ranges.size();
+    }
+
+    private void closeRange() throws IOException {
+        if (channel != null) {
+            try {
+                if (blocks != null) {
+                    blocks.close();
+                }
+                if (decompressed != null) {
+                    decompressed.close();
+                }
+                channel.close();
+            } finally {
+                channel = null;
+                blocks = null;
+                decompressed = null;
+                currentRange = null;
+            }
+        }
+    }
+
+    /**
+     * Closes the current range and opens the next one, if any.
+     */
+    private boolean advance() throws IOException {
+        closeRange();
+        if (nextRange >= ranges.size()) {
+            return false;
+        }
+        currentRange = ranges.get(nextRange++);
+        channel = FileChannel.open(currentRange.getFile().toPath(), StandardOpenOption.READ);
+        position = currentRange.getStart();
+        if (currentRange.isBlocked()) {
+            blocks = new BGZFInputStream(channel, position);
+            // the line that contains the start of the first block belongs to the previous range
+            endOfRange = blocks.getBlockOffset() >= currentRange.getEnd()
+                    || (position > 0 && (!blocks.skipLine() || blocks.getBlockOffset() >= currentRange.getEnd()));
+        } else if (!ExternalDataConstants.COMPRESSION_NONE.equals(currentRange.getCompression())) {
+            decompressed =
+                    ExternalDataUtils.decompress(Channels.newInputStream(channel), currentRange.getCompression());
+            endOfRange = false;
+        } else {
+            if (position > 0) {
+                // the line that contains the range start belongs to the previous range
+                position = skipLine(position - 1);
+                channel.position(position);
+            }
+            endOfRange = position >= currentRange.getEnd();
+        }
+        if (notificationHandler != null && currentRange.getStart() == 0) {
+            notificationHandler.notifyNewSource();
+        }
+        return true;
+    }
+
+    /**
+     * @return the position that follows the first line feed at or after {@code from}, or the file size if there is
+     *         none
+     */
+    private long skipLine(long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SYNC_BUFFER_SIZE);
+        long offset = from;
+        int read;
+        while ((read = channel.read(buffer, offset)) > 0) {
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == ExternalDataConstants.BYTE_LF) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+            buffer.clear();
+        }
+        return offset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        throw new HyracksDataException(
+                "read() is not supported with this stream. use read(byte[] b, int off, int len)");
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (channel == null) {
+            if (!advance()) {
+                return -1;
+            }
+        }
+        int result = readRange(b, off, len);
+        while ((result < 0) && advance()) {
+            // return a new line at the end of every range whose last line is not terminated
+            if (lastByte != ExternalDataConstants.BYTE_LF) {
+                lastByte = ExternalDataConstants.BYTE_LF;
+                b[off] = ExternalDataConstants.BYTE_LF;
+                return 1;
+            }
+            result = readRange(b, off, len);
+        }
+        if (result > 0) {
+            lastByte = b[(off + result) - 1];
+        }
+        return result;
+    }
+
+    private int readRange(byte[] b, int off, int len) throws IOException {
+        if (endOfRange) {
+            return -1;
+        }
+        if (blocks != null) {
+            return readBlocks(b, off, len);
+        }
+        if (decompressed != null) {
+            int read = decompressed.read(b, off, len);
+            endOfRange = read < 0;
+            return read;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+        long end = currentRange.getEnd();
+        if (position < end) {
+            buffer.limit(off + (int) Math.min(len, end - position));
+            int read = channel.read(buffer);
+            if (read < 0) {
+                endOfRange = true;
+                return -1;
+            }
+            position += read;
+            // a line that starts exactly at the range end belongs to the next range
+            endOfRange = position == end && b[off + read - 1] == ExternalDataConstants.BYTE_LF;
+            return read;
+        }
+        // finish the last line that started inside the range
+        int read = channel.read(buffer);
+        if (read < 0) {
+            endOfRange = true;
+            return -1;
+        }
+        for (int i = 0; i < read; i++) {
+            if (b[off + i] == ExternalDataConstants.BYTE_LF) {
+                endOfRange = true;
+                read = i + 1;
+                break;
+            }
+        }
+        position += read;
+        return read;
+    }
+
+    private int readBlocks(byte[] b, int off, int len) throws IOException {
+        int read = blocks.read(b, off, len);
+        if (read < 0) {
+            endOfRange = true;
+            return -1;
+        }
+        if (blocks.getBlockOffset() >= currentRange.getEnd()) {
+            // finish the last line that started inside the range
+            for (int i = 0; i < read; i++) {
+                if (b[off + i] == ExternalDataConstants.BYTE_LF) {
+                    endOfRange = true;
+                    read = i + 1;
+                    break;
+                }
+            }
+        }
+        return read;
+    }
+
+    @Override
+    public boolean stop() throws Exception {
+        close();
+        return true;
+    }
+
+    @Override
+    public boolean handleException(Throwable th) {
+        if (channel == null) {
+            return false;
+        }
+        Throwable root = ExceptionUtils.getRootCause(th);
+        if (root instanceof HyracksDataException
+                && ((HyracksDataException) root).getErrorCode() == ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM) {
+            LOGGER.log(Level.WARN, "Corrupted input file: " + currentRange.getFile().getAbsolutePath());
+            try {
+                advance();
+                return true;
+            } catch (Exception e) {
+                LOGGER.log(Level.WARN, "An exception was thrown while trying to skip a file range", e);
+            }
+        }
+        LOGGER.log(Level.WARN, "Failed to recover from failure", th);
+        return false;
+    }
+
+    public static class FileRange {
+        private final File file;
+        private final long start;
+        private final long end;
+        private final String compression;
+        // whether the file is made of compressed blocks that can be read from any block
+        private final boolean blocked;
+
+        public FileRange(File file, long start, long end) {
+            this(file, start, end, ExternalDataConstants.COMPRESSION_NONE, false);
+        }
+
+        public FileRange(File file, long start, long end, String compression, boolean blocked) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.compression = compression;
+            this.blocked = blocked;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public String getCompression() {
+            return compression;
+        }
+
+        public boolean isBlocked() {
+            return blocked;
+        }
+
+        @Override
+        public String toString() {
+            return file + "[" + start + ", " + end + ")";
+        }
+    }
+}
@@ -18,10 +18,15 @@
  */
 package org.apache.asterix.external.input.stream.factory;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -34,9 +39,11 @@ import org.apache.asterix.external.api.IInputStreamFactory;
 import org.apache.asterix.external.api.INodeResolver;
 import org.apache.asterix.external.api.INodeResolverFactory;
 import org.apache.asterix.external.input.stream.LocalFSInputStream;
+import org.apache.asterix.external.input.stream.LocalFSRangeInputStream;
 import org.apache.asterix.external.util.ExternalDataConstants;
 import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.external.util.FileSystemWatcher;
+import org.apache.asterix.external.util.LocalFileSystemUtils;
 import org.apache.asterix.external.util.NodeResolverFactory;
 import org.apache.asterix.runtime.utils.RuntimeUtils;
 import org.apache.hyracks.algebricks.common.constraints.AlgebricksAbsolutePartitionConstraint;
@@ -59,6 +66,11 @@ public class LocalFSInputStreamFactory implements IInputStreamFactory {
     protected UnmanagedFileSplit[] inputFileSplits;
     protected boolean isFeed;
     protected String expression;
+    protected boolean splitFiles;
+    // the configured compression of the files or null to detect it from their extensions
+    protected String compression;
+    // the node of each partition; a node has one partition per file split or one per cluster partition
+    protected String[] partitionLocations;
     // transient fields (They don't need to be serialized and transferred)
     private transient AlgebricksAbsolutePartitionConstraint constraints;
     private transient FileSystemWatcher watcher;
@@ -66,6 +78,9 @@ public class LocalFSInputStreamFactory implements IInputStreamFactory {
     @Override
     public synchronized AsterixInputStream createInputStream(IHyracksTaskContext ctx, int partition)
             throws HyracksDataException {
+        if (splitFiles) {
+            return createRangeInputStream(ctx, partition);
+        }
         if (watcher == null) {
             String nodeName = ctx.getJobletContext().getServiceContext().getNodeId();
             ArrayList<Path> inputResources = new ArrayList<>();
@@ -76,7 +91,42 @@ public class LocalFSInputStreamFactory implements IInputStreamFactory {
             }
             watcher = new FileSystemWatcher(inputResources, expression, isFeed);
         }
-        return new LocalFSInputStream(watcher);
+        return new LocalFSInputStream(watcher, compression);
+    }
+
+    /**
+     * Every partition of a node reads the same files, so the partitions split their bytes evenly between them.
+     */
+    private AsterixInputStream createRangeInputStream(IHyracksTaskContext ctx, int partition)
+            throws HyracksDataException {
+        String nodeName = ctx.getJobletContext().getServiceContext().getNodeId();
+        List<File> files = new ArrayList<>();
+        try {
+            for (UnmanagedFileSplit split : inputFileSplits) {
+                if (split.getNodeName().equals(nodeName)) {
+                    LocalFileSystemUtils.traverse(files, split.getFile(), expression, new LinkedList<>());
+                }
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        files.sort(Comparator.comparing(File::getPath));
+        int numRanges = 0;
+        int rangeIndex = 0;
+        for (int i = 0; i < partitionLocations.length; i++) {
+            if (partitionLocations[i].equals(nodeName)) {
+                if (i < partition) {
+                    rangeIndex++;
+                }
+                numRanges++;
+            }
+        }
+        try {
+            return new LocalFSRangeInputStream(
+                    LocalFSRangeInputStream.getRanges(files, numRanges, rangeIndex, compression));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
     }
 
     @Override
@@ -93,12 +143,19 @@ public class LocalFSInputStreamFactory implements IInputStreamFactory {
     public void configure(IServiceContext serviceCtx, Map<String, String> configuration) throws AsterixException {
         this.configuration = configuration;
         String[] splits = configuration.get(ExternalDataConstants.KEY_PATH).split(",");
+        ICcApplicationContext appCtx = (ICcApplicationContext) serviceCtx.getApplicationContext();
         if (inputFileSplits == null) {
-            configureFileSplits((ICcApplicationContext) serviceCtx.getApplicationContext(), splits);
+            configureFileSplits(appCtx, splits);
         }
-        configurePartitionConstraint();
         this.isFeed = ExternalDataUtils.isFeed(configuration) && ExternalDataUtils.keepDataSourceOpen(configuration);
+        if (!isFeed) {
+            ExternalDataUtils.validateSplitFiles(configuration);
+        }
+        this.splitFiles = !isFeed && ExternalDataUtils.isSplitFiles(configuration);
+        configurePartitionConstraint(appCtx);
         this.expression = configuration.get(ExternalDataConstants.KEY_EXPRESSION);
+        ExternalDataUtils.validateCompression(configuration);
+        this.compression = configuration.get(ExternalDataConstants.KEY_COMPRESSION);
     }
 
     @Override
@@ -128,12 +185,20 @@ public class LocalFSInputStreamFactory implements IInputStreamFactory {
 
     }
 
-    private void configurePartitionConstraint() throws AsterixException {
+    private void configurePartitionConstraint(ICcApplicationContext appCtx) throws AsterixException {
         Set<String> locs = new TreeSet<>();
         for (int i = 0; i < inputFileSplits.length; i++) {
             locs.add(inputFileSplits[i].getNodeName());
         }
-        constraints = new AlgebricksAbsolutePartitionConstraint(locs.toArray(new String[locs.size()]));
+        List<String> partitions = new ArrayList<>();
+        for (String loc : locs) {
+            int numPartitions = splitFiles ? appCtx.getClusterStateManager().getNodePartitionsCount(loc) : 1;
+            for (int i = 0; i < Math.max(numPartitions, 1); i++) {
+                partitions.add(loc);
+            }
+        }
+        partitionLocations = partitions.toArray(new String[partitions.size()]);
+        constraints = new AlgebricksAbsolutePartitionConstraint(partitionLocations);
     }
 
     protected INodeResolver getNodeResolver() {
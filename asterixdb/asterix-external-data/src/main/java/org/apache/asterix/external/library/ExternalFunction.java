@@ -19,11 +19,13 @@
 package org.apache.asterix.external.library;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.apache.asterix.common.api.IApplicationContext;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.exceptions.RuntimeDataException;
 import org.apache.asterix.common.library.ILibraryManager;
+import org.apache.asterix.external.api.IExternalBatchScalarFunction;
 import org.apache.asterix.external.api.IExternalFunction;
 import org.apache.asterix.external.api.IFunctionFactory;
 import org.apache.asterix.external.api.IFunctionHelper;
@@ -37,6 +39,7 @@ import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.api.IValueReference;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
@@ -67,8 +70,6 @@ public abstract class ExternalFunction implements IExternalFunction {
         String functionLibary = fnameComponents[0];
         String dataverse = finfo.getFunctionIdentifier().getNamespace();
 
-        functionHelper = new JavaFunctionHelper(finfo, resultBuffer,
-                libraryManager.getFunctionParameters(dataverse, finfo.getFunctionIdentifier().getName()));
         ClassLoader libraryClassLoader = libraryManager.getLibraryClassLoader(dataverse, functionLibary);
         String classname = finfo.getFunctionBody().trim();
         Class<?> clazz;
@@ -79,25 +80,37 @@ public abstract class ExternalFunction implements IExternalFunction {
         } catch (Exception e) {
             throw new RuntimeDataException(ErrorCode.LIBRARY_EXTERNAL_FUNCTION_UNABLE_TO_LOAD_CLASS, e, classname);
         }
+        List<String> parameters =
+                libraryManager.getFunctionParameters(dataverse, finfo.getFunctionIdentifier().getName());
+        functionHelper = externalFunction instanceof IExternalBatchScalarFunction
+                ? new JavaBatchFunctionHelper(finfo, resultBuffer, parameters)
+                : new JavaFunctionHelper(finfo, resultBuffer, parameters);
     }
 
     public void setArguments(IFrameTupleReference tuple) throws AlgebricksException, IOException {
         for (int i = 0; i < evaluatorFactories.length; i++) {
-            argumentEvaluators[i].evaluate(tuple, inputVal);
+            functionHelper.setArgument(i, evaluateArgument(tuple, i));
+        }
+    }
+
+    protected IValueReference evaluateArgument(IFrameTupleReference tuple, int index)
+            throws AlgebricksException, IOException {
+        argumentEvaluators[index].evaluate(tuple, inputVal);
+        return castArgument(index, inputVal);
+    }
 
-            // Type-cast the source array based on the input type that this function wants to receive.
-            ATypeTag targetTypeTag = finfo.getArgumentList().get(i).getTypeTag();
-            ATypeTag sourceTypeTag = EnumDeserializer.ATYPETAGDESERIALIZER
-                    .deserialize(inputVal.getByteArray()[inputVal.getStartOffset()]);
-            if (sourceTypeTag != targetTypeTag) {
-                castBuffer.reset();
-                ATypeHierarchy.convertNumericTypeByteArray(inputVal.getByteArray(), inputVal.getStartOffset(),
-                        inputVal.getLength(), targetTypeTag, castBuffer.getDataOutput(), true);
-                functionHelper.setArgument(i, castBuffer);
-            } else {
-                functionHelper.setArgument(i, inputVal);
-            }
+    protected IValueReference castArgument(int index, IValueReference value) throws IOException {
+        // Type-cast the source array based on the input type that this function wants to receive.
+        ATypeTag targetTypeTag = finfo.getArgumentList().get(index).getTypeTag();
+        ATypeTag sourceTypeTag =
+                EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(value.getByteArray()[value.getStartOffset()]);
+        if (sourceTypeTag != targetTypeTag) {
+            castBuffer.reset();
+            ATypeHierarchy.convertNumericTypeByteArray(value.getByteArray(), value.getStartOffset(), value.getLength(),
+                    targetTypeTag, castBuffer.getDataOutput(), true);
+            return castBuffer;
         }
+        return value;
     }
 
     @Override
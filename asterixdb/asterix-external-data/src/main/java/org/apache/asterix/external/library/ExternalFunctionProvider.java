@@ -21,12 +21,16 @@ package org.apache.asterix.external.library;
 import org.apache.asterix.common.api.IApplicationContext;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.exceptions.RuntimeDataException;
+import org.apache.asterix.external.api.IExternalBatchScalarFunction;
 import org.apache.asterix.external.api.IExternalFunction;
 import org.apache.asterix.external.api.IExternalScalarFunction;
 import org.apache.asterix.external.api.IFunctionHelper;
 import org.apache.asterix.om.functions.IExternalFunctionInfo;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchResultStorage;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
@@ -49,11 +53,19 @@ public class ExternalFunctionProvider {
     }
 }
 
-class ExternalScalarFunction extends ExternalFunction implements IExternalScalarFunction, IScalarEvaluator {
+class ExternalScalarFunction extends ExternalFunction implements IExternalScalarFunction, IBatchScalarEvaluator {
+
+    // only used with batch functions
+    private final JavaBatchFunctionHelper batchHelper;
+    private IBatchScalarEvaluator[] batchArgumentEvaluators;
+    private IPointable[][] batchArguments;
+    private final BatchResultStorage batchResults = new BatchResultStorage();
 
     public ExternalScalarFunction(IExternalFunctionInfo finfo, IScalarEvaluatorFactory args[],
             IHyracksTaskContext context, IApplicationContext appCtx) throws HyracksDataException {
         super(finfo, args, context, appCtx);
+        batchHelper =
+                functionHelper instanceof JavaBatchFunctionHelper ? (JavaBatchFunctionHelper) functionHelper : null;
         try {
             initialize(functionHelper);
         } catch (Exception e) {
@@ -64,6 +76,16 @@ class ExternalScalarFunction extends ExternalFunction implements IExternalScalar
     @Override
     public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
         try {
+            if (batchHelper != null) {
+                // a batch of one
+                batchHelper.startBatch(1);
+                for (int i = 0; i < evaluatorFactories.length; i++) {
+                    batchHelper.setArgument(0, i, evaluateArgument(tuple, i));
+                }
+                evaluateBatch(1);
+                setResult(0, result);
+                return;
+            }
             setArguments(tuple);
             evaluate(functionHelper);
             result.set(resultBuffer.getByteArray(), resultBuffer.getStartOffset(), resultBuffer.getLength());
@@ -73,6 +95,56 @@ class ExternalScalarFunction extends ExternalFunction implements IExternalScalar
         }
     }
 
+    /**
+     * Evaluates the function for the selected tuples only. A batch function is called once for all of them, any other
+     * function once per tuple.
+     */
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+            throws HyracksDataException {
+        if (batchArgumentEvaluators == null) {
+            batchArgumentEvaluators = BatchEvaluatorUtil.asBatchEvaluators(argumentEvaluators);
+            batchArguments = new IPointable[argumentEvaluators.length][0];
+        }
+        for (int i = 0; i < batchArgumentEvaluators.length; i++) {
+            batchArguments[i] = BatchEvaluatorUtil.ensureCapacity(batchArguments[i], size);
+            batchArgumentEvaluators[i].evaluate(accessor, selection, size, batchArguments[i]);
+        }
+        try {
+            if (batchHelper != null) {
+                batchHelper.startBatch(size);
+                for (int row = 0; row < size; row++) {
+                    for (int i = 0; i < batchArguments.length; i++) {
+                        batchHelper.setArgument(row, i, castArgument(i, batchArguments[i][row]));
+                    }
+                }
+                evaluateBatch(size);
+                for (int row = 0; row < size; row++) {
+                    setResult(row, results[row]);
+                }
+                return;
+            }
+            batchResults.reset();
+            for (int row = 0; row < size; row++) {
+                for (int i = 0; i < batchArguments.length; i++) {
+                    functionHelper.setArgument(i, castArgument(i, batchArguments[i][row]));
+                }
+                evaluate(functionHelper);
+                batchResults.append(row, resultBuffer);
+                functionHelper.reset();
+            }
+            batchResults.getResults(results);
+        } catch (Exception e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public boolean mayHaveSideEffects() {
+        // external functions can keep state
+        return true;
+    }
+
     @Override
     public void evaluate(IFunctionHelper argumentProvider) throws HyracksDataException {
         try {
@@ -86,4 +158,15 @@ class ExternalScalarFunction extends ExternalFunction implements IExternalScalar
         }
     }
 
+    private void evaluateBatch(int size) throws Exception {
+        batchHelper.setBatchSize(size);
+        ((IExternalBatchScalarFunction) externalFunction).evaluate(batchHelper);
+    }
+
+    private void setResult(int row, IPointable result) throws HyracksDataException {
+        if (!batchHelper.isValidResult(row)) {
+            throw new RuntimeDataException(ErrorCode.EXTERNAL_UDF_RESULT_TYPE_ERROR);
+        }
+        result.set(batchHelper.getResult(row));
+    }
 }
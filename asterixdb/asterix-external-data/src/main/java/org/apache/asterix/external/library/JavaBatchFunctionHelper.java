@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.library;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.common.exceptions.AsterixException;
+import org.apache.asterix.external.api.IBatchFunctionHelper;
+import org.apache.asterix.external.api.IJObject;
+import org.apache.asterix.om.functions.IExternalFunctionInfo;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IDataOutputProvider;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * Holds the arguments and the results of a batch of tuples for an
+ * {@link org.apache.asterix.external.api.IExternalBatchScalarFunction}. The argument columns, the objects in them and
+ * the result buffers are reused from one batch to the next.
+ */
+public class JavaBatchFunctionHelper extends JavaFunctionHelper implements IBatchFunctionHelper {
+
+    private final IJObject[][] columns;
+    private ArrayBackedValueStorage[] results = new ArrayBackedValueStorage[0];
+    private boolean[] validResults = new boolean[0];
+    private int batchSize;
+
+    public JavaBatchFunctionHelper(IExternalFunctionInfo finfo, IDataOutputProvider outputProvider,
+            List<String> parameters) {
+        super(finfo, outputProvider, parameters);
+        this.columns = new IJObject[finfo.getArgumentList().size()][0];
+    }
+
+    /**
+     * Starts a new batch of at most size tuples, releasing the objects of the previous one
+     */
+    public void startBatch(int size) {
+        reset();
+        if (results.length < size) {
+            int oldLength = results.length;
+            results = Arrays.copyOf(results, size);
+            for (int i = oldLength; i < size; i++) {
+                results[i] = new ArrayBackedValueStorage();
+            }
+            validResults = new boolean[size];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new IJObject[size];
+            }
+        }
+        Arrays.fill(validResults, 0, size, false);
+        batchSize = 0;
+    }
+
+    /**
+     * Sets the number of tuples whose arguments were set in the current batch
+     */
+    public void setBatchSize(int size) {
+        batchSize = size;
+    }
+
+    public void setArgument(int row, int index, IValueReference valueReference) throws IOException, AsterixException {
+        columns[index][row] = toJObject(index, valueReference);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public IJObject[] getArguments(int index) {
+        return columns[index];
+    }
+
+    @Override
+    public void setResult(int row, IJObject result) throws HyracksDataException {
+        ArrayBackedValueStorage out = results[row];
+        out.reset();
+        validResults[row] = writeResult(result, out.getDataOutput());
+    }
+
+    public boolean isValidResult(int row) {
+        return validResults[row];
+    }
+
+    public IValueReference getResult(int row) {
+        return results[row];
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.asterix.external.library;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
@@ -70,7 +71,8 @@ public class JavaFunctionHelper implements IFunctionHelper {
         for (IAType param : finfo.getArgumentList()) {
             this.arguments[index++] = objectPool.allocate(param);
         }
-        this.resultHolder = objectPool.allocate(finfo.getReturnType());
+        // not taken from the pool so that it is never handed out as an argument after a reset
+        this.resultHolder = JTypeObjectFactory.INSTANCE.create(finfo.getReturnType());
         this.poolTypeInfo = new HashMap<>();
         this.parameters = parameters;
 
@@ -83,13 +85,21 @@ public class JavaFunctionHelper implements IFunctionHelper {
 
     @Override
     public void setResult(IJObject result) throws HyracksDataException {
+        isValidResult = writeResult(result, outputProvider.getDataOutput());
+    }
+
+    /**
+     * Serializes the result if it is of the declared return type
+     *
+     * @return true if the result was written, false otherwise
+     */
+    protected boolean writeResult(IJObject result, DataOutput out) throws HyracksDataException {
         if (result == null || checkInvalidReturnValueType(result, finfo.getReturnType())) {
-            isValidResult = false;
-        } else {
-            isValidResult = true;
-            result.serialize(outputProvider.getDataOutput(), true);
-            result.reset();
+            return false;
         }
+        result.serialize(out, true);
+        result.reset();
+        return true;
     }
 
     private boolean checkInvalidReturnValueType(IJObject result, IAType expectedType) {
@@ -111,6 +121,10 @@ public class JavaFunctionHelper implements IFunctionHelper {
     }
 
     public void setArgument(int index, IValueReference valueReference) throws IOException, AsterixException {
+        arguments[index] = toJObject(index, valueReference);
+    }
+
+    protected IJObject toJObject(int index, IValueReference valueReference) throws IOException, AsterixException {
         IVisitablePointable pointable = null;
         IJObject jObject = null;
         IAType type = finfo.getArgumentList().get(index);
@@ -135,7 +149,7 @@ public class JavaFunctionHelper implements IFunctionHelper {
                 jObject = pointableVisitor.visit((AFlatValuePointable) pointable, getTypeInfo(index, type));
                 break;
         }
-        arguments[index] = jObject;
+        return jObject;
     }
 
     private TypeInfo getTypeInfo(int index, IAType type) {
@@ -150,7 +164,7 @@ public class JavaFunctionHelper implements IFunctionHelper {
     @Override
     public IJObject getResultObject() {
         if (resultHolder == null) {
-            resultHolder = objectPool.allocate(finfo.getReturnType());
+            resultHolder = JTypeObjectFactory.INSTANCE.create(finfo.getReturnType());
         }
         return resultHolder;
     }
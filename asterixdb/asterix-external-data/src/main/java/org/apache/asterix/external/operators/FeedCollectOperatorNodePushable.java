@@ -44,6 +44,8 @@ public class FeedCollectOperatorNodePushable extends AbstractUnaryInputUnaryOutp
     private final FeedPolicyAccessor policyAccessor;
     private final ActiveManager activeManager;
     private final IHyracksTaskContext ctx;
+    private ActiveRuntimeId runtimeId;
+    private FeedRuntimeInputHandler inputHandler;
 
     public FeedCollectOperatorNodePushable(IHyracksTaskContext ctx, FeedConnectionId feedConnectionId,
             Map<String, String> feedPolicy, int partition) {
@@ -58,12 +60,12 @@ public class FeedCollectOperatorNodePushable extends AbstractUnaryInputUnaryOutp
     @Override
     public void initialize() throws HyracksDataException {
         try {
-            ActiveRuntimeId runtimeId =
-                    new ActiveRuntimeId(connectionId.getFeedId(), FeedRuntimeType.COLLECT.toString(), partition);
+            runtimeId = new ActiveRuntimeId(connectionId.getFeedId(), FeedRuntimeType.COLLECT.toString(), partition);
             FrameTupleAccessor tAccessor = new FrameTupleAccessor(recordDesc);
             if (policyAccessor.flowControlEnabled()) {
-                writer = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, writer, policyAccessor, tAccessor,
-                        activeManager.getFramePool());
+                inputHandler = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, writer, policyAccessor,
+                        tAccessor, activeManager.getFramePool());
+                writer = inputHandler;
             } else {
                 writer = new SyncFeedRuntimeInputHandler(ctx, writer, tAccessor);
             }
@@ -74,6 +76,9 @@ public class FeedCollectOperatorNodePushable extends AbstractUnaryInputUnaryOutp
 
     @Override
     public void open() throws HyracksDataException {
+        if (inputHandler != null) {
+            activeManager.registerInputHandler(runtimeId, inputHandler::getStats);
+        }
         writer.open();
     }
 
@@ -94,6 +99,12 @@ public class FeedCollectOperatorNodePushable extends AbstractUnaryInputUnaryOutp
 
     @Override
     public void close() throws HyracksDataException {
-        writer.close();
+        try {
+            writer.close();
+        } finally {
+            if (inputHandler != null) {
+                activeManager.deregisterInputHandler(runtimeId);
+            }
+        }
     }
 }
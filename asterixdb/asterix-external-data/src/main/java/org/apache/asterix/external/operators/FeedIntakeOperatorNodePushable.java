@@ -149,7 +149,8 @@ public class FeedIntakeOperatorNodePushable extends ActiveSourceOperatorNodePush
     @Override
     public String getStats() {
         if (adapter != null) {
-            return "{\"adapter-stats\": " + adapter.getStats() + "}";
+            return "{\"adapter-stats\": " + adapter.getStats() + ", \"input-handler-stats\": "
+                    + activeManager.getInputHandlerStats(runtimeId.getEntityId()) + "}";
         } else {
             return "\"Runtime stats is not available.\"";
         }
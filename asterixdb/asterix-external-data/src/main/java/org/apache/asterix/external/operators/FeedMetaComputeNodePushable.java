@@ -79,6 +79,8 @@ public class FeedMetaComputeNodePushable extends AbstractUnaryInputUnaryOutputOp
 
     private final IHyracksTaskContext ctx;
 
+    private ActiveRuntimeId runtimeId;
+
     private final FeedRuntimeType runtimeType = FeedRuntimeType.COMPUTE;
 
     private final VSizeFrame message;
@@ -114,7 +116,7 @@ public class FeedMetaComputeNodePushable extends AbstractUnaryInputUnaryOutputOp
 
     @Override
     public void open() throws HyracksDataException {
-        ActiveRuntimeId runtimeId = new ActiveRuntimeId(connectionId.getFeedId(), runtimeType.toString(), partition);
+        runtimeId = new ActiveRuntimeId(connectionId.getFeedId(), runtimeType.toString(), partition);
         try {
             initializeNewFeedRuntime(runtimeId);
             opened = true;
@@ -130,8 +132,10 @@ public class FeedMetaComputeNodePushable extends AbstractUnaryInputUnaryOutputOp
         FeedPolicyAccessor fpa = policyAccessor;
         coreOperator.setOutputFrameWriter(0, writer, recordDesc);
         if (fpa.flowControlEnabled()) {
-            writer = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, coreOperator, fpa, fta,
-                    feedManager.getFramePool());
+            FeedRuntimeInputHandler inputHandler = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId,
+                    coreOperator, fpa, fta, feedManager.getFramePool());
+            feedManager.registerInputHandler(runtimeId, inputHandler::getStats);
+            writer = inputHandler;
         } else {
             writer = new SyncFeedRuntimeInputHandler(ctx, coreOperator, fta);
         }
@@ -155,8 +159,14 @@ public class FeedMetaComputeNodePushable extends AbstractUnaryInputUnaryOutputOp
 
     @Override
     public void close() throws HyracksDataException {
-        if (opened) {
-            writer.close();
+        try {
+            if (opened) {
+                writer.close();
+            }
+        } finally {
+            if (runtimeId != null) {
+                feedManager.deregisterInputHandler(runtimeId);
+            }
         }
     }
 
@@ -26,11 +26,13 @@ import org.apache.asterix.active.ActiveRuntimeId;
 import org.apache.asterix.common.api.INcApplicationContext;
 import org.apache.asterix.common.dataflow.LSMInsertDeleteOperatorNodePushable;
 import org.apache.asterix.external.feed.dataflow.FeedRuntimeInputHandler;
+import org.apache.asterix.external.feed.dataflow.FeedUpsertCoalescer;
 import org.apache.asterix.external.feed.dataflow.SyncFeedRuntimeInputHandler;
 import org.apache.asterix.external.feed.management.FeedConnectionId;
 import org.apache.asterix.external.feed.policy.FeedPolicyAccessor;
 import org.apache.asterix.external.util.FeedUtils;
 import org.apache.asterix.external.util.FeedUtils.FeedRuntimeType;
+import org.apache.asterix.runtime.operators.LSMPrimaryUpsertOperatorNodePushable;
 import org.apache.hyracks.api.comm.VSizeFrame;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.IActivity;
@@ -82,6 +84,8 @@ public class FeedMetaStoreNodePushable extends AbstractUnaryInputUnaryOutputOper
 
     private final IHyracksTaskContext ctx;
 
+    private ActiveRuntimeId runtimeId;
+
     private final VSizeFrame message;
 
     private final IRecordDescriptorProvider recordDescProvider;
@@ -92,6 +96,9 @@ public class FeedMetaStoreNodePushable extends AbstractUnaryInputUnaryOutputOper
 
     private final long traceCategory;
 
+    /** Keeps the latest version of each key of an upsert feed within a window, if the policy asks for it **/
+    private FeedUpsertCoalescer coalescer;
+
     public FeedMetaStoreNodePushable(IHyracksTaskContext ctx, IRecordDescriptorProvider recordDescProvider,
             int partition, int nPartitions, IOperatorDescriptor coreOperator, FeedConnectionId feedConnectionId,
             Map<String, String> feedPolicyProperties, FeedMetaOperatorDescriptor feedMetaOperatorDescriptor)
@@ -114,7 +121,7 @@ public class FeedMetaStoreNodePushable extends AbstractUnaryInputUnaryOutputOper
 
     @Override
     public void open() throws HyracksDataException {
-        ActiveRuntimeId runtimeId = new ActiveRuntimeId(connectionId.getFeedId(),
+        runtimeId = new ActiveRuntimeId(connectionId.getFeedId(),
                 runtimeType.toString() + "." + connectionId.getDatasetName(), partition);
         try {
             initializeNewFeedRuntime(runtimeId);
@@ -136,19 +143,37 @@ public class FeedMetaStoreNodePushable extends AbstractUnaryInputUnaryOutputOper
             }
         }
         if (policyAccessor.flowControlEnabled()) {
-            writer = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, insertOperator, policyAccessor, fta,
-                    feedManager.getFramePool());
+            FeedRuntimeInputHandler inputHandler = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId,
+                    insertOperator, policyAccessor, fta, feedManager.getFramePool());
+            feedManager.registerInputHandler(runtimeId, inputHandler::getStats);
+            writer = inputHandler;
         } else {
             writer = new SyncFeedRuntimeInputHandler(ctx, insertOperator, fta);
         }
+        if (policyAccessor.coalesceEnabled()) {
+            if (insertOperator instanceof LSMPrimaryUpsertOperatorNodePushable) {
+                coalescer = new FeedUpsertCoalescer(ctx, writer,
+                        recordDescProvider.getInputRecordDescriptor(opDesc.getActivityId(), 0), message,
+                        ((LSMPrimaryUpsertOperatorNodePushable) insertOperator).getKeyFields(), policyAccessor,
+                        feedManager.getFramePool());
+                writer = coalescer;
+            } else {
+                LOGGER.warn("Records are only coalesced for upsert feeds, ignoring coalescing for " + connectionId);
+            }
+        }
     }
 
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
         long tid = tracer.durationB("Ingestion-Store", traceCategory, null);
         try {
-            FeedUtils.processFeedMessage(buffer, message, fta);
-            writer.nextFrame(buffer);
+            if (coalescer != null) {
+                // the coalescer takes the message out of the frame, as it decides when the message is passed on
+                coalescer.nextFrame(buffer);
+            } else {
+                FeedUtils.processFeedMessage(buffer, message, fta);
+                writer.nextFrame(buffer);
+            }
         } catch (Exception e) {
             LOGGER.log(Level.WARN, "Failure Processing a frame at store side", e);
             throw HyracksDataException.create(e);
@@ -164,7 +189,13 @@ public class FeedMetaStoreNodePushable extends AbstractUnaryInputUnaryOutputOper
 
     @Override
     public void close() throws HyracksDataException {
-        writer.close();
+        try {
+            writer.close();
+        } finally {
+            if (runtimeId != null) {
+                feedManager.deregisterInputHandler(runtimeId);
+            }
+        }
     }
 
     @Override
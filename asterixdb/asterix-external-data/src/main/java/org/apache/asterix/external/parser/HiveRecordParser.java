@@ -40,6 +40,7 @@ import org.apache.asterix.om.types.AUnorderedListType;
 import org.apache.asterix.om.types.IAType;
 import org.apache.asterix.om.utils.NonTaggedFormatUtil;
 import org.apache.hadoop.hive.serde.Constants;
+import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.hive.serde2.SerDe;
 import org.apache.hadoop.hive.serde2.objectinspector.ListObjectInspector;
 import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
@@ -74,6 +75,8 @@ public class HiveRecordParser implements IRecordDataParser<Writable> {
     private OrderedListBuilder orderedListBuilder;
     private UnorderedListBuilder unorderedListBuilder;
     private List<? extends StructField> fieldRefs;
+    // columns which are read from columnar files. the others are left missing
+    private boolean[] projected;
     private UTF8StringWriter utf8Writer = new UTF8StringWriter();
 
     public HiveRecordParser(ARecordType recordType, JobConf hadoopConfiguration, String hiveSerdeClassName)
@@ -81,7 +84,7 @@ public class HiveRecordParser implements IRecordDataParser<Writable> {
         try {
             this.recordType = recordType;
             int n = recordType.getFieldNames().length;
-            fieldTypes = recordType.getFieldTypes();
+            fieldTypes = new IAType[n];
             //create the hive table schema.
             Properties tbl = new Properties();
             tbl.put(Constants.LIST_COLUMNS, getCommaDelimitedColNames(this.recordType));
@@ -94,9 +97,17 @@ public class HiveRecordParser implements IRecordDataParser<Writable> {
             recBuilder.reset(recordType);
             recBuilder.init();
             fieldTypeTags = new byte[n];
+            projected = new boolean[n];
+            boolean readAllColumns = ColumnProjectionUtils.isReadAllColumns(hadoopConfiguration);
+            List<Integer> readColumnIds = ColumnProjectionUtils.getReadColumnIDs(hadoopConfiguration);
             for (int i = 0; i < n; i++) {
-                ATypeTag tag = recordType.getFieldTypes()[i].getTypeTag();
-                fieldTypeTags[i] = tag.serialize();
+                IAType fieldType = recordType.getFieldTypes()[i];
+                if (fieldType.getTypeTag() == ATypeTag.UNION) {
+                    fieldType = ((AUnionType) fieldType).getActualType();
+                }
+                fieldTypes[i] = fieldType;
+                fieldTypeTags[i] = fieldType.getTypeTag().serialize();
+                projected[i] = readAllColumns || readColumnIds.contains(i);
             }
             fieldRefs = oi.getAllStructFieldRefs();
         } catch (
@@ -120,12 +131,20 @@ public class HiveRecordParser implements IRecordDataParser<Writable> {
             recBuilder.init();
             for (int i = 0; i < n; i++) {
                 final Object value = attributesValues.get(i);
-                final ObjectInspector foi = fieldRefs.get(i).getFieldObjectInspector();
+                if (!projected[i]) {
+                    // the column was not read, leave the field missing
+                    continue;
+                }
                 fieldValueBuffer.reset();
                 final DataOutput dataOutput = fieldValueBuffer.getDataOutput();
-                dataOutput.writeByte(fieldTypeTags[i]);
-                //get field type
-                parseItem(fieldTypes[i], value, foi, dataOutput, false);
+                if (value == null && NonTaggedFormatUtil.isOptional(recordType.getFieldTypes()[i])) {
+                    dataOutput.writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+                } else {
+                    final ObjectInspector foi = fieldRefs.get(i).getFieldObjectInspector();
+                    dataOutput.writeByte(fieldTypeTags[i]);
+                    //get field type
+                    parseItem(fieldTypes[i], value, foi, dataOutput, false);
+                }
                 recBuilder.addField(i, fieldValueBuffer);
             }
             recBuilder.write(out, true);
@@ -220,7 +239,7 @@ public class HiveRecordParser implements IRecordDataParser<Writable> {
         final IAType type = types[i];
         ATypeTag tag = type.getTypeTag();
         if (tag == ATypeTag.UNION) {
-            if (NonTaggedFormatUtil.isOptional(type)) {
+            if (!NonTaggedFormatUtil.isOptional(type)) {
                 throw new RuntimeDataException(ErrorCode.PARSER_HIVE_NOT_SUPPORT_NON_OP_UNION);
             }
             tag = ((AUnionType) type).getActualType().getTypeTag();
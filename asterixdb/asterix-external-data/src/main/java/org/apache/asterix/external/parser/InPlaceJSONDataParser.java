@@ -0,0 +1,713 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.parser;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.builders.IARecordBuilder;
+import org.apache.asterix.builders.IAsterixListBuilder;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.exceptions.RuntimeDataException;
+import org.apache.asterix.external.api.IRawRecord;
+import org.apache.asterix.external.api.IRecordDataParser;
+import org.apache.asterix.external.parser.jackson.ADMToken;
+import org.apache.asterix.external.parser.jackson.ParserContext;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AUnorderedList;
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AbstractCollectionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.types.runtime.RuntimeRecordTypeInfo;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.exceptions.UnsupportedTypeException;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IMutableValueStorage;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * JSON format parser that tokenizes the raw record in place.
+ * Unlike {@link JSONDataParser}, it does not create a parser per record and does not materialize field names or
+ * values as Java objects: strings and numbers are read straight from the record's char[] and field names are
+ * serialized into reusable buffers and resolved against the declared type by their UTF-8 bytes.
+ * GeoJSON objects are not supported.
+ */
+public class InPlaceJSONDataParser extends AbstractNestedDataParser<ADMToken> implements IRecordDataParser<char[]> {
+
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private static final int MAX_EXACT_LONG_DIGITS = 18;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    private static final char[] TRUE = "true".toCharArray();
+    private static final char[] FALSE = "false".toCharArray();
+    private static final char[] NULL = "null".toCharArray();
+
+    private final ARecordType rootType;
+    private final ParserContext parserContext;
+    private final Map<ARecordType, RuntimeRecordTypeInfo> typeInfos;
+    // serialized field names, one per nesting level of objects
+    private final List<ArrayBackedValueStorage> fieldNames;
+    private int objectDepth;
+
+    // record being tokenized
+    private char[] buffer;
+    private int position;
+    private int end;
+    // text of the current string or number, either in the record or in unescapedText
+    private char[] text;
+    private int textStart;
+    private int textLength;
+    private char[] unescapedText;
+    // closing characters of the enclosing objects and arrays
+    private char[] containers;
+    private int depth;
+    private boolean afterValue;
+    private boolean afterFieldName;
+
+    public InPlaceJSONDataParser(ARecordType recordType) {
+        this.rootType = recordType != null ? recordType : RecordUtil.FULLY_OPEN_RECORD_TYPE;
+        parserContext = new ParserContext();
+        typeInfos = new IdentityHashMap<>();
+        fieldNames = new ArrayList<>();
+        unescapedText = new char[64];
+        containers = new char[16];
+    }
+
+    @Override
+    public void parse(IRawRecord<? extends char[]> record, DataOutput out) throws HyracksDataException {
+        buffer = record.get();
+        position = 0;
+        end = record.size();
+        depth = 0;
+        objectDepth = 0;
+        afterValue = false;
+        afterFieldName = false;
+        try {
+            if (nextToken() != ADMToken.OBJECT_START) {
+                throw new ParseException("Unexpected token " + currentToken() + ": was expecting an object");
+            }
+            parseObject(rootType, out);
+            skipWhitespace();
+            if (position < end) {
+                throw unexpectedCharacter(buffer[position], "expected end of record");
+            }
+        } catch (IOException e) {
+            throw new RuntimeDataException(ErrorCode.RECORD_READER_MALFORMED_INPUT_STREAM, e);
+        }
+    }
+
+    /*
+     ****************************************************
+     * Tokenizer
+     ****************************************************
+     */
+
+    @Override
+    protected ADMToken advanceToNextToken() throws IOException {
+        skipWhitespace();
+        if (position >= end) {
+            if (depth > 0) {
+                throw new ParseException("Unexpected end-of-input: expected close marker for "
+                        + (containers[depth - 1] == '}' ? "Object" : "Array"));
+            }
+            return ADMToken.EOF;
+        }
+        char c = buffer[position];
+        if (c == ',') {
+            if (!afterValue || depth == 0) {
+                throw unexpectedCharacter(c, "expected a value");
+            }
+            position++;
+            afterValue = false;
+            skipWhitespace();
+            if (position >= end) {
+                return advanceToNextToken();
+            }
+            c = buffer[position];
+            if (c == '}' || c == ']') {
+                throw unexpectedCharacter(c, containers[depth - 1] == '}'
+                        ? "was expecting double-quote to start field name" : "expected a value");
+            }
+        } else if (afterValue && depth > 0 && c != '}' && c != ']') {
+            throw unexpectedCharacter(c, "was expecting comma to separate entries");
+        }
+        if (c == '}' || c == ']') {
+            if (depth == 0 || containers[depth - 1] != c || afterFieldName) {
+                throw unexpectedCharacter(c, "expected a value");
+            }
+            position++;
+            depth--;
+            afterValue = true;
+            return c == '}' ? ADMToken.OBJECT_END : ADMToken.ARRAY_END;
+        }
+        if (depth > 0 && containers[depth - 1] == '}' && !afterFieldName) {
+            if (c != '"') {
+                throw unexpectedCharacter(c, "was expecting double-quote to start field name");
+            }
+            scanString();
+            skipWhitespace();
+            if (position >= end || buffer[position] != ':') {
+                throw new ParseException(
+                        "Unexpected end of field name: was expecting a colon to separate field name and value");
+            }
+            position++;
+            afterFieldName = true;
+            return ADMToken.FIELD_NAME;
+        }
+        afterFieldName = false;
+        afterValue = true;
+        switch (c) {
+            case '{':
+                enterContainer('}');
+                return ADMToken.OBJECT_START;
+            case '[':
+                enterContainer(']');
+                return ADMToken.ARRAY_START;
+            case '"':
+                scanString();
+                return ADMToken.STRING;
+            case 't':
+                scanLiteral(TRUE);
+                return ADMToken.TRUE;
+            case 'f':
+                scanLiteral(FALSE);
+                return ADMToken.FALSE;
+            case 'n':
+                scanLiteral(NULL);
+                return ADMToken.NULL;
+            default:
+                if (c == '-' || isDigit(c)) {
+                    return scanNumber();
+                }
+                throw unexpectedCharacter(c, "expected a valid value");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            char c = buffer[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private void enterContainer(char closingChar) {
+        if (depth == containers.length) {
+            char[] newContainers = new char[depth * 2];
+            System.arraycopy(containers, 0, newContainers, 0, depth);
+            containers = newContainers;
+        }
+        containers[depth++] = closingChar;
+        position++;
+        afterValue = false;
+    }
+
+    private void scanLiteral(char[] literal) throws ParseException {
+        if (end - position < literal.length) {
+            throw new ParseException("Unexpected end-of-input in a literal value");
+        }
+        for (int i = 1; i < literal.length; i++) {
+            if (buffer[position + i] != literal[i]) {
+                throw unexpectedCharacter(buffer[position + i], "was expecting '" + new String(literal) + "'");
+            }
+        }
+        position += literal.length;
+    }
+
+    /**
+     * Points the current text at the string that starts at the current position. Strings without escape sequences
+     * are not copied.
+     */
+    private void scanString() throws ParseException {
+        int start = ++position;
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                text = buffer;
+                textStart = start;
+                textLength = i - start;
+                position = i + 1;
+                return;
+            } else if (c == '\\') {
+                scanEscapedString(start, i);
+                return;
+            } else if (c < ' ') {
+                throw unexpectedCharacter(c, "control characters must be escaped in strings");
+            }
+        }
+        throw new ParseException("Unexpected end-of-input in a string value");
+    }
+
+    private void scanEscapedString(int start, int firstEscape) throws ParseException {
+        int length = firstEscape - start;
+        ensureUnescapedCapacity(length);
+        System.arraycopy(buffer, start, unescapedText, 0, length);
+        int i = firstEscape;
+        while (i < end) {
+            char c = buffer[i++];
+            if (c == '"') {
+                text = unescapedText;
+                textStart = 0;
+                textLength = length;
+                position = i;
+                return;
+            }
+            if (c == '\\') {
+                if (i >= end) {
+                    break;
+                }
+                c = buffer[i++];
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        if (end - i < 4) {
+                            throw new ParseException("Unexpected end-of-input in a unicode escape sequence");
+                        }
+                        c = (char) ((hexValue(buffer[i]) << 12) | (hexValue(buffer[i + 1]) << 8)
+                                | (hexValue(buffer[i + 2]) << 4) | hexValue(buffer[i + 3]));
+                        i += 4;
+                        break;
+                    default:
+                        throw unexpectedCharacter(c, "unrecognized character escape");
+                }
+            } else if (c < ' ') {
+                throw unexpectedCharacter(c, "control characters must be escaped in strings");
+            }
+            ensureUnescapedCapacity(length + 1);
+            unescapedText[length++] = c;
+        }
+        throw new ParseException("Unexpected end-of-input in a string value");
+    }
+
+    private void ensureUnescapedCapacity(int capacity) {
+        if (unescapedText.length < capacity) {
+            char[] newText = new char[Math.max(capacity, unescapedText.length * 2)];
+            System.arraycopy(unescapedText, 0, newText, 0, unescapedText.length);
+            unescapedText = newText;
+        }
+    }
+
+    private static int hexValue(char c) throws ParseException {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        throw unexpectedCharacter(c, "expected a hex-digit for character escape sequence");
+    }
+
+    private ADMToken scanNumber() throws ParseException {
+        int start = position;
+        int i = buffer[position] == '-' ? position + 1 : position;
+        int integerStart = i;
+        i = skipDigits(i);
+        if (i == integerStart) {
+            throw new ParseException("Unexpected end of number: expected digit for number value");
+        }
+        if (buffer[integerStart] == '0' && i - integerStart > 1) {
+            throw new ParseException("Invalid numeric value: Leading zeroes not allowed");
+        }
+        boolean isFloatingPoint = false;
+        if (i < end && buffer[i] == '.') {
+            isFloatingPoint = true;
+            int fractionStart = ++i;
+            i = skipDigits(i);
+            if (i == fractionStart) {
+                throw new ParseException("Unexpected end of number: Decimal point not followed by a digit");
+            }
+        }
+        if (i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            isFloatingPoint = true;
+            i++;
+            if (i < end && (buffer[i] == '+' || buffer[i] == '-')) {
+                i++;
+            }
+            int exponentStart = i;
+            i = skipDigits(i);
+            if (i == exponentStart) {
+                throw new ParseException("Unexpected end of number: Exponent indicator not followed by a digit");
+            }
+        }
+        text = buffer;
+        textStart = start;
+        textLength = i - start;
+        position = i;
+        return isFloatingPoint ? ADMToken.DOUBLE : ADMToken.INT;
+    }
+
+    private int skipDigits(int from) {
+        int i = from;
+        while (i < end && isDigit(buffer[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static ParseException unexpectedCharacter(char c, String expected) {
+        return new ParseException("Unexpected character ('" + c + "' (code " + (int) c + ")): " + expected);
+    }
+
+    /*
+     ****************************************************
+     * Numeric values
+     ****************************************************
+     */
+
+    private long getLongValue() throws ParseException {
+        if (currentToken() == ADMToken.DOUBLE) {
+            return (long) getDoubleValue();
+        }
+        int i = textStart;
+        final int textEnd = textStart + textLength;
+        final boolean negative = text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        // accumulate negatively to reach Long.MIN_VALUE
+        long value = 0;
+        for (; i < textEnd; i++) {
+            int digit = text[i] - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw outOfRange("long");
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw outOfRange("long");
+            }
+            value = -value;
+        }
+        return value;
+    }
+
+    private long getLongValue(long min, long max, String typeName) throws ParseException {
+        long value = getLongValue();
+        if (value < min || value > max) {
+            throw outOfRange(typeName);
+        }
+        return value;
+    }
+
+    private double getDoubleValue() {
+        int i = textStart;
+        final int textEnd = textStart + textLength;
+        final boolean negative = text[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (currentToken() == ADMToken.INT && textEnd - i <= MAX_EXACT_LONG_DIGITS) {
+            long value = 0;
+            for (; i < textEnd; i++) {
+                value = value * 10 + (text[i] - '0');
+            }
+            return negative ? -(double) value : value;
+        }
+        // fast path: a mantissa and a power of ten that are both exact doubles give a correctly rounded result
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean inFraction = false;
+        for (; i < textEnd && text[i] != 'e' && text[i] != 'E'; i++) {
+            char c = text[i];
+            if (c == '.') {
+                inFraction = true;
+                continue;
+            }
+            // leading zeros do not take any precision
+            if (digits > 0 || c != '0') {
+                digits++;
+            }
+            if (digits > MAX_EXACT_DOUBLE_DIGITS) {
+                return parseDouble(text, textStart, textLength);
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (inFraction) {
+                exponent--;
+            }
+        }
+        if (i < textEnd) {
+            int exponentPart = 0;
+            boolean negativeExponent = text[++i] == '-';
+            if (text[i] == '-' || text[i] == '+') {
+                i++;
+            }
+            for (; i < textEnd; i++) {
+                exponentPart = exponentPart * 10 + (text[i] - '0');
+                if (exponentPart >= POWERS_OF_TEN.length * 2) {
+                    return parseDouble(text, textStart, textLength);
+                }
+            }
+            exponent += negativeExponent ? -exponentPart : exponentPart;
+        }
+        double value;
+        if (exponent == 0) {
+            value = mantissa;
+        } else if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseDouble(text, textStart, textLength);
+        }
+        return negative ? -value : value;
+    }
+
+    private ParseException outOfRange(String typeName) {
+        return new ParseException(
+                "Numeric value (" + new String(text, textStart, textLength) + ") out of range of " + typeName);
+    }
+
+    /*
+     ****************************************************
+     * Complex types parsers
+     ****************************************************
+     */
+
+    @Override
+    protected void parseObject(ARecordType recordType, DataOutput out) throws IOException {
+        final IMutableValueStorage valueBuffer = parserContext.enterObject();
+        final IARecordBuilder objectBuilder = parserContext.getObjectBuilder(recordType);
+        final BitSet nullBitMap = parserContext.getNullBitmap(recordType.getFieldTypes().length);
+        final RuntimeRecordTypeInfo typeInfo = getTypeInfo(recordType);
+        final ArrayBackedValueStorage fieldName = enterFieldName();
+        while (nextToken() != ADMToken.OBJECT_END) {
+            fieldName.reset();
+            parseString(text, textStart, textLength, fieldName.getDataOutput());
+            final int fieldIndex = typeInfo.getFieldIndex(fieldName.getByteArray(), fieldName.getStartOffset() + 1,
+                    fieldName.getLength() - 1);
+            if (!recordType.isOpen() && fieldIndex < 0) {
+                throw new RuntimeDataException(ErrorCode.PARSER_ADM_DATA_PARSER_EXTRA_FIELD_IN_CLOSED_RECORD,
+                        new String(text, textStart, textLength));
+            }
+            valueBuffer.reset();
+            nextToken();
+
+            if (fieldIndex < 0) {
+                //field is not defined and the type is open
+                parseValue(BuiltinType.ANY, valueBuffer.getDataOutput());
+                objectBuilder.addField(fieldName, valueBuffer);
+            } else {
+                //field is defined
+                final IAType fieldType = recordType.getFieldTypes()[fieldIndex];
+
+                if (nullBitMap.get(fieldIndex)) {
+                    throw new ParseException("Duplicate field '" + recordType.getFieldNames()[fieldIndex] + "'");
+                }
+                //fail fast if the current field is not nullable
+                if (currentToken() == ADMToken.NULL && !isNullableType(fieldType)) {
+                    throw new RuntimeDataException(ErrorCode.PARSER_TWEET_PARSER_CLOSED_FIELD_NULL,
+                            recordType.getFieldNames()[fieldIndex]);
+                }
+                nullBitMap.set(fieldIndex);
+                parseValue(fieldType, valueBuffer.getDataOutput());
+                objectBuilder.addField(fieldIndex, valueBuffer);
+            }
+        }
+
+        if (nullBitMap != null) {
+            checkOptionalConstraints(recordType, nullBitMap);
+        }
+        objectDepth--;
+        parserContext.exitObject(valueBuffer, nullBitMap, objectBuilder);
+        objectBuilder.write(out, true);
+    }
+
+    private RuntimeRecordTypeInfo getTypeInfo(ARecordType recordType) {
+        RuntimeRecordTypeInfo typeInfo = typeInfos.get(recordType);
+        if (typeInfo == null) {
+            typeInfo = new RuntimeRecordTypeInfo();
+            typeInfo.reset(recordType);
+            typeInfos.put(recordType, typeInfo);
+        }
+        return typeInfo;
+    }
+
+    private ArrayBackedValueStorage enterFieldName() {
+        if (objectDepth == fieldNames.size()) {
+            fieldNames.add(new ArrayBackedValueStorage());
+        }
+        return fieldNames.get(objectDepth++);
+    }
+
+    @Override
+    protected void parseArray(AOrderedListType listType, DataOutput out) throws IOException {
+        parseCollection(listType, ADMToken.ARRAY_END, out);
+    }
+
+    @Override
+    protected void parseMultiset(AUnorderedList listType, DataOutput out) throws IOException {
+        throw new UnsupportedTypeException("JSON parser", ATypeTag.SERIALIZED_UNORDEREDLIST_TYPE_TAG);
+    }
+
+    private void parseCollection(AbstractCollectionType collectionType, ADMToken endToken, DataOutput out)
+            throws IOException {
+        final IMutableValueStorage valueBuffer = parserContext.enterCollection();
+        final IAsterixListBuilder arrayBuilder = parserContext.getCollectionBuilder(collectionType);
+        final boolean isOpen = collectionType.getItemType().getTypeTag() == ATypeTag.ANY;
+        while (nextToken() != endToken) {
+            valueBuffer.reset();
+            if (isOpen) {
+                parseValue(BuiltinType.ANY, valueBuffer.getDataOutput());
+            } else {
+                //fail fast if current value is null
+                if (currentToken() == ADMToken.NULL) {
+                    throw new RuntimeDataException(ErrorCode.PARSER_COLLECTION_ITEM_CANNOT_BE_NULL);
+                }
+                parseValue(collectionType.getItemType(), valueBuffer.getDataOutput());
+            }
+            arrayBuilder.addItem(valueBuffer);
+        }
+        parserContext.exitCollection(valueBuffer, arrayBuilder);
+        arrayBuilder.write(out, true);
+    }
+
+    /*
+     ****************************************************
+     * Value parsers and serializers
+     ****************************************************
+     */
+
+    private void parseValue(IAType definedType, DataOutput out) throws IOException {
+        final ATypeTag currentTypeTag = currentToken().getTypeTag();
+        if (currentTypeTag == null) {
+            throw new ParseException("Unexpected token " + currentToken() + ": expected a value");
+        }
+        /*
+         * In case of type mismatch, checkAndGetType will throw an exception.
+         */
+        final IAType actualType = checkAndGetType(definedType, currentTypeTag);
+
+        switch (currentToken()) {
+            case NULL:
+                nullSerde.serialize(ANull.NULL, out);
+                break;
+            case FALSE:
+                booleanSerde.serialize(ABoolean.FALSE, out);
+                break;
+            case TRUE:
+                booleanSerde.serialize(ABoolean.TRUE, out);
+                break;
+            case INT:
+            case DOUBLE:
+                serializeNumeric(actualType.getTypeTag(), out);
+                break;
+            case STRING:
+                serializeString(actualType.getTypeTag(), out);
+                break;
+            case OBJECT_START:
+                parseObject((ARecordType) actualType, out);
+                break;
+            case ARRAY_START:
+                parseArray((AOrderedListType) actualType, out);
+                break;
+            default:
+                throw new RuntimeDataException(ErrorCode.PARSE_ERROR, currentToken().toString());
+        }
+    }
+
+    private void serializeNumeric(ATypeTag numericType, DataOutput out) throws IOException {
+        final ATypeTag typeToUse = numericType == ATypeTag.ANY ? currentToken().getTypeTag() : numericType;
+
+        switch (typeToUse) {
+            case BIGINT:
+                aInt64.setValue(getLongValue());
+                int64Serde.serialize(aInt64, out);
+                break;
+            case INTEGER:
+                aInt32.setValue((int) getLongValue(Integer.MIN_VALUE, Integer.MAX_VALUE, "int"));
+                int32Serde.serialize(aInt32, out);
+                break;
+            case SMALLINT:
+                aInt16.setValue((short) getLongValue(Short.MIN_VALUE, Short.MAX_VALUE, "Java short"));
+                int16Serde.serialize(aInt16, out);
+                break;
+            case TINYINT:
+                aInt8.setValue((byte) getLongValue(Byte.MIN_VALUE, Byte.MAX_VALUE, "Java byte"));
+                int8Serde.serialize(aInt8, out);
+                break;
+            case DOUBLE:
+                aDouble.setValue(getDoubleValue());
+                doubleSerde.serialize(aDouble, out);
+                break;
+            case FLOAT:
+                aFloat.setValue((float) getDoubleValue());
+                floatSerde.serialize(aFloat, out);
+                break;
+            default:
+                throw new RuntimeDataException(ErrorCode.TYPE_UNSUPPORTED, currentToken().toString());
+        }
+    }
+
+    private void serializeString(ATypeTag stringVariantType, DataOutput out) throws IOException {
+        final ATypeTag typeToUse = stringVariantType == ATypeTag.ANY ? currentToken().getTypeTag() : stringVariantType;
+
+        switch (typeToUse) {
+            case STRING:
+                parseString(text, textStart, textLength, out);
+                break;
+            case DATE:
+                parseDate(text, textStart, textLength, out);
+                break;
+            case DATETIME:
+                parseDateTime(text, textStart, textLength, out);
+                break;
+            case TIME:
+                parseTime(text, textStart, textLength, out);
+                break;
+            default:
+                throw new RuntimeDataException(ErrorCode.TYPE_UNSUPPORTED, currentToken().toString());
+        }
+    }
+}
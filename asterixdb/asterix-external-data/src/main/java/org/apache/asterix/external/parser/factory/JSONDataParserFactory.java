@@ -26,7 +26,9 @@ import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.external.api.IRecordDataParser;
 import org.apache.asterix.external.api.IStreamDataParser;
+import org.apache.asterix.external.parser.InPlaceJSONDataParser;
 import org.apache.asterix.external.parser.JSONDataParser;
+import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.om.types.AOrderedListType;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.ATypeTag;
@@ -42,6 +44,8 @@ public class JSONDataParserFactory extends AbstractRecordStreamParserFactory<cha
 
     private static final long serialVersionUID = 1L;
     private static final List<String> PARSER_FORMAT = Collections.unmodifiableList(Arrays.asList("json"));
+    private static final List<ATypeTag> GEOMETRY_TYPES =
+            Collections.unmodifiableList(Arrays.asList(ATypeTag.POINT, ATypeTag.LINE, ATypeTag.POLYGON));
     private static final List<ATypeTag> UNSUPPORTED_TYPES = Collections
             .unmodifiableList(Arrays.asList(ATypeTag.MULTISET, ATypeTag.POINT3D, ATypeTag.CIRCLE, ATypeTag.RECTANGLE,
                     ATypeTag.INTERVAL, ATypeTag.DAYTIMEDURATION, ATypeTag.DURATION, ATypeTag.BINARY));
@@ -73,6 +77,10 @@ public class JSONDataParserFactory extends AbstractRecordStreamParserFactory<cha
 
     @Override
     public IRecordDataParser<char[]> createRecordParser(IHyracksTaskContext ctx) throws HyracksDataException {
+        if (configuration != null && ExternalDataUtils.isInPlaceParsing(configuration)
+                && !containsGeometry(recordType)) {
+            return new InPlaceJSONDataParser(recordType);
+        }
         return createParser();
     }
 
@@ -122,4 +130,28 @@ public class JSONDataParserFactory extends AbstractRecordStreamParserFactory<cha
         //Compatible type
     }
 
+    /**
+     * GeoJSON objects are only parsed by {@link JSONDataParser}
+     */
+    private static boolean containsGeometry(IAType type) {
+        if (type == null) {
+            return false;
+        }
+        switch (type.getTypeTag()) {
+            case ARRAY:
+                return containsGeometry(((AOrderedListType) type).getItemType());
+            case OBJECT:
+                for (IAType fieldType : ((ARecordType) type).getFieldTypes()) {
+                    if (containsGeometry(fieldType)) {
+                        return true;
+                    }
+                }
+                return false;
+            case UNION:
+                return containsGeometry(((AUnionType) type).getActualType());
+            default:
+                return GEOMETRY_TYPES.contains(type.getTypeTag());
+        }
+    }
+
 }
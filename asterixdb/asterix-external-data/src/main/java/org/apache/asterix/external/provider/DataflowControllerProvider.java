@@ -44,6 +44,7 @@ import org.apache.asterix.external.dataflow.FeedRecordDataFlowController;
 import org.apache.asterix.external.dataflow.FeedStreamDataFlowController;
 import org.apache.asterix.external.dataflow.FeedWithMetaDataFlowController;
 import org.apache.asterix.external.dataflow.IndexingDataFlowController;
+import org.apache.asterix.external.dataflow.ParallelFeedRecordDataFlowController;
 import org.apache.asterix.external.dataflow.RecordDataFlowController;
 import org.apache.asterix.external.dataflow.StreamDataFlowController;
 import org.apache.asterix.external.util.ExternalDataUtils;
@@ -87,6 +88,18 @@ public class DataflowControllerProvider {
                             return new ChangeFeedDataFlowController(ctx, feedLogManager, numOfKeys + 1,
                                     (IRecordWithPKDataParser) dataParser, recordReader);
                         } else {
+                            int parserThreads = ExternalDataUtils.getParserThreads(configuration);
+                            if (parserThreads > 1 && recordReaderFactory.getRecordClass() == char[].class) {
+                                IRecordDataParser[] parsers = new IRecordDataParser[parserThreads];
+                                parsers[0] = dataParser;
+                                for (int i = 1; i < parserThreads; i++) {
+                                    parsers[i] = recordParserFactory.createRecordParser(ctx);
+                                }
+                                return new ParallelFeedRecordDataFlowController(ctx, feedLogManager, parsers,
+                                        (IRecordReader<char[]>) recordReader,
+                                        ExternalDataUtils.getParserBatchSize(configuration),
+                                        ExternalDataUtils.isOrderedParsing(configuration));
+                            }
                             return new FeedRecordDataFlowController(ctx, feedLogManager, 1, dataParser, recordReader);
                         }
                     } else {
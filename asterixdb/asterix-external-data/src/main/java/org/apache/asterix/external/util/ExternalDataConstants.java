@@ -59,12 +59,23 @@ public class ExternalDataConstants {
     public static final String KEY_RECORD_START = "record-start";
     public static final String KEY_RECORD_END = "record-end";
     public static final String KEY_EXPRESSION = "expression";
+    // a boolean indicating whether local files are split into byte ranges that are read by every partition of the
+    // node (requires records that do not span lines)
+    public static final String KEY_SPLIT_FILES = "split-files";
+    // a boolean indicating whether JSON records are tokenized in place instead of through a Jackson parser
+    public static final String KEY_IN_PLACE_PARSING = "in-place-parsing";
+    // the compression of local input files (none or gzip). When absent, it is detected from the file extension
+    public static final String KEY_COMPRESSION = "compression";
     public static final String KEY_LOCAL_SOCKET_PATH = "local-socket-path";
     public static final String KEY_FORMAT = "format";
     public static final String KEY_QUOTE = "quote";
     public static final String KEY_PARSER = "parser";
     public static final String KEY_DATASET_RECORD = "dataset-record";
     public static final String KEY_HIVE_SERDE = "hive-serde";
+    // comma separated names of the fields to read from columnar (rc) files. The other fields are not read
+    public static final String KEY_PROJECTED_FIELDS = "projected-fields";
+    // positions of the projected fields in the record type, derived from projected-fields
+    public static final String KEY_PROJECTED_COLUMN_IDS = "projected-column-ids";
     public static final String KEY_RSS_URL = "url";
     public static final String KEY_INTERVAL = "interval";
     public static final String KEY_IS_FEED = "is-feed";
@@ -78,6 +89,12 @@ public class ExternalDataConstants {
     public static final String KEY_PASSWORD = "password";
     // an integer representing the number of raw records that can be buffered in the parsing queue
     public static final String KEY_QUEUE_SIZE = "queue-size";
+    // an integer representing the number of threads that parse the records of a feed partition
+    public static final String KEY_PARSER_THREADS = "parser-threads";
+    // an integer representing the number of raw records that are handed to a parser thread at once
+    public static final String KEY_PARSER_BATCH_SIZE = "parser-batch-size";
+    // a boolean indicating whether records parsed by multiple threads must keep the order in which they were read
+    public static final String KEY_ORDERED_PARSING = "ordered-parsing";
     // a comma delimited integers representing the indexes of the meta fields in the raw record (i,e: "3,1,0,2" denotes that the first meta field is in index 3 in the actual record)
     public static final String KEY_META_INDEXES = "meta-indexes";
     // an integer representing the index of the value field in the data type
@@ -203,12 +220,23 @@ public class ExternalDataConstants {
      */
     public static final byte BYTE_LF = '\n';
     public static final byte BYTE_CR = '\r';
+
+    /**
+     * Compressions of input files
+     */
+    public static final String COMPRESSION_NONE = "none";
+    public static final String COMPRESSION_GZIP = "gzip";
+    public static final String COMPRESSION_ZSTD = "zstd";
+    public static final String[] GZIP_EXTENSIONS = { ".gz", ".gzip", ".bgz" };
+    public static final String[] ZSTD_EXTENSIONS = { ".zst", ".zstd" };
     /**
      * Size default values
      */
     public static final int DEFAULT_BUFFER_SIZE = 4096;
+    public static final int DEFAULT_DECOMPRESSION_BUFFER_SIZE = 65536;
     public static final float DEFAULT_BUFFER_INCREMENT_FACTOR = 1.5F;
     public static final int DEFAULT_QUEUE_SIZE = 64;
+    public static final int DEFAULT_PARSER_BATCH_SIZE = 128;
     public static final int MAX_RECORD_SIZE = 32000000;
 
     /**
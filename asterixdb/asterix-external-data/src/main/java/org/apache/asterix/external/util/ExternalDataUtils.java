@@ -18,10 +18,14 @@
  */
 package org.apache.asterix.external.util;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.asterix.common.exceptions.AsterixException;
+import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.exceptions.RuntimeDataException;
 import org.apache.asterix.common.library.ILibraryManager;
@@ -29,9 +33,12 @@ import org.apache.asterix.external.api.IDataParserFactory;
 import org.apache.asterix.external.api.IExternalDataSourceFactory.DataSourceType;
 import org.apache.asterix.external.api.IInputStreamFactory;
 import org.apache.asterix.external.api.IRecordReaderFactory;
+import org.apache.asterix.external.input.record.reader.stream.LineRecordReader;
+import org.apache.asterix.external.provider.StreamRecordReaderProvider;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.utils.NonTaggedFormatUtil;
 import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.dataflow.common.data.parsers.DoubleParserFactory;
@@ -94,6 +101,23 @@ public class ExternalDataUtils {
                         + ExternalDataConstants.KEY_PARSER_FACTORY + " must be specified.");
             }
         }
+        validatePositiveInteger(configuration, ExternalDataConstants.KEY_PARSER_THREADS);
+        validatePositiveInteger(configuration, ExternalDataConstants.KEY_PARSER_BATCH_SIZE);
+    }
+
+    private static void validatePositiveInteger(Map<String, String> configuration, String key) throws AsterixException {
+        String value = configuration.get(key);
+        if (value == null) {
+            return;
+        }
+        try {
+            if (Integer.parseInt(value.trim()) > 0) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            throw new AsterixException(ErrorCode.EXTERNAL_INVALID_POSITIVE_INTEGER_PARAMETER, e, key, value);
+        }
+        throw new AsterixException(ErrorCode.EXTERNAL_INVALID_POSITIVE_INTEGER_PARAMETER, key, value);
     }
 
     public static void validateDataSourceParameters(Map<String, String> configuration) throws AsterixException {
@@ -213,6 +237,120 @@ public class ExternalDataUtils {
         return false;
     }
 
+    public static boolean isSplitFiles(Map<String, String> configuration) {
+        return Boolean.parseBoolean(configuration.get(ExternalDataConstants.KEY_SPLIT_FILES));
+    }
+
+    /**
+     * Split files are read in byte ranges that start after the first newline of the range, which is only correct
+     * when every record is a single line.
+     */
+    public static void validateSplitFiles(Map<String, String> configuration) throws AsterixException {
+        if (isSplitFiles(configuration)
+                && StreamRecordReaderProvider.getRecordReaderClazz(configuration) != LineRecordReader.class) {
+            throw new AsterixException(ErrorCode.EXTERNAL_SPLIT_FILES_UNSUPPORTED_FORMAT,
+                    configuration.get(ExternalDataConstants.KEY_FORMAT));
+        }
+    }
+
+    public static void validateCompression(Map<String, String> configuration) throws AsterixException {
+        String compression = configuration.get(ExternalDataConstants.KEY_COMPRESSION);
+        if (compression != null && !compression.equals(ExternalDataConstants.COMPRESSION_NONE)
+                && !compression.equals(ExternalDataConstants.COMPRESSION_GZIP)) {
+            throw new AsterixException(ErrorCode.EXTERNAL_UNSUPPORTED_COMPRESSION, compression);
+        }
+    }
+
+    /**
+     * @param compression
+     *            the configured compression or null to detect the compression from the file extension
+     * @return the compression of the given file
+     */
+    public static String getCompression(String compression, String fileName) {
+        if (compression != null) {
+            return compression;
+        }
+        String name = fileName.toLowerCase();
+        for (String extension : ExternalDataConstants.GZIP_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return ExternalDataConstants.COMPRESSION_GZIP;
+            }
+        }
+        for (String extension : ExternalDataConstants.ZSTD_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return ExternalDataConstants.COMPRESSION_ZSTD;
+            }
+        }
+        return ExternalDataConstants.COMPRESSION_NONE;
+    }
+
+    /**
+     * Wraps the given stream with a stream that decompresses its bytes while they are read.
+     */
+    public static InputStream decompress(InputStream in, String compression) throws IOException {
+        switch (compression) {
+            case ExternalDataConstants.COMPRESSION_NONE:
+                return in;
+            case ExternalDataConstants.COMPRESSION_GZIP:
+                return new GZIPInputStream(in, ExternalDataConstants.DEFAULT_DECOMPRESSION_BUFFER_SIZE);
+            default:
+                throw new RuntimeDataException(ErrorCode.EXTERNAL_UNSUPPORTED_COMPRESSION, compression);
+        }
+    }
+
+    public static boolean isInPlaceParsing(Map<String, String> configuration) {
+        return Boolean.parseBoolean(configuration.get(ExternalDataConstants.KEY_IN_PLACE_PARSING));
+    }
+
+    /**
+     * Translates the projected field names into the positions of the fields in the record type, which are the
+     * column ids of a columnar file. Fields that are not projected are not read and must be optional.
+     * Formats which cannot skip columns read all the fields.
+     */
+    public static void prepareProjection(Map<String, String> configuration, ARecordType recordType)
+            throws CompilationException {
+        String projectedFields = configuration.get(ExternalDataConstants.KEY_PROJECTED_FIELDS);
+        if (projectedFields == null || recordType == null || !supportsProjection(configuration)) {
+            return;
+        }
+        String[] fieldNames = recordType.getFieldNames();
+        boolean[] projected = new boolean[fieldNames.length];
+        StringBuilder columnIds = new StringBuilder();
+        for (String fieldName : projectedFields.split(",")) {
+            int fieldIndex = recordType.getFieldIndex(fieldName.trim());
+            if (fieldIndex < 0) {
+                throw new CompilationException(ErrorCode.EXTERNAL_PROJECTED_FIELD_NOT_FOUND, fieldName.trim(),
+                        recordType.getTypeName());
+            }
+            if (!projected[fieldIndex]) {
+                projected[fieldIndex] = true;
+                columnIds.append(columnIds.length() == 0 ? "" : ",").append(fieldIndex);
+            }
+        }
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (!projected[i] && !NonTaggedFormatUtil.isOptional(recordType.getFieldTypes()[i])) {
+                throw new CompilationException(ErrorCode.EXTERNAL_NON_PROJECTED_FIELD_NOT_OPTIONAL, fieldNames[i]);
+            }
+        }
+        configuration.put(ExternalDataConstants.KEY_PROJECTED_COLUMN_IDS, columnIds.toString());
+    }
+
+    /**
+     * Only hive records read from RCFiles can skip the columns which are not projected
+     */
+    public static boolean supportsProjection(Map<String, String> configuration) {
+        String format = getRecordFormat(configuration);
+        String inputFormat = configuration.get(ExternalDataConstants.KEY_INPUT_FORMAT);
+        if (format == null || inputFormat == null) {
+            return false;
+        }
+        format = format.trim();
+        inputFormat = inputFormat.trim();
+        return (format.equals(ExternalDataConstants.FORMAT_HIVE) || format.equals(ExternalDataConstants.PARSER_HIVE))
+                && (inputFormat.equals(ExternalDataConstants.INPUT_FORMAT_RC)
+                        || inputFormat.equals(ExternalDataConstants.CLASS_NAME_RC_INPUT_FORMAT));
+    }
+
     public static IRecordReaderFactory<?> createExternalRecordReaderFactory(ILibraryManager libraryManager,
             Map<String, String> configuration) throws AsterixException {
         String readerFactory = configuration.get(ExternalDataConstants.KEY_READER_FACTORY);
@@ -287,6 +425,22 @@ public class ExternalDataUtils {
                 : ExternalDataConstants.DEFAULT_QUEUE_SIZE;
     }
 
+    public static int getParserThreads(Map<String, String> configuration) {
+        return configuration.containsKey(ExternalDataConstants.KEY_PARSER_THREADS)
+                ? Integer.parseInt(configuration.get(ExternalDataConstants.KEY_PARSER_THREADS).trim()) : 1;
+    }
+
+    public static int getParserBatchSize(Map<String, String> configuration) {
+        return configuration.containsKey(ExternalDataConstants.KEY_PARSER_BATCH_SIZE)
+                ? Integer.parseInt(configuration.get(ExternalDataConstants.KEY_PARSER_BATCH_SIZE).trim())
+                : ExternalDataConstants.DEFAULT_PARSER_BATCH_SIZE;
+    }
+
+    public static boolean isOrderedParsing(Map<String, String> configuration) {
+        String value = configuration.get(ExternalDataConstants.KEY_ORDERED_PARSING);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
     public static boolean isRecordWithMeta(Map<String, String> configuration) {
         return configuration.containsKey(ExternalDataConstants.KEY_META_TYPE_NAME);
     }
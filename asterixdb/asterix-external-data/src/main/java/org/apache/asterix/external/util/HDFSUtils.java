@@ -39,6 +39,7 @@ import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
@@ -197,6 +198,16 @@ public class HDFSUtils {
         conf.set(ExternalDataConstants.KEY_HADOOP_INPUT_DIR, configuration.get(ExternalDataConstants.KEY_PATH).trim());
         conf.set(ExternalDataConstants.KEY_HADOOP_INPUT_FORMAT, formatClassName);
 
+        // Only read the projected columns of columnar files
+        String projectedColumnIds = configuration.get(ExternalDataConstants.KEY_PROJECTED_COLUMN_IDS);
+        if (projectedColumnIds != null) {
+            List<Integer> columnIds = new ArrayList<>();
+            for (String columnId : projectedColumnIds.split(",")) {
+                columnIds.add(Integer.parseInt(columnId));
+            }
+            ColumnProjectionUtils.appendReadColumns(conf, columnIds);
+        }
+
         // Enable local short circuit reads if user supplied the parameters
         if (localShortCircuitSocketPath != null) {
             conf.set(ExternalDataConstants.KEY_HADOOP_SHORT_CIRCUIT, "true");
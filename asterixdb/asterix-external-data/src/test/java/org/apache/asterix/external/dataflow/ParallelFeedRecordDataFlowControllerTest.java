@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.dataflow;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.asterix.external.api.IRawRecord;
+import org.apache.asterix.external.api.IRecordDataParser;
+import org.apache.asterix.external.api.IRecordReader;
+import org.apache.asterix.external.input.record.CharArrayRecord;
+import org.apache.asterix.external.util.FeedLogManager;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ParallelFeedRecordDataFlowControllerTest {
+
+    private static final int NUM_RECORDS = 100000;
+    private static final int MALFORMED_EVERY = 97;
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public static void tearDown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    public void testOrderedParsing() throws Exception {
+        List<Integer> values = ingest(true);
+        int expected = 0;
+        for (int value : values) {
+            if (expected % MALFORMED_EVERY == 0) {
+                expected++;
+            }
+            Assert.assertEquals(expected++, value);
+        }
+        Assert.assertEquals(NUM_RECORDS, expected);
+    }
+
+    @Test
+    public void testUnorderedParsing() throws Exception {
+        List<Integer> values = ingest(false);
+        boolean[] seen = new boolean[NUM_RECORDS];
+        for (int value : values) {
+            Assert.assertFalse(seen[value]);
+            seen[value] = true;
+        }
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            Assert.assertEquals(i % MALFORMED_EVERY != 0, seen[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> ingest(boolean ordered) throws Exception {
+        IHyracksTaskContext ctx = Mockito.spy(TestUtils.create(32768));
+        Mockito.doReturn(EXECUTOR).when(ctx).getExecutorService();
+        IRecordDataParser<char[]>[] parsers = new IRecordDataParser[4];
+        for (int i = 0; i < parsers.length; i++) {
+            parsers[i] = new IntegerParser();
+        }
+        ParallelFeedRecordDataFlowController controller = new ParallelFeedRecordDataFlowController(ctx,
+                Mockito.mock(FeedLogManager.class), parsers, new IntegerReader(), 100, ordered);
+        CollectingWriter writer = new CollectingWriter();
+        controller.start(writer);
+        String stats = controller.getStats();
+        Assert.assertTrue(stats, stats.contains("\"incoming-records-count\": " + NUM_RECORDS));
+        Assert.assertTrue(stats,
+                stats.contains("\"failed-at-parser-records-count\": " + (NUM_RECORDS / MALFORMED_EVERY + 1)));
+        Assert.assertTrue(stats, stats.contains("\"parser-threads\": 4"));
+        return writer.values;
+    }
+
+    private static class IntegerReader implements IRecordReader<char[]> {
+        private final CharArrayRecord record = new CharArrayRecord();
+        private int counter = 0;
+
+        @Override
+        public boolean hasNext() {
+            return counter < NUM_RECORDS;
+        }
+
+        @Override
+        public IRawRecord<char[]> next() throws IOException {
+            record.reset();
+            record.append((counter % MALFORMED_EVERY == 0 ? "x" : Integer.toString(counter)).toCharArray());
+            counter++;
+            return record;
+        }
+
+        @Override
+        public boolean stop() {
+            return false;
+        }
+
+        @Override
+        public void setController(AbstractFeedDataFlowController controller) {
+        }
+
+        @Override
+        public void setFeedLogManager(FeedLogManager feedLogManager) {
+        }
+
+        @Override
+        public boolean handleException(Throwable th) {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class IntegerParser implements IRecordDataParser<char[]> {
+        @Override
+        public void parse(IRawRecord<? extends char[]> record, DataOutput out) throws HyracksDataException {
+            try {
+                out.writeInt(Integer.parseInt(new String(record.get(), 0, record.size())));
+            } catch (NumberFormatException | IOException e) {
+                throw HyracksDataException.create(e);
+            }
+        }
+    }
+
+    private static class CollectingWriter implements IFrameWriter {
+        private final FrameTupleAccessor accessor =
+                new FrameTupleAccessor(new RecordDescriptor(new ISerializerDeserializer[1]));
+        private final List<Integer> values = new ArrayList<>();
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            accessor.reset(buffer);
+            for (int i = 0; i < accessor.getTupleCount(); i++) {
+                int offset = accessor.getTupleStartOffset(i) + accessor.getFieldSlotsLength()
+                        + accessor.getFieldStartOffset(i, 0);
+                values.add(IntegerPointable.getInteger(buffer.array(), offset));
+            }
+        }
+
+        @Override
+        public void fail() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
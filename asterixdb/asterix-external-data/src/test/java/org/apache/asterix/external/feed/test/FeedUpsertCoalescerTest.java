@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.feed.test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.common.memory.ConcurrentFramePool;
+import org.apache.asterix.external.feed.dataflow.FeedUpsertCoalescer;
+import org.apache.asterix.external.feed.policy.FeedPolicyAccessor;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.io.MessagingFrameTupleAppender;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class FeedUpsertCoalescerTest {
+
+    private static final int FRAME_SIZE = 32768;
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+    private static final int[] KEY_FIELDS = { 0 };
+
+    private static FeedPolicyAccessor createFeedPolicyAccessor(boolean strict) {
+        return createFeedPolicyAccessor(strict, 60000L, 4);
+    }
+
+    private static FeedPolicyAccessor createFeedPolicyAccessor(boolean strict, long windowMillis, int windowFrames) {
+        FeedPolicyAccessor fpa = Mockito.mock(FeedPolicyAccessor.class);
+        Mockito.when(fpa.coalesceEnabled()).thenReturn(true);
+        Mockito.when(fpa.getCoalesceWindowMillis()).thenReturn(windowMillis);
+        Mockito.when(fpa.getCoalesceWindowFrames()).thenReturn(windowFrames);
+        Mockito.when(fpa.coalesceDurabilityStrict()).thenReturn(strict);
+        return fpa;
+    }
+
+    private static ConcurrentFramePool createFramePool(int numFrames, int frameSize) {
+        return new ConcurrentFramePool("nc1", (long) numFrames * frameSize, frameSize);
+    }
+
+    /**
+     * Creates a feed frame holding the given key/value pairs, followed by a message of the given type
+     */
+    private static ByteBuffer createFrame(IHyracksTaskContext ctx, byte messageType, int... keyValues)
+            throws HyracksDataException {
+        FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx), true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, keyValues[i]);
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, keyValues[i + 1]);
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        Assert.assertTrue(appender.append(new byte[] { messageType }, 0, 1));
+        return appender.getBuffer();
+    }
+
+    @Test
+    public void testStrictDurability() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(true), createFramePool(4, FRAME_SIZE));
+        coalescer.open();
+        coalescer
+                .nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 2, 20, 1, 11, 3, 30));
+        Assert.assertTrue(writer.records.isEmpty());
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.MARKER_MESSAGE, 2, 21));
+        // the marker closes the window and travels with its records
+        Assert.assertEquals(Arrays.asList("1:11", "2:21", "3:30"), writer.records);
+        Assert.assertEquals(Arrays.asList(MessagingFrameTupleAppender.MARKER_MESSAGE), writer.messages);
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 4, 40, 4, 41));
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:11", "2:21", "3:30", "4:41"), writer.records);
+        Assert.assertEquals(Arrays.asList(MessagingFrameTupleAppender.MARKER_MESSAGE), writer.messages);
+        Assert.assertTrue(writer.closed);
+    }
+
+    @Test
+    public void testRelaxedDurability() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(false), createFramePool(4, FRAME_SIZE));
+        coalescer.open();
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 2, 20));
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.MARKER_MESSAGE, 1, 12));
+        // the marker is passed on right away, without the records of the window
+        Assert.assertTrue(writer.records.isEmpty());
+        Assert.assertEquals(Arrays.asList(MessagingFrameTupleAppender.MARKER_MESSAGE), writer.messages);
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:12", "2:20"), writer.records);
+        // the marker is passed on once
+        Assert.assertEquals(Arrays.asList(MessagingFrameTupleAppender.MARKER_MESSAGE), writer.messages);
+    }
+
+    @Test
+    public void testFullWindow() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        // each new key takes 20 bytes of the window: a record of 16 bytes and a key of 4 bytes
+        ConcurrentFramePool framePool = createFramePool(2, 64);
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(true, 60000L, 1), framePool);
+        coalescer.open();
+        coalescer.nextFrame(
+                createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 2, 20, 1, 11, 3, 30, 4, 40));
+        Assert.assertEquals(1, framePool.remaining());
+        // the window held three keys when the fourth one came
+        Assert.assertEquals(Arrays.asList("1:11", "2:20", "3:30"), writer.records);
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:11", "2:20", "3:30", "4:40"), writer.records);
+        Assert.assertEquals(2, framePool.remaining());
+    }
+
+    @Test
+    public void testLargeRecord() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        // a record of 16 bytes and its key do not fit in a frame of 16 bytes
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(true, 60000L, 1), createFramePool(1, 16));
+        coalescer.open();
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 1, 11));
+        Assert.assertEquals(Arrays.asList("1:10", "1:11"), writer.records);
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:10", "1:11"), writer.records);
+    }
+
+    @Test
+    public void testWindowTime() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(true, 0L, 4), createFramePool(4, FRAME_SIZE));
+        coalescer.open();
+        // the window is closed by the first frame that comes after its time is up
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 1, 11, 2, 20));
+        Assert.assertEquals(Arrays.asList("1:11", "2:20"), writer.records);
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 12));
+        Assert.assertEquals(Arrays.asList("1:11", "2:20", "1:12"), writer.records);
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:11", "2:20", "1:12"), writer.records);
+    }
+
+    @Test
+    public void testFlush() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(true), createFramePool(4, FRAME_SIZE));
+        coalescer.open();
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 1, 11));
+        Assert.assertTrue(writer.records.isEmpty());
+        // an idle feed source flushes its records
+        coalescer.flush();
+        Assert.assertEquals(Arrays.asList("1:11"), writer.records);
+        Assert.assertEquals(1, writer.flushes);
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:11"), writer.records);
+    }
+
+    @Test
+    public void testNoFeedMemory() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        VSizeFrame message = new VSizeFrame(ctx);
+        RecordingWriter writer = new RecordingWriter(message);
+        ConcurrentFramePool framePool = createFramePool(1, FRAME_SIZE);
+        List<ByteBuffer> taken = new ArrayList<>();
+        Assert.assertTrue(framePool.get(taken, 1));
+        FeedUpsertCoalescer coalescer = new FeedUpsertCoalescer(ctx, writer, RECORD_DESC, message, KEY_FIELDS,
+                createFeedPolicyAccessor(true), framePool);
+        coalescer.open();
+        // the records are passed on as they come
+        coalescer.nextFrame(createFrame(ctx, MessagingFrameTupleAppender.NULL_FEED_MESSAGE, 1, 10, 1, 11));
+        Assert.assertEquals(Arrays.asList("1:10", "1:11"), writer.records);
+        coalescer.close();
+        Assert.assertEquals(Arrays.asList("1:10", "1:11"), writer.records);
+    }
+
+    private static class RecordingWriter implements IFrameWriter {
+        private final FrameTupleAccessor fta = new FrameTupleAccessor(RECORD_DESC);
+        private final VSizeFrame message;
+        private final List<String> records = new ArrayList<>();
+        private final List<Byte> messages = new ArrayList<>();
+        private boolean closed = false;
+        private int flushes = 0;
+
+        RecordingWriter(VSizeFrame message) {
+            this.message = message;
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+            // no op
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            fta.reset(buffer);
+            for (int i = 0; i < fta.getTupleCount(); i++) {
+                records.add(fta.getBuffer().getInt(fta.getAbsoluteFieldStartOffset(i, 0)) + ":"
+                        + fta.getBuffer().getInt(fta.getAbsoluteFieldStartOffset(i, 1)));
+            }
+            byte type = MessagingFrameTupleAppender.getMessageType(message);
+            if (type != MessagingFrameTupleAppender.NULL_FEED_MESSAGE) {
+                messages.add(type);
+            }
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            // no op
+        }
+
+        @Override
+        public void flush() throws HyracksDataException {
+            flushes++;
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            closed = true;
+        }
+    }
+}
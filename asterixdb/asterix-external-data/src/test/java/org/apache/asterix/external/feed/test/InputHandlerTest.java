@@ -794,6 +794,138 @@ public class InputHandlerTest {
         Assert.assertNull(cause);
     }
 
+    /*
+     * Spill = true;
+     * Discard = false;
+     * Fixed size frames
+     * Runtime memory budget smaller than the frame pool
+     */
+    @Test
+    public void testRuntimeMemoryBudgetWithSpill() {
+        try {
+            int numberOfMemoryFrames = 10;
+            int numberOfSpillFrames = 5;
+            IHyracksTaskContext ctx = TestUtils.create(DEFAULT_FRAME_SIZE);
+            FeedPolicyAccessor fpa =
+                    createFeedPolicyAccessor(true, false, NUM_FRAMES * DEFAULT_FRAME_SIZE, DISCARD_ALLOWANCE);
+            Mockito.when(fpa.getMaxBufferInMemory()).thenReturn((long) numberOfMemoryFrames * DEFAULT_FRAME_SIZE);
+            // Non-Active Writer
+            TestControlledFrameWriter writer = FrameWriterTestUtils.create(DEFAULT_FRAME_SIZE, false);
+            writer.freeze();
+            // FramePool
+            ConcurrentFramePool framePool = new ConcurrentFramePool(NODE_ID, FEED_MEM_BUDGET, DEFAULT_FRAME_SIZE);
+            FeedRuntimeInputHandler handler = createInputHandler(ctx, writer, fpa, framePool);
+            handler.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            for (int i = 0; i < numberOfMemoryFrames + numberOfSpillFrames; i++) {
+                handler.nextFrame(frame.getBuffer());
+            }
+            // The runtime must not take more than its budget from the frame pool
+            Assert.assertEquals(NUM_FRAMES - numberOfMemoryFrames, framePool.remaining());
+            Assert.assertEquals(numberOfMemoryFrames, handler.getNumProcessedInMemory());
+            Assert.assertEquals((long) numberOfMemoryFrames * DEFAULT_FRAME_SIZE, handler.getBufferedBytes());
+            Assert.assertEquals(numberOfSpillFrames, handler.getNumSpilled());
+            Assert.assertEquals((long) numberOfSpillFrames * DEFAULT_FRAME_SIZE, handler.getSpilledBytes());
+            Assert.assertTrue(handler.getMaxQueueDepth() <= numberOfMemoryFrames + 1);
+            writer.unfreeze();
+            handler.close();
+            Assert.assertEquals(numberOfMemoryFrames + numberOfSpillFrames, writer.nextFrameCount());
+            Assert.assertEquals(0, handler.getBufferedBytes());
+            Assert.assertEquals(NUM_FRAMES, framePool.remaining());
+        } catch (Throwable th) {
+            th.printStackTrace();
+            Assert.fail();
+        }
+        Assert.assertNull(cause);
+    }
+
+    /*
+     * Spill = true;
+     * Discard = false;
+     * Fixed size frames
+     * Another feed buffers frames from the same frame pool
+     */
+    @Test
+    public void testFeedShareOfFramePool() {
+        try {
+            int numberOfMemoryFrames = NUM_FRAMES / 2;
+            int numberOfSpillFrames = 5;
+            IHyracksTaskContext ctx = TestUtils.create(DEFAULT_FRAME_SIZE);
+            FeedPolicyAccessor fpa =
+                    createFeedPolicyAccessor(true, false, NUM_FRAMES * DEFAULT_FRAME_SIZE, DISCARD_ALLOWANCE);
+            // Non-Active Writer
+            TestControlledFrameWriter writer = FrameWriterTestUtils.create(DEFAULT_FRAME_SIZE, false);
+            writer.freeze();
+            // FramePool
+            ConcurrentFramePool framePool = new ConcurrentFramePool(NODE_ID, FEED_MEM_BUDGET, DEFAULT_FRAME_SIZE);
+            EntityId otherFeedId = new EntityId(FeedUtils.FEED_EXTENSION_NAME, DATAVERSE, FEED + "2");
+            framePool.registerConsumer(otherFeedId);
+            FeedRuntimeInputHandler handler = createInputHandler(ctx, writer, fpa, framePool);
+            handler.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            for (int i = 0; i < numberOfMemoryFrames + numberOfSpillFrames; i++) {
+                handler.nextFrame(frame.getBuffer());
+            }
+            // The feed must not take more than its share of the frame pool
+            Assert.assertEquals(NUM_FRAMES - numberOfMemoryFrames, framePool.remaining());
+            Assert.assertEquals(numberOfMemoryFrames, handler.getNumProcessedInMemory());
+            Assert.assertEquals(numberOfSpillFrames, handler.getNumSpilled());
+            writer.unfreeze();
+            handler.close();
+            Assert.assertEquals(numberOfMemoryFrames + numberOfSpillFrames, writer.nextFrameCount());
+            Assert.assertEquals(NUM_FRAMES, framePool.remaining());
+            framePool.deregisterConsumer(otherFeedId);
+            Assert.assertEquals(FEED_MEM_BUDGET, framePool.getConsumerShare());
+        } catch (Throwable th) {
+            th.printStackTrace();
+            Assert.fail();
+        }
+        Assert.assertNull(cause);
+    }
+
+    /*
+     * Spill = false;
+     * Discard = false;
+     * Throttle = true;
+     * Fixed size frames
+     */
+    @Test
+    public void testThrottleOnCongestion() {
+        try {
+            int numberOfMemoryFrames = 10;
+            IHyracksTaskContext ctx = TestUtils.create(DEFAULT_FRAME_SIZE);
+            FeedPolicyAccessor fpa = createFeedPolicyAccessor(false, false, 0L, DISCARD_ALLOWANCE);
+            Mockito.when(fpa.throttleOnCongestion()).thenReturn(true);
+            // Non-Active Writer
+            TestControlledFrameWriter writer = FrameWriterTestUtils.create(DEFAULT_FRAME_SIZE, false);
+            writer.freeze();
+            // FramePool
+            ConcurrentFramePool framePool =
+                    new ConcurrentFramePool(NODE_ID, numberOfMemoryFrames * DEFAULT_FRAME_SIZE, DEFAULT_FRAME_SIZE);
+            FeedRuntimeInputHandler handler = createInputHandler(ctx, writer, fpa, framePool);
+            handler.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            // Below the throttling threshold
+            for (int i = 0; i < numberOfMemoryFrames - 2; i++) {
+                handler.nextFrame(frame.getBuffer());
+            }
+            Assert.assertEquals(0, handler.getNumThrottled());
+            // The consumer is frozen, so the producer is slowed down and then proceeds
+            handler.nextFrame(frame.getBuffer());
+            Assert.assertEquals(1, handler.getNumThrottled());
+            Assert.assertTrue(handler.getThrottleTimeMs() > 0);
+            Assert.assertEquals(0, handler.getNumStalled());
+            Assert.assertEquals(numberOfMemoryFrames - 1, handler.getNumProcessedInMemory());
+            writer.unfreeze();
+            handler.close();
+            Assert.assertEquals(numberOfMemoryFrames - 1, writer.nextFrameCount());
+        } catch (Throwable th) {
+            th.printStackTrace();
+            Assert.fail();
+        }
+        Assert.assertNull(cause);
+    }
+
     private class Pusher implements Runnable {
         private final ByteBuffer buffer;
         private final IFrameWriter writer;
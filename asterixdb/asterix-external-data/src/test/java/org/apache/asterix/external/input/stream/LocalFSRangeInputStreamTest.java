@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.input.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalFSRangeInputStreamTest {
+
+    private final List<File> files = new ArrayList<>();
+    private final List<String> lines = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        Random random = new Random(17);
+        for (int f = 0; f < 3; f++) {
+            StringBuilder content = new StringBuilder();
+            int numLines = f == 1 ? 1 : 200;
+            for (int i = 0; i < numLines; i++) {
+                StringBuilder line = new StringBuilder("{\"file\": " + f + ", \"line\": " + i + ", \"text\": \"");
+                for (int j = random.nextInt(100); j > 0; j--) {
+                    line.append((char) ('a' + random.nextInt(26)));
+                }
+                line.append("\"}");
+                lines.add(line.toString());
+                content.append(line).append(i % 7 == 0 ? "\r\n" : "\n");
+            }
+            if (f == 2) {
+                // the last line of the last file is not terminated
+                content.setLength(content.length() - 1);
+            }
+            File file = File.createTempFile("range" + f, ".json");
+            Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        files.forEach(File::delete);
+    }
+
+    @Test
+    public void testEveryLineIsReadOnce() throws IOException {
+        assertEveryLineIsReadOnce();
+    }
+
+    @Test
+    public void testCompressedFiles() throws IOException {
+        // a gzip file, a small BGZF file and a BGZF file with many blocks
+        compress(0, false, 0);
+        compress(1, true, 64);
+        compress(2, true, 500);
+        List<LocalFSRangeInputStream.FileRange> ranges = LocalFSRangeInputStream.getRanges(files, 1, 0, null);
+        Assert.assertFalse(ranges.get(0).isBlocked());
+        Assert.assertTrue(ranges.get(2).isBlocked());
+        assertEveryLineIsReadOnce();
+    }
+
+    private void assertEveryLineIsReadOnce() throws IOException {
+        for (int numRanges : new int[] { 1, 2, 3, 7, 64, 20000 }) {
+            List<String> readLines = new ArrayList<>();
+            for (int i = 0; i < numRanges; i++) {
+                try (LocalFSRangeInputStream in =
+                        new LocalFSRangeInputStream(LocalFSRangeInputStream.getRanges(files, numRanges, i, null))) {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[37];
+                    int read;
+                    while ((read = in.read(buffer, 0, buffer.length)) >= 0) {
+                        out.write(buffer, 0, read);
+                    }
+                    String content = new String(out.toByteArray(), StandardCharsets.UTF_8);
+                    for (String line : content.split("\r?\n")) {
+                        if (!line.isEmpty()) {
+                            readLines.add(line);
+                        }
+                    }
+                }
+            }
+            Assert.assertEquals("ranges: " + numRanges, lines, readLines);
+        }
+    }
+
+    /**
+     * Replaces file {@code f} with a gzip file or with a BGZF file whose blocks hold {@code blockSize} bytes.
+     */
+    private void compress(int f, boolean bgzf, int blockSize) throws IOException {
+        File file = files.get(f);
+        byte[] content = Files.readAllBytes(file.toPath());
+        File compressed = File.createTempFile("range" + f, bgzf ? ".bgz" : ".json.gz");
+        try (OutputStream out = new FileOutputStream(compressed)) {
+            if (!bgzf) {
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(content);
+                }
+            } else {
+                for (int start = 0; start < content.length; start += blockSize) {
+                    writeBlock(out, content, start, Math.min(blockSize, content.length - start));
+                }
+                // the empty end of file block
+                writeBlock(out, content, 0, 0);
+            }
+        }
+        file.delete();
+        files.set(f, compressed);
+    }
+
+    private static void writeBlock(OutputStream out, byte[] content, int start, int length) throws IOException {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(content, start, length);
+        deflater.finish();
+        byte[] compressed = new byte[length + 1024];
+        int compressedLength = deflater.deflate(compressed);
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(content, start, length);
+        ByteBuffer block = ByteBuffer.allocate(18 + compressedLength + 8).order(ByteOrder.LITTLE_ENDIAN);
+        block.put(new byte[] { 31, (byte) 139, 8, 4, 0, 0, 0, 0, 0, (byte) 255, 6, 0, 'B', 'C', 2, 0 });
+        block.putShort((short) (block.capacity() - 1));
+        block.put(compressed, 0, compressedLength);
+        block.putInt((int) crc.getValue());
+        block.putInt(length);
+        out.write(block.array());
+    }
+
+    @Test
+    public void testRangesCoverEveryByte() throws IOException {
+        long total = files.stream().mapToLong(File::length).sum();
+        for (int numRanges : new int[] { 1, 5, 1000 }) {
+            long covered = 0;
+            for (int i = 0; i < numRanges; i++) {
+                for (LocalFSRangeInputStream.FileRange range : LocalFSRangeInputStream.getRanges(files, numRanges, i,
+                        null)) {
+                    Assert.assertTrue(range.toString(), range.getStart() < range.getEnd());
+                    covered += range.getEnd() - range.getStart();
+                }
+            }
+            Assert.assertEquals(total, covered);
+        }
+        Assert.assertEquals(Arrays.asList(), LocalFSRangeInputStream.getRanges(new ArrayList<>(), 4, 2, null));
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.library;
+
+import org.apache.asterix.external.api.IBatchFunctionHelper;
+import org.apache.asterix.external.api.IExternalBatchScalarFunction;
+import org.apache.asterix.external.api.IFunctionHelper;
+import org.apache.asterix.external.api.IJObject;
+import org.apache.asterix.external.library.java.base.JInt;
+
+public class BatchSumFunction implements IExternalBatchScalarFunction {
+
+    private JInt result;
+
+    @Override
+    public void deinitialize() {
+        // nothing to do here
+    }
+
+    @Override
+    public void evaluate(IBatchFunctionHelper functionHelper) throws Exception {
+        IJObject[] arg0 = functionHelper.getArguments(0);
+        IJObject[] arg1 = functionHelper.getArguments(1);
+        for (int i = 0; i < functionHelper.getBatchSize(); i++) {
+            result.setValue(((JInt) arg0[i]).getValue() + ((JInt) arg1[i]).getValue());
+            functionHelper.setResult(i, result);
+        }
+    }
+
+    @Override
+    public void initialize(IFunctionHelper functionHelper) {
+        result = (JInt) functionHelper.getResultObject();
+    }
+
+}
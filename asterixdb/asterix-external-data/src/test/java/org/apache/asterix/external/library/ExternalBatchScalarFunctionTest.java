@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.library;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.common.api.IApplicationContext;
+import org.apache.asterix.common.library.ILibraryManager;
+import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt32SerializerDeserializer;
+import org.apache.asterix.external.api.IBatchFunctionHelper;
+import org.apache.asterix.external.api.IExternalBatchScalarFunction;
+import org.apache.asterix.external.api.IFunctionFactory;
+import org.apache.asterix.external.api.IJObject;
+import org.apache.asterix.external.library.java.base.JInt;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.ExternalFunctionInfo;
+import org.apache.asterix.om.functions.IExternalFunctionInfo;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.AndDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.SwitchCaseDescriptor;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression.FunctionKind;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ExternalBatchScalarFunctionTest {
+
+    @SuppressWarnings("rawtypes")
+    private static final ISerializerDeserializer INT32_SERDE =
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT32);
+    private static final RecordDescriptor RECORD_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { INT32_SERDE, INT32_SERDE });
+    private static final int NUM_TUPLES = 100;
+    private static final int GUARD = 50;
+    private static int numBatches = 0;
+    // the first argument of every tuple the function was called for
+    private static final List<Integer> evaluated = new ArrayList<>();
+
+    public static class CountingBatchSumFactory implements IFunctionFactory {
+        @Override
+        public IExternalBatchScalarFunction getExternalFunction() {
+            return new BatchSumFunction() {
+                @Override
+                public void evaluate(IBatchFunctionHelper functionHelper) throws Exception {
+                    numBatches++;
+                    IJObject[] arg0 = functionHelper.getArguments(0);
+                    for (int i = 0; i < functionHelper.getBatchSize(); i++) {
+                        evaluated.add(((JInt) arg0[i]).getValue());
+                    }
+                    super.evaluate(functionHelper);
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testFrameIsEvaluatedInOneBatch() throws Exception {
+        IHyracksTaskContext ctx = TestUtils.create(32768);
+        IBatchScalarEvaluator evaluator = (IBatchScalarEvaluator) createEvaluatorFactory().createScalarEvaluator(ctx);
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        int[] selection = BatchEvaluatorUtil.selectAll(new int[0], NUM_TUPLES);
+        IPointable[] results = BatchEvaluatorUtil.ensureCapacity(new IPointable[0], NUM_TUPLES);
+        numBatches = 0;
+        for (int round = 1; round <= 2; round++) {
+            // the same frame is refilled with different values
+            fillFrame(frame, round);
+            accessor.reset(frame.getBuffer());
+            evaluator.evaluate(accessor, selection, NUM_TUPLES, results);
+            for (int i = 0; i < NUM_TUPLES; i++) {
+                Assert.assertEquals(i * round + i, AInt32SerializerDeserializer.getInt(results[i].getByteArray(),
+                        results[i].getStartOffset() + 1));
+            }
+            Assert.assertEquals(round, numBatches);
+        }
+    }
+
+    @Test
+    public void testFilteredCall() throws Exception {
+        // $0 >= GUARD AND f($0, $1) >= 0
+        IScalarEvaluatorFactory condition = AndDescriptor.FACTORY.createFunctionDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { createGuard(), createNonNegativeCheck(createEvaluatorFactory()) });
+        IHyracksTaskContext ctx = TestUtils.create(32768);
+        IBatchScalarEvaluator evaluator = (IBatchScalarEvaluator) condition.createScalarEvaluator(ctx);
+        Assert.assertTrue(evaluator.mayHaveSideEffects());
+        FrameTupleAccessor accessor = createFrame(ctx);
+        IPointable[] results = BatchEvaluatorUtil.ensureCapacity(new IPointable[0], NUM_TUPLES);
+        numBatches = 0;
+        evaluated.clear();
+        evaluator.evaluate(accessor, BatchEvaluatorUtil.selectAll(new int[0], NUM_TUPLES), NUM_TUPLES, results);
+        for (int i = 0; i < NUM_TUPLES; i++) {
+            Assert.assertEquals(i >= GUARD, ABooleanSerializerDeserializer.getBoolean(results[i].getByteArray(),
+                    results[i].getStartOffset() + 1));
+        }
+        // the function only sees the tuples that pass the guard, in a single batch
+        Assert.assertEquals(1, numBatches);
+        Assert.assertEquals(guardedTuples(), evaluated);
+    }
+
+    @Test
+    public void testCaseGuardedCall() throws Exception {
+        // CASE WHEN $0 >= GUARD THEN f($0, $1) ELSE NULL END
+        IScalarEvaluatorFactory caseExpression = SwitchCaseDescriptor.FACTORY.createFunctionDescriptor()
+                .createEvaluatorFactory(new IScalarEvaluatorFactory[] { createGuard(), createConstant(ABoolean.TRUE),
+                        createEvaluatorFactory(), createConstant(ANull.NULL) });
+        IHyracksTaskContext ctx = TestUtils.create(32768);
+        IBatchScalarEvaluator evaluator =
+                BatchEvaluatorUtil.asBatchEvaluator(caseExpression.createScalarEvaluator(ctx));
+        FrameTupleAccessor accessor = createFrame(ctx);
+        IPointable[] results = BatchEvaluatorUtil.ensureCapacity(new IPointable[0], NUM_TUPLES);
+        evaluated.clear();
+        evaluator.evaluate(accessor, BatchEvaluatorUtil.selectAll(new int[0], NUM_TUPLES), NUM_TUPLES, results);
+        for (int i = 0; i < NUM_TUPLES; i++) {
+            if (i >= GUARD) {
+                Assert.assertEquals(2 * i, AInt32SerializerDeserializer.getInt(results[i].getByteArray(),
+                        results[i].getStartOffset() + 1));
+            } else {
+                Assert.assertEquals(ATypeTag.SERIALIZED_NULL_TYPE_TAG,
+                        results[i].getByteArray()[results[i].getStartOffset()]);
+            }
+        }
+        // the function is called for each tuple that passes the guard, and only once
+        Assert.assertEquals(guardedTuples(), evaluated);
+    }
+
+    private static List<Integer> guardedTuples() {
+        List<Integer> tuples = new ArrayList<>();
+        for (int i = GUARD; i < NUM_TUPLES; i++) {
+            tuples.add(i);
+        }
+        return tuples;
+    }
+
+    private static IScalarEvaluatorFactory createGuard() throws Exception {
+        return GreaterThanOrEqualsDescriptor.FACTORY.createFunctionDescriptor().createEvaluatorFactory(
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), createConstant(new AInt32(GUARD)) });
+    }
+
+    private static IScalarEvaluatorFactory createNonNegativeCheck(IScalarEvaluatorFactory arg) throws Exception {
+        return GreaterThanOrEqualsDescriptor.FACTORY.createFunctionDescriptor()
+                .createEvaluatorFactory(new IScalarEvaluatorFactory[] { arg, createConstant(new AInt32(0)) });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IScalarEvaluatorFactory createConstant(IAObject value) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(value.getType()).serialize(value,
+                storage.getDataOutput());
+        return new ConstantEvalFactory(Arrays.copyOf(storage.getByteArray(), storage.getLength()));
+    }
+
+    private static FrameTupleAccessor createFrame(IHyracksTaskContext ctx) throws Exception {
+        VSizeFrame frame = new VSizeFrame(ctx);
+        fillFrame(frame, 1);
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        accessor.reset(frame.getBuffer());
+        return accessor;
+    }
+
+    private static IScalarEvaluatorFactory createEvaluatorFactory() throws Exception {
+        FunctionIdentifier fid = new FunctionIdentifier("externallibtest", "testlib#batchSum", 2);
+        IExternalFunctionInfo finfo = new ExternalFunctionInfo(fid.getNamespace(), fid.getName(), fid.getArity(),
+                FunctionKind.SCALAR, Arrays.asList(BuiltinType.AINT32, BuiltinType.AINT32), BuiltinType.AINT32, null,
+                CountingBatchSumFactory.class.getName(), "JAVA");
+        ILibraryManager libraryManager = Mockito.mock(ILibraryManager.class);
+        Mockito.when(libraryManager.getLibraryClassLoader(Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(ExternalBatchScalarFunctionTest.class.getClassLoader());
+        Mockito.when(libraryManager.getFunctionParameters(Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(Collections.emptyList());
+        IApplicationContext appCtx = Mockito.mock(IApplicationContext.class);
+        Mockito.when(appCtx.getLibraryManager()).thenReturn(libraryManager);
+        IScalarEvaluatorFactory[] args =
+                new IScalarEvaluatorFactory[] { new ColumnAccessEvalFactory(0), new ColumnAccessEvalFactory(1) };
+        return new ExternalScalarFunctionEvaluatorFactory(finfo, args, appCtx);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fillFrame(VSizeFrame frame, int multiplier) throws Exception {
+        FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (int i = 0; i < NUM_TUPLES; i++) {
+            tb.reset();
+            tb.addField(INT32_SERDE, new AInt32(i));
+            tb.addField(INT32_SERDE, new AInt32(i * multiplier));
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.parser.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.external.input.record.GenericRecord;
+import org.apache.asterix.external.parser.HiveRecordParser;
+import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.ExternalDataUtils;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ARecord;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.hadoop.hive.serde2.ColumnProjectionUtils;
+import org.apache.hadoop.hive.serde2.lazy.LazySimpleSerDe;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HiveRecordParserProjectionTest {
+
+    private static final ARecordType TYPE = new ARecordType("person", new String[] { "id", "name", "age" },
+            new IAType[] { BuiltinType.AINT32, AUnionType.createUnknownableType(BuiltinType.ASTRING),
+                    AUnionType.createUnknownableType(BuiltinType.AINT32) },
+            false);
+
+    @Test
+    public void testPrepareProjection() throws Exception {
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(ExternalDataConstants.KEY_PROJECTED_FIELDS, "age, id");
+        configuration.put(ExternalDataConstants.KEY_FORMAT, ExternalDataConstants.FORMAT_HIVE);
+        configuration.put(ExternalDataConstants.KEY_INPUT_FORMAT, ExternalDataConstants.INPUT_FORMAT_TEXT);
+        ExternalDataUtils.prepareProjection(configuration, TYPE);
+        Assert.assertNull(configuration.get(ExternalDataConstants.KEY_PROJECTED_COLUMN_IDS));
+
+        configuration.put(ExternalDataConstants.KEY_INPUT_FORMAT, ExternalDataConstants.INPUT_FORMAT_RC);
+        ExternalDataUtils.prepareProjection(configuration, TYPE);
+        Assert.assertEquals("2,0", configuration.get(ExternalDataConstants.KEY_PROJECTED_COLUMN_IDS));
+
+        configuration.put(ExternalDataConstants.KEY_PROJECTED_FIELDS, "id,salary");
+        try {
+            ExternalDataUtils.prepareProjection(configuration, TYPE);
+            Assert.fail("unknown field should not be projected");
+        } catch (CompilationException e) {
+            Assert.assertEquals(ErrorCode.EXTERNAL_PROJECTED_FIELD_NOT_FOUND, e.getErrorCode());
+        }
+
+        configuration.put(ExternalDataConstants.KEY_PROJECTED_FIELDS, "name");
+        try {
+            ExternalDataUtils.prepareProjection(configuration, TYPE);
+            Assert.fail("required field must be projected");
+        } catch (CompilationException e) {
+            Assert.assertEquals(ErrorCode.EXTERNAL_NON_PROJECTED_FIELD_NOT_OPTIONAL, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testParseProjectedColumns() throws Exception {
+        JobConf conf = new JobConf();
+        Assert.assertEquals("{ id: 1, name: \"alice\", age: 30 }", parse(conf, "1\u0001alice\u000130"));
+        Assert.assertEquals("{ id: 2, name: null, age: 40 }", parse(conf, "2\u0001\\N\u000140"));
+        ColumnProjectionUtils.appendReadColumns(conf, Arrays.asList(0, 2));
+        Assert.assertEquals("{ id: 1, name: missing, age: 30 }", parse(conf, "1\u0001alice\u000130"));
+        Assert.assertEquals("{ id: 2, name: missing, age: null }", parse(conf, "2\u0001bob\u0001\\N"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String parse(JobConf conf, String line) throws Exception {
+        HiveRecordParser parser = new HiveRecordParser(TYPE, conf, LazySimpleSerDe.class.getName());
+        ArrayBackedValueStorage buffer = new ArrayBackedValueStorage();
+        parser.parse(new GenericRecord<Writable>(new Text(line)), buffer.getDataOutput());
+        ISerializerDeserializer<ARecord> serde =
+                SerializerDeserializerProvider.INSTANCE.getNonTaggedSerializerDeserializer(TYPE);
+        ARecord record = serde.deserialize(
+                new DataInputStream(new ByteArrayInputStream(buffer.getByteArray(), 1, buffer.getLength() - 1)));
+        return record.toString();
+    }
+}
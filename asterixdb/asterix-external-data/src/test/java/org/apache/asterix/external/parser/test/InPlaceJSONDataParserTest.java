@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.parser.test;
+
+import static org.apache.asterix.om.types.BuiltinType.ADATETIME;
+import static org.apache.asterix.om.types.BuiltinType.ADOUBLE;
+import static org.apache.asterix.om.types.BuiltinType.AFLOAT;
+import static org.apache.asterix.om.types.BuiltinType.AINT32;
+import static org.apache.asterix.om.types.BuiltinType.AINT64;
+import static org.apache.asterix.om.types.BuiltinType.AINT8;
+import static org.apache.asterix.om.types.BuiltinType.ASTRING;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.external.input.record.CharArrayRecord;
+import org.apache.asterix.external.parser.InPlaceJSONDataParser;
+import org.apache.asterix.external.parser.JSONDataParser;
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+public class InPlaceJSONDataParserTest {
+
+    private static final ARecordType CLOSED_TYPE = new ARecordType("ClosedType",
+            new String[] { "id", "name", "score", "ratio", "tags", "nested", "when", "small" },
+            new IAType[] { AINT64, ASTRING, AINT32, AFLOAT, new AOrderedListType(ASTRING, null),
+                    new ARecordType("NestedType", new String[] { "x" }, new IAType[] { ADOUBLE }, true), ADATETIME,
+                    AINT8 },
+            false);
+
+    private static final List<String> CLOSED_RECORDS = Arrays.asList(
+            "{\"id\": 1, \"name\": \"a\", \"score\": -7, \"ratio\": 0.5, \"tags\": [], \"nested\": {\"x\": 1},"
+                    + " \"when\": \"2020-01-01T10:00:00\", \"small\": 127}",
+            "{ \"small\" : -128 , \"when\":\"1999-12-31T23:59:59.999Z\",\"nested\":{\"x\":-1.5e-3,\"y\":[1,2.5,"
+                    + "\"z\",null,true,false,{}]},\"tags\":[\"\\u00e9t\\u00E9\",\"tab\\there\"],\"ratio\":1E10,"
+                    + "\"score\":2147483647,\"name\":\"quote \\\" and \\\\ and \\/\",\"id\":-9223372036854775808}\n");
+
+    private static final List<String> OPEN_RECORDS = Arrays.asList("{}",
+            "{\"a\": 0, \"b\": -0.0, \"c\": -1234567890123456789, \"d\": 0.1, \"e\": 1.7976931348623157e308,"
+                    + " \"f\": 4.9e-324, \"g\": 123.456e-7, \"h\": 0.000000000000000000000001, \"i\": 9007199254740993.0}",
+            "{\"nested\": {\"nested\": {\"nested\": {\"a\": [[[]], [{}], {\"b\": \"\\ud83d\\ude00\"}]}}}, \"é\": 1}",
+            "\t{\r\n\"spaces\" :  [ 1 , 2 ] \r\n}\r\n");
+
+    private static final List<String> MALFORMED_RECORDS = Arrays.asList("{\"a\": 1,}", "{\"a\": 1", "{\"a\" 1}",
+            "{a: 1}", "{\"a\": [1 2]}", "{\"a\": 01}", "{\"a\": 1.}", "{\"a\": tru}", "{\"a\": \"b}", "{\"a\": 1]",
+            "{\"a\": \"\\x\"}", "{\"a\": 1, \"a\": 2}", "[1]", "{\"a\":}", "{\"a\": 123456789012345678901234567890}",
+            "{\"a\": 1}}", "{\"a\": 1} x", "{} {}");
+
+    @Test
+    public void testSameOutputAsJackson() throws Exception {
+        assertSameOutput(CLOSED_TYPE, CLOSED_RECORDS);
+        assertSameOutput(RecordUtil.FULLY_OPEN_RECORD_TYPE, OPEN_RECORDS);
+        assertSameOutput(RecordUtil.FULLY_OPEN_RECORD_TYPE,
+                Files.readAllLines(Paths.get(getClass().getResource("/test_tweets.txt").toURI())));
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        for (String json : MALFORMED_RECORDS) {
+            assertFails(RecordUtil.FULLY_OPEN_RECORD_TYPE, json);
+        }
+        // closed record violations
+        assertFails(CLOSED_TYPE, "{\"id\": 1, \"extra\": 2}");
+        assertFails(CLOSED_TYPE, "{\"id\": 1, \"id\": 2}");
+        assertFails(CLOSED_TYPE, "{\"id\": \"1\"}");
+        assertFails(CLOSED_TYPE, "{\"id\": null}");
+        assertFails(CLOSED_TYPE, "{\"small\": 128}");
+        assertFails(CLOSED_TYPE, "{\"score\": 2147483648}");
+        assertFails(CLOSED_TYPE, "{\"id\": 9223372036854775808}");
+    }
+
+    private static void assertSameOutput(ARecordType type, List<String> records) throws Exception {
+        JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, true);
+        JSONDataParser jacksonParser = new JSONDataParser(type, jsonFactory);
+        InPlaceJSONDataParser inPlaceParser = new InPlaceJSONDataParser(type);
+        ArrayBackedValueStorage expected = new ArrayBackedValueStorage();
+        ArrayBackedValueStorage actual = new ArrayBackedValueStorage();
+        for (String json : records) {
+            CharArrayRecord record = new CharArrayRecord();
+            record.set(json.toCharArray());
+            expected.reset();
+            jacksonParser.parse(record, expected.getDataOutput());
+            actual.reset();
+            inPlaceParser.parse(record, actual.getDataOutput());
+            Assert.assertArrayEquals(json, Arrays.copyOf(expected.getByteArray(), expected.getLength()),
+                    Arrays.copyOf(actual.getByteArray(), actual.getLength()));
+        }
+    }
+
+    private static void assertFails(ARecordType type, String json) throws Exception {
+        InPlaceJSONDataParser parser = new InPlaceJSONDataParser(type);
+        ArrayBackedValueStorage output = new ArrayBackedValueStorage();
+        CharArrayRecord record = new CharArrayRecord();
+        record.set(json.toCharArray());
+        try {
+            parser.parse(record, output.getDataOutput());
+            Assert.fail("parsed malformed record " + json);
+        } catch (HyracksDataException e) {
+            // expected
+        }
+        // the parser can still be used after a failure
+        String valid = type == CLOSED_TYPE ? CLOSED_RECORDS.get(0) : OPEN_RECORDS.get(1);
+        record.set(valid.toCharArray());
+        output.reset();
+        parser.parse(record, output.getDataOutput());
+    }
+}
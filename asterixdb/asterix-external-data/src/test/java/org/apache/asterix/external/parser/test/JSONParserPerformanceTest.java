@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.parser.test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.apache.asterix.external.api.IRecordDataParser;
+import org.apache.asterix.external.input.record.CharArrayRecord;
+import org.apache.asterix.external.parser.InPlaceJSONDataParser;
+import org.apache.asterix.external.parser.JSONDataParser;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Compares the throughput of the Jackson based and the in-place JSON parsers on the test tweets.
+ */
+public class JSONParserPerformanceTest {
+
+    private static final int ROUNDS = 10;
+    private static final int RECORDS_PER_ROUND = 100_000;
+
+    public void benchmark() throws Exception {
+        List<String> lines = Files.readAllLines(Paths.get(getClass().getResource("/test_tweets.txt").toURI()));
+        CharArrayRecord[] records = new CharArrayRecord[lines.size()];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new CharArrayRecord();
+            records[i].set(lines.get(i).toCharArray());
+        }
+        JsonFactory jsonFactory = new JsonFactory();
+        jsonFactory.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, true);
+        jsonFactory.configure(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES, true);
+        jsonFactory.configure(JsonFactory.Feature.INTERN_FIELD_NAMES, true);
+        JSONDataParser jacksonParser = new JSONDataParser(RecordUtil.FULLY_OPEN_RECORD_TYPE, jsonFactory);
+        InPlaceJSONDataParser inPlaceParser = new InPlaceJSONDataParser(RecordUtil.FULLY_OPEN_RECORD_TYPE);
+        for (int round = 0; round < ROUNDS; round++) {
+            long jacksonTime = round(jacksonParser, records);
+            long inPlaceTime = round(inPlaceParser, records);
+            System.err.println("Round " + round + ": Jackson = " + recordsPerSecond(jacksonTime) + " records/s, "
+                    + "in-place = " + recordsPerSecond(inPlaceTime) + " records/s");
+        }
+    }
+
+    private static long round(IRecordDataParser<char[]> parser, CharArrayRecord[] records) throws Exception {
+        ArrayBackedValueStorage output = new ArrayBackedValueStorage();
+        long start = System.nanoTime();
+        for (int i = 0; i < RECORDS_PER_ROUND; i++) {
+            output.reset();
+            parser.parse(records[i % records.length], output.getDataOutput());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long recordsPerSecond(long nanos) {
+        return RECORDS_PER_ROUND * 1_000_000_000L / nanos;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new JSONParserPerformanceTest().benchmark();
+    }
+}
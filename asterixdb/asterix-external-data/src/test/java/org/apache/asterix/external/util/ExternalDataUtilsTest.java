@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.asterix.common.exceptions.AsterixException;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExternalDataUtilsTest {
+
+    @Test
+    public void testSplitFilesLineDelimited() throws AsterixException {
+        ExternalDataUtils.validateSplitFiles(splitFilesConfiguration(ExternalDataConstants.FORMAT_DELIMITED_TEXT));
+        ExternalDataUtils.validateSplitFiles(splitFilesConfiguration(ExternalDataConstants.FORMAT_CSV));
+    }
+
+    @Test
+    public void testSplitFilesMultiLineRecords() {
+        assertSplitFilesRejected(splitFilesConfiguration(ExternalDataConstants.FORMAT_JSON));
+        assertSplitFilesRejected(splitFilesConfiguration(ExternalDataConstants.FORMAT_ADM));
+        assertSplitFilesRejected(splitFilesConfiguration(ExternalDataConstants.FORMAT_LINE_SEPARATED));
+        Map<String, String> quoted = splitFilesConfiguration(ExternalDataConstants.FORMAT_CSV);
+        quoted.put(ExternalDataConstants.KEY_QUOTE, "\"");
+        assertSplitFilesRejected(quoted);
+    }
+
+    @Test
+    public void testNoSplitFiles() throws AsterixException {
+        Map<String, String> configuration = splitFilesConfiguration(ExternalDataConstants.FORMAT_JSON);
+        configuration.put(ExternalDataConstants.KEY_SPLIT_FILES, "false");
+        ExternalDataUtils.validateSplitFiles(configuration);
+    }
+
+    @Test
+    public void testParserThreads() throws AsterixException {
+        assertParserParameter(ExternalDataConstants.KEY_PARSER_THREADS);
+    }
+
+    @Test
+    public void testParserBatchSize() throws AsterixException {
+        assertParserParameter(ExternalDataConstants.KEY_PARSER_BATCH_SIZE);
+    }
+
+    private static void assertParserParameter(String key) throws AsterixException {
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(ExternalDataConstants.KEY_FORMAT, ExternalDataConstants.FORMAT_JSON);
+        configuration.put(key, "4");
+        ExternalDataUtils.validateDataParserParameters(configuration);
+        for (String value : new String[] { "0", "-1", "four", "", "4.5" }) {
+            configuration.put(key, value);
+            try {
+                ExternalDataUtils.validateDataParserParameters(configuration);
+                Assert.fail(key + " accepted " + value);
+            } catch (AsterixException e) {
+                Assert.assertEquals(ErrorCode.EXTERNAL_INVALID_POSITIVE_INTEGER_PARAMETER, e.getErrorCode());
+            }
+        }
+    }
+
+    private static Map<String, String> splitFilesConfiguration(String format) {
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(ExternalDataConstants.KEY_FORMAT, format);
+        configuration.put(ExternalDataConstants.KEY_SPLIT_FILES, "true");
+        return configuration;
+    }
+
+    private static void assertSplitFilesRejected(Map<String, String> configuration) {
+        try {
+            ExternalDataUtils.validateSplitFiles(configuration);
+            Assert.fail("split-files accepted for " + configuration);
+        } catch (AsterixException e) {
+            Assert.assertEquals(ErrorCode.EXTERNAL_SPLIT_FILES_UNSUPPORTED_FORMAT, e.getErrorCode());
+        }
+    }
+}
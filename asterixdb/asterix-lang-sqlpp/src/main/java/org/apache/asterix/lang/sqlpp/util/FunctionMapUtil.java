@@ -61,7 +61,7 @@ public class FunctionMapUtil {
      */
     public static boolean isSql92AggregateFunction(FunctionSignature signature) throws CompilationException {
         IFunctionInfo finfo = FunctionUtil.getFunctionInfo(new FunctionIdentifier(FunctionConstants.ASTERIX_NS,
-                signature.getName().toLowerCase(), signature.getArity()));
+                toInternalName(signature.getName().toLowerCase()), signature.getArity()));
         if (finfo == null) {
             return false;
         }
@@ -83,8 +83,8 @@ public class FunctionMapUtil {
         if (!coreAgg && !coreSqlAgg) {
             return false;
         }
-        String internalName = coreAgg ? name.substring(CORE_AGGREGATE_PREFIX.length())
-                : (INTERNAL_SQL_AGGREGATE_PREFIX + name.substring(CORE_SQL_AGGREGATE_PREFIX.length()));
+        String internalName = toInternalName(coreAgg ? name.substring(CORE_AGGREGATE_PREFIX.length())
+                : (INTERNAL_SQL_AGGREGATE_PREFIX + name.substring(CORE_SQL_AGGREGATE_PREFIX.length())));
         IFunctionInfo finfo = FunctionUtil
                 .getFunctionInfo(new FunctionIdentifier(FunctionConstants.ASTERIX_NS, internalName, fs.getArity()));
         if (finfo == null) {
@@ -162,7 +162,15 @@ public class FunctionMapUtil {
         boolean coreAgg = name.startsWith(CORE_AGGREGATE_PREFIX);
         String lowerCaseName = coreAgg ? name.substring(CORE_AGGREGATE_PREFIX.length())
                 : (INTERNAL_SQL_AGGREGATE_PREFIX + name.substring(CORE_SQL_AGGREGATE_PREFIX.length()));
-        return new FunctionSignature(FunctionConstants.ASTERIX_NS, lowerCaseName, fs.getArity());
+        return new FunctionSignature(FunctionConstants.ASTERIX_NS, toInternalName(lowerCaseName), fs.getArity());
+    }
+
+    /**
+     * Maps the underscores of a user-facing aggregate function name (e.g., approx_count_distinct) to the dashes of
+     * its internal name.
+     */
+    private static String toInternalName(String lowerCaseName) {
+        return lowerCaseName.replace('_', '-');
     }
 
 }
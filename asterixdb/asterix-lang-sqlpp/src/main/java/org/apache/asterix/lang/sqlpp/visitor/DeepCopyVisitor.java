@@ -65,6 +65,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationInput;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.visitor.base.AbstractSqlppQueryExpressionVisitor;
@@ -423,6 +424,13 @@ public class DeepCopyVisitor extends AbstractSqlppQueryExpressionVisitor<ILangEx
         return new CaseExpression(conditionExpr, whenExprList, thenExprList, elseExpr);
     }
 
+    @Override
+    public ILangExpression visit(WindowExpression winExpr, Void arg) throws CompilationException {
+        return new WindowExpression(winExpr.getFunctionSignature(), copyExprList(winExpr.getExprList(), arg),
+                copyExprList(winExpr.getPartitionList(), arg), copyExprList(winExpr.getOrderbyList(), arg),
+                new ArrayList<>(winExpr.getOrderbyModifierList()));
+    }
+
     private List<Expression> copyExprList(List<Expression> exprs, Void arg) throws CompilationException {
         List<Expression> newExprList = new ArrayList<>();
         for (Expression expr : exprs) {
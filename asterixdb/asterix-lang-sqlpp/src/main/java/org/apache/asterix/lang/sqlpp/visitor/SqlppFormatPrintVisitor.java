@@ -25,6 +25,7 @@ import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.lang.common.base.Expression;
 import org.apache.asterix.lang.common.clause.GroupbyClause;
 import org.apache.asterix.lang.common.clause.LetClause;
+import org.apache.asterix.lang.common.clause.OrderbyClause;
 import org.apache.asterix.lang.common.expression.GbyVariableExpressionPair;
 import org.apache.asterix.lang.common.expression.VariableExpr;
 import org.apache.asterix.lang.common.statement.InsertStatement;
@@ -44,6 +45,7 @@ import org.apache.asterix.lang.sqlpp.clause.SelectSetOperation;
 import org.apache.asterix.lang.sqlpp.clause.UnnestClause;
 import org.apache.asterix.lang.sqlpp.expression.CaseExpression;
 import org.apache.asterix.lang.sqlpp.expression.SelectExpression;
+import org.apache.asterix.lang.sqlpp.expression.WindowExpression;
 import org.apache.asterix.lang.sqlpp.struct.SetOperationRight;
 import org.apache.asterix.lang.sqlpp.util.SqlppVariableUtil;
 import org.apache.asterix.lang.sqlpp.visitor.base.ISqlppVisitor;
@@ -325,6 +327,34 @@ public class SqlppFormatPrintVisitor extends FormatPrintVisitor implements ISqlp
         return null;
     }
 
+    @Override
+    public Void visit(WindowExpression winExpr, Integer step) throws CompilationException {
+        out.print(generateFullName(winExpr.getFunctionSignature().getNamespace(),
+                winExpr.getFunctionSignature().getName()) + "(");
+        printDelimitedExpressions(winExpr.getExprList(), COMMA, step);
+        out.print(") over (");
+        if (!winExpr.getPartitionList().isEmpty()) {
+            out.print("partition by ");
+            printDelimitedExpressions(winExpr.getPartitionList(), COMMA, step);
+        }
+        List<Expression> orderbyList = winExpr.getOrderbyList();
+        if (!orderbyList.isEmpty()) {
+            out.print(winExpr.getPartitionList().isEmpty() ? "order by " : " order by ");
+            for (int i = 0; i < orderbyList.size(); i++) {
+                if (i > 0) {
+                    out.print(COMMA);
+                }
+                orderbyList.get(i).accept(this, step);
+                OrderbyClause.OrderModifier orderModifier = winExpr.getOrderbyModifierList().get(i);
+                if (orderModifier != OrderbyClause.OrderModifier.ASC) {
+                    out.print(" " + orderModifier.toString().toLowerCase());
+                }
+            }
+        }
+        out.print(")");
+        return null;
+    }
+
     @Override
     public Void visit(VariableExpr v, Integer step) {
         out.print(SqlppVariableUtil.toUserDefinedName(v.getVar().getValue()));
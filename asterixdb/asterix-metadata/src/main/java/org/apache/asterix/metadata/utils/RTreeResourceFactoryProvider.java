@@ -152,6 +152,9 @@ public class RTreeResourceFactoryProvider implements IResourceFactoryProvider {
                 dataset.getDatasetType() == DatasetType.EXTERNAL ? IndexingConstants.getBuddyBtreeComparatorFactories()
                         : getComparatorFactoriesForDeletedKeyBTree(secondaryTypeTraits, primaryComparatorFactories,
                                 secondaryComparatorFactories);
+        // both index types keep linear (Hilbert) packing rather than Sort-Tile-Recursive packing: their merges
+        // reconcile antimatter by merging the components in Hilbert order, so every component must be scanned in
+        // that order
         if (dataset.getDatasetType() == DatasetType.INTERNAL) {
             AsterixVirtualBufferCacheProvider vbcProvider =
                     new AsterixVirtualBufferCacheProvider(dataset.getDatasetId());
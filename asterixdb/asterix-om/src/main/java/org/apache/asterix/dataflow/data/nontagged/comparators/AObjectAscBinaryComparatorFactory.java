@@ -107,6 +107,13 @@ public class AObjectAscBinaryComparatorFactory implements IBinaryComparatorFacto
             // RAW
             final IBinaryComparator rawComp = RawBinaryComparatorFactory.INSTANCE.createBinaryComparator();
 
+            // The tag of the last pair of equally typed values and the comparator for their payloads.
+            // Keys of an open field are usually of a single type, so checking the tag bytes against the cached
+            // tag lets most comparisons skip the tag deserialization and the dispatch below.
+            // MISSING serves as "nothing cached", since MISSING values never reach the cache check.
+            private byte cachedTypeTag = ATypeTag.SERIALIZED_MISSING_TYPE_TAG;
+            private IBinaryComparator cachedComp;
+
             @Override
             public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) throws HyracksDataException {
 
@@ -132,6 +139,10 @@ public class AObjectAscBinaryComparatorFactory implements IBinaryComparatorFacto
                     }
                 }
 
+                if (b1[s1] == cachedTypeTag && b2[s2] == cachedTypeTag) {
+                    return cachedComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
+                }
+
                 ATypeTag tag1 = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(b1[s1]);
                 ATypeTag tag2 = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(b2[s2]);
 
@@ -141,184 +152,125 @@ public class AObjectAscBinaryComparatorFactory implements IBinaryComparatorFacto
                     return rawComp.compare(b1, s1, l1, b2, s2, l2);
                 }
 
-                // If two type does not match, we identify the source and the target and
-                // promote the source to the target type if they are compatible.
-                ATypeTag sourceTypeTag = null;
-                ATypeTag targetTypeTag = null;
-                boolean areTwoTagsEqual = false;
-                boolean typePromotionApplied = false;
-                boolean leftValueChanged = false;
-
-                if (tag1 != tag2) {
-                    // tag1 can be promoted to tag2 (e.g. tag1: SMALLINT, tag2: INTEGER)
-                    if (ATypeHierarchy.canPromote(tag1, tag2)) {
-                        sourceTypeTag = tag1;
-                        targetTypeTag = tag2;
-                        typePromotionApplied = true;
-                        leftValueChanged = true;
-                        // or tag2 can be promoted to tag1 (e.g. tag2: INTEGER, tag1: DOUBLE)
-                    } else if (ATypeHierarchy.canPromote(tag2, tag1)) {
-                        sourceTypeTag = tag2;
-                        targetTypeTag = tag1;
-                        typePromotionApplied = true;
+                if (tag1 == tag2) {
+                    IBinaryComparator comp = getPayloadComparator(tag1);
+                    if (comp == null) {
+                        // We include typeTag in comparison to compare between two type to enforce some ordering
+                        return rawComp.compare(b1, s1, l1, b2, s2, l2);
                     }
+                    // Remember the payload comparator so that the next values of this type take the fast path above.
+                    cachedTypeTag = b1[s1];
+                    cachedComp = comp;
+                    return comp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
+                }
 
-                    // we promote the source to the target by using a promoteComputer
-                    if (typePromotionApplied) {
-                        castBuffer.reset();
-                        promoteComputer = ATypeHierarchy.getTypePromoteComputer(sourceTypeTag, targetTypeTag);
-                        if (promoteComputer != null) {
-                            try {
-                                if (leftValueChanged) {
-                                    // left side is the source
-                                    promoteComputer.convertType(b1, s1 + 1, l1 - 1, castBuffer.getDataOutput());
-                                } else {
-                                    // right side is the source
-                                    promoteComputer.convertType(b2, s2 + 1, l2 - 1, castBuffer.getDataOutput());
-                                }
-                            } catch (IOException e) {
-                                throw new HyracksDataException("ComparatorFactory - failed to promote the type:"
-                                        + sourceTypeTag + " to the type:" + targetTypeTag);
-                            }
-                        } else {
-                            // No appropriate typePromoteComputer.
-                            throw new HyracksDataException("No appropriate typePromoteComputer exists for "
-                                    + sourceTypeTag + " to the " + targetTypeTag + " type. Please check the code.");
-                        }
-                    }
-                } else {
-                    // tag1 == tag2.
+                // If two type does not match, we identify the source and the target and
+                // promote the source to the target type if they are compatible.
+                ATypeTag sourceTypeTag;
+                ATypeTag targetTypeTag;
+                boolean leftValueChanged;
+                // tag1 can be promoted to tag2 (e.g. tag1: SMALLINT, tag2: INTEGER)
+                if (ATypeHierarchy.canPromote(tag1, tag2)) {
                     sourceTypeTag = tag1;
+                    targetTypeTag = tag2;
+                    leftValueChanged = true;
+                    // or tag2 can be promoted to tag1 (e.g. tag2: INTEGER, tag1: DOUBLE)
+                } else if (ATypeHierarchy.canPromote(tag2, tag1)) {
+                    sourceTypeTag = tag2;
                     targetTypeTag = tag1;
-                    areTwoTagsEqual = true;
+                    leftValueChanged = false;
+                } else {
+                    // If two tags are not compatible, then we compare raw byte by byte, including the type tag.
+                    // This is especially useful when we need to generate some order between any two types.
+                    return rawComp.compare(b1, s1, l1, b2, s2, l2);
                 }
 
-                // If two tags are not compatible, then we compare raw byte by byte, including the type tag.
-                // This is especially useful when we need to generate some order between any two types.
-                if ((!areTwoTagsEqual && !typePromotionApplied)) {
+                IBinaryComparator comp = getPayloadComparator(targetTypeTag);
+                if (comp == null) {
                     return rawComp.compare(b1, s1, l1, b2, s2, l2);
                 }
 
-                // Conduct actual compare()
-                switch (targetTypeTag) {
-                    case UUID:
-                        return ascUUIDComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    case BOOLEAN: {
-                        return ascBoolComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case TINYINT: {
-                        // No type promotion from another type to the TINYINT can happen
-                        return ascByteComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case SMALLINT: {
-                        if (!typePromotionApplied) {
-                            // No type promotion case
-                            return ascShortComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                        } else if (leftValueChanged) {
-                            // Type promotion happened. Left side was the source
-                            return ascShortComp.compare(castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
-                                    castBuffer.getLength() - 1, b2, s2 + 1, l2 - 1);
-                        } else {
-                            // Type promotion happened. Right side was the source
-                            return ascShortComp.compare(b1, s1 + 1, l1 - 1, castBuffer.getByteArray(),
-                                    castBuffer.getStartOffset() + 1, castBuffer.getLength() - 1);
-                        }
+                // we promote the source to the target by using a promoteComputer
+                castBuffer.reset();
+                promoteComputer = ATypeHierarchy.getTypePromoteComputer(sourceTypeTag, targetTypeTag);
+                if (promoteComputer == null) {
+                    // No appropriate typePromoteComputer.
+                    throw new HyracksDataException("No appropriate typePromoteComputer exists for " + sourceTypeTag
+                            + " to the " + targetTypeTag + " type. Please check the code.");
+                }
+                try {
+                    if (leftValueChanged) {
+                        // left side is the source
+                        promoteComputer.convertType(b1, s1 + 1, l1 - 1, castBuffer.getDataOutput());
+                    } else {
+                        // right side is the source
+                        promoteComputer.convertType(b2, s2 + 1, l2 - 1, castBuffer.getDataOutput());
                     }
+                } catch (IOException e) {
+                    throw new HyracksDataException("ComparatorFactory - failed to promote the type:" + sourceTypeTag
+                            + " to the type:" + targetTypeTag);
+                }
+
+                if (leftValueChanged) {
+                    // Type promotion happened. Left side was the source
+                    return comp.compare(castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
+                            castBuffer.getLength() - 1, b2, s2 + 1, l2 - 1);
+                } else {
+                    // Type promotion happened. Right side was the source
+                    return comp.compare(b1, s1 + 1, l1 - 1, castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
+                            castBuffer.getLength() - 1);
+                }
+            }
+
+            /**
+             * @return the comparator for the payloads of two values of the given type, or {@code null} if values
+             *         of that type are compared including their type tags
+             */
+            private IBinaryComparator getPayloadComparator(ATypeTag tag) {
+                switch (tag) {
+                    case UUID:
+                        return ascUUIDComp;
+                    case BOOLEAN:
+                        return ascBoolComp;
+                    case TINYINT:
+                        return ascByteComp;
+                    case SMALLINT:
+                        return ascShortComp;
                     case TIME:
                     case DATE:
                     case YEARMONTHDURATION:
-                    case INTEGER: {
-                        if (!typePromotionApplied) {
-                            // No type promotion case
-                            return ascIntComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                        } else if (leftValueChanged) {
-                            // Type promotion happened. Left side was the source
-                            return ascIntComp.compare(castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
-                                    castBuffer.getLength() - 1, b2, s2 + 1, l2 - 1);
-                        } else {
-                            // Type promotion happened. Right side was the source
-                            return ascIntComp.compare(b1, s1 + 1, l1 - 1, castBuffer.getByteArray(),
-                                    castBuffer.getStartOffset() + 1, castBuffer.getLength() - 1);
-                        }
-                    }
+                    case INTEGER:
+                        return ascIntComp;
                     case DATETIME:
                     case DAYTIMEDURATION:
-                    case BIGINT: {
-                        if (!typePromotionApplied) {
-                            // No type promotion case
-                            return ascLongComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                        } else if (leftValueChanged) {
-                            // Type promotion happened. Left side was the source
-                            return ascLongComp.compare(castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
-                                    castBuffer.getLength() - 1, b2, s2 + 1, l2 - 1);
-                        } else {
-                            // Type promotion happened. Right side was the source
-                            return ascLongComp.compare(b1, s1 + 1, l1 - 1, castBuffer.getByteArray(),
-                                    castBuffer.getStartOffset() + 1, castBuffer.getLength() - 1);
-                        }
-                    }
-                    case FLOAT: {
-                        if (!typePromotionApplied) {
-                            // No type promotion case
-                            return ascFloatComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                        } else if (leftValueChanged) {
-                            // Type promotion happened. Left side was the source
-                            return ascFloatComp.compare(castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
-                                    castBuffer.getLength() - 1, b2, s2 + 1, l2 - 1);
-                        } else {
-                            // Type promotion happened. Right side was the source
-                            return ascFloatComp.compare(b1, s1 + 1, l1 - 1, castBuffer.getByteArray(),
-                                    castBuffer.getStartOffset() + 1, castBuffer.getLength() - 1);
-                        }
-                    }
-                    case DOUBLE: {
-                        if (!typePromotionApplied) {
-                            // No type promotion case
-                            return ascDoubleComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                        } else if (leftValueChanged) {
-                            // Type promotion happened. Left side was the source
-                            return ascDoubleComp.compare(castBuffer.getByteArray(), castBuffer.getStartOffset() + 1,
-                                    castBuffer.getLength() - 1, b2, s2 + 1, l2 - 1);
-                        } else {
-                            // Type promotion happened. Right side was the source
-                            return ascDoubleComp.compare(b1, s1 + 1, l1 - 1, castBuffer.getByteArray(),
-                                    castBuffer.getStartOffset() + 1, castBuffer.getLength() - 1);
-                        }
-                    }
-                    case STRING: {
-                        return ascStrComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case RECTANGLE: {
-                        return ascRectangleComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case CIRCLE: {
-                        return ascCircleComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case POINT: {
-                        return ascPointComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case POINT3D: {
-                        return ascPoint3DComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case LINE: {
-                        return ascLineComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case POLYGON: {
-                        return ascPolygonComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case DURATION: {
-                        return ascDurationComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case INTERVAL: {
-                        return ascIntervalComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    case BINARY: {
-                        return ascByteArrayComp.compare(b1, s1 + 1, l1 - 1, b2, s2 + 1, l2 - 1);
-                    }
-                    default: {
-                        // We include typeTag in comparison to compare between two type to enforce some ordering
-                        return rawComp.compare(b1, s1, l1, b2, s2, l2);
-                    }
+                    case BIGINT:
+                        return ascLongComp;
+                    case FLOAT:
+                        return ascFloatComp;
+                    case DOUBLE:
+                        return ascDoubleComp;
+                    case STRING:
+                        return ascStrComp;
+                    case RECTANGLE:
+                        return ascRectangleComp;
+                    case CIRCLE:
+                        return ascCircleComp;
+                    case POINT:
+                        return ascPointComp;
+                    case POINT3D:
+                        return ascPoint3DComp;
+                    case LINE:
+                        return ascLineComp;
+                    case POLYGON:
+                        return ascPolygonComp;
+                    case DURATION:
+                        return ascDurationComp;
+                    case INTERVAL:
+                        return ascIntervalComp;
+                    case BINARY:
+                        return ascByteArrayComp;
+                    default:
+                        return null;
                 }
             }
         };
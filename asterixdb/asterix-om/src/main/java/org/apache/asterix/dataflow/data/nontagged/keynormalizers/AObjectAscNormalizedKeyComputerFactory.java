@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.keynormalizers;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyProperties;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.dataflow.common.utils.NormalizedKeyUtils;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * A normalized key for tagged values of any type, consistent with
+ * {@link org.apache.asterix.dataflow.data.nontagged.comparators.AObjectAscBinaryComparatorFactory}.
+ * The first byte of the key is the order of the value's type: MISSING, then NULL, then the numeric tag range, then
+ * the other types by type tag. The remaining seven bytes are an order-preserving prefix of the value for strings,
+ * booleans and the temporal types. Other types only contribute their type order, so ties are left to the comparator.
+ * The comparator orders numbers by value across the integer and the floating-point types, but orders the types whose
+ * tags lie between them (BINARY, BITARRAY and the unsigned integers) by tag, so after the integers and before the
+ * floating-point numbers. No key of a single value can express that, so all values in the numeric tag range get the
+ * same key and are ordered by the comparator alone.
+ */
+public class AObjectAscNormalizedKeyComputerFactory implements INormalizedKeyComputerFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final AObjectAscNormalizedKeyComputerFactory INSTANCE = new AObjectAscNormalizedKeyComputerFactory();
+
+    public static final INormalizedKeyProperties PROPERTIES = new INormalizedKeyProperties() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int getNormalizedKeyLength() {
+            return 2;
+        }
+
+        @Override
+        public boolean isDecisive() {
+            return false;
+        }
+    };
+
+    private static final int MISSING_ORDER = 0;
+    private static final int NULL_ORDER = 1;
+    private static final int NUMBER_ORDER = 2;
+    // other types are ranked by their type tags, after the numeric tag range
+    private static final int OTHER_ORDER_START = 3;
+    private static final int PAYLOAD_BITS = Long.SIZE - Byte.SIZE;
+    // the number of string characters that fit into the payload
+    private static final int STRING_CHARS = PAYLOAD_BITS / Character.SIZE;
+
+    private AObjectAscNormalizedKeyComputerFactory() {
+    }
+
+    @Override
+    public INormalizedKeyComputer createNormalizedKeyComputer() {
+        return new INormalizedKeyComputer() {
+
+            @Override
+            public void normalize(byte[] bytes, int start, int length, int[] normalizedKeys, int keyStart) {
+                NormalizedKeyUtils.putLongIntoNormalizedKeys(normalizedKeys, keyStart,
+                        length > 0 ? normalizeValue(bytes, start) : 0L);
+            }
+
+            @Override
+            public INormalizedKeyProperties getNormalizedKeyProperties() {
+                return PROPERTIES;
+            }
+        };
+    }
+
+    @Override
+    public INormalizedKeyProperties getNormalizedKeyProperties() {
+        return PROPERTIES;
+    }
+
+    private static long normalizeValue(byte[] bytes, int start) {
+        byte tag = bytes[start];
+        ATypeTag typeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(tag);
+        if (typeTag == null) {
+            return key(otherOrder(tag), 0L);
+        }
+        if (isInNumericTagRange(tag)) {
+            return key(NUMBER_ORDER, 0L);
+        }
+        int valueStart = start + 1;
+        switch (typeTag) {
+            case MISSING:
+                return key(MISSING_ORDER, 0L);
+            case NULL:
+                return key(NULL_ORDER, 0L);
+            case STRING:
+                return key(otherOrder(tag), normalizeString(bytes, valueStart));
+            case BOOLEAN:
+                return key(otherOrder(tag), bytes[valueStart] != 0 ? Long.MIN_VALUE : 0L);
+            case DATE:
+            case TIME:
+            case YEARMONTHDURATION:
+                return key(otherOrder(tag), normalizeLong((long) IntegerPointable.getInteger(bytes, valueStart) << 32));
+            case DATETIME:
+            case DAYTIMEDURATION:
+                return key(otherOrder(tag), normalizeLong(LongPointable.getLong(bytes, valueStart)));
+            default:
+                return key(otherOrder(tag), 0L);
+        }
+    }
+
+    private static boolean isInNumericTagRange(byte tag) {
+        return tag >= ATypeTag.SERIALIZED_INT8_TYPE_TAG && tag <= ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG;
+    }
+
+    private static int otherOrder(byte tag) {
+        return Math.min(OTHER_ORDER_START + (tag & 0xff), 0xff);
+    }
+
+    /**
+     * @return the type order in the highest byte, followed by the highest bits of the unsigned payload
+     */
+    private static long key(int typeOrder, long payload) {
+        return ((long) typeOrder << PAYLOAD_BITS) | (payload >>> Byte.SIZE);
+    }
+
+    /**
+     * @return the value as a long whose unsigned order is the signed order of the value
+     */
+    private static long normalizeLong(long value) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * @return the leading characters of the string packed into a long, followed by zeros
+     */
+    private static long normalizeString(byte[] bytes, int start) {
+        int utfLength = UTF8StringUtil.getUTFLength(bytes, start);
+        int offset = start + UTF8StringUtil.getNumBytesToStoreLength(utfLength);
+        int end = offset + utfLength;
+        long payload = 0;
+        for (int i = 0; i < STRING_CHARS; i++) {
+            payload <<= Character.SIZE;
+            if (offset < end) {
+                payload |= UTF8StringUtil.charAt(bytes, offset);
+                offset += UTF8StringUtil.charSize(bytes, offset);
+            }
+        }
+        return payload << (Long.SIZE - STRING_CHARS * Character.SIZE);
+    }
+}
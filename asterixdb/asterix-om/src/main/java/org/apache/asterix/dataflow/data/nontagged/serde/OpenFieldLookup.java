@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.serde;
+
+import org.apache.asterix.formats.nontagged.BinaryHashFunctionFactoryProvider;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * Looks up open fields by name like {@link ARecordSerializerDeserializer#getFieldOffsetByName}, but remembers the
+ * hash of the last field name and the slot of the open-part hash table where that field was found.
+ * Records of a dataset usually share their layout, so the field tends to be in the same slot in the next record,
+ * and checking that slot first avoids hashing the name and searching the hash table.
+ * An instance is meant to be owned by a single evaluator.
+ */
+public class OpenFieldLookup {
+
+    // 8 = hash code (4) + offset to the (name + tag + value) of the field (4)
+    private static final int SLOT_SIZE = 8;
+
+    private final IBinaryHashFunction utf8HashFunction =
+            BinaryHashFunctionFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryHashFunction();
+    // the last looked up field name, as an untagged string
+    private byte[] fieldName = new byte[0];
+    private int fieldNameLength = -1;
+    private int fieldNameHash;
+    private int lastSlot = -1;
+
+    /**
+     * @return the offset of the field value, or -1 if the record has no open field with the given name
+     */
+    public int getFieldOffsetByName(byte[] serRecord, int start, int len, byte[] name, int nstart)
+            throws HyracksDataException {
+        // 5 is the index of the byte that determines whether the record is expanded or not, i.e. it has an open part.
+        if (ARecordSerializerDeserializer.hasNoFields(serRecord, start, len) || serRecord[start + 5] != 1) {
+            return -1;
+        }
+        setFieldName(name, nstart + 1);
+        // 6 is the index of the first byte of the openPartOffset value.
+        int openPartOffset = start + AInt32SerializerDeserializer.getInt(serRecord, start + 6);
+        int numberOfOpenFields = AInt32SerializerDeserializer.getInt(serRecord, openPartOffset);
+        int slots = openPartOffset + 4;
+        int end = start + len;
+        if (lastSlot >= 0 && lastSlot < numberOfOpenFields) {
+            int valueOffset = match(serRecord, start, end, slots, lastSlot);
+            if (valueOffset >= 0) {
+                return valueOffset;
+            }
+        }
+        // the slots are sorted by the hash codes of the field names
+        int low = 0;
+        int high = numberOfOpenFields - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int h = AInt32SerializerDeserializer.getInt(serRecord, slots + SLOT_SIZE * mid);
+            if (h < fieldNameHash) {
+                low = mid + 1;
+            } else if (h > fieldNameHash) {
+                high = mid - 1;
+            } else {
+                // names with the same hash code are in adjacent slots on either side of mid
+                for (int slot = mid; slot >= 0 && getHash(serRecord, slots, slot) == fieldNameHash; slot--) {
+                    int valueOffset = match(serRecord, start, end, slots, slot);
+                    if (valueOffset >= 0) {
+                        return valueOffset;
+                    }
+                }
+                for (int slot = mid + 1; slot < numberOfOpenFields
+                        && getHash(serRecord, slots, slot) == fieldNameHash; slot++) {
+                    int valueOffset = match(serRecord, start, end, slots, slot);
+                    if (valueOffset >= 0) {
+                        return valueOffset;
+                    }
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private void setFieldName(byte[] name, int nameStart) throws HyracksDataException {
+        int utfLength = UTF8StringUtil.getUTFLength(name, nameStart);
+        int length = UTF8StringUtil.getNumBytesToStoreLength(utfLength) + utfLength;
+        if (length == fieldNameLength && equals(fieldName, 0, name, nameStart, length)) {
+            return;
+        }
+        if (fieldName.length < length) {
+            fieldName = new byte[length];
+        }
+        System.arraycopy(name, nameStart, fieldName, 0, length);
+        fieldNameLength = length;
+        fieldNameHash = utf8HashFunction.hash(name, nameStart, length);
+        lastSlot = -1;
+    }
+
+    private static int getHash(byte[] serRecord, int slots, int slot) {
+        return AInt32SerializerDeserializer.getInt(serRecord, slots + SLOT_SIZE * slot);
+    }
+
+    /**
+     * @return the offset of the field value if the given slot holds the current field name, -1 otherwise
+     */
+    private int match(byte[] serRecord, int start, int end, int slots, int slot) {
+        if (getHash(serRecord, slots, slot) != fieldNameHash) {
+            return -1;
+        }
+        int nameOffset = start + AInt32SerializerDeserializer.getInt(serRecord, slots + SLOT_SIZE * slot + 4);
+        if (nameOffset + fieldNameLength > end || !equals(fieldName, 0, serRecord, nameOffset, fieldNameLength)) {
+            return -1;
+        }
+        lastSlot = slot;
+        return nameOffset + fieldNameLength;
+    }
+
+    private static boolean equals(byte[] b1, int s1, byte[] b2, int s2, int length) {
+        for (int i = 0; i < length; i++) {
+            if (b1[s1 + i] != b2[s2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
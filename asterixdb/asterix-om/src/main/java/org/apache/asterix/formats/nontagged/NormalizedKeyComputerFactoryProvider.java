@@ -18,6 +18,8 @@
  */
 package org.apache.asterix.formats.nontagged;
 
+import org.apache.asterix.dataflow.data.nontagged.keynormalizers.AObjectAscNormalizedKeyComputerFactory;
+import org.apache.asterix.dataflow.data.nontagged.keynormalizers.AObjectDescNormalizedKeyComputerFactory;
 import org.apache.asterix.dataflow.data.nontagged.keynormalizers.AUUIDNormalizedKeyComputerFactory;
 import org.apache.asterix.dataflow.data.nontagged.keynormalizers.AWrappedAscNormalizedKeyComputerFactory;
 import org.apache.asterix.dataflow.data.nontagged.keynormalizers.AWrappedDescNormalizedKeyComputerFactory;
@@ -62,6 +64,9 @@ public class NormalizedKeyComputerFactoryProvider implements INormalizedKeyCompu
                     return new AWrappedAscNormalizedKeyComputerFactory(new ByteArrayNormalizedKeyComputerFactory());
                 case UUID:
                     return new AWrappedAscNormalizedKeyComputerFactory(new AUUIDNormalizedKeyComputerFactory());
+                case ANY:
+                case UNION:
+                    return AObjectAscNormalizedKeyComputerFactory.INSTANCE;
                 default:
                     return null;
             }
@@ -86,6 +91,9 @@ public class NormalizedKeyComputerFactoryProvider implements INormalizedKeyCompu
                     return new AWrappedDescNormalizedKeyComputerFactory(new ByteArrayNormalizedKeyComputerFactory());
                 case UUID:
                     return new AWrappedDescNormalizedKeyComputerFactory(new AUUIDNormalizedKeyComputerFactory());
+                case ANY:
+                case UNION:
+                    return AObjectDescNormalizedKeyComputerFactory.INSTANCE;
                 default:
                     return null;
             }
@@ -149,6 +149,7 @@ public class BuiltinFunctions {
     private static final Map<IFunctionInfo, IFunctionInfo> aggregateToGlobalAggregate = new HashMap<>();
     private static final Map<IFunctionInfo, IFunctionInfo> aggregateToSerializableAggregate = new HashMap<>();
     private static final Map<IFunctionInfo, Boolean> builtinUnnestingFunctions = new HashMap<>();
+    private static final Set<IFunctionInfo> builtinWindowFunctions = new HashSet<>();
     private static final Map<IFunctionInfo, IFunctionInfo> scalarToAggregateFunctionMap = new HashMap<>();
     private static final Map<IFunctionInfo, IFunctionInfo> distinctToRegularScalarAggregateFunctionMap =
             new HashMap<>();
@@ -423,6 +424,22 @@ public class BuiltinFunctions {
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "local-avg-serial", 1);
     public static final FunctionIdentifier SERIAL_INTERMEDIATE_AVG =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "intermediate-avg-serial", 1);
+    public static final FunctionIdentifier SERIAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx-count-distinct-serial", 1);
+    public static final FunctionIdentifier SERIAL_LOCAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "local-approx-count-distinct-serial", 1);
+    public static final FunctionIdentifier SERIAL_INTERMEDIATE_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "intermediate-approx-count-distinct-serial", 1);
+    public static final FunctionIdentifier SERIAL_GLOBAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "global-approx-count-distinct-serial", 1);
+    public static final FunctionIdentifier SERIAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx-median-serial", 1);
+    public static final FunctionIdentifier SERIAL_LOCAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "local-approx-median-serial", 1);
+    public static final FunctionIdentifier SERIAL_INTERMEDIATE_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "intermediate-approx-median-serial", 1);
+    public static final FunctionIdentifier SERIAL_GLOBAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "global-approx-median-serial", 1);
 
     // distinct aggregate functions
 
@@ -524,6 +541,45 @@ public class BuiltinFunctions {
     public static final FunctionIdentifier SCALAR_SQL_MIN_DISTINCT =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-min-distinct", 1);
 
+    public static final FunctionIdentifier APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-approx-count-distinct", 1);
+    public static final FunctionIdentifier LOCAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-approx-count-distinct", 1);
+    public static final FunctionIdentifier INTERMEDIATE_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-intermediate-approx-count-distinct", 1);
+    public static final FunctionIdentifier GLOBAL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-approx-count-distinct", 1);
+    public static final FunctionIdentifier SCALAR_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx-count-distinct", 1);
+    public static final FunctionIdentifier SCALAR_SQL_APPROX_COUNT_DISTINCT =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-approx-count-distinct", 1);
+
+    public static final FunctionIdentifier APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-approx-median", 1);
+    public static final FunctionIdentifier LOCAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-approx-median", 1);
+    public static final FunctionIdentifier INTERMEDIATE_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-intermediate-approx-median", 1);
+    public static final FunctionIdentifier GLOBAL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-approx-median", 1);
+    public static final FunctionIdentifier SCALAR_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx-median", 1);
+    public static final FunctionIdentifier SCALAR_SQL_APPROX_MEDIAN =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-approx-median", 1);
+
+    public static final FunctionIdentifier APPROX_HEAVY_HITTERS =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-approx-heavy-hitters", 1);
+    public static final FunctionIdentifier LOCAL_APPROX_HEAVY_HITTERS =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-approx-heavy-hitters", 1);
+    public static final FunctionIdentifier INTERMEDIATE_APPROX_HEAVY_HITTERS =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-intermediate-approx-heavy-hitters", 1);
+    public static final FunctionIdentifier GLOBAL_APPROX_HEAVY_HITTERS =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-approx-heavy-hitters", 1);
+    public static final FunctionIdentifier SCALAR_APPROX_HEAVY_HITTERS =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "approx-heavy-hitters", 1);
+    public static final FunctionIdentifier SCALAR_SQL_APPROX_HEAVY_HITTERS =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "sql-approx-heavy-hitters", 1);
+
     public static final FunctionIdentifier SCAN_COLLECTION =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "scan-collection", 1);
     public static final FunctionIdentifier SUBSET_COLLECTION =
@@ -586,6 +642,16 @@ public class BuiltinFunctions {
     public static final FunctionIdentifier TID = new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "tid", 0);
     public static final FunctionIdentifier GTID = new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "gtid", 0);
 
+    // window functions
+    public static final FunctionIdentifier ROW_NUMBER =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "row-number", 0);
+    public static final FunctionIdentifier RANK =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "rank", FunctionIdentifier.VARARGS);
+    public static final FunctionIdentifier DENSE_RANK =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "dense-rank", FunctionIdentifier.VARARGS);
+    public static final FunctionIdentifier LAG =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "lag", FunctionIdentifier.VARARGS);
+
     // constructors:
     public static final FunctionIdentifier BOOLEAN_CONSTRUCTOR =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "boolean", 1);
@@ -1272,6 +1338,14 @@ public class BuiltinFunctions {
         addPrivateFunction(SERIAL_INTERMEDIATE_AVG, LocalAvgTypeComputer.INSTANCE, true);
         addPrivateFunction(SERIAL_SUM, NumericAggTypeComputer.INSTANCE, true);
         addPrivateFunction(SERIAL_LOCAL_SUM, NumericAggTypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_LOCAL_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_INTERMEDIATE_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_GLOBAL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_LOCAL_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_INTERMEDIATE_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(SERIAL_GLOBAL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
 
         // Distinct aggregate functions
 
@@ -1300,6 +1374,27 @@ public class BuiltinFunctions {
         addFunction(SQL_MIN_DISTINCT, MinMaxAggTypeComputer.INSTANCE, true);
         addFunction(SCALAR_SQL_MIN_DISTINCT, ScalarVersionOfAggregateResultType.INSTANCE, true);
 
+        addFunction(APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_APPROX_COUNT_DISTINCT, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addFunction(SCALAR_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+        addFunction(SCALAR_SQL_APPROX_COUNT_DISTINCT, AInt64TypeComputer.INSTANCE, true);
+
+        addFunction(APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_APPROX_MEDIAN, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_SQL_APPROX_MEDIAN, NullableDoubleTypeComputer.INSTANCE, true);
+
+        addFunction(APPROX_HEAVY_HITTERS, OrderedListOfAnyTypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_APPROX_HEAVY_HITTERS, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(INTERMEDIATE_APPROX_HEAVY_HITTERS, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_APPROX_HEAVY_HITTERS, OrderedListOfAnyTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_APPROX_HEAVY_HITTERS, OrderedListOfAnyTypeComputer.INSTANCE, true);
+        addFunction(SCALAR_SQL_APPROX_HEAVY_HITTERS, OrderedListOfAnyTypeComputer.INSTANCE, true);
+
         // Similarity functions
         addFunction(EDIT_DISTANCE_CONTAINS, OrderedListOfAnyTypeComputer.INSTANCE, true);
         addFunction(SIMILARITY_JACCARD, AFloatTypeComputer.INSTANCE, true);
@@ -1402,6 +1497,10 @@ public class BuiltinFunctions {
         addPrivateFunction(CAST_TYPE_LAX, CastTypeLaxComputer.INSTANCE, true);
 
         addFunction(TID, AInt64TypeComputer.INSTANCE, true);
+        addFunction(ROW_NUMBER, AInt64TypeComputer.INSTANCE, true);
+        addFunction(RANK, AInt64TypeComputer.INSTANCE, true);
+        addFunction(DENSE_RANK, AInt64TypeComputer.INSTANCE, true);
+        addFunction(LAG, AnyTypeComputer.INSTANCE, true);
         addFunction(TIME_CONSTRUCTOR, ATimeTypeComputer.INSTANCE, true);
         addPrivateFunction(TYPE_OF, null, true);
         addPrivateFunction(UNORDERED_LIST_CONSTRUCTOR, UnorderedListConstructorTypeComputer.INSTANCE, true);
@@ -1731,6 +1830,74 @@ public class BuiltinFunctions {
         addDistinctAgg(SQL_MIN_DISTINCT, SCALAR_SQL_MIN);
         addScalarAgg(SQL_MIN_DISTINCT, SCALAR_SQL_MIN_DISTINCT);
 
+        // APPROX COUNT DISTINCT
+        // MISSING and NULL values are always ignored, so the SQL version is the same function.
+
+        addAgg(APPROX_COUNT_DISTINCT);
+        addAgg(LOCAL_APPROX_COUNT_DISTINCT);
+        addAgg(GLOBAL_APPROX_COUNT_DISTINCT);
+        addLocalAgg(APPROX_COUNT_DISTINCT, LOCAL_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(APPROX_COUNT_DISTINCT, INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(LOCAL_APPROX_COUNT_DISTINCT, INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(GLOBAL_APPROX_COUNT_DISTINCT, INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addGlobalAgg(APPROX_COUNT_DISTINCT, GLOBAL_APPROX_COUNT_DISTINCT);
+
+        addScalarAgg(APPROX_COUNT_DISTINCT, SCALAR_APPROX_COUNT_DISTINCT);
+        addScalarAgg(APPROX_COUNT_DISTINCT, SCALAR_SQL_APPROX_COUNT_DISTINCT);
+
+        addSerialAgg(APPROX_COUNT_DISTINCT, SERIAL_APPROX_COUNT_DISTINCT);
+        addSerialAgg(LOCAL_APPROX_COUNT_DISTINCT, SERIAL_LOCAL_APPROX_COUNT_DISTINCT);
+        addSerialAgg(GLOBAL_APPROX_COUNT_DISTINCT, SERIAL_GLOBAL_APPROX_COUNT_DISTINCT);
+        addAgg(SERIAL_APPROX_COUNT_DISTINCT);
+        addAgg(SERIAL_LOCAL_APPROX_COUNT_DISTINCT);
+        addAgg(SERIAL_GLOBAL_APPROX_COUNT_DISTINCT);
+        addLocalAgg(SERIAL_APPROX_COUNT_DISTINCT, SERIAL_LOCAL_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(SERIAL_APPROX_COUNT_DISTINCT, SERIAL_INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(SERIAL_LOCAL_APPROX_COUNT_DISTINCT, SERIAL_INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addIntermediateAgg(SERIAL_GLOBAL_APPROX_COUNT_DISTINCT, SERIAL_INTERMEDIATE_APPROX_COUNT_DISTINCT);
+        addGlobalAgg(SERIAL_APPROX_COUNT_DISTINCT, SERIAL_GLOBAL_APPROX_COUNT_DISTINCT);
+
+        // APPROX MEDIAN
+
+        addAgg(APPROX_MEDIAN);
+        addAgg(LOCAL_APPROX_MEDIAN);
+        addAgg(GLOBAL_APPROX_MEDIAN);
+        addLocalAgg(APPROX_MEDIAN, LOCAL_APPROX_MEDIAN);
+        addIntermediateAgg(APPROX_MEDIAN, INTERMEDIATE_APPROX_MEDIAN);
+        addIntermediateAgg(LOCAL_APPROX_MEDIAN, INTERMEDIATE_APPROX_MEDIAN);
+        addIntermediateAgg(GLOBAL_APPROX_MEDIAN, INTERMEDIATE_APPROX_MEDIAN);
+        addGlobalAgg(APPROX_MEDIAN, GLOBAL_APPROX_MEDIAN);
+
+        addScalarAgg(APPROX_MEDIAN, SCALAR_APPROX_MEDIAN);
+        addScalarAgg(APPROX_MEDIAN, SCALAR_SQL_APPROX_MEDIAN);
+
+        addSerialAgg(APPROX_MEDIAN, SERIAL_APPROX_MEDIAN);
+        addSerialAgg(LOCAL_APPROX_MEDIAN, SERIAL_LOCAL_APPROX_MEDIAN);
+        addSerialAgg(GLOBAL_APPROX_MEDIAN, SERIAL_GLOBAL_APPROX_MEDIAN);
+        addAgg(SERIAL_APPROX_MEDIAN);
+        addAgg(SERIAL_LOCAL_APPROX_MEDIAN);
+        addAgg(SERIAL_GLOBAL_APPROX_MEDIAN);
+        addLocalAgg(SERIAL_APPROX_MEDIAN, SERIAL_LOCAL_APPROX_MEDIAN);
+        addIntermediateAgg(SERIAL_APPROX_MEDIAN, SERIAL_INTERMEDIATE_APPROX_MEDIAN);
+        addIntermediateAgg(SERIAL_LOCAL_APPROX_MEDIAN, SERIAL_INTERMEDIATE_APPROX_MEDIAN);
+        addIntermediateAgg(SERIAL_GLOBAL_APPROX_MEDIAN, SERIAL_INTERMEDIATE_APPROX_MEDIAN);
+        addGlobalAgg(SERIAL_APPROX_MEDIAN, SERIAL_GLOBAL_APPROX_MEDIAN);
+
+        // APPROX HEAVY HITTERS
+        // The summary keeps values of any length, so there is no fixed-size serializable version.
+
+        addAgg(APPROX_HEAVY_HITTERS);
+        addAgg(LOCAL_APPROX_HEAVY_HITTERS);
+        addAgg(GLOBAL_APPROX_HEAVY_HITTERS);
+        addLocalAgg(APPROX_HEAVY_HITTERS, LOCAL_APPROX_HEAVY_HITTERS);
+        addIntermediateAgg(APPROX_HEAVY_HITTERS, INTERMEDIATE_APPROX_HEAVY_HITTERS);
+        addIntermediateAgg(LOCAL_APPROX_HEAVY_HITTERS, INTERMEDIATE_APPROX_HEAVY_HITTERS);
+        addIntermediateAgg(GLOBAL_APPROX_HEAVY_HITTERS, INTERMEDIATE_APPROX_HEAVY_HITTERS);
+        addGlobalAgg(APPROX_HEAVY_HITTERS, GLOBAL_APPROX_HEAVY_HITTERS);
+
+        addScalarAgg(APPROX_HEAVY_HITTERS, SCALAR_APPROX_HEAVY_HITTERS);
+        addScalarAgg(APPROX_HEAVY_HITTERS, SCALAR_SQL_APPROX_HEAVY_HITTERS);
+
         // SQL SUM
 
         addAgg(SQL_SUM);
@@ -1770,6 +1937,13 @@ public class BuiltinFunctions {
         addUnnestFun(SUBSET_COLLECTION, false);
     }
 
+    static {
+        addWindowFun(ROW_NUMBER);
+        addWindowFun(RANK);
+        addWindowFun(DENSE_RANK);
+        addWindowFun(LAG);
+    }
+
     public static void addDatasourceFunction(FunctionIdentifier fi, IFunctionToDataSourceRewriter transformer) {
         datasourceFunctions.put(getAsterixFunctionInfo(fi), transformer);
     }
@@ -1805,6 +1979,10 @@ public class BuiltinFunctions {
         return builtinUnnestingFunctions.get(getAsterixFunctionInfo(fi)) != null;
     }
 
+    public static boolean isBuiltinWindowFunction(FunctionIdentifier fi) {
+        return builtinWindowFunctions.contains(getAsterixFunctionInfo(fi));
+    }
+
     public static boolean returnsUniqueValues(FunctionIdentifier fi) {
         Boolean ruv = builtinUnnestingFunctions.get(getAsterixFunctionInfo(fi));
         return ruv != null && ruv.booleanValue();
@@ -1932,6 +2110,10 @@ public class BuiltinFunctions {
         builtinUnnestingFunctions.put(getAsterixFunctionInfo(fi), returnsUniqueValues);
     }
 
+    public static void addWindowFun(FunctionIdentifier fi) {
+        builtinWindowFunctions.add(getAsterixFunctionInfo(fi));
+    }
+
     private static void addSerialAgg(FunctionIdentifier fi, FunctionIdentifier serialfi) {
         aggregateToSerializableAggregate.put(getAsterixFunctionInfo(fi), getAsterixFunctionInfo(serialfi));
     }
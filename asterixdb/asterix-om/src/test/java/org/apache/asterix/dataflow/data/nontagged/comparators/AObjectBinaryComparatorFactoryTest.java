@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.comparators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADate;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt16;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AObjectBinaryComparatorFactoryTest {
+
+    private static final IAObject[] VALUES = { new AInt32(3), new AInt32(-7), new AInt32(3), new AInt64(3L),
+            new AInt64(Long.MIN_VALUE), new AInt16((short) 3), new ADouble(2.5), new ADouble(3.0), new AString("abc"),
+            new AString("abd"), new AString(""), ABoolean.TRUE, ABoolean.FALSE, new ADate(17000), new ADate(-1),
+            ANull.NULL, AMissing.MISSING };
+
+    @Test
+    public void testAscending() throws Exception {
+        test(AObjectAscBinaryComparatorFactory.INSTANCE);
+    }
+
+    @Test
+    public void testDescending() throws Exception {
+        test(AObjectDescBinaryComparatorFactory.INSTANCE);
+    }
+
+    /**
+     * Compares every pair of values with a single comparator, which specializes itself on the types it has seen,
+     * and checks the result against a comparator that has seen no value before.
+     */
+    @SuppressWarnings("unchecked")
+    private static void test(IBinaryComparatorFactory factory) throws Exception {
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        List<ArrayBackedValueStorage> values = new ArrayList<>();
+        for (IAObject value : VALUES) {
+            ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+            serde.serialize(value, storage.getDataOutput());
+            values.add(storage);
+        }
+        IBinaryComparator comparator = factory.createBinaryComparator();
+        for (int i = 0; i < values.size(); i++) {
+            for (int j = 0; j < values.size(); j++) {
+                ArrayBackedValueStorage v1 = values.get(i);
+                ArrayBackedValueStorage v2 = values.get(j);
+                int expected = factory.createBinaryComparator().compare(v1.getByteArray(), v1.getStartOffset(),
+                        v1.getLength(), v2.getByteArray(), v2.getStartOffset(), v2.getLength());
+                int actual = comparator.compare(v1.getByteArray(), v1.getStartOffset(), v1.getLength(),
+                        v2.getByteArray(), v2.getStartOffset(), v2.getLength());
+                Assert.assertEquals(VALUES[i] + " vs " + VALUES[j], Integer.signum(expected), Integer.signum(actual));
+            }
+        }
+    }
+}
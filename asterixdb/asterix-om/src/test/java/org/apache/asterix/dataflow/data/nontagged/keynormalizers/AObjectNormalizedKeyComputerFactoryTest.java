@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.keynormalizers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.dataflow.data.nontagged.comparators.AObjectAscBinaryComparatorFactory;
+import org.apache.asterix.dataflow.data.nontagged.comparators.AObjectDescBinaryComparatorFactory;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABinary;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADate;
+import org.apache.asterix.om.base.ADateTime;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AFloat;
+import org.apache.asterix.om.base.AInt16;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.utils.NormalizedKeyUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AObjectNormalizedKeyComputerFactoryTest {
+
+    private static final IAObject[] VALUES = { AMissing.MISSING, ANull.NULL, new AInt8((byte) -3),
+            new AInt16((short) 7), new AInt32(0), new AInt32(-1), new AInt32(Integer.MAX_VALUE),
+            new AInt64(Long.MIN_VALUE), new AInt64(1L << 40), new AFloat(-0.5f), new AFloat(7.25f), new ADouble(-1e300),
+            new ADouble(0.5), new ADouble(1e300), new ABinary(new byte[] { 1, 2 }), new ABinary(new byte[] { 3 }),
+            new AString(""), new AString("a"), new AString("ab"), new AString("abc"), new AString("abcd"),
+            new AString("abce"), new AString("b"), new AString("\u00e9t\u00e9"), ABoolean.FALSE, ABoolean.TRUE,
+            new ADate(-10), new ADate(0), new ADate(17000), new ADateTime(-5L), new ADateTime(1_500_000_000_000L) };
+
+    @Test
+    public void testAscending() throws Exception {
+        test(AObjectAscNormalizedKeyComputerFactory.INSTANCE, AObjectAscBinaryComparatorFactory.INSTANCE);
+    }
+
+    @Test
+    public void testDescending() throws Exception {
+        test(AObjectDescNormalizedKeyComputerFactory.INSTANCE, AObjectDescBinaryComparatorFactory.INSTANCE);
+    }
+
+    /**
+     * Checks that whenever the normalized keys of two values differ, they order the values the way the comparator does.
+     */
+    @SuppressWarnings("unchecked")
+    private static void test(INormalizedKeyComputerFactory nkcf, IBinaryComparatorFactory comparatorFactory)
+            throws Exception {
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        INormalizedKeyComputer nkc = nkcf.createNormalizedKeyComputer();
+        IBinaryComparator comparator = comparatorFactory.createBinaryComparator();
+        int keyLength = nkcf.getNormalizedKeyProperties().getNormalizedKeyLength();
+        List<ArrayBackedValueStorage> values = new ArrayList<>();
+        List<int[]> keys = new ArrayList<>();
+        for (IAObject value : VALUES) {
+            ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+            serde.serialize(value, storage.getDataOutput());
+            int[] key = new int[keyLength];
+            nkc.normalize(storage.getByteArray(), storage.getStartOffset(), storage.getLength(), key, 0);
+            values.add(storage);
+            keys.add(key);
+        }
+        for (int i = 0; i < values.size(); i++) {
+            for (int j = 0; j < values.size(); j++) {
+                int keyCmp = NormalizedKeyUtils.compareNormalizeKeys(keys.get(i), 0, keys.get(j), 0, keyLength);
+                if (keyCmp == 0) {
+                    continue;
+                }
+                ArrayBackedValueStorage v1 = values.get(i);
+                ArrayBackedValueStorage v2 = values.get(j);
+                int cmp = comparator.compare(v1.getByteArray(), v1.getStartOffset(), v1.getLength(), v2.getByteArray(),
+                        v2.getStartOffset(), v2.getLength());
+                Assert.assertEquals(VALUES[i] + " vs " + VALUES[j], keyCmp, Integer.signum(cmp));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged.serde;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OpenFieldLookupTest {
+
+    private static final String[][] RECORDS = { { "id", "name", "address", "age", "zip", "a", "b", "c" },
+            { "id", "name", "address", "age", "zip", "a", "b", "c" }, { "c", "b", "a", "zip", "id" }, {},
+            { "name", "id", "extra", "more", "address" }, { "id", "name", "address", "age", "zip", "a", "b", "c" } };
+
+    private static final String[] NAMES = { "id", "name", "c", "missing", "", "zip", "more" };
+
+    @Test
+    public void test() throws Exception {
+        ArrayBackedValueStorage[] records = new ArrayBackedValueStorage[RECORDS.length];
+        for (int i = 0; i < RECORDS.length; i++) {
+            records[i] = serializeRecord(RECORDS[i]);
+        }
+        for (String name : NAMES) {
+            ArrayBackedValueStorage serName = serialize(new AString(name));
+            OpenFieldLookup lookup = new OpenFieldLookup();
+            // go over the records twice so that the cached slot is checked against records of other layouts
+            for (int round = 0; round < 2; round++) {
+                for (ArrayBackedValueStorage record : records) {
+                    int expected = ARecordSerializerDeserializer.getFieldOffsetByName(record.getByteArray(),
+                            record.getStartOffset(), record.getLength(), serName.getByteArray(),
+                            serName.getStartOffset());
+                    int actual = lookup.getFieldOffsetByName(record.getByteArray(), record.getStartOffset(),
+                            record.getLength(), serName.getByteArray(), serName.getStartOffset());
+                    Assert.assertEquals(name, expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFieldNameChange() throws Exception {
+        ArrayBackedValueStorage record = serializeRecord(RECORDS[0]);
+        OpenFieldLookup lookup = new OpenFieldLookup();
+        for (int i = 0; i < 2; i++) {
+            for (String name : NAMES) {
+                ArrayBackedValueStorage serName = serialize(new AString(name));
+                int expected = ARecordSerializerDeserializer.getFieldOffsetByName(record.getByteArray(),
+                        record.getStartOffset(), record.getLength(), serName.getByteArray(), serName.getStartOffset());
+                int actual = lookup.getFieldOffsetByName(record.getByteArray(), record.getStartOffset(),
+                        record.getLength(), serName.getByteArray(), serName.getStartOffset());
+                Assert.assertEquals(name, expected, actual);
+            }
+        }
+    }
+
+    private static ArrayBackedValueStorage serializeRecord(String[] fieldNames) throws Exception {
+        RecordBuilder recordBuilder = new RecordBuilder();
+        recordBuilder.reset(RecordUtil.FULLY_OPEN_RECORD_TYPE);
+        recordBuilder.init();
+        for (int i = 0; i < fieldNames.length; i++) {
+            recordBuilder.addField(serialize(new AString(fieldNames[i])), serialize(new AInt32(i)));
+        }
+        ArrayBackedValueStorage record = new ArrayBackedValueStorage();
+        recordBuilder.write(record.getDataOutput(), true);
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBackedValueStorage serialize(IAObject value) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        serde.serialize(value, storage.getDataOutput());
+        return storage;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.serializable.std;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.dataflow.data.nontagged.hash.AMurmurHash3BinaryHashFunctionFamily;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.aggregates.std.HyperLogLog;
+import org.apache.asterix.runtime.exceptions.InvalidDataFormatException;
+import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.ISerializedAggregateEvaluator;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.ByteArraySerializerDeserializer;
+
+/**
+ * The serializable version of
+ * {@link org.apache.asterix.runtime.aggregates.std.AbstractApproxCountDistinctAggregateFunction}. The state is the
+ * registers of the {@link HyperLogLog} sketch, which are updated in place.
+ */
+public abstract class AbstractSerializableApproxCountDistinctAggregateFunction
+        implements ISerializedAggregateEvaluator {
+
+    private static final byte[] EMPTY_REGISTERS = new byte[HyperLogLog.REGISTER_COUNT];
+
+    private final IPointable inputVal = new VoidPointable();
+    private final IScalarEvaluator eval;
+    // numeric values are hashed as doubles, so values that are equal for COUNT(DISTINCT) have the same hash
+    private final IBinaryHashFunction highHash =
+            AMurmurHash3BinaryHashFunctionFamily.INSTANCE.createBinaryHashFunction(0);
+    private final IBinaryHashFunction lowHash =
+            AMurmurHash3BinaryHashFunctionFamily.INSTANCE.createBinaryHashFunction(1);
+
+    public AbstractSerializableApproxCountDistinctAggregateFunction(IScalarEvaluatorFactory[] args,
+            IHyracksTaskContext context) throws HyracksDataException {
+        eval = args[0].createScalarEvaluator(context);
+    }
+
+    @Override
+    public void init(DataOutput state) throws HyracksDataException {
+        try {
+            state.write(EMPTY_REGISTERS);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    protected void processDataValues(IFrameTupleReference tuple, byte[] state, int start) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        int length = inputVal.getLength();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+            return;
+        }
+        HyperLogLog.add(state, start, ((long) highHash.hash(data, offset, length) << Integer.SIZE)
+                | (lowHash.hash(data, offset, length) & 0xffffffffL));
+    }
+
+    protected void processPartialResults(IFrameTupleReference tuple, byte[] state, int start)
+            throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG
+                || data[offset] == ATypeTag.SERIALIZED_SYSTEM_NULL_TYPE_TAG) {
+            return;
+        }
+        if (data[offset] != ATypeTag.SERIALIZED_BINARY_TYPE_TAG) {
+            throw new UnsupportedItemTypeException("intermediate/global-approx-count-distinct-serial", data[offset]);
+        }
+        int sketchLength = ByteArrayPointable.getContentLength(data, offset + 1);
+        if (sketchLength != HyperLogLog.REGISTER_COUNT) {
+            throw new InvalidDataFormatException(BuiltinFunctions.APPROX_COUNT_DISTINCT, "sketch");
+        }
+        HyperLogLog.merge(state, start, data, offset + 1 + ByteArrayPointable.getNumberBytesToStoreMeta(sketchLength));
+    }
+
+    protected void finishPartialResults(byte[] state, int start, DataOutput result) throws HyracksDataException {
+        try {
+            result.writeByte(ATypeTag.SERIALIZED_BINARY_TYPE_TAG);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        ByteArraySerializerDeserializer.serialize(state, start, HyperLogLog.REGISTER_COUNT, result);
+    }
+
+    protected void finishFinalResults(byte[] state, int start, DataOutput result) throws HyracksDataException {
+        try {
+            result.writeByte(ATypeTag.SERIALIZED_INT64_TYPE_TAG);
+            result.writeLong(HyperLogLog.estimate(state, start));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.serializable.std;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
+import org.apache.asterix.runtime.aggregates.std.LogLinearHistogram;
+import org.apache.asterix.runtime.exceptions.InvalidDataFormatException;
+import org.apache.asterix.runtime.exceptions.OverflowException;
+import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.ISerializedAggregateEvaluator;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.ByteArraySerializerDeserializer;
+
+/**
+ * The serializable version of {@link org.apache.asterix.runtime.aggregates.std.AbstractApproxMedianAggregateFunction}.
+ * The state is the counts of the {@link LogLinearHistogram}, which are updated in place.
+ */
+public abstract class AbstractSerializableApproxMedianAggregateFunction implements ISerializedAggregateEvaluator {
+
+    private static final byte[] EMPTY_COUNTS = new byte[LogLinearHistogram.SIZE];
+
+    private final IPointable inputVal = new VoidPointable();
+    private final IScalarEvaluator eval;
+
+    public AbstractSerializableApproxMedianAggregateFunction(IScalarEvaluatorFactory[] args,
+            IHyracksTaskContext context) throws HyracksDataException {
+        eval = args[0].createScalarEvaluator(context);
+    }
+
+    @Override
+    public void init(DataOutput state) throws HyracksDataException {
+        try {
+            state.write(EMPTY_COUNTS);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    protected void processDataValues(IFrameTupleReference tuple, byte[] state, int start) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        switch (EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(data[offset])) {
+            case MISSING:
+            case NULL:
+                return;
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+                try {
+                    LogLinearHistogram.add(state, start,
+                            ATypeHierarchy.getDoubleValue(BuiltinFunctions.APPROX_MEDIAN.getName(), 0, data, offset));
+                } catch (ArithmeticException e) {
+                    throw new OverflowException(BuiltinFunctions.APPROX_MEDIAN);
+                }
+                return;
+            default:
+                throw new UnsupportedItemTypeException(BuiltinFunctions.APPROX_MEDIAN, data[offset]);
+        }
+    }
+
+    protected void processPartialResults(IFrameTupleReference tuple, byte[] state, int start)
+            throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG
+                || data[offset] == ATypeTag.SERIALIZED_SYSTEM_NULL_TYPE_TAG) {
+            return;
+        }
+        if (data[offset] != ATypeTag.SERIALIZED_BINARY_TYPE_TAG) {
+            throw new UnsupportedItemTypeException("intermediate/global-approx-median-serial", data[offset]);
+        }
+        int histogramLength = ByteArrayPointable.getContentLength(data, offset + 1);
+        if (histogramLength != LogLinearHistogram.SIZE) {
+            throw new InvalidDataFormatException(BuiltinFunctions.APPROX_MEDIAN, "histogram");
+        }
+        try {
+            LogLinearHistogram.merge(state, start, data,
+                    offset + 1 + ByteArrayPointable.getNumberBytesToStoreMeta(histogramLength));
+        } catch (ArithmeticException e) {
+            throw new OverflowException(BuiltinFunctions.APPROX_MEDIAN);
+        }
+    }
+
+    protected void finishPartialResults(byte[] state, int start, DataOutput result) throws HyracksDataException {
+        try {
+            result.writeByte(ATypeTag.SERIALIZED_BINARY_TYPE_TAG);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        ByteArraySerializerDeserializer.serialize(state, start, LogLinearHistogram.SIZE, result);
+    }
+
+    protected void finishFinalResults(byte[] state, int start, DataOutput result) throws HyracksDataException {
+        try {
+            if (LogLinearHistogram.count(state, start) == 0) {
+                result.writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+            } else {
+                result.writeByte(ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG);
+                result.writeDouble(LogLinearHistogram.quantile(state, start, 0.5));
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
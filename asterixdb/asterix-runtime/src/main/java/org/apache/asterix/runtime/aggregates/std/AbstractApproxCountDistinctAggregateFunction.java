@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.IOException;
+
+import org.apache.asterix.dataflow.data.nontagged.hash.AMurmurHash3BinaryHashFunctionFamily;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.exceptions.InvalidDataFormatException;
+import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.ByteArraySerializerDeserializer;
+
+/**
+ * Estimates the number of distinct values with a {@link HyperLogLog} sketch. Like COUNT(DISTINCT), it ignores
+ * MISSING and NULL values. The partial results are the sketches, serialized as binary values.
+ */
+public abstract class AbstractApproxCountDistinctAggregateFunction implements IAggregateEvaluator {
+
+    private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
+    private final IPointable inputVal = new VoidPointable();
+    private final IScalarEvaluator eval;
+    private final HyperLogLog sketch = new HyperLogLog();
+    // numeric values are hashed as doubles, so values that are equal for COUNT(DISTINCT) have the same hash
+    private final IBinaryHashFunction highHash =
+            AMurmurHash3BinaryHashFunctionFamily.INSTANCE.createBinaryHashFunction(0);
+    private final IBinaryHashFunction lowHash =
+            AMurmurHash3BinaryHashFunctionFamily.INSTANCE.createBinaryHashFunction(1);
+
+    public AbstractApproxCountDistinctAggregateFunction(IScalarEvaluatorFactory[] args, IHyracksTaskContext context)
+            throws HyracksDataException {
+        eval = args[0].createScalarEvaluator(context);
+    }
+
+    @Override
+    public void init() throws HyracksDataException {
+        sketch.reset();
+    }
+
+    protected void processDataValues(IFrameTupleReference tuple) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        int length = inputVal.getLength();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+            return;
+        }
+        sketch.add(((long) highHash.hash(data, offset, length) << Integer.SIZE)
+                | (lowHash.hash(data, offset, length) & 0xffffffffL));
+    }
+
+    protected void processPartialResults(IFrameTupleReference tuple) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG
+                || data[offset] == ATypeTag.SERIALIZED_SYSTEM_NULL_TYPE_TAG) {
+            return;
+        }
+        if (data[offset] != ATypeTag.SERIALIZED_BINARY_TYPE_TAG) {
+            throw new UnsupportedItemTypeException("intermediate/global-approx-count-distinct", data[offset]);
+        }
+        int sketchLength = ByteArrayPointable.getContentLength(data, offset + 1);
+        if (sketchLength != HyperLogLog.REGISTER_COUNT) {
+            throw new InvalidDataFormatException(BuiltinFunctions.APPROX_COUNT_DISTINCT, "sketch");
+        }
+        sketch.merge(data, offset + 1 + ByteArrayPointable.getNumberBytesToStoreMeta(sketchLength));
+    }
+
+    protected void finishPartialResults(IPointable result) throws HyracksDataException {
+        resultStorage.reset();
+        try {
+            resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_BINARY_TYPE_TAG);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        ByteArraySerializerDeserializer.serialize(sketch.getRegisters(), 0, HyperLogLog.REGISTER_COUNT,
+                resultStorage.getDataOutput());
+        result.set(resultStorage);
+    }
+
+    protected void finishFinalResults(IPointable result) throws HyracksDataException {
+        resultStorage.reset();
+        try {
+            resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_INT64_TYPE_TAG);
+            resultStorage.getDataOutput().writeLong(sketch.estimate());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        result.set(resultStorage);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.IOException;
+
+import org.apache.asterix.builders.OrderedListBuilder;
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.dataflow.data.nontagged.serde.AObjectSerializerDeserializer;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.exceptions.UnsupportedItemTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.ByteArraySerializerDeserializer;
+
+/**
+ * Finds the most frequent values with a {@link MisraGries} summary. The result is an array of
+ * {"value": ..., "count": ...} objects, ordered by decreasing count, where each count is a lower bound of the true
+ * count. Like COUNT(DISTINCT), it ignores MISSING and NULL values. The partial results are the summaries, serialized
+ * as binary values.
+ */
+public abstract class AbstractApproxHeavyHittersAggregateFunction implements IAggregateEvaluator {
+
+    private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
+    private final ArrayBackedValueStorage summaryStorage = new ArrayBackedValueStorage();
+    private final ArrayBackedValueStorage itemStorage = new ArrayBackedValueStorage();
+    private final ArrayBackedValueStorage countStorage = new ArrayBackedValueStorage();
+    private final ArrayBackedValueStorage valueFieldName = new ArrayBackedValueStorage();
+    private final ArrayBackedValueStorage countFieldName = new ArrayBackedValueStorage();
+    private final RecordBuilder recordBuilder = new RecordBuilder();
+    private final OrderedListBuilder listBuilder = new OrderedListBuilder();
+    private final IPointable inputVal = new VoidPointable();
+    private final IScalarEvaluator eval;
+    private final MisraGries summary = new MisraGries();
+
+    public AbstractApproxHeavyHittersAggregateFunction(IScalarEvaluatorFactory[] args, IHyracksTaskContext context)
+            throws HyracksDataException {
+        eval = args[0].createScalarEvaluator(context);
+        recordBuilder.reset(RecordUtil.FULLY_OPEN_RECORD_TYPE);
+        try {
+            AObjectSerializerDeserializer.INSTANCE.serialize(new AString("value"), valueFieldName.getDataOutput());
+            AObjectSerializerDeserializer.INSTANCE.serialize(new AString("count"), countFieldName.getDataOutput());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public void init() throws HyracksDataException {
+        summary.reset();
+    }
+
+    protected void processDataValues(IFrameTupleReference tuple) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+            return;
+        }
+        summary.add(data, offset, inputVal.getLength());
+    }
+
+    protected void processPartialResults(IFrameTupleReference tuple) throws HyracksDataException {
+        eval.evaluate(tuple, inputVal);
+        byte[] data = inputVal.getByteArray();
+        int offset = inputVal.getStartOffset();
+        if (data[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG || data[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG
+                || data[offset] == ATypeTag.SERIALIZED_SYSTEM_NULL_TYPE_TAG) {
+            return;
+        }
+        if (data[offset] != ATypeTag.SERIALIZED_BINARY_TYPE_TAG) {
+            throw new UnsupportedItemTypeException("intermediate/global-approx-heavy-hitters", data[offset]);
+        }
+        int summaryLength = ByteArrayPointable.getContentLength(data, offset + 1);
+        summary.merge(data, offset + 1 + ByteArrayPointable.getNumberBytesToStoreMeta(summaryLength));
+    }
+
+    protected void finishPartialResults(IPointable result) throws HyracksDataException {
+        summaryStorage.reset();
+        summary.write(summaryStorage.getDataOutput());
+        resultStorage.reset();
+        try {
+            resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_BINARY_TYPE_TAG);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        ByteArraySerializerDeserializer.serialize(summaryStorage.getByteArray(), summaryStorage.getStartOffset(),
+                summaryStorage.getLength(), resultStorage.getDataOutput());
+        result.set(resultStorage);
+    }
+
+    protected void finishFinalResults(IPointable result) throws HyracksDataException {
+        summary.sort();
+        listBuilder.reset(AOrderedListType.FULL_OPEN_ORDEREDLIST_TYPE);
+        try {
+            for (int i = 0; i < summary.size(); i++) {
+                countStorage.reset();
+                countStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_INT64_TYPE_TAG);
+                countStorage.getDataOutput().writeLong(summary.getCount(i));
+                itemStorage.reset();
+                recordBuilder.init();
+                recordBuilder.addField(valueFieldName, summary.getValue(i));
+                recordBuilder.addField(countFieldName, countStorage);
+                recordBuilder.write(itemStorage.getDataOutput(), true);
+                listBuilder.addItem(itemStorage);
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        resultStorage.reset();
+        listBuilder.write(resultStorage.getDataOutput(), true);
+        result.set(resultStorage);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch of the distinct values of a stream, given by their 64-bit hashes.
+ * Sketches merge by keeping the maximum of each register, so partial sketches can be computed locally and merged
+ * across an exchange. With 2^12 one-byte registers, the standard error of the estimate is about 1.6%.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 12;
+    public static final int REGISTER_COUNT = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_COUNT);
+
+    private final byte[] registers = new byte[REGISTER_COUNT];
+
+    public void reset() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    public void add(long hash) {
+        add(registers, 0, hash);
+    }
+
+    /**
+     * Merges the registers of another sketch.
+     */
+    public void merge(byte[] bytes, int start) {
+        merge(registers, 0, bytes, start);
+    }
+
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    /**
+     * @return the estimated number of distinct values, using linear counting for small cardinalities.
+     */
+    public long estimate() {
+        return estimate(registers, 0);
+    }
+
+    /**
+     * Adds a hash to the registers stored at {@code start}, e.g. in the state of a serializable aggregate.
+     */
+    public static void add(byte[] registers, int start, long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // the guard bit bounds the rank when the remaining bits are all 0
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[start + index]) {
+            registers[start + index] = rank;
+        }
+    }
+
+    public static void merge(byte[] registers, int start, byte[] bytes, int bytesStart) {
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            byte rank = bytes[bytesStart + i];
+            if (rank > registers[start + i]) {
+                registers[start + i] = rank;
+            }
+        }
+    }
+
+    public static long estimate(byte[] registers, int start) {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTER_COUNT; i++) {
+            byte rank = registers[start + i];
+            sum += Math.scalb(1.0, -rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTER_COUNT * REGISTER_COUNT / sum;
+        if (estimate <= 2.5 * REGISTER_COUNT && zeros > 0) {
+            estimate = REGISTER_COUNT * Math.log((double) REGISTER_COUNT / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+
+/**
+ * A log-linear histogram of a stream of numbers, used to estimate quantiles. Every power of two from 2^-32 to 2^64
+ * is split into 16 buckets of equal width, separately for negative and positive values, and zeros have their own
+ * count. The estimate of a quantile is the midpoint of the bucket that holds it, which is within 1/32 (about 3%) of
+ * the true quantile. Magnitudes outside that range fall into the first or last bucket of their sign.
+ * Histograms merge by adding their counts, so the estimate does not depend on how the input was partitioned.
+ */
+public class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = -32;
+    private static final int MAX_EXPONENT = 64;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKET_COUNT;
+
+    // the zero count, then the negative buckets, then the positive buckets, as 4-byte counts
+    private static final int NEGATIVE_START = Integer.BYTES;
+    private static final int POSITIVE_START = NEGATIVE_START + BUCKET_COUNT * Integer.BYTES;
+    public static final int SIZE = POSITIVE_START + BUCKET_COUNT * Integer.BYTES;
+
+    private final byte[] counts = new byte[SIZE];
+
+    public void reset() {
+        Arrays.fill(counts, (byte) 0);
+    }
+
+    public void add(double value) {
+        add(counts, 0, value);
+    }
+
+    /**
+     * Merges the counts of another histogram.
+     */
+    public void merge(byte[] bytes, int start) {
+        merge(counts, 0, bytes, start);
+    }
+
+    public byte[] getCounts() {
+        return counts;
+    }
+
+    public long count() {
+        return count(counts, 0);
+    }
+
+    public double quantile(double phi) {
+        return quantile(counts, 0, phi);
+    }
+
+    /**
+     * Adds a value to the counts stored at {@code start}, e.g. in the state of a serializable aggregate.
+     * NaN values are ignored.
+     *
+     * @throws ArithmeticException
+     *             if the count of a bucket overflows
+     */
+    public static void add(byte[] counts, int start, double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        increment(counts, start + offset(value), 1);
+    }
+
+    public static void merge(byte[] counts, int start, byte[] bytes, int bytesStart) {
+        for (int i = 0; i < SIZE; i += Integer.BYTES) {
+            increment(counts, start + i, IntegerPointable.getInteger(bytes, bytesStart + i));
+        }
+    }
+
+    public static long count(byte[] counts, int start) {
+        long count = 0;
+        for (int i = 0; i < SIZE; i += Integer.BYTES) {
+            count += IntegerPointable.getInteger(counts, start + i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the estimated value at the rank {@code floor(phi * (n - 1))} of the n values in the histogram, which
+     *         must not be empty
+     */
+    public static double quantile(byte[] counts, int start, double phi) {
+        long rank = (long) Math.floor(phi * (count(counts, start) - 1));
+        // the negative buckets hold increasing magnitudes, so they are visited backwards
+        for (int bucket = BUCKET_COUNT - 1; bucket >= 0; bucket--) {
+            rank -= IntegerPointable.getInteger(counts, start + NEGATIVE_START + bucket * Integer.BYTES);
+            if (rank < 0) {
+                return -midpoint(bucket);
+            }
+        }
+        rank -= IntegerPointable.getInteger(counts, start);
+        if (rank < 0) {
+            return 0.0;
+        }
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            rank -= IntegerPointable.getInteger(counts, start + POSITIVE_START + bucket * Integer.BYTES);
+            if (rank < 0) {
+                return midpoint(bucket);
+            }
+        }
+        throw new IllegalStateException("empty histogram");
+    }
+
+    private static int offset(double value) {
+        if (value == 0.0) {
+            return 0;
+        }
+        int signStart = value < 0 ? NEGATIVE_START : POSITIVE_START;
+        long bits = Double.doubleToRawLongBits(value);
+        int exponent = Math.getExponent(value);
+        int bucket;
+        if (exponent < MIN_EXPONENT) {
+            bucket = 0;
+        } else if (exponent >= MAX_EXPONENT) {
+            bucket = BUCKET_COUNT - 1;
+        } else {
+            int subBucket = (int) (bits >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+            bucket = (exponent - MIN_EXPONENT) * SUB_BUCKET_COUNT + subBucket;
+        }
+        return signStart + bucket * Integer.BYTES;
+    }
+
+    private static double midpoint(int bucket) {
+        int exponent = bucket / SUB_BUCKET_COUNT + MIN_EXPONENT;
+        int subBucket = bucket % SUB_BUCKET_COUNT;
+        return Math.scalb(1.0 + (subBucket + 0.5) / SUB_BUCKET_COUNT, exponent);
+    }
+
+    private static void increment(byte[] counts, int offset, int delta) {
+        IntegerPointable.setInteger(counts, offset, Math.addExact(IntegerPointable.getInteger(counts, offset), delta));
+    }
+}
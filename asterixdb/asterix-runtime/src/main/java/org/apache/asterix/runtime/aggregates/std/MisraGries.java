@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.asterix.dataflow.data.nontagged.hash.AMurmurHash3BinaryHashFunctionFamily;
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * A Misra-Gries summary of the most frequent values of a stream, with at most {@link #CAPACITY} counters.
+ * The count of a value in the summary is at most n / (CAPACITY + 1) below its true count, where n is the number of
+ * values that were added, so every value that occurs more often than that is in the summary.
+ * Summaries merge by adding their counters and then subtracting the (CAPACITY + 1)-th largest count from all of them,
+ * which keeps the same bound for the merged stream. Values are compared the way DISTINCT compares them.
+ */
+public class MisraGries {
+
+    public static final int CAPACITY = 32;
+
+    // numeric values are hashed as doubles, so values that are equal for DISTINCT have the same hash
+    private final IBinaryHashFunction hashFunction =
+            AMurmurHash3BinaryHashFunctionFamily.INSTANCE.createBinaryHashFunction(0);
+    private final IBinaryComparator comparator = BinaryComparatorFactoryProvider.INSTANCE
+            .getBinaryComparatorFactory(BuiltinType.ANY, true).createBinaryComparator();
+    // a merge adds up to CAPACITY counters before the summary is pruned
+    private final ArrayBackedValueStorage[] values = new ArrayBackedValueStorage[2 * CAPACITY];
+    private final int[] hashes = new int[2 * CAPACITY];
+    private final long[] counts = new long[2 * CAPACITY];
+    private final long[] sortedCounts = new long[2 * CAPACITY];
+    private int size;
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void add(byte[] bytes, int start, int length) throws HyracksDataException {
+        increment(bytes, start, length, 1);
+        prune();
+    }
+
+    /**
+     * Merges a summary that was written by {@link #write(DataOutput)}.
+     */
+    public void merge(byte[] bytes, int start) throws HyracksDataException {
+        int mergedSize = IntegerPointable.getInteger(bytes, start);
+        int offset = start + Integer.BYTES;
+        for (int i = 0; i < mergedSize; i++) {
+            long count = LongPointable.getLong(bytes, offset);
+            int length = IntegerPointable.getInteger(bytes, offset + Long.BYTES);
+            offset += Long.BYTES + Integer.BYTES;
+            increment(bytes, offset, length, count);
+            offset += length;
+        }
+        prune();
+    }
+
+    /**
+     * Writes the counters as their number, followed by the count, the length, and the bytes of each value.
+     */
+    public void write(DataOutput out) throws HyracksDataException {
+        try {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(counts[i]);
+                out.writeInt(values[i].getLength());
+                out.write(values[i].getByteArray(), values[i].getStartOffset(), values[i].getLength());
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Sorts the counters by decreasing count, and by value for equal counts.
+     */
+    public void sort() throws HyracksDataException {
+        for (int i = 1; i < size; i++) {
+            for (int j = i; j > 0 && compareCounters(j - 1, j) > 0; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public IValueReference getValue(int i) {
+        return values[i];
+    }
+
+    public long getCount(int i) {
+        return counts[i];
+    }
+
+    private void increment(byte[] bytes, int start, int length, long count) throws HyracksDataException {
+        int hash = hashFunction.hash(bytes, start, length);
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] == hash && comparator.compare(values[i].getByteArray(), values[i].getStartOffset(),
+                    values[i].getLength(), bytes, start, length) == 0) {
+                counts[i] += count;
+                return;
+            }
+        }
+        if (values[size] == null) {
+            values[size] = new ArrayBackedValueStorage();
+        }
+        values[size].set(bytes, start, length);
+        hashes[size] = hash;
+        counts[size] = count;
+        size++;
+    }
+
+    private void prune() {
+        if (size <= CAPACITY) {
+            return;
+        }
+        System.arraycopy(counts, 0, sortedCounts, 0, size);
+        Arrays.sort(sortedCounts, 0, size);
+        long threshold = sortedCounts[size - CAPACITY - 1];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] > threshold) {
+                swap(kept, i);
+                counts[kept] -= threshold;
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    private int compareCounters(int i, int j) throws HyracksDataException {
+        if (counts[i] != counts[j]) {
+            return counts[i] > counts[j] ? -1 : 1;
+        }
+        return comparator.compare(values[i].getByteArray(), values[i].getStartOffset(), values[i].getLength(),
+                values[j].getByteArray(), values[j].getStartOffset(), values[j].getLength());
+    }
+
+    private void swap(int i, int j) {
+        ArrayBackedValueStorage value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        int hash = hashes[i];
+        hashes[i] = hashes[j];
+        hashes[j] = hash;
+        long count = counts[i];
+        counts[i] = counts[j];
+        counts[j] = count;
+    }
+}
@@ -18,31 +18,36 @@
  */
 package org.apache.asterix.runtime.evaluators.comparisons;
 
-import java.io.DataOutput;
-
-import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
-import org.apache.asterix.om.base.ABoolean;
-import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt16SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt32SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt64SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt8SerializerDeserializer;
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
 import org.apache.asterix.om.types.ATypeTag;
-import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
+import org.apache.asterix.runtime.evaluators.staticcodegen.TypeChecker;
 import org.apache.asterix.runtime.exceptions.UnsupportedTypeException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.algebricks.runtime.evaluators.ConstantEvalFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
-import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.TaggedValuePointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
-import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
+public abstract class AbstractComparisonEvaluator implements IBatchScalarEvaluator {
+
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] NULL = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
 
-    protected ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
-    protected DataOutput out = resultStorage.getDataOutput();
     protected TaggedValuePointable argLeft = (TaggedValuePointable) TaggedValuePointable.FACTORY.createPointable();
     protected TaggedValuePointable argRight = (TaggedValuePointable) TaggedValuePointable.FACTORY.createPointable();
     protected IPointable outLeft = VoidPointable.FACTORY.createPointable();
@@ -50,30 +55,97 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
     protected IScalarEvaluator evalLeft;
     protected IScalarEvaluator evalRight;
     private ComparisonHelper ch = new ComparisonHelper();
+    private IBatchScalarEvaluator batchEvalLeft;
+    private IBatchScalarEvaluator batchEvalRight;
+    private IPointable[] batchLeft = new IPointable[0];
+    private IPointable[] batchRight = new IPointable[0];
+    // handles MISSING and NULL arguments in batches the way the generated code does for single tuples
+    private TypeChecker argChecker = new TypeChecker();
 
-    @SuppressWarnings("unchecked")
-    protected ISerializerDeserializer<ABoolean> serde =
-            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABOOLEAN);
-    @SuppressWarnings("unchecked")
-    protected ISerializerDeserializer<ANull> nullSerde =
-            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANULL);
+    // A comparison with an integer or string constant is specialized for the constant when the evaluator is created:
+    // the constant is decoded once, and arguments of the same type class are compared with it directly.
+    private byte constantTypeTag = ATypeTag.SERIALIZED_MISSING_TYPE_TAG;
+    private boolean constantOnLeft;
+    private long constantInteger;
+    private byte[] constantValue;
+    private IBinaryComparator strBinaryComp;
 
     public AbstractComparisonEvaluator(IScalarEvaluatorFactory evalLeftFactory,
             IScalarEvaluatorFactory evalRightFactory, IHyracksTaskContext context) throws HyracksDataException {
         this.evalLeft = evalLeftFactory.createScalarEvaluator(context);
         this.evalRight = evalRightFactory.createScalarEvaluator(context);
+        if (evalRightFactory instanceof ConstantEvalFactory) {
+            specializeForConstant(((ConstantEvalFactory) evalRightFactory).getValue(), false);
+        } else if (evalLeftFactory instanceof ConstantEvalFactory) {
+            specializeForConstant(((ConstantEvalFactory) evalLeftFactory).getValue(), true);
+        }
+    }
+
+    private void specializeForConstant(byte[] constant, boolean onLeft) {
+        // a constant that is not a complete value is left to the generic comparison, which reports the error
+        if (isInteger(constant[0]) && constant.length >= 1 + getIntegerLength(constant[0])) {
+            constantInteger = getInteger(constant[0], constant, 1);
+        } else if (constant[0] == ATypeTag.SERIALIZED_STRING_TYPE_TAG) {
+            constantValue = constant;
+            strBinaryComp = BinaryComparatorFactoryProvider.UTF8STRING_POINTABLE_INSTANCE.createBinaryComparator();
+        } else {
+            return;
+        }
+        constantTypeTag = constant[0];
+        constantOnLeft = onLeft;
     }
 
     @Override
     public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
-        resultStorage.reset();
-
         // Evaluates input args.
         evalLeft.evaluate(tuple, argLeft);
         evalRight.evaluate(tuple, argRight);
         argLeft.getValue(outLeft);
         argRight.getValue(outRight);
+        byte[] value = compare();
+        result.set(value, 0, value.length);
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+            throws HyracksDataException {
+        if (batchEvalLeft == null) {
+            batchEvalLeft = BatchEvaluatorUtil.asBatchEvaluator(evalLeft);
+            batchEvalRight = BatchEvaluatorUtil.asBatchEvaluator(evalRight);
+        }
+        batchLeft = BatchEvaluatorUtil.ensureCapacity(batchLeft, size);
+        batchRight = BatchEvaluatorUtil.ensureCapacity(batchRight, size);
+        batchEvalLeft.evaluate(accessor, selection, size, batchLeft);
+        batchEvalRight.evaluate(accessor, selection, size, batchRight);
+        for (int i = 0; i < size; i++) {
+            if (argChecker.isMissing(batchLeft[i], results[i]) || argChecker.isMissing(batchRight[i], results[i])
+                    || argChecker.isNull(results[i])) {
+                continue;
+            }
+            argLeft.set(batchLeft[i]);
+            argRight.set(batchRight[i]);
+            argLeft.getValue(outLeft);
+            argRight.getValue(outRight);
+            byte[] value = compare();
+            results[i].set(value, 0, value.length);
+        }
+    }
 
+    @Override
+    public boolean mayHaveSideEffects() {
+        return BatchEvaluatorUtil.mayHaveSideEffects(evalLeft, evalRight);
+    }
+
+    /**
+     * @return the serialized result of the comparison of the arguments
+     */
+    private byte[] compare() throws HyracksDataException {
+        if (constantTypeTag != ATypeTag.SERIALIZED_MISSING_TYPE_TAG) {
+            byte[] result = compareWithConstant();
+            if (result != null) {
+                return result;
+            }
+        }
         // checks whether we can apply >, >=, <, and <= to the given type since
         // these operations cannot be defined for certain types.
         if (isTotallyOrderable()) {
@@ -84,13 +156,79 @@ public abstract class AbstractComparisonEvaluator implements IScalarEvaluator {
         if (comparabilityCheck()) {
             // Two types can be compared
             int r = compareResults();
-            ABoolean b = getComparisonResult(r) ? ABoolean.TRUE : ABoolean.FALSE;
-            serde.serialize(b, out);
+            return getComparisonResult(r) ? TRUE : FALSE;
         } else {
             // result:NULL - two types cannot be compared.
-            nullSerde.serialize(ANull.NULL, out);
+            return NULL;
+        }
+    }
+
+    /**
+     * @return the serialized result of the comparison of the non-constant argument with the constant one, or null if
+     *         the type of the argument has no specialized comparison with the constant
+     */
+    private byte[] compareWithConstant() throws HyracksDataException {
+        byte tag = constantOnLeft ? argRight.getTag() : argLeft.getTag();
+        IPointable value = constantOnLeft ? outRight : outLeft;
+        byte[] bytes = value.getByteArray();
+        int start = value.getStartOffset();
+        int r;
+        if (constantTypeTag == ATypeTag.SERIALIZED_STRING_TYPE_TAG) {
+            if (tag != ATypeTag.SERIALIZED_STRING_TYPE_TAG) {
+                return null;
+            }
+            if (isTotallyOrderable()) {
+                r = strBinaryComp.compare(bytes, start, value.getLength(), constantValue, 1, constantValue.length - 1);
+            } else {
+                // equal strings have the same serialization
+                r = equals(bytes, start, value.getLength(), constantValue, 1, constantValue.length - 1) ? 0 : 1;
+            }
+        } else {
+            if (!isInteger(tag)) {
+                return null;
+            }
+            r = Long.compare(getInteger(tag, bytes, start), constantInteger);
+        }
+        return getComparisonResult(constantOnLeft ? -r : r) ? TRUE : FALSE;
+    }
+
+    private static boolean isInteger(byte tag) {
+        return tag == ATypeTag.SERIALIZED_INT8_TYPE_TAG || tag == ATypeTag.SERIALIZED_INT16_TYPE_TAG
+                || tag == ATypeTag.SERIALIZED_INT32_TYPE_TAG || tag == ATypeTag.SERIALIZED_INT64_TYPE_TAG;
+    }
+
+    private static int getIntegerLength(byte tag) {
+        if (tag == ATypeTag.SERIALIZED_INT8_TYPE_TAG) {
+            return Byte.BYTES;
+        } else if (tag == ATypeTag.SERIALIZED_INT16_TYPE_TAG) {
+            return Short.BYTES;
+        } else if (tag == ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
+            return Integer.BYTES;
+        }
+        return Long.BYTES;
+    }
+
+    private static long getInteger(byte tag, byte[] bytes, int start) {
+        if (tag == ATypeTag.SERIALIZED_INT8_TYPE_TAG) {
+            return AInt8SerializerDeserializer.getByte(bytes, start);
+        } else if (tag == ATypeTag.SERIALIZED_INT16_TYPE_TAG) {
+            return AInt16SerializerDeserializer.getShort(bytes, start);
+        } else if (tag == ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
+            return AInt32SerializerDeserializer.getInt(bytes, start);
+        }
+        return AInt64SerializerDeserializer.getLong(bytes, start);
+    }
+
+    private static boolean equals(byte[] bytes1, int start1, int length1, byte[] bytes2, int start2, int length2) {
+        if (length1 != length2) {
+            return false;
+        }
+        for (int i = 0; i < length1; i++) {
+            if (bytes1[start1 + i] != bytes2[start2 + i]) {
+                return false;
+            }
         }
-        result.set(resultStorage);
+        return true;
     }
 
     protected abstract boolean isTotallyOrderable();
@@ -48,14 +48,19 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.evaluators.staticcodegen.TypeChecker;
 import org.apache.asterix.runtime.exceptions.IncompatibleTypeException;
 import org.apache.asterix.runtime.exceptions.OverflowException;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.asterix.runtime.exceptions.UnderflowException;
 import org.apache.asterix.runtime.exceptions.UnsupportedTypeException;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchResultStorage;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -103,13 +108,20 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
             @Override
             public IScalarEvaluator createScalarEvaluator(IHyracksTaskContext ctx) throws HyracksDataException {
 
-                return new IScalarEvaluator() {
+                return new IBatchScalarEvaluator() {
                     private ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
                     private DataOutput out = resultStorage.getDataOutput();
                     private IPointable argPtr0 = new VoidPointable();
                     private IPointable argPtr1 = new VoidPointable();
                     private IScalarEvaluator evalLeft = args[0].createScalarEvaluator(ctx);
                     private IScalarEvaluator evalRight = args[1].createScalarEvaluator(ctx);
+                    private IBatchScalarEvaluator batchEvalLeft;
+                    private IBatchScalarEvaluator batchEvalRight;
+                    private IPointable[] batchLeft = new IPointable[0];
+                    private IPointable[] batchRight = new IPointable[0];
+                    private BatchResultStorage batchResults = new BatchResultStorage();
+                    // handles MISSING and NULL arguments in batches the way the generated code does for single tuples
+                    private TypeChecker argChecker = new TypeChecker();
                     private double[] operandsFloating = new double[args.length];
                     private long[] operandsInteger = new long[args.length];
                     private int resultType;
@@ -136,14 +148,53 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
                     @SuppressWarnings("rawtypes")
                     private ISerializerDeserializer serde;
 
-                    @SuppressWarnings("unchecked")
                     @Override
                     public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                        evalLeft.evaluate(tuple, argPtr0);
+                        evalRight.evaluate(tuple, argPtr1);
+                        evaluateArithmeticOperation();
+                        result.set(resultStorage);
+                    }
+
+                    @Override
+                    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+                            throws HyracksDataException {
+                        if (batchEvalLeft == null) {
+                            batchEvalLeft = BatchEvaluatorUtil.asBatchEvaluator(evalLeft);
+                            batchEvalRight = BatchEvaluatorUtil.asBatchEvaluator(evalRight);
+                        }
+                        batchLeft = BatchEvaluatorUtil.ensureCapacity(batchLeft, size);
+                        batchRight = BatchEvaluatorUtil.ensureCapacity(batchRight, size);
+                        batchEvalLeft.evaluate(accessor, selection, size, batchLeft);
+                        batchEvalRight.evaluate(accessor, selection, size, batchRight);
+                        batchResults.reset();
+                        for (int i = 0; i < size; i++) {
+                            if (argChecker.isMissing(batchLeft[i], results[i])
+                                    || argChecker.isMissing(batchRight[i], results[i])
+                                    || argChecker.isNull(results[i])) {
+                                continue;
+                            }
+                            argPtr0.set(batchLeft[i]);
+                            argPtr1.set(batchRight[i]);
+                            evaluateArithmeticOperation();
+                            batchResults.append(i, resultStorage);
+                        }
+                        batchResults.getResults(results);
+                    }
+
+                    @Override
+                    public boolean mayHaveSideEffects() {
+                        return BatchEvaluatorUtil.mayHaveSideEffects(evalLeft, evalRight);
+                    }
+
+                    /**
+                     * Applies the operation to the arguments and writes the result to the result storage
+                     */
+                    @SuppressWarnings("unchecked")
+                    private void evaluateArithmeticOperation() throws HyracksDataException {
                         resultStorage.reset();
                         resultType = 0;
                         int currentType;
-                        evalLeft.evaluate(tuple, argPtr0);
-                        evalRight.evaluate(tuple, argPtr1);
 
                         for (int i = 0; i < args.length; i++) {
                             IPointable argPtr = i == 0 ? argPtr0 : argPtr1;
@@ -187,7 +238,6 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
                                 case YEARMONTHDURATION:
                                 case DAYTIMEDURATION:
                                     evaluateTemporalArthmeticOperation(typeTag);
-                                    result.set(resultStorage);
                                     return;
                                 default:
                                     throw new TypeMismatchException(getIdentifier(), i, bytes[offset],
@@ -275,7 +325,6 @@ public abstract class AbstractNumericArithmeticEval extends AbstractScalarFuncti
                                 serde.serialize(aDouble, out);
                                 break;
                         }
-                        result.set(resultStorage);
                     }
 
                     @SuppressWarnings("unchecked")
@@ -33,8 +33,11 @@ import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -72,7 +75,9 @@ public class AndDescriptor extends AbstractScalarFunctionDynamicDescriptor {
                     evals[i] = args[i].createScalarEvaluator(ctx);
                 }
 
-                return new IScalarEvaluator() {
+                return new IBatchScalarEvaluator() {
+                    private BatchLogicalEvaluator batchEval =
+                            new BatchLogicalEvaluator(getIdentifier(), evals, false, false);
                     @SuppressWarnings("unchecked")
                     private ISerializerDeserializer<ABoolean> booleanSerde =
                             SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABOOLEAN);
@@ -130,6 +135,17 @@ public class AndDescriptor extends AbstractScalarFunctionDynamicDescriptor {
                         }
                         result.set(resultStorage);
                     }
+
+                    @Override
+                    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+                            throws HyracksDataException {
+                        batchEval.evaluate(accessor, selection, size, results);
+                    }
+
+                    @Override
+                    public boolean mayHaveSideEffects() {
+                        return BatchEvaluatorUtil.mayHaveSideEffects(evals);
+                    }
                 };
             }
         };
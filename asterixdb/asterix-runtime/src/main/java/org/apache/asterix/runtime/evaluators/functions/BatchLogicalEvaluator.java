@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+
+/**
+ * Evaluates AND or OR over a batch of tuples. As the tuple at a time evaluators stop at the first argument that
+ * decides the result (FALSE for AND, TRUE for OR), an argument is only evaluated for the tuples that the previous
+ * arguments have not decided yet.
+ */
+class BatchLogicalEvaluator {
+
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] NULL = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
+    private static final byte[] MISSING = { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
+
+    private static final byte UNDECIDED = 0;
+    private static final byte DECIDED = 1;
+    private static final byte MET_NULL = 2;
+    private static final byte MET_MISSING = 4;
+
+    private final FunctionIdentifier functionIdentifier;
+    private final IBatchScalarEvaluator[] evals;
+    private final boolean decidingValue;
+    private final boolean nullOverMissing;
+    private int[] undecided = new int[0];
+    private int[] positions = new int[0];
+    private byte[] states = new byte[0];
+    private IPointable[] args = new IPointable[0];
+
+    /**
+     * @param decidingValue
+     *            the argument value that decides the result, FALSE for AND and TRUE for OR
+     * @param nullOverMissing
+     *            whether the result is NULL rather than MISSING when both are met, which is the case of OR
+     */
+    BatchLogicalEvaluator(FunctionIdentifier functionIdentifier, IScalarEvaluator[] evals, boolean decidingValue,
+            boolean nullOverMissing) {
+        this.functionIdentifier = functionIdentifier;
+        this.evals = BatchEvaluatorUtil.asBatchEvaluators(evals);
+        this.decidingValue = decidingValue;
+        this.nullOverMissing = nullOverMissing;
+    }
+
+    void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+            throws HyracksDataException {
+        undecided = BatchEvaluatorUtil.ensureCapacity(undecided, size);
+        positions = BatchEvaluatorUtil.ensureCapacity(positions, size);
+        if (states.length < size) {
+            states = new byte[Math.max(size, 2 * states.length)];
+        }
+        args = BatchEvaluatorUtil.ensureCapacity(args, size);
+        System.arraycopy(selection, 0, undecided, 0, size);
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+            states[i] = UNDECIDED;
+        }
+        int n = size;
+        for (int a = 0; a < evals.length && n > 0; a++) {
+            evals[a].evaluate(accessor, undecided, n, args);
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                byte[] bytes = args[i].getByteArray();
+                int offset = args[i].getStartOffset();
+                if (bytes[offset] == ATypeTag.SERIALIZED_MISSING_TYPE_TAG) {
+                    states[positions[i]] |= MET_MISSING;
+                } else if (bytes[offset] == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+                    states[positions[i]] |= MET_NULL;
+                } else if (bytes[offset] != ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG) {
+                    throw new TypeMismatchException(functionIdentifier, a, bytes[offset],
+                            ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG);
+                } else if ((bytes[offset + 1] != 0) == decidingValue) {
+                    states[positions[i]] = DECIDED;
+                    continue;
+                }
+                undecided[m] = undecided[i];
+                positions[m] = positions[i];
+                m++;
+            }
+            n = m;
+        }
+        byte[] decided = decidingValue ? TRUE : FALSE;
+        byte[] notDecided = decidingValue ? FALSE : TRUE;
+        for (int i = 0; i < size; i++) {
+            byte[] value;
+            byte state = states[i];
+            if (state == DECIDED) {
+                value = decided;
+            } else if ((state & MET_NULL) != 0 && (nullOverMissing || (state & MET_MISSING) == 0)) {
+                value = NULL;
+            } else if ((state & MET_MISSING) != 0) {
+                value = MISSING;
+            } else {
+                value = notDecided;
+            }
+            results[i].set(value, 0, value.length);
+        }
+    }
+}
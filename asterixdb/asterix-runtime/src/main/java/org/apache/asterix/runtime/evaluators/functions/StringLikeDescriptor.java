@@ -24,7 +24,7 @@ import org.apache.asterix.om.functions.BuiltinFunctions;
 import org.apache.asterix.om.functions.IFunctionDescriptor;
 import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
 import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
-import org.apache.asterix.runtime.evaluators.functions.utils.RegExpMatcher;
+import org.apache.asterix.runtime.evaluators.functions.utils.LikeMatcher;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
@@ -33,8 +33,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
 
 /**
- * Creates new Matcher and Pattern objects each time the value of the pattern
- * argument (the second argument) changes.
+ * Compiles the pattern argument (the second argument) again each time its value changes.
  */
 
 public class StringLikeDescriptor extends AbstractScalarFunctionDynamicDescriptor {
@@ -62,26 +61,16 @@ public class StringLikeDescriptor extends AbstractScalarFunctionDynamicDescripto
             public IScalarEvaluator createScalarEvaluator(IHyracksTaskContext ctx) throws HyracksDataException {
                 return new AbstractBinaryStringBoolEval(ctx, args[0], args[1],
                         StringLikeDescriptor.this.getIdentifier()) {
-                    private final RegExpMatcher matcher = new RegExpMatcher();
-                    private final RegExpMatcher.IRegExpPatternGenerator patternGenerator = new LikePatternGenerator();
+                    private final LikeMatcher matcher = new LikeMatcher();
 
                     @Override
                     protected boolean compute(UTF8StringPointable srcPtr, UTF8StringPointable patternPtr)
                             throws IOException {
-                        matcher.build(srcPtr, patternPtr, null, patternGenerator);
-                        return matcher.matches();
+                        return matcher.matches(srcPtr, patternPtr);
                     }
                 };
             }
         };
     }
 
-    class LikePatternGenerator implements RegExpMatcher.IRegExpPatternGenerator {
-
-        @Override
-        public String toRegExpPatternString(String input) {
-            return StringEvaluatorUtils.toRegex(input);
-        }
-    }
-
 };
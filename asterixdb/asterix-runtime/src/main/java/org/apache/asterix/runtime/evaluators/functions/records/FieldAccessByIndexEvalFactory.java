@@ -29,10 +29,15 @@ import org.apache.asterix.om.types.AUnionType;
 import org.apache.asterix.om.types.IAType;
 import org.apache.asterix.om.utils.NonTaggedFormatUtil;
 import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.evaluators.staticcodegen.TypeChecker;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchResultStorage;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
@@ -60,7 +65,7 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+        return new IBatchScalarEvaluator() {
             private ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
             private DataOutput out = resultStorage.getDataOutput();
 
@@ -68,6 +73,13 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
             private IPointable inputArg1 = new VoidPointable();
             private IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
             private IScalarEvaluator eval1 = fieldIndexEvalFactory.createScalarEvaluator(ctx);
+            private IBatchScalarEvaluator batchEval0;
+            private IBatchScalarEvaluator batchEval1;
+            private IPointable[] batchArg0 = new IPointable[0];
+            private IPointable[] batchArg1 = new IPointable[0];
+            private BatchResultStorage batchResults = new BatchResultStorage();
+            // handles MISSING and NULL arguments in batches the way the generated code does for single tuples
+            private TypeChecker argChecker = new TypeChecker();
             private int fieldIndex;
             private int fieldValueOffset;
             private int fieldValueLength;
@@ -82,19 +94,63 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
              */
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
-                try {
-                    resultStorage.reset();
-                    eval0.evaluate(tuple, inputArg0);
-                    byte[] serRecord = inputArg0.getByteArray();
-                    int offset = inputArg0.getStartOffset();
+                eval0.evaluate(tuple, inputArg0);
+                checkRecord(inputArg0);
+                eval1.evaluate(tuple, inputArg1);
+                accessField(inputArg0, inputArg1);
+                result.set(resultStorage);
+            }
 
-                    if (serRecord[offset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
-                        throw new TypeMismatchException(BuiltinFunctions.FIELD_ACCESS_BY_INDEX, 0, serRecord[offset],
-                                ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+                    throws HyracksDataException {
+                if (batchEval0 == null) {
+                    batchEval0 = BatchEvaluatorUtil.asBatchEvaluator(eval0);
+                    batchEval1 = BatchEvaluatorUtil.asBatchEvaluator(eval1);
+                }
+                batchArg0 = BatchEvaluatorUtil.ensureCapacity(batchArg0, size);
+                batchArg1 = BatchEvaluatorUtil.ensureCapacity(batchArg1, size);
+                batchEval0.evaluate(accessor, selection, size, batchArg0);
+                batchEval1.evaluate(accessor, selection, size, batchArg1);
+                batchResults.reset();
+                for (int i = 0; i < size; i++) {
+                    if (argChecker.isMissing(batchArg0[i], results[i])) {
+                        continue;
                     }
-                    eval1.evaluate(tuple, inputArg1);
-                    byte[] indexBytes = inputArg1.getByteArray();
-                    int indexOffset = inputArg1.getStartOffset();
+                    checkRecord(batchArg0[i]);
+                    if (argChecker.isMissing(batchArg1[i], results[i]) || argChecker.isNull(results[i])) {
+                        continue;
+                    }
+                    accessField(batchArg0[i], batchArg1[i]);
+                    batchResults.append(i, resultStorage);
+                }
+                batchResults.getResults(results);
+            }
+
+            @Override
+            public boolean mayHaveSideEffects() {
+                return BatchEvaluatorUtil.mayHaveSideEffects(eval0, eval1);
+            }
+
+            private void checkRecord(IPointable record) throws HyracksDataException {
+                byte[] serRecord = record.getByteArray();
+                int offset = record.getStartOffset();
+                if (serRecord[offset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
+                    throw new TypeMismatchException(BuiltinFunctions.FIELD_ACCESS_BY_INDEX, 0, serRecord[offset],
+                            ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                }
+            }
+
+            /**
+             * Writes the field value, with its type tag, to the result storage
+             */
+            private void accessField(IPointable record, IPointable index) throws HyracksDataException {
+                try {
+                    resultStorage.reset();
+                    byte[] serRecord = record.getByteArray();
+                    int offset = record.getStartOffset();
+                    byte[] indexBytes = index.getByteArray();
+                    int indexOffset = index.getStartOffset();
                     if (indexBytes[indexOffset] != ATypeTag.SERIALIZED_INT32_TYPE_TAG) {
                         throw new TypeMismatchException(BuiltinFunctions.FIELD_ACCESS_BY_INDEX, 1, indexBytes[offset],
                                 ATypeTag.SERIALIZED_INT32_TYPE_TAG);
@@ -107,13 +163,11 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
                     if (fieldValueOffset == 0) {
                         // the field is null, we checked the null bit map
                         out.writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
-                        result.set(resultStorage);
                         return;
                     }
                     if (fieldValueOffset < 0) {
                         // the field is missing, we checked the missing bit map
                         out.writeByte(ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
-                        result.set(resultStorage);
                         return;
                     }
 
@@ -134,7 +188,6 @@ public class FieldAccessByIndexEvalFactory implements IScalarEvaluatorFactory {
                         out.writeByte(fieldValueTypeTag.serialize());
                     }
                     out.write(serRecord, fieldValueOffset, fieldValueLength);
-                    result.set(resultStorage);
                 } catch (IOException e) {
                     throw HyracksDataException.create(e);
                 }
@@ -18,27 +18,28 @@
  */
 package org.apache.asterix.runtime.evaluators.functions.records;
 
-import java.io.DataOutput;
-import java.io.IOException;
-
-import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.OpenFieldLookup;
 import org.apache.asterix.om.functions.BuiltinFunctions;
 import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.utils.NonTaggedFormatUtil;
+import org.apache.asterix.runtime.evaluators.staticcodegen.TypeChecker;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
-import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
 public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
 
     private static final long serialVersionUID = 1L;
+    private static final byte[] MISSING = { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
 
     private IScalarEvaluatorFactory recordEvalFactory;
     private IScalarEvaluatorFactory fldNameEvalFactory;
@@ -51,50 +52,82 @@ public class FieldAccessByNameEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
-
-            private ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
-            private DataOutput out = resultStorage.getDataOutput();
+        return new IBatchScalarEvaluator() {
 
             private IPointable inputArg0 = new VoidPointable();
             private IPointable inputArg1 = new VoidPointable();
             private IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
             private IScalarEvaluator eval1 = fldNameEvalFactory.createScalarEvaluator(ctx);
+            private IBatchScalarEvaluator batchEval0;
+            private IBatchScalarEvaluator batchEval1;
+            private IPointable[] batchArg0 = new IPointable[0];
+            private IPointable[] batchArg1 = new IPointable[0];
+            // handles MISSING and NULL arguments in batches the way the generated code does for single tuples
+            private TypeChecker argChecker = new TypeChecker();
+            private final OpenFieldLookup fieldLookup = new OpenFieldLookup();
             private int fieldValueOffset;
             private int fieldValueLength;
             private ATypeTag fieldValueTypeTag;
 
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
-                try {
-                    resultStorage.reset();
-                    eval0.evaluate(tuple, inputArg0);
-                    eval1.evaluate(tuple, inputArg1);
-                    byte[] serRecord = inputArg0.getByteArray();
-                    int serRecordOffset = inputArg0.getStartOffset();
-                    int serRecordLen = inputArg0.getLength();
+                eval0.evaluate(tuple, inputArg0);
+                eval1.evaluate(tuple, inputArg1);
+                accessField(inputArg0, inputArg1, result);
+            }
 
-                    if (serRecord[serRecordOffset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
-                        throw new TypeMismatchException(BuiltinFunctions.FIELD_ACCESS_BY_NAME, 0,
-                                serRecord[serRecordOffset], ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
-                    }
-                    byte[] serFldName = inputArg1.getByteArray();
-                    int serFldNameOffset = inputArg1.getStartOffset();
-                    fieldValueOffset = ARecordSerializerDeserializer.getFieldOffsetByName(serRecord, serRecordOffset,
-                            serRecordLen, serFldName, serFldNameOffset);
-                    if (fieldValueOffset < 0) {
-                        out.writeByte(ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
-                        result.set(resultStorage);
-                        return;
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+                    throws HyracksDataException {
+                if (batchEval0 == null) {
+                    batchEval0 = BatchEvaluatorUtil.asBatchEvaluator(eval0);
+                    batchEval1 = BatchEvaluatorUtil.asBatchEvaluator(eval1);
+                }
+                batchArg0 = BatchEvaluatorUtil.ensureCapacity(batchArg0, size);
+                batchArg1 = BatchEvaluatorUtil.ensureCapacity(batchArg1, size);
+                batchEval0.evaluate(accessor, selection, size, batchArg0);
+                batchEval1.evaluate(accessor, selection, size, batchArg1);
+                for (int i = 0; i < size; i++) {
+                    if (argChecker.isMissing(batchArg0[i], results[i]) || argChecker.isMissing(batchArg1[i], results[i])
+                            || argChecker.isNull(results[i])) {
+                        continue;
                     }
+                    accessField(batchArg0[i], batchArg1[i], results[i]);
+                }
+            }
+
+            @Override
+            public boolean mayHaveSideEffects() {
+                return BatchEvaluatorUtil.mayHaveSideEffects(eval0, eval1);
+            }
 
-                    fieldValueTypeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(serRecord[fieldValueOffset]);
-                    fieldValueLength = NonTaggedFormatUtil.getFieldValueLength(serRecord, fieldValueOffset,
-                            fieldValueTypeTag, true) + 1;
-                    result.set(serRecord, fieldValueOffset, fieldValueLength);
-                } catch (IOException e) {
-                    throw HyracksDataException.create(e);
+            /**
+             * Sets the result to the field value within the record, or to MISSING if the record has no such field
+             */
+            private void accessField(IPointable record, IPointable fieldName, IPointable result)
+                    throws HyracksDataException {
+                byte[] serRecord = record.getByteArray();
+                int serRecordOffset = record.getStartOffset();
+                int serRecordLen = record.getLength();
+
+                if (serRecord[serRecordOffset] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
+                    throw new TypeMismatchException(BuiltinFunctions.FIELD_ACCESS_BY_NAME, 0,
+                            serRecord[serRecordOffset], ATypeTag.SERIALIZED_RECORD_TYPE_TAG);
+                }
+                byte[] serFldName = fieldName.getByteArray();
+                int serFldNameOffset = fieldName.getStartOffset();
+                fieldValueOffset = fieldLookup.getFieldOffsetByName(serRecord, serRecordOffset, serRecordLen,
+                        serFldName, serFldNameOffset);
+                if (fieldValueOffset < 0) {
+                    result.set(MISSING, 0, MISSING.length);
+                    return;
                 }
+
+                fieldValueTypeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(serRecord[fieldValueOffset]);
+                fieldValueLength =
+                        NonTaggedFormatUtil.getFieldValueLength(serRecord, fieldValueOffset, fieldValueTypeTag, true)
+                                + 1;
+                result.set(serRecord, fieldValueOffset, fieldValueLength);
             }
         };
     }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.OpenFieldLookup;
 import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.om.base.AMissing;
 import org.apache.asterix.om.base.ANull;
@@ -78,6 +79,7 @@ public class FieldAccessNestedEvalFactory implements IScalarEvaluatorFactory {
             private final IScalarEvaluator eval0 = recordEvalFactory.createScalarEvaluator(ctx);
             private final IPointable[] fieldPointables = new VoidPointable[fieldPath.size()];
             private final RuntimeRecordTypeInfo[] recTypeInfos = new RuntimeRecordTypeInfo[fieldPath.size()];
+            private final OpenFieldLookup[] fieldLookups = new OpenFieldLookup[fieldPath.size()];
             @SuppressWarnings("unchecked")
             private final ISerializerDeserializer<ANull> nullSerde =
                     SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANULL);
@@ -89,6 +91,7 @@ public class FieldAccessNestedEvalFactory implements IScalarEvaluatorFactory {
                 generateFieldsPointables();
                 for (int index = 0; index < fieldPath.size(); ++index) {
                     recTypeInfos[index] = new RuntimeRecordTypeInfo();
+                    fieldLookups[index] = new OpenFieldLookup();
                 }
 
             }
@@ -202,7 +205,7 @@ public class FieldAccessNestedEvalFactory implements IScalarEvaluatorFactory {
                     // Moving through open fields after we hit the first open field.
                     for (; pathIndex < fieldPointables.length; pathIndex++) {
                         openField = true;
-                        subFieldOffset = ARecordSerializerDeserializer.getFieldOffsetByName(serRecord, start, len,
+                        subFieldOffset = fieldLookups[pathIndex].getFieldOffsetByName(serRecord, start, len,
                                 fieldPointables[pathIndex].getByteArray(), fieldPointables[pathIndex].getStartOffset());
                         if (subFieldOffset < 0) {
                             out.writeByte(ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
@@ -22,6 +22,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 
 import org.apache.asterix.dataflow.data.nontagged.serde.ARecordSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.OpenFieldLookup;
 import org.apache.asterix.om.functions.BuiltinFunctions;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.ATypeTag;
@@ -66,6 +67,7 @@ public class GetRecordFieldValueEvalFactory implements IScalarEvaluatorFactory {
             private final IScalarEvaluator recordEval = recordEvalFactory.createScalarEvaluator(ctx);
             private final IScalarEvaluator fieldNameEval = fldNameEvalFactory.createScalarEvaluator(ctx);
             private final RuntimeRecordTypeInfo recTypeInfo = new RuntimeRecordTypeInfo();
+            private final OpenFieldLookup fieldLookup = new OpenFieldLookup();
 
             {
                 recTypeInfo.reset(recordType);
@@ -116,8 +118,8 @@ public class GetRecordFieldValueEvalFactory implements IScalarEvaluatorFactory {
                     }
 
                     // Look at open fields.
-                    subFieldOffset = ARecordSerializerDeserializer.getFieldOffsetByName(serRecord, serRecordOffset,
-                            serRecordLen, serFldName, serFldNameOffset);
+                    subFieldOffset = fieldLookup.getFieldOffsetByName(serRecord, serRecordOffset, serRecordLen,
+                            serFldName, serFldNameOffset);
                     if (subFieldOffset < 0) {
                         out.writeByte(ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
                         result.set(resultStorage);
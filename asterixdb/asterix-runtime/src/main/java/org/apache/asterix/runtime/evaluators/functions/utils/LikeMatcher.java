@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions.utils;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * Matches UTF-8 strings against LIKE patterns directly on their bytes.
+ * A pattern is compiled once, and compiled again only when it changes. Patterns that are a literal, or a literal
+ * after and/or before a single %, are matched with byte comparisons or a {@link SubstringFinder}; other patterns run
+ * an automaton over the characters of the string.
+ * As with the regular expressions that LIKE patterns used to be translated to, % and _ do not match line
+ * terminators.
+ */
+public class LikeMatcher {
+
+    private static final int ANY_CHAR = -1;
+    private static final int ANY_STRING = -2;
+
+    private enum Kind {
+        EQUALS,
+        PREFIX,
+        SUFFIX,
+        CONTAINS,
+        ANY,
+        AUTOMATON
+    }
+
+    // The last compiled pattern.
+    private byte[] pattern = new byte[0];
+    private int patternLength = -1;
+    private Kind kind;
+
+    // The literal characters of the pattern, for the patterns that are not matched by the automaton.
+    private byte[] literal = new byte[0];
+    private int literalLength;
+    private final SubstringFinder finder = new SubstringFinder();
+
+    // The automaton: a token is a code point, ANY_CHAR or ANY_STRING, and a state is the position of a token.
+    private int[] tokens = new int[0];
+    private int tokenCount;
+    private boolean[] states = new boolean[1];
+    private boolean[] nextStates = new boolean[1];
+
+    // The size in bytes of the last code point read by codePointAt().
+    private int codePointSize;
+
+    /**
+     * @param src,
+     *            the source string.
+     * @param patternPtr,
+     *            the LIKE pattern.
+     * @return true if the whole source string matches the pattern; false otherwise.
+     */
+    public boolean matches(UTF8StringPointable src, UTF8StringPointable patternPtr) {
+        compile(patternPtr.getByteArray(), patternPtr.getCharStartOffset(), patternPtr.getUTF8Length());
+        byte[] bytes = src.getByteArray();
+        int start = src.getCharStartOffset();
+        int length = src.getUTF8Length();
+        switch (kind) {
+            case EQUALS:
+                return length == literalLength && SubstringFinder.equals(bytes, start, literal, 0, length);
+            case PREFIX:
+                return length >= literalLength && SubstringFinder.equals(bytes, start, literal, 0, literalLength)
+                        && !hasLineTerminator(bytes, start + literalLength, length - literalLength);
+            case SUFFIX:
+                return length >= literalLength
+                        && SubstringFinder.equals(bytes, start + length - literalLength, literal, 0, literalLength)
+                        && !hasLineTerminator(bytes, start, length - literalLength);
+            case CONTAINS:
+                return finder.find(bytes, start, length) >= 0 && !hasLineTerminator(bytes, start, length);
+            case ANY:
+                return !hasLineTerminator(bytes, start, length);
+            default:
+                return runAutomaton(bytes, start, length);
+        }
+    }
+
+    /**
+     * @return true if the source string starts with the prefix; false otherwise.
+     */
+    public static boolean startsWith(UTF8StringPointable src, UTF8StringPointable prefix) {
+        int length = prefix.getUTF8Length();
+        return src.getUTF8Length() >= length && SubstringFinder.equals(src.getByteArray(), src.getCharStartOffset(),
+                prefix.getByteArray(), prefix.getCharStartOffset(), length);
+    }
+
+    /**
+     * @return true if the source string ends with the suffix; false otherwise.
+     */
+    public static boolean endsWith(UTF8StringPointable src, UTF8StringPointable suffix) {
+        int length = suffix.getUTF8Length();
+        int srcLength = src.getUTF8Length();
+        return srcLength >= length
+                && SubstringFinder.equals(src.getByteArray(), src.getCharStartOffset() + srcLength - length,
+                        suffix.getByteArray(), suffix.getCharStartOffset(), length);
+    }
+
+    private void compile(byte[] bytes, int start, int length) {
+        if (length == patternLength && SubstringFinder.equals(pattern, 0, bytes, start, length)) {
+            return;
+        }
+        if (pattern.length < length) {
+            pattern = new byte[length];
+            literal = new byte[length];
+            tokens = new int[length];
+            states = new boolean[length + 1];
+            nextStates = new boolean[length + 1];
+        }
+        System.arraycopy(bytes, start, pattern, 0, length);
+        patternLength = length;
+
+        // Tokenizes the pattern and collects its literal characters.
+        tokenCount = 0;
+        literalLength = 0;
+        boolean literalHasLineTerminator = false;
+        int anyCharCount = 0;
+        int anyStringCount = 0;
+        for (int pos = 0; pos < length;) {
+            int c = codePointAt(pattern, pos, length);
+            int size = codePointSize;
+            if (c == '\\' && pos + size < length && (pattern[pos + size] == '_' || pattern[pos + size] == '%')) {
+                // An escaped wildcard is a literal.
+                pos += size;
+                c = pattern[pos];
+                size = 1;
+            } else if (c == '_') {
+                tokens[tokenCount++] = ANY_CHAR;
+                anyCharCount++;
+                pos += size;
+                continue;
+            } else if (c == '%') {
+                if (tokenCount == 0 || tokens[tokenCount - 1] != ANY_STRING) {
+                    tokens[tokenCount++] = ANY_STRING;
+                    anyStringCount++;
+                }
+                pos += size;
+                continue;
+            }
+            tokens[tokenCount++] = c;
+            literalHasLineTerminator |= isLineTerminator(c);
+            System.arraycopy(pattern, pos, literal, literalLength, size);
+            literalLength += size;
+            pos += size;
+        }
+
+        // Picks the cheapest way to match the pattern.
+        boolean leadingAnyString = tokenCount > 0 && tokens[0] == ANY_STRING;
+        boolean trailingAnyString = tokenCount > 0 && tokens[tokenCount - 1] == ANY_STRING;
+        if (anyCharCount > 0 || (anyStringCount > 0 && literalHasLineTerminator)) {
+            kind = Kind.AUTOMATON;
+        } else if (anyStringCount == 0) {
+            kind = Kind.EQUALS;
+        } else if (tokenCount == 1) {
+            kind = Kind.ANY;
+        } else if (anyStringCount == 1) {
+            kind = leadingAnyString ? Kind.SUFFIX : trailingAnyString ? Kind.PREFIX : Kind.AUTOMATON;
+        } else if (anyStringCount == 2 && leadingAnyString && trailingAnyString) {
+            kind = Kind.CONTAINS;
+            finder.reset(literal, 0, literalLength);
+        } else {
+            kind = Kind.AUTOMATON;
+        }
+    }
+
+    private boolean runAutomaton(byte[] bytes, int start, int length) {
+        Arrays.fill(states, 0, tokenCount + 1, false);
+        states[0] = true;
+        closeAnyStrings(states);
+        for (int pos = 0; pos < length; pos += codePointSize) {
+            int c = codePointAt(bytes, start + pos, length - pos);
+            boolean lineTerminator = isLineTerminator(c);
+            boolean active = false;
+            Arrays.fill(nextStates, 0, tokenCount + 1, false);
+            for (int s = 0; s < tokenCount; s++) {
+                if (!states[s]) {
+                    continue;
+                }
+                int token = tokens[s];
+                if (token == ANY_STRING) {
+                    if (!lineTerminator) {
+                        nextStates[s] = true;
+                        active = true;
+                    }
+                } else if (token == ANY_CHAR ? !lineTerminator : token == c) {
+                    nextStates[s + 1] = true;
+                    active = true;
+                }
+            }
+            if (!active) {
+                return false;
+            }
+            closeAnyStrings(nextStates);
+            boolean[] swap = states;
+            states = nextStates;
+            nextStates = swap;
+        }
+        return states[tokenCount];
+    }
+
+    /**
+     * Lets the states before a % skip it without consuming a character.
+     */
+    private void closeAnyStrings(boolean[] activeStates) {
+        for (int s = 0; s < tokenCount; s++) {
+            if (activeStates[s] && tokens[s] == ANY_STRING) {
+                activeStates[s + 1] = true;
+            }
+        }
+    }
+
+    /**
+     * Reads a code point, combining the two characters of a surrogate pair, and sets its size in codePointSize.
+     */
+    private int codePointAt(byte[] bytes, int pos, int remaining) {
+        char c = UTF8StringUtil.charAt(bytes, pos);
+        codePointSize = UTF8StringUtil.charSize(bytes, pos);
+        if (Character.isHighSurrogate(c) && codePointSize < remaining) {
+            char low = UTF8StringUtil.charAt(bytes, pos + codePointSize);
+            if (Character.isLowSurrogate(low)) {
+                codePointSize += UTF8StringUtil.charSize(bytes, pos + codePointSize);
+                return Character.toCodePoint(c, low);
+            }
+        }
+        return c;
+    }
+
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == 0x85 || c == 0x2028 || c == 0x2029;
+    }
+
+    /**
+     * Checks for line terminators without decoding the characters: the bytes of \n and \r are not part of other
+     * characters, and the lead bytes of U+0085, U+2028 and U+2029 only start characters.
+     */
+    private static boolean hasLineTerminator(byte[] bytes, int start, int length) {
+        int end = start + length;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '\n' || b == '\r') {
+                return true;
+            }
+            if (b == (byte) 0xC2 && i + 1 < end && bytes[i + 1] == (byte) 0x85) {
+                return true;
+            }
+            if (b == (byte) 0xE2 && i + 2 < end && bytes[i + 1] == (byte) 0x80
+                    && (bytes[i + 2] == (byte) 0xA8 || bytes[i + 2] == (byte) 0xA9)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
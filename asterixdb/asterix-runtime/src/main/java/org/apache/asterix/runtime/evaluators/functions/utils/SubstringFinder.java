@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions.utils;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+
+/**
+ * Finds a substring in UTF-8 strings by a Horspool search on their bytes, without decoding their characters.
+ * The skip table is only rebuilt when the substring changes.
+ */
+public class SubstringFinder {
+
+    private byte[] substring = new byte[0];
+    private int substringLength = -1;
+    private final int[] shifts = new int[256];
+
+    /**
+     * @param src,
+     *            the source string.
+     * @param substringPtr,
+     *            the string to find.
+     * @return the byte offset of the first occurrence of the substring in the source string, not including the
+     *         MetaLength, or -1 if the source string does not contain it.
+     */
+    public int find(UTF8StringPointable src, UTF8StringPointable substringPtr) {
+        reset(substringPtr.getByteArray(), substringPtr.getCharStartOffset(), substringPtr.getUTF8Length());
+        return find(src.getByteArray(), src.getCharStartOffset(), src.getUTF8Length());
+    }
+
+    /**
+     * Sets the bytes to find.
+     */
+    public void reset(byte[] bytes, int start, int length) {
+        if (length == substringLength && equals(substring, 0, bytes, start, length)) {
+            return;
+        }
+        if (substring.length < length) {
+            substring = new byte[length];
+        }
+        System.arraycopy(bytes, start, substring, 0, length);
+        substringLength = length;
+        Arrays.fill(shifts, length);
+        for (int i = 0; i < length - 1; i++) {
+            shifts[substring[i] & 0xff] = length - 1 - i;
+        }
+    }
+
+    /**
+     * @return the offset of the first occurrence of the bytes set by {@link #reset(byte[], int, int)} relative to
+     *         <code>start</code>, or -1 if there is none.
+     */
+    public int find(byte[] bytes, int start, int length) {
+        if (substringLength == 0) {
+            return 0;
+        }
+        int last = substringLength - 1;
+        int end = start + length - substringLength;
+        for (int pos = start; pos <= end;) {
+            byte b = bytes[pos + last];
+            if (b == substring[last] && equals(substring, 0, bytes, pos, last)) {
+                return pos - start;
+            }
+            pos += shifts[b & 0xff];
+        }
+        return -1;
+    }
+
+    static boolean equals(byte[] bytes1, int start1, byte[] bytes2, int start2, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes1[start1 + i] != bytes2[start2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
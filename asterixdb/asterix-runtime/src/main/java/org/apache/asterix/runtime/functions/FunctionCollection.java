@@ -31,22 +31,36 @@ import org.apache.asterix.om.functions.IFunctionRegistrant;
 import org.apache.asterix.runtime.aggregates.collections.FirstElementAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.collections.ListifyAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.collections.LocalFirstElementAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarApproxHeavyHittersAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarCountAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarMaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarMinAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlApproxHeavyHittersAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlCountAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlMaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlMinAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSqlSumAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.scalar.ScalarSumAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableCountAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableGlobalApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableGlobalApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableGlobalAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableGlobalSqlAvgAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableIntermediateApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableIntermediateApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableIntermediateAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableIntermediateSqlAvgAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableLocalApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.serializable.std.SerializableLocalApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableLocalAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableLocalSqlAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableLocalSqlSumAggregateDescriptor;
@@ -55,12 +69,24 @@ import org.apache.asterix.runtime.aggregates.serializable.std.SerializableSqlAvg
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableSqlCountAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableSqlSumAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.serializable.std.SerializableSumAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.ApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.ApproxHeavyHittersAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.ApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.AvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.CountAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalApproxHeavyHittersAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.GlobalApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.GlobalSqlAvgAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateApproxHeavyHittersAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.IntermediateApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.IntermediateSqlAvgAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalApproxCountDistinctAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalApproxHeavyHittersAggregateDescriptor;
+import org.apache.asterix.runtime.aggregates.std.LocalApproxMedianAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalAvgAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalMaxAggregateDescriptor;
 import org.apache.asterix.runtime.aggregates.std.LocalMinAggregateDescriptor;
@@ -325,6 +351,10 @@ import org.apache.asterix.runtime.evaluators.functions.temporal.UnixTimeFromDate
 import org.apache.asterix.runtime.evaluators.functions.temporal.UnixTimeFromTimeInMsDescriptor;
 import org.apache.asterix.runtime.evaluators.functions.temporal.YearMonthDurationGreaterThanComparatorDescriptor;
 import org.apache.asterix.runtime.evaluators.functions.temporal.YearMonthDurationLessThanComparatorDescriptor;
+import org.apache.asterix.runtime.runningaggregates.std.DenseRankRunningAggregateDescriptor;
+import org.apache.asterix.runtime.runningaggregates.std.LagRunningAggregateDescriptor;
+import org.apache.asterix.runtime.runningaggregates.std.RankRunningAggregateDescriptor;
+import org.apache.asterix.runtime.runningaggregates.std.RowNumberRunningAggregateDescriptor;
 import org.apache.asterix.runtime.runningaggregates.std.TidRunningAggregateDescriptor;
 import org.apache.asterix.runtime.unnestingfunctions.std.RangeDescriptor;
 import org.apache.asterix.runtime.unnestingfunctions.std.ScanCollectionDescriptor;
@@ -358,6 +388,12 @@ public final class FunctionCollection implements IFunctionCollection {
         fc.add(RangeDescriptor.FACTORY);
         fc.add(SubsetCollectionDescriptor.FACTORY);
 
+        // window functions
+        fc.add(RowNumberRunningAggregateDescriptor.FACTORY);
+        fc.add(RankRunningAggregateDescriptor.FACTORY);
+        fc.add(DenseRankRunningAggregateDescriptor.FACTORY);
+        fc.add(LagRunningAggregateDescriptor.FACTORY);
+
         // aggregate functions
         fc.add(ListifyAggregateDescriptor.FACTORY);
         fc.add(CountAggregateDescriptor.FACTORY);
@@ -421,6 +457,34 @@ public final class FunctionCollection implements IFunctionCollection {
         fc.add(ScalarSqlMaxAggregateDescriptor.FACTORY);
         fc.add(ScalarSqlMinAggregateDescriptor.FACTORY);
 
+        // approximate aggregates
+        fc.add(ApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(LocalApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(IntermediateApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(GlobalApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(ScalarApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(ScalarSqlApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(SerializableApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(SerializableLocalApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(SerializableIntermediateApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(SerializableGlobalApproxCountDistinctAggregateDescriptor.FACTORY);
+        fc.add(ApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(LocalApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(IntermediateApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(GlobalApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(ScalarApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(ScalarSqlApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(SerializableApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(SerializableLocalApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(SerializableIntermediateApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(SerializableGlobalApproxMedianAggregateDescriptor.FACTORY);
+        fc.add(ApproxHeavyHittersAggregateDescriptor.FACTORY);
+        fc.add(LocalApproxHeavyHittersAggregateDescriptor.FACTORY);
+        fc.add(IntermediateApproxHeavyHittersAggregateDescriptor.FACTORY);
+        fc.add(GlobalApproxHeavyHittersAggregateDescriptor.FACTORY);
+        fc.add(ScalarApproxHeavyHittersAggregateDescriptor.FACTORY);
+        fc.add(ScalarSqlApproxHeavyHittersAggregateDescriptor.FACTORY);
+
         // boolean functions
         fc.add(AndDescriptor.FACTORY);
         fc.add(OrDescriptor.FACTORY);
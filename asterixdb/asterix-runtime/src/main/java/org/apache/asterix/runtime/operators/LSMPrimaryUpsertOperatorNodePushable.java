@@ -52,24 +52,26 @@ import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
 import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.utils.TaskUtil;
-import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
 import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
 import org.apache.hyracks.storage.am.common.api.IModificationOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.api.ITreeIndex;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.common.tuples.PermutingFrameTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCursor;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallback;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameOperationCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.api.IFrameTupleProcessor;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMMemoryComponent;
 import org.apache.hyracks.storage.am.lsm.common.dataflow.LSMIndexInsertUpdateDeleteOperatorNodePushable;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
-import org.apache.hyracks.storage.common.IIndexCursor;
 import org.apache.hyracks.storage.common.MultiComparator;
 import org.apache.hyracks.util.trace.ITracer;
 import org.apache.hyracks.util.trace.ITracer.Scope;
@@ -83,16 +85,20 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
     private static final ThreadLocal<DateFormat> DATE_FORMAT =
             ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS"));
     private final PermutingFrameTupleReference key;
-    private MultiComparator keySearchCmp;
+    private final PermutingFrameTupleReference lookupKey;
+    private final int[] keyFields;
     private ArrayTupleBuilder missingTupleBuilder;
     private final IMissingWriter missingWriter;
     private ArrayTupleBuilder tb;
     private DataOutput dos;
-    private RangePredicate searchPred;
-    private IIndexCursor cursor;
+    private BatchPredicate lookupPred;
+    private LSMBTreeBatchPointSearchCursor lookupCursor;
+    private ILSMIndexAccessor lookupAccessor;
+    private boolean lookupOpen = false;
     private ITupleReference prevTuple;
     private final int numOfPrimaryKeys;
     boolean isFiltered = false;
+    private final boolean blindWrite;
     private final ArrayTupleReference prevTupleWithFilter = new ArrayTupleReference();
     private ArrayTupleBuilder prevRecWithPKWithFilterValue;
     private ARecordType recordType;
@@ -122,6 +128,7 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         super(ctx, partition, indexHelperFactory, fieldPermutation, inputRecDesc, IndexOperation.UPSERT,
                 modCallbackFactory, null);
         this.key = new PermutingFrameTupleReference();
+        this.lookupKey = new PermutingFrameTupleReference();
         this.searchCallbackFactory = searchCallbackFactory;
         this.numOfPrimaryKeys = numOfPrimaryKeys;
         this.frameOpCallbackFactory = frameOpCallbackFactory;
@@ -131,6 +138,8 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
             searchKeyPermutations[i] = fieldPermutation[i];
         }
         key.setFieldPermutation(searchKeyPermutations);
+        keyFields = searchKeyPermutations;
+        lookupKey.setFieldPermutation(searchKeyPermutations);
         hasMeta = (fieldPermutation.length > numOfPrimaryKeys + 1) && (filterFieldIndex < 0
                 || (filterFieldIndex >= 0 && (fieldPermutation.length > numOfPrimaryKeys + 2)));
         this.metaFieldIndex = numOfPrimaryKeys + 1;
@@ -143,6 +152,10 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
             this.prevRecWithPKWithFilterValue = new ArrayTupleBuilder(fieldPermutation.length + (hasMeta ? 1 : 0));
             this.prevDos = prevRecWithPKWithFilterValue.getDataOutput();
         }
+        // without secondary indexes or a filter to maintain, the previous record is never needed: upserts are written
+        // without looking it up, and the newest entry of a key wins at merge time. Deletes still look up the key, so
+        // that deleting a key which does not exist is neither logged nor written
+        this.blindWrite = !isFiltered && !hasSecondaries;
         processor = new IFrameTupleProcessor() {
             @Override
             public void process(ITupleReference tuple, int index) throws HyracksDataException {
@@ -151,13 +164,14 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
                     boolean recordWasInserted = false;
                     boolean recordWasDeleted = false;
                     boolean isDelete = isDeleteOperation(tuple, numOfPrimaryKeys);
-                    resetSearchPredicate(index);
-                    if (isFiltered || isDelete || hasSecondaries) {
-                        lsmAccessor.search(cursor, searchPred);
+                    key.reset(accessor, index);
+                    if (blindWrite && !isDelete) {
+                        searchCallback.before(key); // lock
+                        appendPreviousTupleAsMissing();
+                    } else {
                         try {
-                            if (cursor.hasNext()) {
-                                cursor.next();
-                                prevTuple = cursor.getTuple();
+                            if (lookupPreviousTuple(index)) {
+                                prevTuple = lookupCursor.getTuple();
                                 appendFilterToPrevTuple();
                                 appendPrevRecord();
                                 appendPreviousMeta();
@@ -166,11 +180,9 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
                                 appendPreviousTupleAsMissing();
                             }
                         } finally {
-                            cursor.close(); // end the search
+                            // the previous tuple has been copied, release the memory component before modifying it
+                            lookupCursor.releaseMemoryCursors();
                         }
-                    } else {
-                        searchCallback.before(key); // lock
-                        appendPreviousTupleAsMissing();
                     }
                     if (isDelete && prevTuple != null) {
                         // Only delete if it is a delete and not upsert
@@ -200,6 +212,8 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
 
             @Override
             public void finish() throws HyracksDataException {
+                lookupOpen = false;
+                lookupCursor.close(); // end the lookups of the frame
                 lsmAccessor.getCtx().setOperation(IndexOperation.UPSERT);
             }
         };
@@ -232,7 +246,7 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
                 throw HyracksDataException.create(e);
             }
             missingTupleBuilder.addFieldEndOffset();
-            searchPred = createSearchPredicate();
+            lookupPred = createLookupPredicate();
             tb = new ArrayTupleBuilder(recordDesc.getFieldCount());
             dos = tb.getDataOutput();
             appender = new FrameTupleAppender(new VSizeFrame(ctx), true);
@@ -244,7 +258,11 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
             IIndexAccessParameters iap = new IndexAccessParameters(abstractModCallback, searchCallback);
             indexAccessor = index.createAccessor(iap);
             lsmAccessor = (LSMTreeIndexAccessor) indexAccessor;
-            cursor = indexAccessor.createSearchCursor(false);
+            // the lookups go through their own accessor, so that they can stay open while the frame is modified. They
+            // share the search callback of the operator, which locks the keys
+            lookupAccessor = (ILSMIndexAccessor) index
+                    .createAccessor(new IndexAccessParameters(NoOpOperationCallback.INSTANCE, searchCallback));
+            lookupCursor = new LSMBTreeBatchPointSearchCursor(lookupAccessor.getOpContext());
             frameTuple = new FrameTupleReference();
             INcApplicationContext appCtx =
                     (INcApplicationContext) ctx.getJobletContext().getServiceContext().getApplicationContext();
@@ -270,9 +288,33 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         }
     }
 
-    private void resetSearchPredicate(int tupleIndex) {
-        key.reset(accessor, tupleIndex);
-        searchPred.reset(key, key, true, true, keySearchCmp, keySearchCmp);
+    /**
+     * Locks the key of the given tuple and looks up its previous record. All the lookups of a frame share one search
+     * over the components, whose disk component cursors stay where the previous key left them. The search is opened
+     * for the first key of the frame, and the search callback locks that key when it is opened; the following keys
+     * are locked explicitly, so that every key is locked exactly once, before its lookup.
+     * <p>
+     * The frame is processed within one modification of the index, which keeps the mutable memory component from
+     * being flushed until the frame is done, so the search sees the component that the frame writes to. The search
+     * still starts over if it does not include the mutable memory component, as the newest entry of the key could
+     * then be in a memory component that the search does not see.
+     */
+    private boolean lookupPreviousTuple(int tupleIndex) throws HyracksDataException {
+        if (!lookupOpen || !lookupCursor.includes(getMutableComponent())) {
+            lookupCursor.close();
+            lookupPred.reset(accessor);
+            lookupPred.moveTo(tupleIndex);
+            lookupAccessor.search(lookupCursor, lookupPred); // lock
+            lookupOpen = true;
+        } else {
+            searchCallback.before(key); // lock
+        }
+        return lookupCursor.lookup(tupleIndex);
+    }
+
+    private ILSMMemoryComponent getMutableComponent() {
+        AbstractLSMIndex lsmIndex = (AbstractLSMIndex) index;
+        return lsmIndex.isMemoryComponentsAllocated() ? lsmIndex.getCurrentMemoryComponent() : null;
     }
 
     private void writeOutput(int tupleIndex, boolean recordWasInserted, boolean recordWasDeleted) throws IOException {
@@ -292,6 +334,13 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         }
     }
 
+    /**
+     * @return the fields of the input tuples that hold the primary key
+     */
+    public int[] getKeyFields() {
+        return keyFields;
+    }
+
     private static boolean isDeleteOperation(ITupleReference t1, int field) {
         return TypeTagUtil.isType(t1, field, ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
     }
@@ -378,16 +427,17 @@ public class LSMPrimaryUpsertOperatorNodePushable extends LSMIndexInsertUpdateDe
         }
     }
 
-    private RangePredicate createSearchPredicate() {
-        keySearchCmp = BTreeUtils.getSearchMultiComparator(((ITreeIndex) index).getComparatorFactories(), key);
-        return new RangePredicate(key, key, true, true, keySearchCmp, keySearchCmp, null, null);
+    private BatchPredicate createLookupPredicate() {
+        MultiComparator keySearchCmp =
+                BTreeUtils.getSearchMultiComparator(((ITreeIndex) index).getComparatorFactories(), key);
+        return new BatchPredicate(lookupKey, keySearchCmp);
     }
 
     @Override
     public void close() throws HyracksDataException {
         traceLastRecordIn();
         Throwable failure = CleanupUtils.close(frameOpCallback, null);
-        failure = CleanupUtils.destroy(failure, cursor);
+        failure = CleanupUtils.destroy(failure, lookupCursor);
         failure = CleanupUtils.close(writer, failure);
         failure = CleanupUtils.close(indexHelper, failure);
         if (failure != null) {
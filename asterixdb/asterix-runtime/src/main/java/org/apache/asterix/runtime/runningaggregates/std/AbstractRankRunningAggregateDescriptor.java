@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.runningaggregates.std;
+
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AMutableInt64;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.runningaggregates.base.AbstractRunningAggregateFunctionDynamicDescriptor;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Base class of the rank window functions. The arguments are the order keys of the window: consecutive tuples with
+ * equal order keys are peers and get the same rank.
+ */
+public abstract class AbstractRankRunningAggregateDescriptor extends AbstractRunningAggregateFunctionDynamicDescriptor {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @return {@code true} if the ranks have no gaps after a group of peers
+     */
+    protected abstract boolean isDense();
+
+    @Override
+    public IRunningAggregateEvaluatorFactory createRunningAggregateEvaluatorFactory(
+            final IScalarEvaluatorFactory[] args) {
+        final boolean dense = isDense();
+        return new IRunningAggregateEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public IRunningAggregateEvaluator createRunningAggregateEvaluator(IHyracksTaskContext ctx)
+                    throws HyracksDataException {
+                final IScalarEvaluator[] keyEvals = new IScalarEvaluator[args.length];
+                final ArrayBackedValueStorage[] prevKeys = new ArrayBackedValueStorage[args.length];
+                for (int i = 0; i < args.length; i++) {
+                    keyEvals[i] = args[i].createScalarEvaluator(ctx);
+                    prevKeys[i] = new ArrayBackedValueStorage();
+                }
+                final IBinaryComparator cmp = BinaryComparatorFactoryProvider.INSTANCE
+                        .getBinaryComparatorFactory(BuiltinType.ANY, true).createBinaryComparator();
+
+                return new IRunningAggregateEvaluator() {
+
+                    private final IPointable key = new VoidPointable();
+                    private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
+                    private final ISerializerDeserializer<AInt64> serde =
+                            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.AINT64);
+                    private final AMutableInt64 m = new AMutableInt64(0);
+                    private long cnt;
+                    private long rank;
+
+                    @Override
+                    public void step(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                        ++cnt;
+                        if (isNewPeerGroup(tuple)) {
+                            rank = dense ? rank + 1 : cnt;
+                        }
+                        resultStorage.reset();
+                        m.setValue(rank);
+                        serde.serialize(m, resultStorage.getDataOutput());
+                        result.set(resultStorage);
+                    }
+
+                    @Override
+                    public void init() throws HyracksDataException {
+                        cnt = 0;
+                        rank = 0;
+                    }
+
+                    private boolean isNewPeerGroup(IFrameTupleReference tuple) throws HyracksDataException {
+                        boolean newGroup = cnt == 1;
+                        for (int i = 0; i < keyEvals.length; i++) {
+                            keyEvals[i].evaluate(tuple, key);
+                            ArrayBackedValueStorage prevKey = prevKeys[i];
+                            if (!newGroup && cmp.compare(prevKey.getByteArray(), prevKey.getStartOffset(),
+                                    prevKey.getLength(), key.getByteArray(), key.getStartOffset(),
+                                    key.getLength()) != 0) {
+                                newGroup = true;
+                            }
+                            if (newGroup) {
+                                prevKey.assign(key);
+                            }
+                        }
+                        return newGroup;
+                    }
+                };
+            }
+        };
+    }
+}
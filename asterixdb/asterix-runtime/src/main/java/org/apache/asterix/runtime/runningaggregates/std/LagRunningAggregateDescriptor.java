@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.runningaggregates.std;
+
+import java.io.IOException;
+
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.exceptions.RuntimeDataException;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
+import org.apache.asterix.runtime.runningaggregates.base.AbstractRunningAggregateFunctionDynamicDescriptor;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * lag(expr[, offset[, default]]) returns the value of expr at the tuple that is offset (1 by default) tuples before
+ * the current tuple in its window partition, or default (null by default) if there is no such tuple. The offset is
+ * read from the first tuple of each partition, and only the last offset values are kept.
+ */
+public class LagRunningAggregateDescriptor extends AbstractRunningAggregateFunctionDynamicDescriptor {
+
+    private static final long serialVersionUID = 1L;
+    public static final IFunctionDescriptorFactory FACTORY = new IFunctionDescriptorFactory() {
+        @Override
+        public IFunctionDescriptor createFunctionDescriptor() {
+            return new LagRunningAggregateDescriptor();
+        }
+    };
+
+    @Override
+    public IRunningAggregateEvaluatorFactory createRunningAggregateEvaluatorFactory(
+            final IScalarEvaluatorFactory[] args) {
+        return new IRunningAggregateEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IRunningAggregateEvaluator createRunningAggregateEvaluator(IHyracksTaskContext ctx)
+                    throws HyracksDataException {
+                final IScalarEvaluator valueEval = args[0].createScalarEvaluator(ctx);
+                final IScalarEvaluator offsetEval = args.length > 1 ? args[1].createScalarEvaluator(ctx) : null;
+                final IScalarEvaluator defaultEval = args.length > 2 ? args[2].createScalarEvaluator(ctx) : null;
+
+                return new IRunningAggregateEvaluator() {
+
+                    private final IPointable arg = new VoidPointable();
+                    private final ArrayBackedValueStorage resultStorage = new ArrayBackedValueStorage();
+                    private ArrayBackedValueStorage[] history = new ArrayBackedValueStorage[0];
+                    private int offset;
+                    private long cnt;
+
+                    @Override
+                    public void step(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                        if (cnt == 0) {
+                            initOffset(tuple);
+                        }
+                        valueEval.evaluate(tuple, arg);
+                        if (offset == 0) {
+                            result.set(arg);
+                            return;
+                        }
+                        resultStorage.reset();
+                        ArrayBackedValueStorage slot = history[(int) (cnt % offset)];
+                        if (cnt >= offset) {
+                            resultStorage.append(slot);
+                        } else if (defaultEval != null) {
+                            defaultEval.evaluate(tuple, result);
+                            resultStorage.append(result);
+                        } else {
+                            try {
+                                resultStorage.getDataOutput().writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+                            } catch (IOException e) {
+                                throw HyracksDataException.create(e);
+                            }
+                        }
+                        slot.assign(arg);
+                        ++cnt;
+                        result.set(resultStorage);
+                    }
+
+                    @Override
+                    public void init() throws HyracksDataException {
+                        cnt = 0;
+                    }
+
+                    private void initOffset(IFrameTupleReference tuple) throws HyracksDataException {
+                        offset = 1;
+                        if (offsetEval != null) {
+                            offsetEval.evaluate(tuple, arg);
+                            offset = ATypeHierarchy.getIntegerValue(getIdentifier().getName(), 1, arg.getByteArray(),
+                                    arg.getStartOffset());
+                            if (offset < 0) {
+                                throw new RuntimeDataException(ErrorCode.NEGATIVE_VALUE, getIdentifier(), 1, offset);
+                            }
+                        }
+                        if (history.length < offset) {
+                            ArrayBackedValueStorage[] newHistory = new ArrayBackedValueStorage[offset];
+                            System.arraycopy(history, 0, newHistory, 0, history.length);
+                            for (int i = history.length; i < offset; i++) {
+                                newHistory[i] = new ArrayBackedValueStorage();
+                            }
+                            history = newHistory;
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public FunctionIdentifier getIdentifier() {
+        return BuiltinFunctions.LAG;
+    }
+}
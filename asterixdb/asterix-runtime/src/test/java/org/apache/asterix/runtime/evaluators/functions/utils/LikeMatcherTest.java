@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions.utils;
+
+import java.util.regex.Pattern;
+
+import org.apache.asterix.runtime.evaluators.functions.StringEvaluatorUtils;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LikeMatcherTest {
+
+    private static final String[] PATTERNS = { "", "%", "%%", "_", "abc", "abc%", "%abc", "%abc%", "a%c", "a_c", "%b_",
+            "_%_", "a%b%c", "%a%b%", "\\%", "a\\_c", "\\a%", "%\n%", "a\nb%", "%\u00e9%", "_\u00e9", "%\ud83d\ude00",
+            "_\ud83d\ude00_", "%%a%%" };
+    private static final String[] STRINGS = { "", "a", "abc", "abcabc", "xabcx", "abbc", "a_c", "a%c", "%", "\\abc",
+            "ab\nc", "a\nb", "a\nbc", "\n", "\r\nabc", "abc\u2028", "\u0085abc", "\u00e9", "a\u00e9", "\u00e9\u00e9",
+            "\ud83d\ude00", "a\ud83d\ude00", "a\ud83d\ude00b", "\u0000abc", "axbxc", "aabbcc" };
+
+    @Test
+    public void testMatches() {
+        LikeMatcher matcher = new LikeMatcher();
+        for (String pattern : PATTERNS) {
+            Pattern regex = Pattern.compile(StringEvaluatorUtils.toRegex(pattern));
+            UTF8StringPointable patternPtr = UTF8StringPointable.generateUTF8Pointable(pattern);
+            for (String str : STRINGS) {
+                Assert.assertEquals("'" + str + "' like '" + pattern + "'", regex.matcher(str).matches(),
+                        matcher.matches(UTF8StringPointable.generateUTF8Pointable(str), patternPtr));
+            }
+        }
+    }
+
+    @Test
+    public void testSubstrings() {
+        SubstringFinder finder = new SubstringFinder();
+        for (String substring : STRINGS) {
+            UTF8StringPointable substringPtr = UTF8StringPointable.generateUTF8Pointable(substring);
+            for (String str : STRINGS) {
+                UTF8StringPointable strPtr = UTF8StringPointable.generateUTF8Pointable(str);
+                String message = "'" + str + "' and '" + substring + "'";
+                Assert.assertEquals(message, str.contains(substring), finder.find(strPtr, substringPtr) >= 0);
+                Assert.assertEquals(message, str.startsWith(substring), LikeMatcher.startsWith(strPtr, substringPtr));
+                Assert.assertEquals(message, str.endsWith(substring), LikeMatcher.endsWith(strPtr, substringPtr));
+            }
+        }
+    }
+}
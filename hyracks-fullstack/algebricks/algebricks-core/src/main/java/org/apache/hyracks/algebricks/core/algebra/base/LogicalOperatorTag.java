@@ -52,6 +52,7 @@ public enum LogicalOperatorTag {
     LEFT_OUTER_UNNEST,
     UNNEST_MAP,
     UPDATE,
+    WINDOW,
     WRITE,
     WRITE_RESULT,
     INTERSECT,
@@ -23,6 +23,7 @@ public interface OperatorAnnotations {
     public static final String USE_HASH_GROUP_BY = "USE_HASH_GROUP_BY"; // -->
     public static final String USE_EXTERNAL_GROUP_BY = "USE_EXTERNAL_GROUP_BY"; // -->
     public static final String USE_RANGE_CONNECTOR = "USE_RANGE_CONNECTOR"; // -->
+    public static final String USE_BATCH_POINT_LOOKUP = "USE_BATCH_POINT_LOOKUP"; // -->
     // Boolean
     public static final String CARDINALITY = "CARDINALITY"; // -->
     // Integer
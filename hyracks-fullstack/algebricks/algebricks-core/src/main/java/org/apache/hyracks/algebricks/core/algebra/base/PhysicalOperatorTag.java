@@ -75,6 +75,7 @@ public enum PhysicalOperatorTag {
     UNNEST,
     LEFT_OUTER_UNNEST,
     UPDATE,
+    WINDOW,
     WRITE_RESULT,
     INTERSECT,
 }
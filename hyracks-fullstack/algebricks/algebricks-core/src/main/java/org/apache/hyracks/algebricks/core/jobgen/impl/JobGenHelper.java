@@ -18,6 +18,7 @@
  */
 package org.apache.hyracks.algebricks.core.jobgen.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -25,6 +26,8 @@ import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
 import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvironment;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.IOperatorSchema;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.properties.OrderColumn;
 import org.apache.hyracks.algebricks.data.IBinaryComparatorFactoryProvider;
 import org.apache.hyracks.algebricks.data.IBinaryHashFunctionFactoryProvider;
 import org.apache.hyracks.algebricks.data.IBinaryHashFunctionFamilyProvider;
@@ -157,6 +160,33 @@ public final class JobGenHelper {
         return null;
     }
 
+    /**
+     * @return the normalized key computer factories of the leading sort columns, up to and including the first column
+     *         whose normalized key is not decisive, or null if the first column has no normalized key. The normalized
+     *         key of a column is only used when the keys of all previous columns are equal and decisive.
+     */
+    public static INormalizedKeyComputerFactory[] orderColumnsToNormalizedKeyComputerFactories(
+            OrderColumn[] sortColumns, IVariableTypeEnvironment env, JobGenContext context) throws AlgebricksException {
+        INormalizedKeyComputerFactoryProvider nkcfProvider = context.getNormalizedKeyComputerFactoryProvider();
+        if (nkcfProvider == null) {
+            return null;
+        }
+        List<INormalizedKeyComputerFactory> nkcfs = new ArrayList<>();
+        for (OrderColumn oc : sortColumns) {
+            Object type = env.getVarType(oc.getColumn());
+            INormalizedKeyComputerFactory nkcf = type == null ? null
+                    : nkcfProvider.getNormalizedKeyComputerFactory(type, oc.getOrder() == OrderKind.ASC);
+            if (nkcf == null) {
+                break;
+            }
+            nkcfs.add(nkcf);
+            if (!nkcf.getNormalizedKeyProperties().isDecisive()) {
+                break;
+            }
+        }
+        return nkcfs.isEmpty() ? null : nkcfs.toArray(new INormalizedKeyComputerFactory[nkcfs.size()]);
+    }
+
     public static ITypeTraits[] variablesToTypeTraits(Collection<LogicalVariable> varLogical,
             IVariableTypeEnvironment env, JobGenContext context) throws AlgebricksException {
         ITypeTraits[] typeTraits = new ITypeTraits[varLogical.size()];
@@ -93,7 +93,7 @@ public class ExtractCommonExpressionsRule implements IAlgebraicRewriteRule {
             new HashMap<ILogicalExpression, ExprEquivalenceClass>();
 
     // Set of operators for which common subexpression elimination should not be performed.
-    private static final Set<LogicalOperatorTag> ignoreOps = new HashSet<LogicalOperatorTag>(6);
+    private static final Set<LogicalOperatorTag> ignoreOps = new HashSet<LogicalOperatorTag>(7);
 
     static {
         ignoreOps.add(LogicalOperatorTag.UNNEST);
@@ -102,6 +102,7 @@ public class ExtractCommonExpressionsRule implements IAlgebraicRewriteRule {
         ignoreOps.add(LogicalOperatorTag.PROJECT);
         ignoreOps.add(LogicalOperatorTag.AGGREGATE);
         ignoreOps.add(LogicalOperatorTag.RUNNINGAGGREGATE);
+        ignoreOps.add(LogicalOperatorTag.WINDOW);
     }
 
     @Override
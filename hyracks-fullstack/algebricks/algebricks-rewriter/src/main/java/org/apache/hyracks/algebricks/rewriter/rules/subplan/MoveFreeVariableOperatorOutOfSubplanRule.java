@@ -124,7 +124,7 @@ public class MoveFreeVariableOperatorOutOfSubplanRule extends AbstractDecorrelat
         while (!currentOperator.getInputs().isEmpty()) {
             LogicalOperatorTag operatorTag = currentOperator.getOperatorTag();
             if (operatorTag == LogicalOperatorTag.AGGREGATE || operatorTag == LogicalOperatorTag.RUNNINGAGGREGATE
-                    || operatorTag == LogicalOperatorTag.GROUP) {
+                    || operatorTag == LogicalOperatorTag.WINDOW || operatorTag == LogicalOperatorTag.GROUP) {
                 return false;
             }
             if (operatorTag == LogicalOperatorTag.PROJECT) {
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.aggregators;
+
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Returns the value of an expression for the tuple that is <code>offset</code> tuples before the current one, or
+ * the value of a default expression for the first <code>offset</code> tuples. Only the last <code>offset</code>
+ * values are kept.
+ */
+public class LagRunningAggregateFunctionFactory implements IRunningAggregateEvaluatorFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IScalarEvaluatorFactory valueEvalFactory;
+    private final int offset;
+    private final IScalarEvaluatorFactory defaultEvalFactory;
+
+    public LagRunningAggregateFunctionFactory(IScalarEvaluatorFactory valueEvalFactory, int offset,
+            IScalarEvaluatorFactory defaultEvalFactory) {
+        if (offset < 1) {
+            throw new IllegalArgumentException("offset must be positive: " + offset);
+        }
+        this.valueEvalFactory = valueEvalFactory;
+        this.offset = offset;
+        this.defaultEvalFactory = defaultEvalFactory;
+    }
+
+    @Override
+    public IRunningAggregateEvaluator createRunningAggregateEvaluator(IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        final IScalarEvaluator valueEval = valueEvalFactory.createScalarEvaluator(ctx);
+        final IScalarEvaluator defaultEval = defaultEvalFactory.createScalarEvaluator(ctx);
+        final IPointable value = VoidPointable.FACTORY.createPointable();
+        final ArrayBackedValueStorage[] previousValues = new ArrayBackedValueStorage[offset];
+        for (int i = 0; i < offset; i++) {
+            previousValues[i] = new ArrayBackedValueStorage();
+        }
+        final ArrayBackedValueStorage abvs = new ArrayBackedValueStorage();
+        return new IRunningAggregateEvaluator() {
+
+            long cnt;
+
+            @Override
+            public void step(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                // previousValues is a ring buffer: the slot of the current tuple holds the value of the tuple that
+                // is offset tuples before it
+                ArrayBackedValueStorage slot = previousValues[(int) (cnt % offset)];
+                abvs.reset();
+                if (cnt < offset) {
+                    defaultEval.evaluate(tuple, value);
+                    abvs.append(value);
+                } else {
+                    abvs.append(slot);
+                }
+                valueEval.evaluate(tuple, value);
+                slot.reset();
+                slot.append(value);
+                ++cnt;
+                result.set(abvs);
+            }
+
+            @Override
+            public void init() throws HyracksDataException {
+                cnt = 0;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "lag(" + valueEvalFactory + ", " + offset + ", " + defaultEvalFactory + ")";
+    }
+}
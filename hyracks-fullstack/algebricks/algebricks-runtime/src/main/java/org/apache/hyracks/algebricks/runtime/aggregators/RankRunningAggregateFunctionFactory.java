@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.aggregators;
+
+import java.io.IOException;
+
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IRunningAggregateEvaluatorFactory;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Computes the rank (or the dense rank) of the tuples of an input sorted on the order columns: tuples with equal
+ * values in the order columns are peers and get the same rank.
+ */
+public class RankRunningAggregateFunctionFactory implements IRunningAggregateEvaluatorFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] orderColumns;
+    private final IBinaryComparatorFactory[] comparatorFactories;
+    private final boolean dense;
+
+    public RankRunningAggregateFunctionFactory(int[] orderColumns, IBinaryComparatorFactory[] comparatorFactories,
+            boolean dense) {
+        this.orderColumns = orderColumns;
+        this.comparatorFactories = comparatorFactories;
+        this.dense = dense;
+    }
+
+    @Override
+    public IRunningAggregateEvaluator createRunningAggregateEvaluator(IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        final ArrayBackedValueStorage abvs = new ArrayBackedValueStorage();
+        final TupleKeyTracker peers = new TupleKeyTracker(orderColumns, comparatorFactories);
+        return new IRunningAggregateEvaluator() {
+
+            int cnt;
+            int rank;
+
+            @Override
+            public void step(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+                try {
+                    ++cnt;
+                    if (peers.isNewKey(tuple)) {
+                        rank = dense ? rank + 1 : cnt;
+                    }
+                    abvs.reset();
+                    abvs.getDataOutput().writeInt(rank);
+                    result.set(abvs);
+                } catch (IOException e) {
+                    throw HyracksDataException.create(e);
+                }
+            }
+
+            @Override
+            public void init() throws HyracksDataException {
+                cnt = 0;
+                rank = 0;
+                peers.reset();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return dense ? "dense-rank" : "rank";
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.aggregators;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * Detects the changes of a key over a stream of tuples, e.g. the boundaries of the partitions or of the peer groups
+ * of a window. Only the key of the last group is kept, and it is only copied when it changes.
+ */
+public class TupleKeyTracker {
+
+    private final int[] keyColumns;
+    private final IBinaryComparator[] comparators;
+    private final ArrayTupleBuilder lastKey;
+    private boolean hasLastKey;
+
+    public TupleKeyTracker(int[] keyColumns, IBinaryComparatorFactory[] comparatorFactories) {
+        this.keyColumns = keyColumns;
+        this.comparators = new IBinaryComparator[comparatorFactories.length];
+        for (int i = 0; i < comparatorFactories.length; i++) {
+            comparators[i] = comparatorFactories[i].createBinaryComparator();
+        }
+        this.lastKey = new ArrayTupleBuilder(keyColumns.length);
+    }
+
+    /**
+     * Forgets the last key.
+     */
+    public void reset() {
+        hasLastKey = false;
+    }
+
+    /**
+     * @return true if the key of the tuple differs from the key of the previous tuple, or if there was no previous
+     *         tuple since the last {@link #reset()}; false otherwise.
+     */
+    public boolean isNewKey(ITupleReference tuple) throws HyracksDataException {
+        if (hasLastKey && sameKey(tuple)) {
+            return false;
+        }
+        lastKey.reset();
+        for (int keyColumn : keyColumns) {
+            lastKey.addField(tuple.getFieldData(keyColumn), tuple.getFieldStart(keyColumn),
+                    tuple.getFieldLength(keyColumn));
+        }
+        hasLastKey = true;
+        return true;
+    }
+
+    private boolean sameKey(ITupleReference tuple) throws HyracksDataException {
+        byte[] keyData = lastKey.getByteArray();
+        int[] keyEndOffsets = lastKey.getFieldEndOffsets();
+        for (int i = 0; i < keyColumns.length; i++) {
+            int keyStart = i == 0 ? 0 : keyEndOffsets[i - 1];
+            int c = keyColumns[i];
+            if (comparators[i].compare(keyData, keyStart, keyEndOffsets[i] - keyStart, tuple.getFieldData(c),
+                    tuple.getFieldStart(c), tuple.getFieldLength(c)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
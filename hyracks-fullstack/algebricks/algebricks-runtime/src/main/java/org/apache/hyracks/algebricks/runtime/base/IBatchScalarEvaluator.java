@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+
+/**
+ * A scalar evaluator that can also evaluate its expression over many tuples of a frame in one call, which saves the
+ * per-tuple dispatch and argument setup of {@link IScalarEvaluator#evaluate}.
+ */
+public interface IBatchScalarEvaluator extends IScalarEvaluator {
+
+    /**
+     * Evaluates the expression for the tuples of a frame selected by a selection vector.
+     *
+     * @param accessor
+     *            the accessor of the frame
+     * @param selection
+     *            the indexes of the selected tuples, in increasing order
+     * @param size
+     *            the number of selected tuples
+     * @param results
+     *            receives the result of the tuple selection[i] in results[i]. The results stay valid until the next
+     *            call of this evaluator.
+     * @throws HyracksDataException
+     */
+    public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+            throws HyracksDataException;
+
+    /**
+     * @return whether evaluating the expression may have side effects, e.g. because it calls a user-defined
+     *         function. Such an expression is evaluated at most once per tuple: a frame whose batch evaluation failed
+     *         is not evaluated again one tuple at a time.
+     */
+    public boolean mayHaveSideEffects();
+}
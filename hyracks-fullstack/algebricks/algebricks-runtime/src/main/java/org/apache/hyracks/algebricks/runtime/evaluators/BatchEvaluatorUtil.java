@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+public class BatchEvaluatorUtil {
+
+    private BatchEvaluatorUtil() {
+    }
+
+    /**
+     * @return the evaluator itself if it has a batch version, or an evaluator that evaluates the batch one tuple at
+     *         a time otherwise
+     */
+    public static IBatchScalarEvaluator asBatchEvaluator(IScalarEvaluator eval) {
+        if (eval instanceof IBatchScalarEvaluator) {
+            return (IBatchScalarEvaluator) eval;
+        }
+        return new TupleAtATimeEvaluator(eval);
+    }
+
+    public static IBatchScalarEvaluator[] asBatchEvaluators(IScalarEvaluator[] evals) {
+        IBatchScalarEvaluator[] batchEvals = new IBatchScalarEvaluator[evals.length];
+        for (int i = 0; i < evals.length; i++) {
+            batchEvals[i] = asBatchEvaluator(evals[i]);
+        }
+        return batchEvals;
+    }
+
+    /**
+     * @return whether one of the evaluators may have side effects. An evaluator without a batch version is assumed to
+     *         have some, as it can call any function.
+     */
+    public static boolean mayHaveSideEffects(IScalarEvaluator... evals) {
+        for (IScalarEvaluator eval : evals) {
+            if (!(eval instanceof IBatchScalarEvaluator) || ((IBatchScalarEvaluator) eval).mayHaveSideEffects()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static int[] ensureCapacity(int[] array, int size) {
+        return array.length >= size ? array : Arrays.copyOf(array, Math.max(size, 2 * array.length));
+    }
+
+    public static IPointable[] ensureCapacity(IPointable[] pointables, int size) {
+        if (pointables.length >= size) {
+            return pointables;
+        }
+        IPointable[] newPointables = Arrays.copyOf(pointables, Math.max(size, 2 * pointables.length));
+        for (int i = pointables.length; i < newPointables.length; i++) {
+            newPointables[i] = VoidPointable.FACTORY.createPointable();
+        }
+        return newPointables;
+    }
+
+    /**
+     * @return a selection vector that selects the first size tuples of a frame
+     */
+    public static int[] selectAll(int[] selection, int size) {
+        int[] newSelection = ensureCapacity(selection, size);
+        for (int i = 0; i < size; i++) {
+            newSelection[i] = i;
+        }
+        return newSelection;
+    }
+
+    private static class TupleAtATimeEvaluator implements IBatchScalarEvaluator {
+        private final IScalarEvaluator eval;
+        private final FrameTupleReference tuple = new FrameTupleReference();
+        private final IPointable result = VoidPointable.FACTORY.createPointable();
+        private final BatchResultStorage resultStorage = new BatchResultStorage();
+
+        TupleAtATimeEvaluator(IScalarEvaluator eval) {
+            this.eval = eval;
+        }
+
+        @Override
+        public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
+            eval.evaluate(tuple, result);
+        }
+
+        @Override
+        public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+                throws HyracksDataException {
+            resultStorage.reset();
+            for (int i = 0; i < size; i++) {
+                tuple.reset(accessor, selection[i]);
+                eval.evaluate(tuple, result);
+                resultStorage.append(i, result);
+            }
+            resultStorage.getResults(results);
+        }
+
+        @Override
+        public boolean mayHaveSideEffects() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.evaluators;
+
+import java.io.IOException;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * Keeps the results of a batch evaluation that are built in storage reused from one tuple to the next. Each result is
+ * copied into a single buffer, and the result pointables are only set once the batch is complete, as the buffer may
+ * move while it grows. The results of the tuples whose result is not stored are left untouched.
+ */
+public class BatchResultStorage {
+
+    private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+    private int[] indexes = new int[0];
+    private int[] ends = new int[0];
+    private int size;
+
+    public void reset() {
+        storage.reset();
+        size = 0;
+    }
+
+    /**
+     * Stores the result of the tuple at the given index of the batch
+     */
+    public void append(int index, IValueReference value) throws HyracksDataException {
+        try {
+            storage.getDataOutput().write(value.getByteArray(), value.getStartOffset(), value.getLength());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        if (size == ends.length) {
+            indexes = BatchEvaluatorUtil.ensureCapacity(indexes, size + 1);
+            ends = BatchEvaluatorUtil.ensureCapacity(ends, size + 1);
+        }
+        indexes[size] = index;
+        ends[size++] = storage.getLength();
+    }
+
+    /**
+     * Sets the results of the tuples whose result is stored
+     */
+    public void getResults(IPointable[] results) {
+        byte[] bytes = storage.getByteArray();
+        int start = 0;
+        for (int i = 0; i < size; i++) {
+            results[indexes[i]].set(bytes, start, ends[i] - start);
+            start = ends[i];
+        }
+    }
+}
@@ -18,8 +18,10 @@
  */
 package org.apache.hyracks.algebricks.runtime.evaluators;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
@@ -34,6 +36,10 @@ public class ConstantEvalFactory implements IScalarEvaluatorFactory {
         this.value = value;
     }
 
+    public byte[] getValue() {
+        return value;
+    }
+
     @Override
     public String toString() {
         return "Constant";
@@ -41,12 +47,25 @@ public class ConstantEvalFactory implements IScalarEvaluatorFactory {
 
     @Override
     public IScalarEvaluator createScalarEvaluator(final IHyracksTaskContext ctx) throws HyracksDataException {
-        return new IScalarEvaluator() {
+        return new IBatchScalarEvaluator() {
 
             @Override
             public void evaluate(IFrameTupleReference tuple, IPointable result) throws HyracksDataException {
                 result.set(value, 0, value.length);
             }
+
+            @Override
+            public void evaluate(IFrameTupleAccessor accessor, int[] selection, int size, IPointable[] results)
+                    throws HyracksDataException {
+                for (int i = 0; i < size; i++) {
+                    results[i].set(value, 0, value.length);
+                }
+            }
+
+            @Override
+            public boolean mayHaveSideEffects() {
+                return false;
+            }
         };
     }
 
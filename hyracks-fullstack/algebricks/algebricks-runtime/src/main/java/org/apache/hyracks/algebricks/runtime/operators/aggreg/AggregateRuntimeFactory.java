@@ -44,6 +44,10 @@ public class AggregateRuntimeFactory extends AbstractOneInputOneOutputRuntimeFac
         this.aggregFactories = aggregFactories;
     }
 
+    public IAggregateEvaluatorFactory[] getAggregatorFactories() {
+        return aggregFactories;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -33,6 +33,10 @@ public abstract class AbstractOneInputOneOutputRuntimeFactory implements IPushRu
         this.projectionList = projectionList;
     }
 
+    public int[] getProjectionList() {
+        return projectionList;
+    }
+
     @Override
     public IPushRuntime[] createPushRuntime(IHyracksTaskContext ctx) throws HyracksDataException {
         return new IPushRuntime[] { createOneOutputPushRuntime(ctx) };
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.operators.meta;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
+import org.apache.hyracks.algebricks.runtime.base.AlgebricksPipeline;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IPushRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IUnnestingEvaluator;
+import org.apache.hyracks.algebricks.runtime.operators.aggreg.AggregateRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.AssignRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.NestedTupleSourceRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamProjectRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.UnnestRuntimeFactory;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Evaluates a nested pipeline of the form
+ * nts -> (assign | unnest | stream-select | stream-project)* -> aggregate
+ * directly over the tuples of the outer frame, which covers the nested plans of quantified expressions and of
+ * aggregates over unnested collections. The operators of the pipeline pass field references to each other instead of
+ * frames, so the outer tuple is not copied into the pipeline and no frame is opened, flushed or closed per outer tuple.
+ * Each operator produces the same fields as the push runtime created by its factory.
+ */
+final class NestedPipelineEvaluator {
+
+    private final Stage first;
+
+    private final AggregateStage last;
+
+    private NestedPipelineEvaluator(AlgebricksPipeline pipeline, IHyracksTaskContext ctx) throws HyracksDataException {
+        IPushRuntimeFactory[] runtimeFactories = pipeline.getRuntimeFactories();
+        int n = runtimeFactories.length;
+        last = new AggregateStage(((AggregateRuntimeFactory) runtimeFactories[n - 1]).getAggregatorFactories(), ctx);
+        Stage next = last;
+        for (int i = n - 2; i > 0; i--) {
+            int inputFieldCount = pipeline.getRecordDescriptors()[i - 1].getFieldCount();
+            next = createStage(runtimeFactories[i], inputFieldCount, next, ctx);
+        }
+        first = next;
+    }
+
+    /**
+     * @return an evaluator for the given pipeline or null if the pipeline has operators that cannot be evaluated
+     *         without being pushed frames
+     */
+    static NestedPipelineEvaluator create(AlgebricksPipeline pipeline, IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        return canEvaluate(pipeline) ? new NestedPipelineEvaluator(pipeline, ctx) : null;
+    }
+
+    static boolean canEvaluate(AlgebricksPipeline pipeline) {
+        IPushRuntimeFactory[] runtimeFactories = pipeline.getRuntimeFactories();
+        int n = runtimeFactories.length;
+        if (n < 2 || !(runtimeFactories[0] instanceof NestedTupleSourceRuntimeFactory)
+                || !(runtimeFactories[n - 1] instanceof AggregateRuntimeFactory)) {
+            return false;
+        }
+        for (int i = 1; i < n - 1; i++) {
+            IPushRuntimeFactory f = runtimeFactories[i];
+            if (f instanceof UnnestRuntimeFactory) {
+                UnnestRuntimeFactory unnest = (UnnestRuntimeFactory) f;
+                if (unnest.isLeftOuter() || unnest.getPositionWriter() != null) {
+                    return false;
+                }
+            } else if (f instanceof StreamSelectRuntimeFactory) {
+                if (((StreamSelectRuntimeFactory) f).isRetainMissing()) {
+                    return false;
+                }
+            } else if (!(f instanceof AssignRuntimeFactory) && !(f instanceof StreamProjectRuntimeFactory)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Stage createStage(IPushRuntimeFactory f, int inputFieldCount, Stage next, IHyracksTaskContext ctx)
+            throws HyracksDataException {
+        if (f instanceof AssignRuntimeFactory) {
+            AssignRuntimeFactory assign = (AssignRuntimeFactory) f;
+            return new AssignStage(assign.getOutColumns(), assign.getEvalFactories(), assign.getProjectionList(), next,
+                    ctx);
+        } else if (f instanceof UnnestRuntimeFactory) {
+            UnnestRuntimeFactory unnest = (UnnestRuntimeFactory) f;
+            return new UnnestStage(unnest.getOutCol(), unnest.getUnnestingFactory().createUnnestingEvaluator(ctx),
+                    unnest.getProjectionList(), next);
+        } else if (f instanceof StreamSelectRuntimeFactory) {
+            StreamSelectRuntimeFactory select = (StreamSelectRuntimeFactory) f;
+            return new SelectStage(select.getCondition().createScalarEvaluator(ctx),
+                    select.getBinaryBooleanInspectorFactory().createBinaryBooleanInspector(ctx),
+                    select.getProjectionList(), next);
+        } else {
+            return new ProjectStage(((StreamProjectRuntimeFactory) f).getProjectionList(), next);
+        }
+    }
+
+    /**
+     * Runs the pipeline for one outer tuple and appends the aggregate results to the tuple builder
+     */
+    void evaluate(IFrameTupleReference outerTuple, ArrayTupleBuilder tb) throws HyracksDataException {
+        last.init();
+        first.reset();
+        first.push(outerTuple);
+        last.finish(tb);
+    }
+
+    private abstract static class Stage {
+
+        final Stage next;
+
+        // the index the current input tuple would have had in the frame pushed to the operator
+        int tupleIndex;
+
+        Stage(Stage next) {
+            this.next = next;
+        }
+
+        void reset() {
+            tupleIndex = 0;
+            if (next != null) {
+                next.reset();
+            }
+        }
+
+        abstract void push(IFrameTupleReference tuple) throws HyracksDataException;
+    }
+
+    private static final class AssignStage extends Stage {
+
+        private final int[] projectionList;
+        private final int[] projectionToOutColumns;
+        private final IScalarEvaluator[] evals;
+        private final IPointable[] results;
+        private final FieldReferences output;
+
+        AssignStage(int[] outColumns, IScalarEvaluatorFactory[] evalFactories, int[] projectionList, Stage next,
+                IHyracksTaskContext ctx) throws HyracksDataException {
+            super(next);
+            this.projectionList = projectionList;
+            projectionToOutColumns = new int[projectionList.length];
+            for (int j = 0; j < projectionList.length; j++) {
+                projectionToOutColumns[j] = Arrays.binarySearch(outColumns, projectionList[j]);
+            }
+            evals = new IScalarEvaluator[evalFactories.length];
+            results = new IPointable[evalFactories.length];
+            for (int i = 0; i < evalFactories.length; i++) {
+                evals[i] = evalFactories[i].createScalarEvaluator(ctx);
+                results[i] = VoidPointable.FACTORY.createPointable();
+            }
+            output = new FieldReferences(projectionList.length);
+        }
+
+        @Override
+        void push(IFrameTupleReference tuple) throws HyracksDataException {
+            try {
+                for (int f = 0; f < projectionList.length; f++) {
+                    int k = projectionToOutColumns[f];
+                    if (k >= 0) {
+                        IPointable value = results[k];
+                        evals[k].evaluate(tuple, value);
+                        output.set(f, value.getByteArray(), value.getStartOffset(), value.getLength());
+                    } else {
+                        output.set(f, tuple, projectionList[f]);
+                    }
+                }
+            } catch (HyracksDataException e) {
+                throw HyracksDataException.create(ErrorCode.ERROR_PROCESSING_TUPLE, e, tupleIndex);
+            }
+            tupleIndex++;
+            next.push(output);
+        }
+    }
+
+    private static final class UnnestStage extends Stage {
+
+        private final IUnnestingEvaluator unnest;
+        private final int[] projectionList;
+        private final int outColPos;
+        private final IPointable p = VoidPointable.FACTORY.createPointable();
+        private final FieldReferences output;
+
+        UnnestStage(int outCol, IUnnestingEvaluator unnest, int[] projectionList, Stage next) {
+            super(next);
+            this.unnest = unnest;
+            this.projectionList = projectionList;
+            int pos = -1;
+            for (int f = 0; f < projectionList.length; f++) {
+                if (projectionList[f] == outCol) {
+                    pos = f;
+                }
+            }
+            outColPos = pos;
+            output = new FieldReferences(projectionList.length);
+        }
+
+        @Override
+        void push(IFrameTupleReference tuple) throws HyracksDataException {
+            unnest.init(tuple);
+            while (unnest.step(p)) {
+                if (outColPos < 0) {
+                    for (int f = 0; f < projectionList.length; f++) {
+                        output.set(f, tuple, projectionList[f]);
+                    }
+                } else {
+                    // same layout as the one written by the unnest runtime
+                    for (int f = 0; f < outColPos; f++) {
+                        output.set(f, tuple, f);
+                    }
+                    output.set(outColPos, p.getByteArray(), p.getStartOffset(), p.getLength());
+                    for (int f = outColPos + 1; f < projectionList.length; f++) {
+                        output.set(f, tuple, f);
+                    }
+                }
+                next.push(output);
+            }
+        }
+    }
+
+    private static final class SelectStage extends Stage {
+
+        private final IScalarEvaluator eval;
+        private final IBinaryBooleanInspector bbi;
+        private final int[] projectionList;
+        private final IPointable p = VoidPointable.FACTORY.createPointable();
+        private final FieldReferences output;
+
+        SelectStage(IScalarEvaluator eval, IBinaryBooleanInspector bbi, int[] projectionList, Stage next) {
+            super(next);
+            this.eval = eval;
+            this.bbi = bbi;
+            this.projectionList = projectionList;
+            output = projectionList != null ? new FieldReferences(projectionList.length) : null;
+        }
+
+        @Override
+        void push(IFrameTupleReference tuple) throws HyracksDataException {
+            eval.evaluate(tuple, p);
+            if (bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
+                if (projectionList == null) {
+                    next.push(tuple);
+                } else {
+                    for (int f = 0; f < projectionList.length; f++) {
+                        output.set(f, tuple, projectionList[f]);
+                    }
+                    next.push(output);
+                }
+            }
+        }
+    }
+
+    private static final class ProjectStage extends Stage {
+
+        private final int[] projectionList;
+        private final FieldReferences output;
+
+        ProjectStage(int[] projectionList, Stage next) {
+            super(next);
+            this.projectionList = projectionList;
+            output = new FieldReferences(projectionList.length);
+        }
+
+        @Override
+        void push(IFrameTupleReference tuple) throws HyracksDataException {
+            for (int f = 0; f < projectionList.length; f++) {
+                output.set(f, tuple, projectionList[f]);
+            }
+            next.push(output);
+        }
+    }
+
+    private static final class AggregateStage extends Stage {
+
+        private final IAggregateEvaluator[] aggregs;
+        private final IPointable result = VoidPointable.FACTORY.createPointable();
+
+        AggregateStage(IAggregateEvaluatorFactory[] aggregFactories, IHyracksTaskContext ctx)
+                throws HyracksDataException {
+            super(null);
+            aggregs = new IAggregateEvaluator[aggregFactories.length];
+            for (int i = 0; i < aggregFactories.length; i++) {
+                aggregs[i] = aggregFactories[i].createAggregateEvaluator(ctx);
+            }
+        }
+
+        void init() throws HyracksDataException {
+            for (IAggregateEvaluator aggreg : aggregs) {
+                aggreg.init();
+            }
+        }
+
+        @Override
+        void push(IFrameTupleReference tuple) throws HyracksDataException {
+            for (IAggregateEvaluator aggreg : aggregs) {
+                aggreg.step(tuple);
+            }
+        }
+
+        void finish(ArrayTupleBuilder tb) throws HyracksDataException {
+            for (IAggregateEvaluator aggreg : aggregs) {
+                aggreg.finish(result);
+                tb.addField(result.getByteArray(), result.getStartOffset(), result.getLength());
+            }
+        }
+    }
+
+    /**
+     * A tuple whose fields refer to the fields of other tuples or to evaluation results
+     */
+    private static final class FieldReferences implements IFrameTupleReference {
+
+        private final byte[][] data;
+        private final int[] starts;
+        private final int[] lengths;
+
+        FieldReferences(int fieldCount) {
+            data = new byte[fieldCount][];
+            starts = new int[fieldCount];
+            lengths = new int[fieldCount];
+        }
+
+        void set(int fIdx, byte[] bytes, int start, int length) {
+            data[fIdx] = bytes;
+            starts[fIdx] = start;
+            lengths[fIdx] = length;
+        }
+
+        void set(int fIdx, IFrameTupleReference tuple, int tupleFIdx) {
+            set(fIdx, tuple.getFieldData(tupleFIdx), tuple.getFieldStart(tupleFIdx), tuple.getFieldLength(tupleFIdx));
+        }
+
+        @Override
+        public int getFieldCount() {
+            return data.length;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return data[fIdx];
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            return starts[fIdx];
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return lengths[fIdx];
+        }
+
+        @Override
+        public IFrameTupleAccessor getFrameTupleAccessor() {
+            return null;
+        }
+
+        @Override
+        public int getTupleIndex() {
+            return 0;
+        }
+    }
+}
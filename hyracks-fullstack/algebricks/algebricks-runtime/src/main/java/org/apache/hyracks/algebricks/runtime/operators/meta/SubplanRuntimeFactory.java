@@ -90,12 +90,26 @@ public class SubplanRuntimeFactory extends AbstractOneInputOneOutputRuntimeFacto
 
         final NestedTupleSourceRuntime[] startOfPipelines;
 
+        // evaluates the nested plan without pushing frames through it when it is a single aggregating pipeline
+        final NestedPipelineEvaluator pipelineEvaluator;
+
+        final ArrayTupleBuilder evaluatorTupleBuilder;
+
         boolean first;
 
         SubplanPushRuntime(IHyracksTaskContext ctx) throws HyracksDataException {
             this.ctx = ctx;
             this.first = true;
 
+            pipelineEvaluator = pipelines.size() == 1 ? NestedPipelineEvaluator.create(pipelines.get(0), ctx) : null;
+            if (pipelineEvaluator != null) {
+                startOfPipelines = null;
+                evaluatorTupleBuilder = new ArrayTupleBuilder(
+                        SubplanRuntimeFactory.this.inputRecordDesc.getFieldCount() + pipelines.get(0).getOutputWidth());
+                return;
+            }
+            evaluatorTupleBuilder = null;
+
             IMissingWriter[] missingWriters = new IMissingWriter[missingWriterFactories.length];
             for (int i = 0; i < missingWriterFactories.length; i++) {
                 missingWriters[i] = missingWriterFactories[i].createMissingWriter();
@@ -162,6 +176,10 @@ public class SubplanRuntimeFactory extends AbstractOneInputOneOutputRuntimeFacto
         public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
             tAccess.reset(buffer);
             int nTuple = tAccess.getTupleCount();
+            if (pipelineEvaluator != null) {
+                evaluateFrame(nTuple);
+                return;
+            }
             for (int t = 0; t < nTuple; t++) {
                 tRef.reset(tAccess, t);
 
@@ -188,6 +206,23 @@ public class SubplanRuntimeFactory extends AbstractOneInputOneOutputRuntimeFacto
             }
         }
 
+        /**
+         * Appends each outer tuple of the frame concatenated with the result of the nested plan for it. The nested
+         * plan ends with an aggregate, so it produces exactly one tuple for each outer tuple.
+         */
+        private void evaluateFrame(int nTuple) throws HyracksDataException {
+            int fieldCount = tAccess.getFieldCount();
+            for (int t = 0; t < nTuple; t++) {
+                tRef.reset(tAccess, t);
+                evaluatorTupleBuilder.reset();
+                for (int f = 0; f < fieldCount; f++) {
+                    evaluatorTupleBuilder.addField(tAccess, t, f);
+                }
+                pipelineEvaluator.evaluate(tRef, evaluatorTupleBuilder);
+                appendToFrameFromTupleBuilder(evaluatorTupleBuilder);
+            }
+        }
+
         @Override
         public void flush() throws HyracksDataException {
             writer.flush();
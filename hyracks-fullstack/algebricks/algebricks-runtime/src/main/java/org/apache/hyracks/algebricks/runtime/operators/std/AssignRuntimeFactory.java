@@ -21,8 +21,10 @@ package org.apache.hyracks.algebricks.runtime.operators.std;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
@@ -62,6 +64,14 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         this.flushFramesRapidly = flushFramesRapidly;
     }
 
+    public int[] getOutColumns() {
+        return outColumns;
+    }
+
+    public IScalarEvaluatorFactory[] getEvalFactories() {
+        return evalFactories;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -94,6 +104,13 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         return new AbstractOneInputOneOutputOneFramePushRuntime() {
             private IPointable result = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator[] eval = new IScalarEvaluator[evalFactories.length];
+            // the expressions that have a batch version are evaluated over whole frames
+            private IBatchScalarEvaluator[] batchEval = new IBatchScalarEvaluator[evalFactories.length];
+            private IPointable[][] batchResults = new IPointable[evalFactories.length][];
+            private int[] selection = new int[0];
+            private boolean hasBatchEval = false;
+            private boolean batchMayHaveSideEffects = false;
+            private boolean batched = false;
             private ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(projectionList.length);
             private boolean first = true;
             private boolean isOpen = false;
@@ -107,6 +124,12 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     int n = evalFactories.length;
                     for (int i = 0; i < n; i++) {
                         eval[i] = evalFactories[i].createScalarEvaluator(ctx);
+                        if (eval[i] instanceof IBatchScalarEvaluator) {
+                            batchEval[i] = (IBatchScalarEvaluator) eval[i];
+                            batchResults[i] = new IPointable[0];
+                            hasBatchEval = true;
+                            batchMayHaveSideEffects |= batchEval[i].mayHaveSideEffects();
+                        }
                     }
                 }
                 isOpen = true;
@@ -131,6 +154,7 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     }
                     appender.flush(writer);
                 } else {
+                    batched = hasBatchEval && evaluateFrame(nTuple);
                     if (nTuple > 1) {
                         for (; tupleIndex < nTuple - 1; tupleIndex++) {
                             tRef.reset(tAccess, tupleIndex);
@@ -165,8 +189,13 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     for (int f = 0; f < projectionList.length; f++) {
                         int k = projectionToOutColumns[f];
                         if (k >= 0) {
-                            eval[k].evaluate(tupleRef, result);
-                            tb.addField(result.getByteArray(), result.getStartOffset(), result.getLength());
+                            IPointable value = result;
+                            if (batched && batchEval[k] != null) {
+                                value = batchResults[k][tIndex];
+                            } else {
+                                eval[k].evaluate(tupleRef, value);
+                            }
+                            tb.addField(value.getByteArray(), value.getStartOffset(), value.getLength());
                         } else {
                             tb.addField(accessor, tIndex, projectionList[f]);
                         }
@@ -176,6 +205,31 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                 }
             }
 
+            /**
+             * Evaluates the expressions that have a batch version for all the tuples of the frame at once
+             *
+             * @return false if an evaluation failed, in which case the frame is evaluated again one tuple at a time so
+             *         that the failure is reported for the tuple that caused it. A failure is raised right away if an
+             *         expression may have side effects, as they would be repeated for the tuples evaluated so far.
+             */
+            private boolean evaluateFrame(int nTuple) throws HyracksDataException {
+                selection = BatchEvaluatorUtil.selectAll(selection, nTuple);
+                try {
+                    for (int i = 0; i < batchEval.length; i++) {
+                        if (batchEval[i] != null) {
+                            batchResults[i] = BatchEvaluatorUtil.ensureCapacity(batchResults[i], nTuple);
+                            batchEval[i].evaluate(tAccess, selection, nTuple, batchResults[i]);
+                        }
+                    }
+                    return true;
+                } catch (HyracksDataException e) {
+                    if (batchMayHaveSideEffects) {
+                        throw e;
+                    }
+                    return false; // NOSONAR: Reported by the tuple at a time evaluation
+                }
+            }
+
             @Override
             public void fail() throws HyracksDataException {
                 if (isOpen) {
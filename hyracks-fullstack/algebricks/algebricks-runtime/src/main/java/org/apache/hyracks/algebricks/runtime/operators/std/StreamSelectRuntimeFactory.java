@@ -23,8 +23,10 @@ import java.nio.ByteBuffer;
 
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspector;
 import org.apache.hyracks.algebricks.data.IBinaryBooleanInspectorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IBatchScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.BatchEvaluatorUtil;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFieldFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
@@ -72,6 +74,18 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         this.missingPlaceholderVariableIndex = index;
     }
 
+    public boolean isRetainMissing() {
+        return retainMissing;
+    }
+
+    public IScalarEvaluatorFactory getCondition() {
+        return cond;
+    }
+
+    public IBinaryBooleanInspectorFactory getBinaryBooleanInspectorFactory() {
+        return binaryBooleanInspectorFactory;
+    }
+
     @Override
     public String toString() {
         return "stream-select " + cond.toString();
@@ -83,6 +97,10 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         return new AbstractOneInputOneOutputOneFieldFramePushRuntime() {
             private IPointable p = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator eval;
+            // the condition evaluated over whole frames, when it has a batch version
+            private IBatchScalarEvaluator batchEval;
+            private int[] selection = new int[0];
+            private IPointable[] results = new IPointable[0];
             private IMissingWriter missingWriter = null;
             private ArrayTupleBuilder missingTupleBuilder = null;
 
@@ -91,6 +109,9 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
                 if (eval == null) {
                     initAccessAppendFieldRef(ctx);
                     eval = cond.createScalarEvaluator(ctx);
+                    if (eval instanceof IBatchScalarEvaluator) {
+                        batchEval = (IBatchScalarEvaluator) eval;
+                    }
                 }
                 writer.open();
 
@@ -117,10 +138,16 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
             public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
                 tAccess.reset(buffer);
                 int nTuple = tAccess.getTupleCount();
+                boolean batched = batchEval != null && evaluateFrame(nTuple);
                 for (int t = 0; t < nTuple; t++) {
                     tRef.reset(tAccess, t);
-                    eval.evaluate(tRef, p);
-                    if (bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
+                    IPointable result = p;
+                    if (batched) {
+                        result = results[t];
+                    } else {
+                        eval.evaluate(tRef, result);
+                    }
+                    if (bbi.getBooleanValue(result.getByteArray(), result.getStartOffset(), result.getLength())) {
                         if (projectionList != null) {
                             appendProjectionToFrame(t, projectionList);
                         } else {
@@ -140,6 +167,27 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
                 }
             }
 
+            /**
+             * Evaluates the condition for all the tuples of the frame at once
+             *
+             * @return false if the evaluation failed, in which case the frame is evaluated again one tuple at a time so
+             *         that the failure is reported for the tuple that caused it. A failure is raised right away if the
+             *         condition may have side effects, as they would be repeated for the tuples evaluated so far.
+             */
+            private boolean evaluateFrame(int nTuple) throws HyracksDataException {
+                selection = BatchEvaluatorUtil.selectAll(selection, nTuple);
+                results = BatchEvaluatorUtil.ensureCapacity(results, nTuple);
+                try {
+                    batchEval.evaluate(tAccess, selection, nTuple, results);
+                    return true;
+                } catch (HyracksDataException e) {
+                    if (batchEval.mayHaveSideEffects()) {
+                        throw e;
+                    }
+                    return false; // NOSONAR: Reported by the tuple at a time evaluation
+                }
+            }
+
             @Override
             public void flush() throws HyracksDataException {
                 appender.flush(writer);
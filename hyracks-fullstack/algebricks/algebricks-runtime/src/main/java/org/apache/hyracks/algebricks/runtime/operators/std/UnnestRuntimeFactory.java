@@ -71,6 +71,22 @@ public class UnnestRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         this.missingWriterFactory = missingWriterFactory;
     }
 
+    public int getOutCol() {
+        return outCol;
+    }
+
+    public IUnnestingEvaluatorFactory getUnnestingFactory() {
+        return unnestingFactory;
+    }
+
+    public IUnnestingPositionWriter getPositionWriter() {
+        return positionWriter;
+    }
+
+    public boolean isLeftOuter() {
+        return leftOuter;
+    }
+
     @Override
     public String toString() {
         return "unnest " + outCol + " <- " + unnestingFactory;
@@ -32,6 +32,8 @@ import org.apache.hyracks.algebricks.data.impl.BinaryIntegerInspectorImpl;
 import org.apache.hyracks.algebricks.data.impl.IntegerPrinterFactory;
 import org.apache.hyracks.algebricks.data.impl.NoopMissingWriterFactory;
 import org.apache.hyracks.algebricks.data.impl.UTF8StringPrinterFactory;
+import org.apache.hyracks.algebricks.runtime.aggregators.LagRunningAggregateFunctionFactory;
+import org.apache.hyracks.algebricks.runtime.aggregators.RankRunningAggregateFunctionFactory;
 import org.apache.hyracks.algebricks.runtime.aggregators.TupleCountAggregateFunctionFactory;
 import org.apache.hyracks.algebricks.runtime.aggregators.TupleCountRunningAggregateFunctionFactory;
 import org.apache.hyracks.algebricks.runtime.base.AlgebricksPipeline;
@@ -59,6 +61,7 @@ import org.apache.hyracks.algebricks.runtime.operators.std.StreamProjectRuntimeF
 import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
 import org.apache.hyracks.algebricks.runtime.operators.std.StringStreamingRuntimeFactory;
 import org.apache.hyracks.algebricks.runtime.operators.std.UnnestRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.WindowRuntimeFactory;
 import org.apache.hyracks.algebricks.runtime.writers.PrinterBasedWriterFactory;
 import org.apache.hyracks.algebricks.tests.util.AlgebricksHyracksIntegrationUtil;
 import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
@@ -522,6 +525,67 @@ public class PushRuntimeTest {
         outFile.delete();
     }
 
+    @Test
+    public void etsUnnestWindowWrite() throws Exception {
+        JobSpecification spec = new JobSpecification(FRAME_SIZE);
+
+        EmptyTupleSourceRuntimeFactory ets = new EmptyTupleSourceRuntimeFactory();
+        RecordDescriptor etsDesc = new RecordDescriptor(new ISerializerDeserializer[] {});
+        IUnnestingEvaluatorFactory aggregFactory = new IntArrayUnnester(new int[] { 100, 100, 200, 200, 200, 300 });
+        UnnestRuntimeFactory unnest = new UnnestRuntimeFactory(0, aggregFactory, new int[] { 0 }, false, null);
+        RecordDescriptor unnestDesc =
+                new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+
+        // rank, dense rank and lag over the whole input, ordered by the unnested values
+        IBinaryComparatorFactory[] comparatorFactories =
+                new IBinaryComparatorFactory[] { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+        WindowRuntimeFactory window =
+                new WindowRuntimeFactory(new int[] {}, new IBinaryComparatorFactory[] {}, new int[] { 1, 2, 3 },
+                        new IRunningAggregateEvaluatorFactory[] {
+                                new RankRunningAggregateFunctionFactory(new int[] { 0 }, comparatorFactories, false),
+                                new RankRunningAggregateFunctionFactory(new int[] { 0 }, comparatorFactories, true),
+                                new LagRunningAggregateFunctionFactory(new TupleFieldEvaluatorFactory(0), 1,
+                                        new IntegerConstantEvalFactory(0)) },
+                        new int[] { 0, 1, 2, 3 });
+        RecordDescriptor windowDesc = new RecordDescriptor(new ISerializerDeserializer[] {
+                IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+                IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+        // row numbers in each partition of equal values
+        WindowRuntimeFactory partitionedWindow =
+                new WindowRuntimeFactory(new int[] { 0 }, comparatorFactories, new int[] { 4 },
+                        new IRunningAggregateEvaluatorFactory[] { new TupleCountRunningAggregateFunctionFactory() },
+                        new int[] { 0, 1, 2, 3, 4 });
+        RecordDescriptor partitionedWindowDesc =
+                new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE,
+                        IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+                        IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+        String filePath = PATH_ACTUAL + SEPARATOR + "etsUnnestWindowWrite.out";
+        File outFile = new File(filePath);
+        SinkWriterRuntimeFactory writer = new SinkWriterRuntimeFactory(new int[] { 1, 2, 3, 4 },
+                new IPrinterFactory[] { IntegerPrinterFactory.INSTANCE, IntegerPrinterFactory.INSTANCE,
+                        IntegerPrinterFactory.INSTANCE, IntegerPrinterFactory.INSTANCE },
+                outFile, PrinterBasedWriterFactory.INSTANCE, partitionedWindowDesc);
+
+        AlgebricksMetaOperatorDescriptor algebricksOp = new AlgebricksMetaOperatorDescriptor(spec, 0, 0,
+                new IPushRuntimeFactory[] { ets, unnest, window, partitionedWindow, writer },
+                new RecordDescriptor[] { etsDesc, unnestDesc, windowDesc, partitionedWindowDesc, null });
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, algebricksOp,
+                new String[] { AlgebricksHyracksIntegrationUtil.NC1_ID });
+
+        spec.addRoot(algebricksOp);
+        AlgebricksHyracksIntegrationUtil.runJob(spec);
+
+        StringBuilder buf = new StringBuilder();
+        readFileToString(outFile, buf);
+        Assert.assertEquals(
+                "1; 1; 0; 1" + "1; 1; 100; 2" + "3; 2; 100; 1" + "3; 2; 200; 2" + "3; 2; 200; 3" + "6; 3; 200; 1",
+                buf.toString());
+        outFile.delete();
+    }
+
     @Test
     public void etsAssignScriptWrite() throws Exception {
         JobSpecification spec = new JobSpecification(FRAME_SIZE);
@@ -813,6 +877,72 @@ public class PushRuntimeTest {
         outFile.delete();
     }
 
+    @Test
+    public void etsUnnestSubplanAggregateAssignWrite() throws Exception {
+        JobSpecification spec = new JobSpecification(FRAME_SIZE);
+
+        EmptyTupleSourceRuntimeFactory ets = new EmptyTupleSourceRuntimeFactory();
+        RecordDescriptor etsDesc = new RecordDescriptor(new ISerializerDeserializer[] {});
+
+        UnnestRuntimeFactory unnest1 = new UnnestRuntimeFactory(0, new IntArrayUnnester(new int[] { 100, 200, 300 }),
+                new int[] { 0 }, false, null);
+        RecordDescriptor unnest1Desc =
+                new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+
+        // the nested plan counts the items of the collection that are greater than 2
+        NestedTupleSourceRuntimeFactory nts = new NestedTupleSourceRuntimeFactory();
+
+        UnnestRuntimeFactory unnest2 = new UnnestRuntimeFactory(1, new IntArrayUnnester(new int[] { 1, 2, 3, 4 }),
+                new int[] { 0, 1 }, false, null);
+        RecordDescriptor unnest2Desc = new RecordDescriptor(new ISerializerDeserializer[] {
+                IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+        IScalarEvaluatorFactory cond =
+                new IntegerGreaterThanEvalFactory(new TupleFieldEvaluatorFactory(1), new IntegerConstantEvalFactory(2));
+        StreamSelectRuntimeFactory select =
+                new StreamSelectRuntimeFactory(cond, null, BinaryBooleanInspectorImpl.FACTORY, false, -1, null);
+
+        AggregateRuntimeFactory agg = new AggregateRuntimeFactory(
+                new IAggregateEvaluatorFactory[] { new TupleCountAggregateFunctionFactory() });
+        RecordDescriptor aggDesc =
+                new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+
+        AlgebricksPipeline pipeline = new AlgebricksPipeline(new IPushRuntimeFactory[] { nts, unnest2, select, agg },
+                new RecordDescriptor[] { unnest1Desc, unnest2Desc, unnest2Desc, aggDesc }, null, null);
+
+        RecordDescriptor subplanDesc = new RecordDescriptor(new ISerializerDeserializer[] {
+                IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE });
+
+        SubplanRuntimeFactory subplan = new SubplanRuntimeFactory(Collections.singletonList(pipeline),
+                new IMissingWriterFactory[] { NoopMissingWriterFactory.INSTANCE }, unnest1Desc, subplanDesc, null);
+
+        AssignRuntimeFactory assign = new AssignRuntimeFactory(new int[] { 2 }, new IScalarEvaluatorFactory[] {
+                new IntegerAddEvalFactory(new TupleFieldEvaluatorFactory(0), new TupleFieldEvaluatorFactory(1)) },
+                new int[] { 2 });
+        RecordDescriptor assignDesc =
+                new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+
+        String filePath = PATH_ACTUAL + SEPARATOR + "etsUnnestSubplanAggregateAssignWrite.out";
+        File outFile = new File(filePath);
+        SinkWriterRuntimeFactory writer =
+                new SinkWriterRuntimeFactory(new int[] { 0 }, new IPrinterFactory[] { IntegerPrinterFactory.INSTANCE },
+                        outFile, PrinterBasedWriterFactory.INSTANCE, assignDesc);
+
+        AlgebricksMetaOperatorDescriptor algebricksOp = new AlgebricksMetaOperatorDescriptor(spec, 0, 0,
+                new IPushRuntimeFactory[] { ets, unnest1, subplan, assign, writer },
+                new RecordDescriptor[] { etsDesc, unnest1Desc, subplanDesc, assignDesc, null });
+
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, algebricksOp, DEFAULT_NODES);
+
+        spec.addRoot(algebricksOp);
+        AlgebricksHyracksIntegrationUtil.runJob(spec);
+
+        StringBuilder buf = new StringBuilder();
+        readFileToString(outFile, buf);
+        Assert.assertEquals("102202302", buf.toString());
+        outFile.delete();
+    }
+
     @Test
     public void scanMicroSortGbySelectWrite() throws Exception {
         JobSpecification spec = new JobSpecification(FRAME_SIZE);
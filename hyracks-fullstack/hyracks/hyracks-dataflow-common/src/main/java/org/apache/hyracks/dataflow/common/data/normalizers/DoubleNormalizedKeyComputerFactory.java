@@ -27,6 +27,7 @@ import org.apache.hyracks.dataflow.common.utils.NormalizedKeyUtils;
 public class DoubleNormalizedKeyComputerFactory implements INormalizedKeyComputerFactory {
 
     private static final long serialVersionUID = 1L;
+    private static final long CANONICAL_NAN_BITS = Double.doubleToLongBits(Double.NaN);
 
     public static final INormalizedKeyProperties PROPERTIES = new INormalizedKeyProperties() {
         private static final long serialVersionUID = 1L;
@@ -49,6 +50,14 @@ public class DoubleNormalizedKeyComputerFactory implements INormalizedKeyCompute
             @Override
             public void normalize(byte[] bytes, int start, int length, int[] normalizedKeys, int keyStart) {
                 long value = LongPointable.getLong(bytes, start);
+                double doubleValue = Double.longBitsToDouble(value);
+                // the key is decisive, so the values that compare equal must have the same key:
+                // -0.0 becomes 0.0 and all the NaN bit patterns become the canonical NaN
+                if (doubleValue == 0.0) {
+                    value = 0L;
+                } else if (Double.isNaN(doubleValue)) {
+                    value = CANONICAL_NAN_BITS;
+                }
                 if (value >= 0) {
                     value = value ^ Long.MIN_VALUE;
                 } else {
@@ -26,6 +26,7 @@ import org.apache.hyracks.data.std.primitive.IntegerPointable;
 public class FloatNormalizedKeyComputerFactory implements INormalizedKeyComputerFactory {
 
     private static final long serialVersionUID = 1L;
+    private static final int CANONICAL_NAN_BITS = Float.floatToIntBits(Float.NaN);
 
     public static final INormalizedKeyProperties PROPERTIES = new INormalizedKeyProperties() {
         private static final long serialVersionUID = 1L;
@@ -47,6 +48,14 @@ public class FloatNormalizedKeyComputerFactory implements INormalizedKeyComputer
             @Override
             public void normalize(byte[] bytes, int start, int length, int[] normalizedKeys, int keyStart) {
                 int value = IntegerPointable.getInteger(bytes, start);
+                float floatValue = Float.intBitsToFloat(value);
+                // the key is decisive, so the values that compare equal must have the same key:
+                // -0.0 becomes 0.0 and all the NaN bit patterns become the canonical NaN
+                if (floatValue == 0.0f) {
+                    value = 0;
+                } else if (Float.isNaN(floatValue)) {
+                    value = CANONICAL_NAN_BITS;
+                }
                 if (value >= 0) {
                     normalizedKeys[keyStart] = value ^ Integer.MIN_VALUE;
                 } else {
@@ -22,7 +22,9 @@ package org.apache.hyracks.dataflow.common.data.normalizers;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
 import org.apache.hyracks.dataflow.common.utils.NormalizedKeyUtils;
+import org.junit.Test;
 
 public class DoubleNormalizedKeyComputerFactoryTest extends AbstractNormalizedKeyComputerFactoryTest {
 
@@ -50,6 +52,20 @@ public class DoubleNormalizedKeyComputerFactoryTest extends AbstractNormalizedKe
         return getDoublePointable(Double.MAX_VALUE * -1);
     }
 
+    @Test
+    public void testZeroAndNaN() {
+        normalizeAndCompare(getDoublePointable(-0.0), getDoublePointable(0.0), 0);
+        normalizeAndCompare(getDoubleBitsPointable(0x7ff8000000000001L), getDoublePointable(Double.NaN), 0);
+        normalizeAndCompare(getDoubleBitsPointable(0xfff8000000000000L), getDoublePointable(Double.NaN), 0);
+        normalizeAndCompare(getDoublePointable(Double.NaN), getDoublePointable(Double.POSITIVE_INFINITY), 1);
+    }
+
+    private IPointable getDoubleBitsPointable(long bits) {
+        IPointable pointable = getDoublePointable(0);
+        LongPointable.setLong(pointable.getByteArray(), pointable.getStartOffset(), bits);
+        return pointable;
+    }
+
     private IPointable getDoublePointable(double value) {
         DoublePointable pointable = (DoublePointable) DoublePointable.FACTORY.createPointable();
         pointable.set(new byte[Double.BYTES], 0, Double.BYTES);
@@ -22,7 +22,9 @@ package org.apache.hyracks.dataflow.common.data.normalizers;
 import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputer;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.data.std.primitive.FloatPointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.dataflow.common.utils.NormalizedKeyUtils;
+import org.junit.Test;
 
 public class FloatNormalizedKeyComputerFactoryTest extends AbstractNormalizedKeyComputerFactoryTest {
 
@@ -50,6 +52,20 @@ public class FloatNormalizedKeyComputerFactoryTest extends AbstractNormalizedKey
         return getFloatPointable(Float.MAX_VALUE * -1);
     }
 
+    @Test
+    public void testZeroAndNaN() {
+        normalizeAndCompare(getFloatPointable(-0.0f), getFloatPointable(0.0f), 0);
+        normalizeAndCompare(getFloatBitsPointable(0x7fc00001), getFloatPointable(Float.NaN), 0);
+        normalizeAndCompare(getFloatBitsPointable(0xffc00000), getFloatPointable(Float.NaN), 0);
+        normalizeAndCompare(getFloatPointable(Float.NaN), getFloatPointable(Float.POSITIVE_INFINITY), 1);
+    }
+
+    private IPointable getFloatBitsPointable(int bits) {
+        IPointable pointable = getFloatPointable(0);
+        IntegerPointable.setInteger(pointable.getByteArray(), pointable.getStartOffset(), bits);
+        return pointable;
+    }
+
     private IPointable getFloatPointable(float value) {
         FloatPointable pointable = (FloatPointable) FloatPointable.FACTORY.createPointable();
         pointable.set(new byte[Float.BYTES], 0, Float.BYTES);
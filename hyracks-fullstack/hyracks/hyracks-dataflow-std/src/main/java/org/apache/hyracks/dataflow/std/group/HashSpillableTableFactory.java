@@ -43,6 +43,7 @@ import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
 import org.apache.hyracks.dataflow.std.buffermanager.PreferToSpillFullyOccupiedFramePolicy;
 import org.apache.hyracks.dataflow.std.buffermanager.VPartitionTupleBufferManager;
 import org.apache.hyracks.dataflow.std.structures.ISerializableTable;
+import org.apache.hyracks.dataflow.std.structures.NormalizedKeyHashTable;
 import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 import org.apache.hyracks.dataflow.std.util.FrameTuplePairComparator;
@@ -108,7 +109,19 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
         long memoryBudget = Math.max(MIN_DATA_TABLE_FRAME_LIMT + MIN_HASH_TABLE_FRAME_LIMT,
                 framesLimit - OUTPUT_FRAME_LIMT - MIN_HASH_TABLE_FRAME_LIMT);
 
-        final int numPartitions = getNumOfPartitions(inputDataBytesSize / ctx.getInitialFrameSize(), memoryBudget);
+        // A single key whose normalized key is decisive (e.g., a bigint or a uuid) is looked up by its normalized key
+        // in one open addressing table per partition instead of comparing the tuples in the chains of a hash table.
+        final boolean useNormalizedKeyTables = keyFields.length == 1 && firstKeyNormalizerFactory != null
+                && firstKeyNormalizerFactory.getNormalizedKeyProperties().isDecisive();
+
+        int numOfPartitions = getNumOfPartitions(inputDataBytesSize / ctx.getInitialFrameSize(), memoryBudget);
+        if (useNormalizedKeyTables) {
+            // Unlike the shared hash table, every partition that holds a group needs a frame of its own for its
+            // normalized key table in addition to its data frame. Limiting the partitions to half of the budget
+            // lets all of them stay in memory at the same time.
+            numOfPartitions = (int) Math.min(numOfPartitions, Math.max(2, memoryBudget / 2));
+        }
+        final int numPartitions = numOfPartitions;
         final int entriesPerPartition = (int) Math.ceil(1.0 * tableSize / numPartitions);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("created hashtable, table size:" + tableSize + " file size:" + inputDataBytesSize
@@ -128,8 +141,14 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
             private final ISimpleFrameBufferManager bufferManagerForHashTable =
                     new FramePoolBackedFrameBufferManager(framePool);
 
-            private final ISerializableTable hashTableForTuplePointer =
-                    new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
+            private final ISerializableTable hashTableForTuplePointer = useNormalizedKeyTables ? null
+                    : new SerializableHashTable(tableSize, ctx, bufferManagerForHashTable);
+
+            private final NormalizedKeyHashTable[] normalizedKeyTables =
+                    useNormalizedKeyTables ? createNormalizedKeyTables() : null;
+
+            private final int[] normalizedKey = useNormalizedKeyTables
+                    ? new int[firstKeyNormalizerFactory.getNormalizedKeyProperties().getNormalizedKeyLength()] : null;
 
             // buffer manager for data table
             final IPartitionedTupleBufferManager bufferManager = new VPartitionTupleBufferManager(
@@ -143,14 +162,34 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
 
             private final FrameTupleAppender outputAppender = new FrameTupleAppender(new VSizeFrame(ctx));
 
+            private NormalizedKeyHashTable[] createNormalizedKeyTables() {
+                int keyLength = firstKeyNormalizerFactory.getNormalizedKeyProperties().getNormalizedKeyLength();
+                NormalizedKeyHashTable[] tables = new NormalizedKeyHashTable[numPartitions];
+                for (int i = 0; i < numPartitions; i++) {
+                    tables[i] = new NormalizedKeyHashTable(keyLength, ctx, bufferManagerForHashTable);
+                }
+                return tables;
+            }
+
             @Override
             public void close() throws HyracksDataException {
-                hashTableForTuplePointer.close();
+                if (useNormalizedKeyTables) {
+                    for (NormalizedKeyHashTable table : normalizedKeyTables) {
+                        table.close();
+                    }
+                } else {
+                    hashTableForTuplePointer.close();
+                }
                 aggregator.close();
             }
 
             @Override
             public void clear(int partition) throws HyracksDataException {
+                if (useNormalizedKeyTables) {
+                    normalizedKeyTables[partition].reset();
+                    bufferManager.clearPartition(partition);
+                    return;
+                }
                 for (int p = getFirstEntryInHashTable(partition); p < getLastEntryInHashTable(partition); p++) {
                     hashTableForTuplePointer.delete(p);
                 }
@@ -183,6 +222,9 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
             @Override
             public boolean insert(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
                 int entryInHashTable = tpc.partition(accessor, tIndex, tableSize);
+                if (useNormalizedKeyTables) {
+                    return insertByNormalizedKey(getPartition(entryInHashTable), accessor, tIndex);
+                }
                 for (int i = 0; i < hashTableForTuplePointer.getTupleCount(entryInHashTable); i++) {
                     hashTableForTuplePointer.getTuplePointer(entryInHashTable, i, pointer);
                     bufferAccessor.reset(pointer);
@@ -223,6 +265,32 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                 return true;
             }
 
+            private boolean insertByNormalizedKey(int pid, IFrameTupleAccessor accessor, int tIndex)
+                    throws HyracksDataException {
+                int keyField = keyFields[0];
+                firstKeyNormalizerFactory.normalize(accessor.getBuffer().array(),
+                        accessor.getAbsoluteFieldStartOffset(tIndex, keyField),
+                        accessor.getFieldLength(tIndex, keyField), normalizedKey, 0);
+                NormalizedKeyHashTable table = normalizedKeyTables[pid];
+                if (table.getTuplePointer(normalizedKey, 0, pointer)) {
+                    bufferAccessor.reset(pointer);
+                    aggregateExistingTuple(accessor, tIndex, bufferAccessor, pointer.getTupleIndex());
+                    return true;
+                }
+
+                initStateTupleBuilder(accessor, tIndex);
+                if (!bufferManager.insertTuple(pid, stateTupleBuilder.getByteArray(),
+                        stateTupleBuilder.getFieldEndOffsets(), 0, stateTupleBuilder.getSize(), pointer)) {
+                    return false;
+                }
+                if (!table.insert(normalizedKey, 0, pointer)) {
+                    // Same as in insertNewAggregateEntry(), the data table insertion is undone.
+                    bufferManager.cancelInsertTuple(pid);
+                    return false;
+                }
+                return true;
+            }
+
             private void initStateTupleBuilder(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
                 stateTupleBuilder.reset();
                 for (int k = 0; k < keyFields.length; k++) {
@@ -239,38 +307,21 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
             @Override
             public int flushFrames(int partition, IFrameWriter writer, AggregateType type) throws HyracksDataException {
                 int count = 0;
-                for (int hashEntryPid = getFirstEntryInHashTable(partition); hashEntryPid < getLastEntryInHashTable(
-                        partition); hashEntryPid++) {
-                    count += hashTableForTuplePointer.getTupleCount(hashEntryPid);
-                    for (int tid = 0; tid < hashTableForTuplePointer.getTupleCount(hashEntryPid); tid++) {
-                        hashTableForTuplePointer.getTuplePointer(hashEntryPid, tid, pointer);
-                        bufferAccessor.reset(pointer);
-                        outputTupleBuilder.reset();
-                        for (int k = 0; k < intermediateResultKeys.length; k++) {
-                            outputTupleBuilder.addField(bufferAccessor.getBuffer().array(),
-                                    bufferAccessor.getAbsFieldStartOffset(intermediateResultKeys[k]),
-                                    bufferAccessor.getFieldLength(intermediateResultKeys[k]));
+                if (useNormalizedKeyTables) {
+                    NormalizedKeyHashTable table = normalizedKeyTables[partition];
+                    for (int slot = 0; slot < table.getTableSize(); slot++) {
+                        if (table.getTuplePointer(slot, pointer)) {
+                            flushTuple(writer, type);
+                            count++;
                         }
-
-                        boolean hasOutput = false;
-                        switch (type) {
-                            case PARTIAL:
-                                hasOutput = aggregator.outputPartialResult(outputTupleBuilder, bufferAccessor,
-                                        pointer.getTupleIndex(), aggregateState);
-                                break;
-                            case FINAL:
-                                hasOutput = aggregator.outputFinalResult(outputTupleBuilder, bufferAccessor,
-                                        pointer.getTupleIndex(), aggregateState);
-                                break;
-                        }
-
-                        if (hasOutput && !outputAppender.appendSkipEmptyField(outputTupleBuilder.getFieldEndOffsets(),
-                                outputTupleBuilder.getByteArray(), 0, outputTupleBuilder.getSize())) {
-                            outputAppender.write(writer, true);
-                            if (!outputAppender.appendSkipEmptyField(outputTupleBuilder.getFieldEndOffsets(),
-                                    outputTupleBuilder.getByteArray(), 0, outputTupleBuilder.getSize())) {
-                                throw new HyracksDataException("The output item is too large to be fit into a frame.");
-                            }
+                    }
+                } else {
+                    for (int hashEntryPid = getFirstEntryInHashTable(partition); hashEntryPid < getLastEntryInHashTable(
+                            partition); hashEntryPid++) {
+                        count += hashTableForTuplePointer.getTupleCount(hashEntryPid);
+                        for (int tid = 0; tid < hashTableForTuplePointer.getTupleCount(hashEntryPid); tid++) {
+                            hashTableForTuplePointer.getTuplePointer(hashEntryPid, tid, pointer);
+                            flushTuple(writer, type);
                         }
                     }
                 }
@@ -279,6 +330,40 @@ public class HashSpillableTableFactory implements ISpillableTableFactory {
                 return count;
             }
 
+            /**
+             * Writes the aggregate result of the tuple that the pointer refers to.
+             */
+            private void flushTuple(IFrameWriter writer, AggregateType type) throws HyracksDataException {
+                bufferAccessor.reset(pointer);
+                outputTupleBuilder.reset();
+                for (int k = 0; k < intermediateResultKeys.length; k++) {
+                    outputTupleBuilder.addField(bufferAccessor.getBuffer().array(),
+                            bufferAccessor.getAbsFieldStartOffset(intermediateResultKeys[k]),
+                            bufferAccessor.getFieldLength(intermediateResultKeys[k]));
+                }
+
+                boolean hasOutput = false;
+                switch (type) {
+                    case PARTIAL:
+                        hasOutput = aggregator.outputPartialResult(outputTupleBuilder, bufferAccessor,
+                                pointer.getTupleIndex(), aggregateState);
+                        break;
+                    case FINAL:
+                        hasOutput = aggregator.outputFinalResult(outputTupleBuilder, bufferAccessor,
+                                pointer.getTupleIndex(), aggregateState);
+                        break;
+                }
+
+                if (hasOutput && !outputAppender.appendSkipEmptyField(outputTupleBuilder.getFieldEndOffsets(),
+                        outputTupleBuilder.getByteArray(), 0, outputTupleBuilder.getSize())) {
+                    outputAppender.write(writer, true);
+                    if (!outputAppender.appendSkipEmptyField(outputTupleBuilder.getFieldEndOffsets(),
+                            outputTupleBuilder.getByteArray(), 0, outputTupleBuilder.getSize())) {
+                        throw new HyracksDataException("The output item is too large to be fit into a frame.");
+                    }
+                }
+            }
+
             @Override
             public int getNumPartitions() {
                 return bufferManager.getNumPartitions();
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.apache.hyracks.dataflow.std.structures.SimpleSerializableHashTable.IntSerDeBuffer;
+
+/**
+ * An open addressing hash table that maps fixed-length keys to tuple pointers. It is meant for keys that are
+ * completely described by a decisive normalized key (e.g., a bigint or a uuid), so that two keys are equal if and
+ * only if their normalized keys are equal and the stored tuple never needs to be compared.
+ * Each slot keeps the tuple pointer and the normalized key next to each other:
+ * (frame index, tuple index, key[0], ..., key[keyLength - 1]). Collisions are resolved by linear probing, so a lookup
+ * usually reads a single slot and its neighbors instead of following a chain of tuple pointers.
+ * The slots are stored in frames that are acquired from the given buffer manager. The number of slots doubles when
+ * the table becomes three quarters full. Duplicate keys are not supported: a key is inserted after a failed lookup.
+ */
+public class NormalizedKeyHashTable {
+
+    private static final int INITIAL_NUMBER_OF_FRAMES = 1;
+    private static final int INVALID_VALUE = -1;
+
+    private final IHyracksFrameMgrContext ctx;
+    private final ISimpleFrameBufferManager bufferManager;
+    private final int keyLength;
+    private final int slotLength;
+    private final int slotsPerFrame;
+    // holds the key of a slot that is moved to a new position while the table grows
+    private final int[] movedKey;
+
+    private IntSerDeBuffer[] frames;
+    // the number of slots is a power of two so that a hash value can be masked into a slot
+    private int tableSize;
+    private int tupleCount;
+
+    public NormalizedKeyHashTable(int keyLength, IHyracksFrameMgrContext ctx, ISimpleFrameBufferManager bufferManager) {
+        this.ctx = ctx;
+        this.bufferManager = bufferManager;
+        this.keyLength = keyLength;
+        this.slotLength = keyLength + 2;
+        this.slotsPerFrame = ctx.getInitialFrameSize() / SimpleSerializableHashTable.INT_SIZE / slotLength;
+        this.movedKey = new int[keyLength];
+        this.frames = new IntSerDeBuffer[0];
+    }
+
+    /**
+     * Finds the tuple pointer of the given key.
+     *
+     * @return true if the key was found, in which case the pointer is set to its tuple, false otherwise
+     */
+    public boolean getTuplePointer(int[] key, int keyStart, TuplePointer pointer) {
+        if (tupleCount == 0) {
+            return false;
+        }
+        int mask = tableSize - 1;
+        for (int slot = hash(key, keyStart) & mask;; slot = (slot + 1) & mask) {
+            IntSerDeBuffer frame = frames[slot / slotsPerFrame];
+            int offset = (slot % slotsPerFrame) * slotLength;
+            int frameIndex = frame.getInt(offset);
+            if (frameIndex == INVALID_VALUE) {
+                return false;
+            }
+            if (keyEquals(frame, offset + 2, key, keyStart)) {
+                pointer.reset(frameIndex, frame.getInt(offset + 1));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Inserts a key that is not in the table yet.
+     *
+     * @return false if the table needed to grow and there was not enough memory for it, true otherwise
+     */
+    public boolean insert(int[] key, int keyStart, TuplePointer pointer) throws HyracksDataException {
+        if ((tupleCount + 1) * 4L > tableSize * 3L && !resize()) {
+            return false;
+        }
+        put(key, keyStart, pointer.getFrameIndex(), pointer.getTupleIndex());
+        tupleCount++;
+        return true;
+    }
+
+    /**
+     * Reads the tuple pointer stored in the given slot.
+     *
+     * @return false if the slot is empty, true otherwise
+     */
+    public boolean getTuplePointer(int slot, TuplePointer pointer) {
+        IntSerDeBuffer frame = frames[slot / slotsPerFrame];
+        int offset = (slot % slotsPerFrame) * slotLength;
+        int frameIndex = frame.getInt(offset);
+        if (frameIndex == INVALID_VALUE) {
+            return false;
+        }
+        pointer.reset(frameIndex, frame.getInt(offset + 1));
+        return true;
+    }
+
+    /**
+     * Returns the number of slots of this table, including the empty ones.
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    /**
+     * Returns the byte size of the frames that are currently allocated to the table.
+     */
+    public int getCurrentByteSize() {
+        return frames.length * ctx.getInitialFrameSize();
+    }
+
+    /**
+     * Removes all the entries and releases the frames of the table.
+     */
+    public void reset() {
+        releaseFrames(frames);
+        frames = new IntSerDeBuffer[0];
+        tableSize = 0;
+        tupleCount = 0;
+    }
+
+    public void close() {
+        reset();
+    }
+
+    private boolean resize() throws HyracksDataException {
+        int frameCount = frames.length == 0 ? INITIAL_NUMBER_OF_FRAMES : frames.length * 2;
+        IntSerDeBuffer[] newFrames = new IntSerDeBuffer[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            ByteBuffer buffer = bufferManager.acquireFrame(ctx.getInitialFrameSize());
+            if (buffer == null) {
+                releaseFrames(newFrames);
+                return false;
+            }
+            newFrames[i] = new IntSerDeBuffer(buffer);
+        }
+        IntSerDeBuffer[] oldFrames = frames;
+        int oldTableSize = tableSize;
+        frames = newFrames;
+        tableSize = Integer.highestOneBit(frameCount * slotsPerFrame);
+        for (int slot = 0; slot < oldTableSize; slot++) {
+            IntSerDeBuffer frame = oldFrames[slot / slotsPerFrame];
+            int offset = (slot % slotsPerFrame) * slotLength;
+            int frameIndex = frame.getInt(offset);
+            if (frameIndex != INVALID_VALUE) {
+                put(frame, offset + 2, frameIndex, frame.getInt(offset + 1));
+            }
+        }
+        releaseFrames(oldFrames);
+        return true;
+    }
+
+    private void put(int[] key, int keyStart, int frameIndex, int tupleIndex) {
+        int mask = tableSize - 1;
+        int slot = hash(key, keyStart) & mask;
+        while (frames[slot / slotsPerFrame].getInt((slot % slotsPerFrame) * slotLength) != INVALID_VALUE) {
+            slot = (slot + 1) & mask;
+        }
+        IntSerDeBuffer frame = frames[slot / slotsPerFrame];
+        int offset = (slot % slotsPerFrame) * slotLength;
+        frame.writeInt(offset, frameIndex);
+        frame.writeInt(offset + 1, tupleIndex);
+        for (int i = 0; i < keyLength; i++) {
+            frame.writeInt(offset + 2 + i, key[keyStart + i]);
+        }
+    }
+
+    private void put(IntSerDeBuffer source, int keyOffset, int frameIndex, int tupleIndex) {
+        for (int i = 0; i < keyLength; i++) {
+            movedKey[i] = source.getInt(keyOffset + i);
+        }
+        put(movedKey, 0, frameIndex, tupleIndex);
+    }
+
+    private boolean keyEquals(IntSerDeBuffer frame, int keyOffset, int[] key, int keyStart) {
+        for (int i = 0; i < keyLength; i++) {
+            if (frame.getInt(keyOffset + i) != key[keyStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int hash(int[] key, int keyStart) {
+        int h = 0;
+        for (int i = 0; i < keyLength; i++) {
+            h = h * 31 + key[keyStart + i];
+        }
+        // spreads the bits of the key so that consecutive keys don't fill consecutive slots
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void releaseFrames(IntSerDeBuffer[] framesToRelease) {
+        for (IntSerDeBuffer frame : framesToRelease) {
+            if (frame != null) {
+                bufferManager.releaseFrame(frame.getByteBuffer());
+            }
+        }
+    }
+}
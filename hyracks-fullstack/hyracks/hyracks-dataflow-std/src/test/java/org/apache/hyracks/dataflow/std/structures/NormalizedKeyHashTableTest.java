@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.structures;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.ISimpleFrameBufferManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NormalizedKeyHashTableTest {
+
+    final int KEY_LENGTH = 2;
+    final int num = 10000;
+    NormalizedKeyHashTable nkTable;
+    TuplePointer pointer = new TuplePointer(0, 0);
+    int[] key = new int[KEY_LENGTH];
+    protected IHyracksFrameMgrContext ctx;
+    private IDeallocatableFramePool framePool;
+    private ISimpleFrameBufferManager bufferManager;
+
+    @Before
+    public void setup() throws HyracksDataException {
+        ctx = new FrameManager(256);
+        framePool = new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 2048);
+        bufferManager = new FramePoolBackedFrameBufferManager(framePool);
+        nkTable = new NormalizedKeyHashTable(KEY_LENGTH, ctx, bufferManager);
+    }
+
+    @Test
+    public void testInsert() throws Exception {
+        insertKeys();
+        assertEquals(num, nkTable.getTupleCount());
+        assertGetValue();
+        setKey(num);
+        assertFalse(nkTable.getTuplePointer(key, 0, pointer));
+    }
+
+    @Test
+    public void testScanSlots() throws Exception {
+        insertKeys();
+        boolean[] found = new boolean[num];
+        for (int slot = 0; slot < nkTable.getTableSize(); slot++) {
+            if (nkTable.getTuplePointer(slot, pointer)) {
+                assertFalse(found[pointer.getFrameIndex()]);
+                found[pointer.getFrameIndex()] = true;
+            }
+        }
+        for (int i = 0; i < num; i++) {
+            assertTrue(found[i]);
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        insertKeys();
+        assertTrue(nkTable.getCurrentByteSize() > 0);
+        nkTable.reset();
+        assertEquals(0, nkTable.getTupleCount());
+        assertEquals(0, nkTable.getCurrentByteSize());
+        setKey(0);
+        assertFalse(nkTable.getTuplePointer(key, 0, pointer));
+        insertKeys();
+        assertGetValue();
+    }
+
+    @Test
+    public void testInsertWithoutMemory() throws Exception {
+        framePool = new DeallocatableFramePool(ctx, ctx.getInitialFrameSize() * 4);
+        bufferManager = new FramePoolBackedFrameBufferManager(framePool);
+        nkTable = new NormalizedKeyHashTable(KEY_LENGTH, ctx, bufferManager);
+        int inserted = 0;
+        for (; inserted < num; inserted++) {
+            setKey(inserted);
+            pointer.reset(inserted, inserted);
+            if (!nkTable.insert(key, 0, pointer)) {
+                break;
+            }
+        }
+        assertTrue(inserted < num);
+        assertEquals(inserted, nkTable.getTupleCount());
+        // the keys inserted before the table ran out of memory are kept
+        for (int i = 0; i < inserted; i++) {
+            setKey(i);
+            assertTrue(nkTable.getTuplePointer(key, 0, pointer));
+            assertEquals(i, pointer.getTupleIndex());
+        }
+    }
+
+    private void insertKeys() throws HyracksDataException {
+        for (int i = 0; i < num; i++) {
+            setKey(i);
+            pointer.reset(i, i);
+            assertTrue(nkTable.insert(key, 0, pointer));
+        }
+    }
+
+    private void assertGetValue() {
+        for (int i = 0; i < num; i++) {
+            setKey(i);
+            assertTrue(nkTable.getTuplePointer(key, 0, pointer));
+            assertEquals(i, pointer.getFrameIndex());
+            assertEquals(i, pointer.getTupleIndex());
+        }
+    }
+
+    private void setKey(int i) {
+        // keys that only differ in one of their words
+        key[0] = i % 2;
+        key[1] = i / 2;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.comm.util.ByteBufferInputStream;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.normalizers.IntegerNormalizedKeyComputerFactory;
+import org.apache.hyracks.dataflow.common.io.RunFileWriter;
+import org.apache.hyracks.dataflow.std.group.HashSpillableTableFactory;
+import org.apache.hyracks.dataflow.std.group.IAggregatorDescriptorFactory;
+import org.apache.hyracks.dataflow.std.group.IFieldAggregateDescriptorFactory;
+import org.apache.hyracks.dataflow.std.group.ISpillableTableFactory;
+import org.apache.hyracks.dataflow.std.group.aggregators.CountFieldAggregatorFactory;
+import org.apache.hyracks.dataflow.std.group.aggregators.IntSumFieldAggregatorFactory;
+import org.apache.hyracks.dataflow.std.group.aggregators.MultiFieldsAggregatorFactory;
+import org.apache.hyracks.dataflow.std.group.external.ExternalGroupBuildOperatorNodePushable;
+import org.apache.hyracks.dataflow.std.group.external.ExternalGroupWriteOperatorNodePushable;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the external hash group-by on an integer key, whose decisive normalized key makes the spillable table look
+ * up the groups in the normalized key hash tables of its partitions.
+ */
+public class ExternalHashGroupbyIntKeyTest {
+
+    private static final int FRAME_SIZE = 256;
+    // two int fields and their end offsets
+    private static final int TUPLE_SIZE = 4 * Integer.BYTES;
+
+    private final ISerializerDeserializer[] inFields =
+            new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE, // key
+                    IntegerSerializerDeserializer.INSTANCE, // value
+            };
+
+    private final ISerializerDeserializer[] aggrFields =
+            new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE, // key
+                    IntegerSerializerDeserializer.INSTANCE, // sum
+                    IntegerSerializerDeserializer.INSTANCE, // count
+            };
+
+    private final RecordDescriptor inRecordDesc = new RecordDescriptor(inFields);
+
+    private final RecordDescriptor outputRec = new RecordDescriptor(aggrFields);
+
+    private final IBinaryComparatorFactory[] comparatorFactories =
+            new IBinaryComparatorFactory[] { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+
+    private final INormalizedKeyComputerFactory normalizedKeyComputerFactory =
+            new IntegerNormalizedKeyComputerFactory();
+
+    private final IAggregatorDescriptorFactory partialAggr =
+            new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                    new IntSumFieldAggregatorFactory(1, false), new CountFieldAggregatorFactory(false) });
+
+    private final IAggregatorDescriptorFactory finalAggr =
+            new MultiFieldsAggregatorFactory(new IFieldAggregateDescriptorFactory[] {
+                    new IntSumFieldAggregatorFactory(1, false), new IntSumFieldAggregatorFactory(2, false) });
+
+    private final int[] keyFields = new int[] { 0 };
+    private final int[] keyFieldsAfterPartial = new int[] { 0 };
+
+    private int buildRuns;
+    private int mergeRuns;
+
+    @Test
+    public void testInMemory() throws HyracksDataException {
+        testBuildAndMerge(101, 23, 100, 50);
+        assertEquals(0, buildRuns);
+        assertEquals(0, mergeRuns);
+    }
+
+    @Test
+    public void testSpill() throws HyracksDataException {
+        testBuildAndMerge(101, 23, 2000, 100);
+        assertTrue(buildRuns > 0);
+    }
+
+    @Test
+    public void testRecursiveMerge() throws HyracksDataException {
+        // the partitions that are spilled while building have many more groups than fit into the memory,
+        // so they are spilled again while they are merged
+        testBuildAndMerge(101, 8, 20000, 3000);
+        assertTrue(buildRuns > 0);
+        assertTrue(mergeRuns > 0);
+    }
+
+    @Test
+    public void testExtremeKeys() throws HyracksDataException {
+        int[] keys = { Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE };
+        int[] input = new int[keys.length * 40];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = keys[i % keys.length];
+        }
+        run(101, 4, input);
+    }
+
+    private void testBuildAndMerge(int tableSize, int numFrames, int numTuples, int numKeys)
+            throws HyracksDataException {
+        Random random = new Random(0);
+        int[] input = new int[numTuples];
+        for (int i = 0; i < numTuples; i++) {
+            input[i] = random.nextInt(numKeys) - numKeys / 2;
+        }
+        run(tableSize, numFrames, input);
+    }
+
+    /**
+     * Groups the tuples (key, key * 3) by key and checks the sum and the count of every group.
+     */
+    private void run(int tableSize, int numFrames, int[] input) throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        ISpillableTableFactory tableFactory = new HashSpillableTableFactory(
+                new IBinaryHashFunctionFamily[] { MurmurHash3BinaryHashFunctionFamily.INSTANCE });
+        ExternalGroupBuildOperatorNodePushable buildOperator = new ExternalGroupBuildOperatorNodePushable(ctx,
+                this.hashCode(), tableSize, (long) input.length * TUPLE_SIZE, keyFields, numFrames, comparatorFactories,
+                normalizedKeyComputerFactory, partialAggr, inRecordDesc, outputRec, tableFactory) {
+            @Override
+            public RunFileWriter getRunFileWriter() throws HyracksDataException {
+                buildRuns++;
+                return super.getRunFileWriter();
+            }
+        };
+        ExternalGroupWriteOperatorNodePushable mergeOperator = new ExternalGroupWriteOperatorNodePushable(ctx,
+                this.hashCode(), tableFactory, outputRec, outputRec, numFrames, keyFieldsAfterPartial,
+                normalizedKeyComputerFactory, comparatorFactories, finalAggr) {
+            @Override
+            public RunFileWriter getRunFileWriter() throws HyracksDataException {
+                mergeRuns++;
+                return super.getRunFileWriter();
+            }
+        };
+
+        Map<Integer, int[]> expected = new HashMap<>();
+        for (int key : input) {
+            int[] result = expected.computeIfAbsent(key, k -> new int[2]);
+            result[0] += key * 3;
+            result[1]++;
+        }
+
+        try {
+            buildOperator.open();
+            ArrayTupleBuilder tb = new ArrayTupleBuilder(inRecordDesc.getFieldCount());
+            VSizeFrame frame = new VSizeFrame(ctx);
+            FrameTupleAppender appender = new FrameTupleAppender(frame, true);
+            for (int key : input) {
+                tb.reset();
+                tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+                tb.addField(IntegerSerializerDeserializer.INSTANCE, key * 3);
+                if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                    appender.write(buildOperator, true);
+                    assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+                }
+            }
+            appender.write(buildOperator, true);
+        } finally {
+            buildOperator.close();
+        }
+        mergeOperator.setOutputFrameWriter(0, new ResultValidateWriter(expected), outputRec);
+        mergeOperator.initialize();
+    }
+
+    private class ResultValidateWriter implements IFrameWriter {
+
+        private final Map<Integer, int[]> expected;
+        private final FrameTupleAccessor resultAccessor = new FrameTupleAccessor(outputRec);
+
+        ResultValidateWriter(Map<Integer, int[]> expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public void open() throws HyracksDataException {
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+            resultAccessor.reset(buffer);
+            ByteBufferInputStream bbis = new ByteBufferInputStream();
+            DataInputStream di = new DataInputStream(bbis);
+            Object[] outRecord = new Object[outputRec.getFieldCount()];
+            for (int tid = 0; tid < resultAccessor.getTupleCount(); tid++) {
+                for (int fid = 0; fid < outputRec.getFieldCount(); fid++) {
+                    bbis.setByteBuffer(resultAccessor.getBuffer(),
+                            resultAccessor.getAbsoluteFieldStartOffset(tid, fid));
+                    outRecord[fid] = outputRec.getFields()[fid].deserialize(di);
+                }
+                // every group is output exactly once
+                int[] result = expected.remove((int) outRecord[0]);
+                assertNotNull(result);
+                assertEquals(result[0], (int) outRecord[1]);
+                assertEquals(result[1], (int) outRecord[2]);
+            }
+        }
+
+        @Override
+        public void fail() throws HyracksDataException {
+            Assert.fail();
+        }
+
+        @Override
+        public void close() throws HyracksDataException {
+            assertEquals(0, expected.size());
+        }
+    }
+}
@@ -125,7 +125,22 @@ public class BloomFilter {
         if (numPages == 0) {
             return false;
         }
+        hash(tuple, hashes);
+        return contains(hashes);
+    }
+
+    /**
+     * Computes the hashes of the key fields of a tuple. The same hashes can be probed with {@link #contains(long[])}
+     * against every bloom filter built on the same key fields, e.g. the filters of all disk components of an index.
+     */
+    public void hash(ITupleReference tuple, long[] hashes) {
         MurmurHash128Bit.hash3_x64_128(tuple, keyFields, SEED, hashes);
+    }
+
+    public boolean contains(long[] hashes) throws HyracksDataException {
+        if (numPages == 0) {
+            return false;
+        }
         if (version == BLOCKED_BLOOM_FILTER_VERSION) {
             return blockContains(hashes);
         } else {
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.btree.impls;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.storage.am.common.tuples.PermutingFrameTupleReference;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * A point predicate over all the tuples of a frame. The key of the predicate is advanced through the frame with
+ * {@link #next()}, so one search can look up a whole batch of keys.
+ */
+public class BatchPredicate extends RangePredicate {
+
+    private static final long serialVersionUID = 1L;
+
+    protected final PermutingFrameTupleReference keyRef;
+    protected IFrameTupleAccessor accessor;
+    protected int keyIndex = -1;
+
+    public BatchPredicate(PermutingFrameTupleReference keyRef, MultiComparator keyCmp) {
+        super(keyRef, keyRef, true, true, keyCmp, keyCmp);
+        this.keyRef = keyRef;
+    }
+
+    /**
+     * Resets the predicate to the tuples of a new frame, positioned on the key of the first tuple.
+     */
+    public void reset(IFrameTupleAccessor accessor) {
+        this.accessor = accessor;
+        keyIndex = -1;
+        if (hasNext()) {
+            next();
+        }
+    }
+
+    public boolean hasNext() {
+        return keyIndex + 1 < accessor.getTupleCount();
+    }
+
+    public void next() {
+        keyIndex++;
+        keyRef.reset(accessor, keyIndex);
+    }
+
+    /**
+     * Moves the key of the predicate to the tuple at the given index of the frame.
+     */
+    public void moveTo(int keyIndex) {
+        this.keyIndex = keyIndex;
+        keyRef.reset(accessor, keyIndex);
+    }
+
+    /**
+     * @return the index, in the frame, of the tuple holding the current key, or -1 if the frame is empty
+     */
+    public int getKeyIndex() {
+        return keyIndex;
+    }
+}
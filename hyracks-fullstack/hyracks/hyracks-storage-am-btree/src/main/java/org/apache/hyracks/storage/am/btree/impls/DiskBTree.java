@@ -22,8 +22,10 @@ package org.apache.hyracks.storage.am.btree.impls;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.btree.api.IBTreeFrame;
+import org.apache.hyracks.storage.am.btree.api.IBTreeInteriorFrame;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
 import org.apache.hyracks.storage.am.common.api.IPageManager;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
@@ -49,6 +51,42 @@ public class DiskBTree extends BTree {
         super(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file);
     }
 
+    /**
+     * Copies the key fields of the largest tuple of the tree into the given builder by following the rightmost path
+     * from the root to the last leaf.
+     *
+     * @return false if the tree is empty
+     */
+    public boolean getMaxKey(ArrayTupleBuilder keyBuilder) throws HyracksDataException {
+        ITreeIndexFrame interiorFrame = interiorFrameFactory.createFrame();
+        IBTreeLeafFrame leafFrame = (IBTreeLeafFrame) leafFrameFactory.createFrame();
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), rootPage), false);
+        try {
+            interiorFrame.setPage(page);
+            while (!interiorFrame.isLeaf()) {
+                int childPageId = ((IBTreeInteriorFrame) interiorFrame).getRightmostChildPageId();
+                bufferCache.unpin(page);
+                page = null;
+                page = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), childPageId), false);
+                interiorFrame.setPage(page);
+            }
+            leafFrame.setPage(page);
+            if (leafFrame.getTupleCount() == 0) {
+                return false;
+            }
+            ITupleReference maxTuple = leafFrame.getRightmostTuple();
+            keyBuilder.reset();
+            for (int i = 0; i < cmpFactories.length; i++) {
+                keyBuilder.addField(maxTuple.getFieldData(i), maxTuple.getFieldStart(i), maxTuple.getFieldLength(i));
+            }
+            return true;
+        } finally {
+            if (page != null) {
+                bufferCache.unpin(page);
+            }
+        }
+    }
+
     private void diskOrderScan(ITreeIndexCursor icursor, BTreeOpContext ctx) throws HyracksDataException {
         TreeIndexDiskOrderScanCursor cursor = (TreeIndexDiskOrderScanCursor) icursor;
         ctx.reset();
@@ -92,8 +130,10 @@ public class DiskBTree extends BTree {
             // we have to search from root to leaf
             ICachedPage rootNode = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), rootPage), false);
             diskCursor.addSearchPage(rootPage);
-            searchDown(rootNode, rootPage, ctx, diskCursor);
+            searchDown(rootNode, rootPage, ctx, diskCursor, false);
         } else {
+            // a cursor looking up a batch of keys stays open on the leaf of the previous key and is repositioned
+            boolean reposition = searchPred instanceof BatchPredicate;
             // we first check whether the leaf page matches because page may be shifted during cursor.hasNext
             if (ctx.getLeafFrame().getPage() != diskCursor.getPage()) {
                 ctx.getLeafFrame().setPage(diskCursor.getPage());
@@ -103,7 +143,10 @@ public class DiskBTree extends BTree {
 
             if (fitInPage(ctx.getPred().getLowKey(), ctx.getPred().getLowKeyComparator(), ctx.getLeafFrame())) {
                 // the input still falls into the previous search leaf
-                diskCursor.open(ctx.getCursorInitialState(), searchPred);
+                openCursor(ctx, diskCursor, reposition);
+            } else if (reposition && fitInNextLeaf(ctx, diskCursor)) {
+                // ascending inputs mostly move on to the next leaf, which we reach without going up the tree
+                openCursor(ctx, diskCursor, true);
             } else {
                 // unpin the previous leaf page
                 bufferCache.unpin(ctx.getLeafFrame().getPage());
@@ -112,11 +155,45 @@ public class DiskBTree extends BTree {
                 ICachedPage page = searchUp(ctx, diskCursor);
                 int pageId = diskCursor.getLastSearchPage();
 
-                searchDown(page, pageId, ctx, diskCursor);
+                searchDown(page, pageId, ctx, diskCursor, reposition);
             }
         }
     }
 
+    private static void openCursor(BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor, boolean reposition)
+            throws HyracksDataException {
+        if (reposition) {
+            cursor.reopen(ctx.getCursorInitialState(), ctx.getPred());
+        } else {
+            cursor.open(ctx.getCursorInitialState(), ctx.getPred());
+        }
+    }
+
+    private boolean fitInNextLeaf(BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor) throws HyracksDataException {
+        IBTreeLeafFrame leafFrame = ctx.getLeafFrame();
+        int nextLeafPageId = leafFrame.getNextLeaf();
+        ITupleReference key = ctx.getPred().getLowKey();
+        MultiComparator comparator = ctx.getPred().getLowKeyComparator();
+        // the key does not fit in the current leaf, so it is on the right of it if it is after its rightmost tuple
+        if (nextLeafPageId < 0 || comparator.compare(key, leafFrame.getRightmostTuple()) < 0) {
+            return false;
+        }
+        ICachedPage currentLeaf = leafFrame.getPage();
+        ICachedPage nextLeaf = bufferCache.pin(BufferedFileHandle.getDiskPageId(getFileId(), nextLeafPageId), false);
+        leafFrame.setPage(nextLeaf);
+        if (leafFrame.getTupleCount() == 0 || comparator.compare(key, leafFrame.getRightmostTuple()) > 0) {
+            leafFrame.setPage(currentLeaf);
+            bufferCache.unpin(nextLeaf);
+            return false;
+        }
+        bufferCache.unpin(currentLeaf);
+        cursor.removeLastSearchPage();
+        cursor.addSearchPage(nextLeafPageId);
+        ctx.getCursorInitialState().setPage(nextLeaf);
+        ctx.getCursorInitialState().setPageId(nextLeafPageId);
+        return true;
+    }
+
     private ICachedPage searchUp(BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor) throws HyracksDataException {
         int index = cursor.numSearchPages() - 1;
         // no need to check root page
@@ -153,8 +230,8 @@ public class DiskBTree extends BTree {
         return comparator.compare(key, leftmostTuple) >= 0;
     }
 
-    private void searchDown(ICachedPage page, int pageId, BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor)
-            throws HyracksDataException {
+    private void searchDown(ICachedPage page, int pageId, BTreeOpContext ctx, DiskBTreeRangeSearchCursor cursor,
+            boolean reposition) throws HyracksDataException {
         ICachedPage currentPage = page;
         ctx.getInteriorFrame().setPage(currentPage);
 
@@ -176,7 +253,7 @@ public class DiskBTree extends BTree {
             ctx.getCursorInitialState().setPage(currentPage);
             ctx.getCursorInitialState().setPageId(childPageId);
             ctx.getLeafFrame().setPage(currentPage);
-            cursor.open(ctx.getCursorInitialState(), ctx.getPred());
+            openCursor(ctx, cursor, reposition);
         } catch (HyracksDataException e) {
             if (!ctx.isExceptionHandled() && currentPage != null) {
                 bufferCache.unpin(currentPage);
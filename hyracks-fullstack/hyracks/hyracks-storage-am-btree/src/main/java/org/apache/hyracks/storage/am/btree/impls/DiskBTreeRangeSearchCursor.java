@@ -24,6 +24,8 @@ import java.util.List;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.ISearchPredicate;
 import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
@@ -68,6 +70,12 @@ public class DiskBTreeRangeSearchCursor extends BTreeRangeSearchCursor {
         // we allow a disk btree range cursor be stateful, that is, the next search can be based on the previous search
     }
 
+    @Override
+    protected void doReopen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        // keep the searched pages and the current leaf, the next search starts from them
+        doOpen(initialState, searchPred);
+    }
+
     public int numSearchPages() {
         return searchPages.size();
     }
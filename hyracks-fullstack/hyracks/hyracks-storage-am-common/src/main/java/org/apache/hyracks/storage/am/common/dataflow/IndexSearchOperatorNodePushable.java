@@ -88,7 +88,7 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
     protected ArrayTupleBuilder nonFilterTupleBuild;
     protected final ISearchOperationCallbackFactory searchCallbackFactory;
     protected boolean failed = false;
-    private final IOperatorStats stats;
+    protected final IOperatorStats stats;
 
     // Used when the result of the search operation callback needs to be passed.
     protected boolean appendSearchCallbackProceedResult;
@@ -202,36 +202,48 @@ public abstract class IndexSearchOperatorNodePushable extends AbstractUnaryInput
         long matchingTupleCount = 0;
         while (cursor.hasNext()) {
             matchingTupleCount++;
-            tb.reset();
             cursor.next();
-            if (retainInput) {
-                frameTuple.reset(accessor, tupleIndex);
-                for (int i = 0; i < frameTuple.getFieldCount(); i++) {
-                    dos.write(frameTuple.getFieldData(i), frameTuple.getFieldStart(i), frameTuple.getFieldLength(i));
-                    tb.addFieldEndOffset();
-                }
-            }
-            ITupleReference tuple = cursor.getTuple();
-            writeTupleToOutput(tuple);
-            if (appendSearchCallbackProceedResult) {
-                writeSearchCallbackProceedResult(tb,
-                        ((ILSMIndexCursor) cursor).getSearchOperationCallbackProceedResult());
-            }
-            if (appendIndexFilter) {
-                writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMinTuple());
-                writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMaxTuple());
-            }
-            FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            writeSearchResult(tupleIndex);
         }
         stats.getTupleCounter().update(matchingTupleCount);
 
         if (matchingTupleCount == 0 && retainInput && retainMissing) {
-            FrameUtils.appendConcatToWriter(writer, appender, accessor, tupleIndex,
-                    nonMatchTupleBuild.getFieldEndOffsets(), nonMatchTupleBuild.getByteArray(), 0,
-                    nonMatchTupleBuild.getSize());
+            writeMissingSearchResult(tupleIndex);
         }
     }
 
+    /**
+     * Writes the current tuple of the cursor, which matches the input tuple at tupleIndex.
+     */
+    protected void writeSearchResult(int tupleIndex) throws Exception {
+        tb.reset();
+        if (retainInput) {
+            frameTuple.reset(accessor, tupleIndex);
+            for (int i = 0; i < frameTuple.getFieldCount(); i++) {
+                dos.write(frameTuple.getFieldData(i), frameTuple.getFieldStart(i), frameTuple.getFieldLength(i));
+                tb.addFieldEndOffset();
+            }
+        }
+        ITupleReference tuple = cursor.getTuple();
+        writeTupleToOutput(tuple);
+        if (appendSearchCallbackProceedResult) {
+            writeSearchCallbackProceedResult(tb, ((ILSMIndexCursor) cursor).getSearchOperationCallbackProceedResult());
+        }
+        if (appendIndexFilter) {
+            writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMinTuple());
+            writeFilterTupleToOutput(((ILSMIndexCursor) cursor).getFilterMaxTuple());
+        }
+        FrameUtils.appendToWriter(writer, appender, tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+    }
+
+    /**
+     * Writes the input tuple at tupleIndex padded with missing values, for an input tuple without any match.
+     */
+    protected void writeMissingSearchResult(int tupleIndex) throws HyracksDataException {
+        FrameUtils.appendConcatToWriter(writer, appender, accessor, tupleIndex, nonMatchTupleBuild.getFieldEndOffsets(),
+                nonMatchTupleBuild.getByteArray(), 0, nonMatchTupleBuild.getSize());
+    }
+
     @Override
     public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
         accessor.reset(buffer);
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.btree.dataflow;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.btree.dataflow.BTreeSearchOperatorNodePushable;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndex;
+import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+public class LSMBTreeBatchPointSearchOperatorNodePushable extends BTreeSearchOperatorNodePushable {
+
+    public LSMBTreeBatchPointSearchOperatorNodePushable(IHyracksTaskContext ctx, int partition,
+            RecordDescriptor inputRecDesc, int[] keyFields, IIndexDataflowHelperFactory indexHelperFactory,
+            boolean retainInput, boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory) throws HyracksDataException {
+        super(ctx, partition, inputRecDesc, keyFields, keyFields, true, true, null, null, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, false);
+    }
+
+    @Override
+    protected ISearchPredicate createSearchPredicate() {
+        ITreeIndex treeIndex = (ITreeIndex) index;
+        lowKeySearchCmp = BTreeUtils.getSearchMultiComparator(treeIndex.getComparatorFactories(), lowKey);
+        return new BatchPredicate(lowKey, lowKeySearchCmp);
+    }
+
+    @Override
+    protected IIndexCursor createCursor() throws HyracksDataException {
+        return new LSMBTreeBatchPointSearchCursor(((ILSMIndexAccessor) indexAccessor).getOpContext());
+    }
+
+    @Override
+    public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
+        accessor.reset(buffer);
+        if (accessor.getTupleCount() == 0) {
+            return;
+        }
+        try {
+            ((BatchPredicate) searchPred).reset(accessor);
+            cursor.close();
+            indexAccessor.search(cursor, searchPred);
+            writeBatchSearchResults();
+        } catch (Exception e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private void writeBatchSearchResults() throws Exception {
+        LSMBTreeBatchPointSearchCursor batchCursor = (LSMBTreeBatchPointSearchCursor) cursor;
+        boolean writeMissing = retainInput && retainMissing;
+        long matchingTupleCount = 0;
+        // input tuples before this index have been written, either with their match or with missing values
+        int nextTupleIndex = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            int tupleIndex = batchCursor.getKeyIndex();
+            for (; writeMissing && nextTupleIndex < tupleIndex; nextTupleIndex++) {
+                writeMissingSearchResult(nextTupleIndex);
+            }
+            writeSearchResult(tupleIndex);
+            matchingTupleCount++;
+            nextTupleIndex = tupleIndex + 1;
+        }
+        for (; writeMissing && nextTupleIndex < accessor.getTupleCount(); nextTupleIndex++) {
+            writeMissingSearchResult(nextTupleIndex);
+        }
+        stats.getTupleCounter().update(matchingTupleCount);
+    }
+}
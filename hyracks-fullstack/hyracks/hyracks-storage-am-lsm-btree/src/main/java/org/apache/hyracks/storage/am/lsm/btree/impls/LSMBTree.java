@@ -207,23 +207,46 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             // the key was not in the inmemory component, so check the disk
             // components
 
-            // This is a hack to avoid searching the current active mutable component twice. It is critical to add it back once the search is over.
-            ILSMComponent firstComponent = ctx.getComponentHolder().remove(0);
-            search(ctx, searchCursor, predicate);
-            try {
-                if (searchCursor.hasNext()) {
-                    throw HyracksDataException.create(ErrorCode.DUPLICATE_KEY);
+            if (!isAboveDiskComponents(tuple, ctx)) {
+                // This is a hack to avoid searching the current active mutable component twice. It is critical to add it back once the search is over.
+                ILSMComponent firstComponent = ctx.getComponentHolder().remove(0);
+                search(ctx, searchCursor, predicate);
+                try {
+                    if (searchCursor.hasNext()) {
+                        throw HyracksDataException.create(ErrorCode.DUPLICATE_KEY);
+                    }
+                } finally {
+                    searchCursor.close();
+                    // Add the current active mutable component back
+                    ctx.getComponentHolder().add(0, firstComponent);
                 }
-            } finally {
-                searchCursor.close();
-                // Add the current active mutable component back
-                ctx.getComponentHolder().add(0, firstComponent);
             }
         }
         ctx.getCurrentMutableBTreeAccessor().upsertIfConditionElseInsert(tuple, AntimatterAwareTupleAcceptor.INSTANCE);
         return true;
     }
 
+    /**
+     * Checks whether the key is larger than every key of the components other than the current mutable one. With
+     * increasing keys (e.g., time-ordered inserts) this holds for almost every insert, which then skips the Bloom
+     * filter probes and disk searches of the duplicate check.
+     */
+    private boolean isAboveDiskComponents(ITupleReference tuple, LSMBTreeOpContext ctx) throws HyracksDataException {
+        List<ILSMComponent> operationalComponents = ctx.getComponentHolder();
+        for (int i = 1; i < operationalComponents.size(); i++) {
+            ILSMComponent component = operationalComponents.get(i);
+            if (!(component instanceof LSMBTreeWithBloomFilterDiskComponent)) {
+                // memory components that are being flushed do not keep their largest key
+                return false;
+            }
+            ITupleReference maxKey = ((LSMBTreeWithBloomFilterDiskComponent) component).getMaxKey();
+            if (maxKey != null && ctx.getCmp().compare(tuple, maxKey) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void search(ILSMIndexOperationContext ictx, IIndexCursor cursor, ISearchPredicate pred)
             throws HyracksDataException {
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+/**
+ * Looks up all the keys of a {@link BatchPredicate} with one search over the LSM components. The cursor returns the
+ * matches of the keys in the order of the keys; {@link #getKeyIndex()} tells which key the current match belongs to.
+ * The cursors of the disk components stay open from one key to the next, so a key that falls into the same leaf as
+ * the previous key (or into the leaf right after it) is found without a new root-to-leaf traversal. Sorted keys
+ * therefore touch each leaf of each disk component at most once.
+ */
+public class LSMBTreeBatchPointSearchCursor extends LSMBTreePointSearchCursor {
+
+    private BatchPredicate batchPred;
+
+    public LSMBTreeBatchPointSearchCursor(ILSMIndexOperationContext opCtx) {
+        super(opCtx);
+    }
+
+    @Override
+    public void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        super.doOpen(initialState, searchPred);
+        batchPred = (BatchPredicate) predicate;
+        if (batchPred.getKeyIndex() < 0) {
+            // there is no key to look up
+            nextHasBeenCalled = true;
+        }
+    }
+
+    @Override
+    public boolean doHasNext() throws HyracksDataException {
+        while (!super.doHasNext()) {
+            if (!batchPred.hasNext()) {
+                return false;
+            }
+            // the cursors of the memory components hold latches, so they are released between keys
+            releaseMemoryCursors();
+            batchPred.next();
+            nextHasBeenCalled = false;
+            foundTuple = false;
+        }
+        return true;
+    }
+
+    /**
+     * Looks up the key of the given tuple of the frame alone: unlike {@link #hasNext()}, the cursor does not move on
+     * to the following keys when this one has no match. Keys may be looked up in any order, and the memory components
+     * may be modified between two lookups, provided that {@link #releaseMemoryCursors()} was called before. Only the
+     * modifications of the memory components that the search started with are seen by the following lookups.
+     *
+     * @return true if the key has a match, which is then the tuple of the cursor
+     */
+    public boolean lookup(int keyIndex) throws HyracksDataException {
+        batchPred.moveTo(keyIndex);
+        nextHasBeenCalled = false;
+        foundTuple = false;
+        return super.doHasNext();
+    }
+
+    /**
+     * @return true if the search goes through the given component
+     */
+    public boolean includes(ILSMComponent component) {
+        return operationalComponents.contains(component);
+    }
+
+    /**
+     * Releases the latches that the cursors of the memory components hold on the match of the current key.
+     */
+    public void releaseMemoryCursors() throws HyracksDataException {
+        for (int i = 0; i < numBTrees; i++) {
+            if (operationalComponents.get(i).getType() == LSMComponentType.MEMORY) {
+                btreeCursors[i].close();
+            }
+        }
+    }
+
+    @Override
+    protected void releaseCursor(int i) throws HyracksDataException {
+        if (operationalComponents.get(i).getType() == LSMComponentType.MEMORY) {
+            super.releaseCursor(i);
+        }
+    }
+
+    /**
+     * @return the index, in the input frame, of the key of the current match
+     */
+    public int getKeyIndex() {
+        return batchPred.getKeyIndex();
+    }
+}
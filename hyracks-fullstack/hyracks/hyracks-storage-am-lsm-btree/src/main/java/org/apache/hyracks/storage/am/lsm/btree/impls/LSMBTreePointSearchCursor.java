@@ -44,20 +44,20 @@ import org.apache.hyracks.storage.common.ISearchPredicate;
 
 public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements ILSMIndexCursor {
 
-    private ITreeIndexCursor[] btreeCursors;
+    protected ITreeIndexCursor[] btreeCursors;
     private final ILSMIndexOperationContext opCtx;
     private ISearchOperationCallback searchCallback;
-    private RangePredicate predicate;
+    protected RangePredicate predicate;
     private boolean includeMutableComponent;
-    private int numBTrees;
+    protected int numBTrees;
     private BTreeAccessor[] btreeAccessors;
     private BloomFilter[] bloomFilters;
     private ILSMHarness lsmHarness;
-    private boolean nextHasBeenCalled;
-    private boolean foundTuple;
+    protected boolean nextHasBeenCalled;
+    protected boolean foundTuple;
     private int foundIn = -1;
     private ITupleReference frameTuple;
-    private List<ILSMComponent> operationalComponents;
+    protected List<ILSMComponent> operationalComponents;
     private boolean resultOfSearchCallbackProceed = false;
 
     private final long[] hashes = BloomFilter.createHashArray();
@@ -74,9 +74,17 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
             return true;
         }
         boolean reconciled = false;
+        boolean hashed = false;
         for (int i = 0; i < numBTrees; ++i) {
-            if (bloomFilters[i] != null && !bloomFilters[i].contains(predicate.getLowKey(), hashes)) {
-                continue;
+            if (bloomFilters[i] != null) {
+                // all disk components share the bloom filter key fields, so the key is hashed only once
+                if (!hashed) {
+                    bloomFilters[i].hash(predicate.getLowKey(), hashes);
+                    hashed = true;
+                }
+                if (!bloomFilters[i].contains(hashes)) {
+                    continue;
+                }
             }
             btreeAccessors[i].search(btreeCursors[i], predicate);
             if (btreeCursors[i].hasNext()) {
@@ -92,7 +100,7 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
                         if (reconciled) {
                             searchCallback.cancel(predicate.getLowKey());
                         }
-                        btreeCursors[i].close();
+                        releaseCursor(i);
                         return false;
                     } else {
                         frameTuple = btreeCursors[i].getTuple();
@@ -135,12 +143,19 @@ public class LSMBTreePointSearchCursor extends EnforcedIndexCursor implements IL
                     return true;
                 }
             } else {
-                btreeCursors[i].close();
+                releaseCursor(i);
             }
         }
         return false;
     }
 
+    /**
+     * Releases the cursor of the i-th component once it has no match for the current key.
+     */
+    protected void releaseCursor(int i) throws HyracksDataException {
+        btreeCursors[i].close();
+    }
+
     @Override
     public void doClose() throws HyracksDataException {
         try {
@@ -20,8 +20,13 @@ package org.apache.hyracks.storage.am.lsm.btree.impls;
 
 import java.util.Set;
 
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
 import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
 import org.apache.hyracks.storage.am.lsm.common.api.AbstractLSMWithBloomFilterDiskComponent;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
@@ -31,6 +36,9 @@ public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFi
 
     private final BTree btree;
     private final BloomFilter bloomFilter;
+    // the key of the largest tuple, read once from the btree when first needed
+    private volatile ITupleReference maxKey;
+    private volatile boolean maxKeyRead;
 
     public LSMBTreeWithBloomFilterDiskComponent(AbstractLSMIndex lsmIndex, BTree btree, BloomFilter bloomFilter,
             ILSMComponentFilter filter) {
@@ -44,6 +52,22 @@ public class LSMBTreeWithBloomFilterDiskComponent extends AbstractLSMWithBloomFi
         return bloomFilter;
     }
 
+    /**
+     * @return the key of the largest tuple (matter or antimatter) of the component, or null if the component is empty
+     */
+    public ITupleReference getMaxKey() throws HyracksDataException {
+        if (!maxKeyRead) {
+            ArrayTupleBuilder keyBuilder = new ArrayTupleBuilder(btree.getComparatorFactories().length);
+            if (((DiskBTree) btree).getMaxKey(keyBuilder)) {
+                ArrayTupleReference key = new ArrayTupleReference();
+                key.reset(keyBuilder.getFieldEndOffsets(), keyBuilder.getByteArray());
+                maxKey = key;
+            }
+            maxKeyRead = true;
+        }
+        return maxKey;
+    }
+
     @Override
     public IBufferCache getBloomFilterBufferCache() {
         return getMetadataHolder().getBufferCache();
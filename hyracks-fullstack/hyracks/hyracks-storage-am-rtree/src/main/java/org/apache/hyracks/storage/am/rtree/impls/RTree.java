@@ -21,6 +21,7 @@ package org.apache.hyracks.storage.am.rtree.impls;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -32,6 +33,8 @@ import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.storage.am.common.api.IIndexOperationContext;
 import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.IPrimitiveValueProvider;
+import org.apache.hyracks.storage.am.common.api.IPrimitiveValueProviderFactory;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexAccessor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
@@ -43,10 +46,13 @@ import org.apache.hyracks.storage.am.common.impls.AbstractTreeIndex;
 import org.apache.hyracks.storage.am.common.impls.NodeFrontier;
 import org.apache.hyracks.storage.am.common.impls.TreeIndexDiskOrderScanCursor;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.common.tuples.SimpleTupleReference;
+import org.apache.hyracks.storage.am.common.tuples.SimpleTupleWriter;
 import org.apache.hyracks.storage.am.common.util.TreeIndexUtils;
 import org.apache.hyracks.storage.am.rtree.api.IRTreeFrame;
 import org.apache.hyracks.storage.am.rtree.api.IRTreeInteriorFrame;
 import org.apache.hyracks.storage.am.rtree.api.IRTreeLeafFrame;
+import org.apache.hyracks.storage.am.rtree.frames.RTreeFrameFactory;
 import org.apache.hyracks.storage.am.rtree.frames.RTreeNSMFrame;
 import org.apache.hyracks.storage.am.rtree.frames.RTreeNSMInteriorFrame;
 import org.apache.hyracks.storage.am.rtree.tuples.RTreeTypeAwareTupleWriter;
@@ -64,15 +70,28 @@ import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
 public class RTree extends AbstractTreeIndex {
 
+    // Upper bound on the bytes of the pages a Sort-Tile-Recursive bulk load confiscates to buffer a window
+    public static final int STR_MAX_WINDOW_SIZE = 16 * 1024 * 1024;
+    // ... and on the share of the buffer cache they take
+    private static final int STR_WINDOW_BUFFER_CACHE_SHARE = 8;
+
     // Global node sequence number used for the concurrency control protocol
     private final AtomicLong globalNsn;
 
     private final int maxTupleSize;
     private final boolean isPointMBR; // used for reducing storage space to store point objects.
+    private final RTreePackingType packingType;
 
     public RTree(IBufferCache bufferCache, IPageManager freePageManager, ITreeIndexFrameFactory interiorFrameFactory,
             ITreeIndexFrameFactory leafFrameFactory, IBinaryComparatorFactory[] cmpFactories, int fieldCount,
             FileReference file, boolean isPointMBR) {
+        this(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file,
+                isPointMBR, RTreePackingType.LINEAR);
+    }
+
+    public RTree(IBufferCache bufferCache, IPageManager freePageManager, ITreeIndexFrameFactory interiorFrameFactory,
+            ITreeIndexFrameFactory leafFrameFactory, IBinaryComparatorFactory[] cmpFactories, int fieldCount,
+            FileReference file, boolean isPointMBR, RTreePackingType packingType) {
         super(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file);
         globalNsn = new AtomicLong();
         ITreeIndexFrame leafFrame = leafFrameFactory.createFrame();
@@ -80,6 +99,11 @@ public class RTree extends AbstractTreeIndex {
         maxTupleSize = Math.min(leafFrame.getMaxTupleSize(bufferCache.getPageSize()),
                 interiorFrame.getMaxTupleSize(bufferCache.getPageSize()));
         this.isPointMBR = isPointMBR;
+        this.packingType = packingType;
+    }
+
+    public RTreePackingType getPackingType() {
+        return packingType;
     }
 
     private long incrementGlobalNsn() {
@@ -894,6 +918,10 @@ public class RTree extends AbstractTreeIndex {
     public IIndexBulkLoader createBulkLoader(float fillFactor, boolean verifyInput, long numElementsHint,
             boolean checkIfEmptyIndex) throws HyracksDataException {
         // TODO: verifyInput currently does nothing.
+        if (packingType == RTreePackingType.STR) {
+            return new STRBulkLoader(fillFactor, Math.min(STR_MAX_WINDOW_SIZE / bufferCache.getPageSize(),
+                    bufferCache.getPageBudget() / STR_WINDOW_BUFFER_CACHE_SHARE));
+        }
         return new RTreeBulkLoader(fillFactor);
     }
 
@@ -1007,6 +1035,8 @@ public class RTree extends AbstractTreeIndex {
                 //set next guide MBR
                 //if propagateBulk didnt have to do anything this may be un-necessary
                 if (nodeFrontiers.size() > 1 && nodeFrontiers.indexOf(n) < nodeFrontiers.size() - 1) {
+                    //the leaf level must be read with a leaf frame, since its tuples carry the payload fields
+                    lowerFrame = nodeFrontiers.indexOf(n) == 0 ? leafFrame : prevInteriorFrame;
                     lowerFrame.setPage(n.page);
                     ((RTreeNSMFrame) lowerFrame).adjustMBR();
                     interiorFrameTupleWriter.writeTupleFields(((RTreeNSMFrame) lowerFrame).getMBRTuples(), 0, mbr, 0);
@@ -1109,4 +1139,216 @@ public class RTree extends AbstractTreeIndex {
     public int getNumOfFilterFields() {
         return 0;
     }
+
+    /**
+     * A bulk loader that applies Sort-Tile-Recursive (STR) packing to its input. Tuples are copied into a window of
+     * pages confiscated from the buffer cache; once the window is full (or at the end of the load), the buffered tuples
+     * are ordered by the centers of their MBRs: sorted on the first dimension, cut into slabs of whole leaves, and each
+     * slab is ordered recursively on the remaining dimensions. The reordered tuples are then packed by the regular bulk
+     * loader, so consecutive leaves hold spatially close tuples and leaves of the same parent overlap much less than
+     * leaves built from a linearization order.
+     * The input does not need to be sorted, but windows over a linearized input yield the best packing since every
+     * window then covers a compact region of the space.
+     */
+    public class STRBulkLoader extends RTreeBulkLoader {
+        private final int maxWindowPages;
+        private final int numDims;
+        private final IPrimitiveValueProvider[] valueProviders;
+        private final SimpleTupleReference bufferedTuple;
+        private final List<ICachedPage> windowPages = new ArrayList<>();
+        private int windowPage;
+        private int pageOffset;
+        private int[] tuplePages;
+        private int[] tupleOffsets;
+        private double[] centers;
+        private int[] order;
+        private int numTuples;
+        private long leafBytesRequired;
+
+        public STRBulkLoader(float fillFactor, int maxWindowPages) throws HyracksDataException {
+            super(fillFactor);
+            this.maxWindowPages = maxWindowPages;
+            IPrimitiveValueProviderFactory[] valueProviderFactories =
+                    ((RTreeFrameFactory) leafFrameFactory).getKeyValueProviderFactories();
+            valueProviders = new IPrimitiveValueProvider[valueProviderFactories.length];
+            for (int i = 0; i < valueProviders.length; i++) {
+                valueProviders[i] = valueProviderFactories[i].createPrimitiveValueProvider();
+            }
+            numDims = valueProviders.length / 2;
+            bufferedTuple = SimpleTupleWriter.INSTANCE.createTupleReference();
+            tuplePages = new int[128];
+            tupleOffsets = new int[tuplePages.length];
+            centers = new double[tuplePages.length * numDims];
+        }
+
+        @Override
+        public void add(ITupleReference tuple) throws HyracksDataException {
+            int bytesRequired = SimpleTupleWriter.INSTANCE.bytesRequired(tuple);
+            if (!reserve(bytesRequired)) {
+                // no window page could be confiscated or the tuple is larger than a page: load it in input order
+                packWindow();
+                super.add(tuple);
+                return;
+            }
+            if (numTuples == 0) {
+                bufferedTuple.setFieldCount(tuple.getFieldCount());
+            }
+            ensureCapacity();
+            tuplePages[numTuples] = windowPage;
+            tupleOffsets[numTuples] = pageOffset;
+            for (int i = 0; i < numDims; i++) {
+                double low = valueProviders[i].getValue(tuple.getFieldData(i), tuple.getFieldStart(i));
+                double high = valueProviders[i + numDims].getValue(tuple.getFieldData(i + numDims),
+                        tuple.getFieldStart(i + numDims));
+                centers[numTuples * numDims + i] = (low + high) / 2.0;
+            }
+            pageOffset += SimpleTupleWriter.INSTANCE.writeTuple(tuple, windowPages.get(windowPage).getBuffer().array(),
+                    pageOffset);
+            leafBytesRequired += leafFrame.getBytesRequiredToWriteTuple(tuple);
+            numTuples++;
+        }
+
+        @Override
+        public void end() throws HyracksDataException {
+            try {
+                packWindow();
+            } finally {
+                returnWindowPages();
+            }
+            super.end();
+        }
+
+        @Override
+        public void abort() throws HyracksDataException {
+            returnWindowPages();
+            super.abort();
+        }
+
+        /**
+         * Makes room for a tuple of the given size in the window, packing the window first if it is full.
+         *
+         * @return false if the tuple cannot be buffered
+         */
+        private boolean reserve(int bytesRequired) throws HyracksDataException {
+            int pageSize = bufferCache.getPageSize();
+            if (bytesRequired > pageSize) {
+                return false;
+            }
+            if (!windowPages.isEmpty() && pageOffset + bytesRequired <= pageSize) {
+                return true;
+            }
+            if (windowPages.isEmpty() || windowPage == windowPages.size() - 1) {
+                ICachedPage page = windowPages.size() < maxWindowPages
+                        ? bufferCache.confiscatePage(IBufferCache.INVALID_DPID) : null;
+                if (page == null) {
+                    if (windowPages.isEmpty()) {
+                        return false;
+                    }
+                    packWindow();
+                    return true;
+                }
+                windowPages.add(page);
+            }
+            windowPage = windowPages.size() == 1 ? 0 : windowPage + 1;
+            pageOffset = 0;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (numTuples == tuplePages.length) {
+                tuplePages = Arrays.copyOf(tuplePages, tuplePages.length * 2);
+                tupleOffsets = Arrays.copyOf(tupleOffsets, tuplePages.length);
+                centers = Arrays.copyOf(centers, tuplePages.length * numDims);
+            }
+        }
+
+        private void returnWindowPages() {
+            for (ICachedPage page : windowPages) {
+                bufferCache.returnPage(page, false);
+            }
+            windowPages.clear();
+        }
+
+        private void packWindow() throws HyracksDataException {
+            if (numTuples == 0) {
+                return;
+            }
+            if (order == null || order.length < numTuples) {
+                order = new int[tuplePages.length];
+            }
+            for (int i = 0; i < numTuples; i++) {
+                order[i] = i;
+            }
+            int avgLeafBytes = (int) Math.max(1, leafBytesRequired / numTuples);
+            // the page header counts against leafMaxBytes, so leave it out when sizing the tiles
+            int leafCapacity = Math.max(1, (leafMaxBytes - leafFrame.getPageHeaderSize()) / avgLeafBytes);
+            tile(0, numTuples, 0, leafCapacity);
+            for (int i = 0; i < numTuples; i++) {
+                int tupleIndex = order[i];
+                bufferedTuple.resetByTupleOffset(windowPages.get(tuplePages[tupleIndex]).getBuffer().array(),
+                        tupleOffsets[tupleIndex]);
+                super.add(bufferedTuple);
+            }
+            numTuples = 0;
+            windowPage = 0;
+            pageOffset = 0;
+            leafBytesRequired = 0;
+        }
+
+        private void tile(int start, int end, int dim, int leafCapacity) {
+            sortByCenter(start, end - 1, dim);
+            if (dim == numDims - 1) {
+                return;
+            }
+            int numLeaves = (end - start + leafCapacity - 1) / leafCapacity;
+            int numSlabs = (int) Math.ceil(Math.pow(numLeaves, 1.0 / (numDims - dim)));
+            int slabSize = ((numLeaves + numSlabs - 1) / numSlabs) * leafCapacity;
+            for (int slabStart = start; slabStart < end; slabStart += slabSize) {
+                tile(slabStart, Math.min(slabStart + slabSize, end), dim + 1, leafCapacity);
+            }
+        }
+
+        private void sortByCenter(int left, int right, int dim) {
+            while (right - left > 16) {
+                double pivot = center(order[(left + right) >>> 1], dim);
+                int i = left;
+                int j = right;
+                while (i <= j) {
+                    while (center(order[i], dim) < pivot) {
+                        i++;
+                    }
+                    while (center(order[j], dim) > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int t = order[i];
+                        order[i++] = order[j];
+                        order[j--] = t;
+                    }
+                }
+                // recurse into the smaller partition to bound the stack depth
+                if (j - left < right - i) {
+                    sortByCenter(left, j, dim);
+                    left = i;
+                } else {
+                    sortByCenter(i, right, dim);
+                    right = j;
+                }
+            }
+            for (int i = left + 1; i <= right; i++) {
+                int t = order[i];
+                double c = center(t, dim);
+                int j = i - 1;
+                while (j >= left && center(order[j], dim) > c) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = t;
+            }
+        }
+
+        private double center(int tupleIndex, int dim) {
+            return centers[tupleIndex * numDims + dim];
+        }
+    }
 }
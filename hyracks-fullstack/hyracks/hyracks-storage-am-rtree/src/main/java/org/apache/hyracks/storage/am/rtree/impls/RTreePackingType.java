@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.hyracks.storage.am.rtree.impls;
+
+/**
+ * Determines how a bulk load groups the incoming tuples into leaf pages.
+ */
+public enum RTreePackingType {
+    /**
+     * Leaves are filled in input order; the input is expected to be sorted by a linearization (Hilbert/Z-order).
+     */
+    LINEAR,
+    /**
+     * The input is buffered in bounded windows that are reordered using Sort-Tile-Recursive packing, so that every
+     * leaf covers a compact tile of the space instead of a run of the linearization.
+     * Only indexes that never rely on the scan order of a tree can use it: LSMRTreeWithAntiMatterTuples and
+     * ExternalRTree merge their components in Hilbert order to reconcile antimatter tuples, so they keep LINEAR.
+     */
+    STR
+}
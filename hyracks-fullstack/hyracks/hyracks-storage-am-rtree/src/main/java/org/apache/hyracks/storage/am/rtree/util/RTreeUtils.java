@@ -33,6 +33,7 @@ import org.apache.hyracks.storage.am.rtree.frames.RTreeNSMInteriorFrameFactory;
 import org.apache.hyracks.storage.am.rtree.frames.RTreeNSMLeafFrameFactory;
 import org.apache.hyracks.storage.am.rtree.frames.RTreePolicyType;
 import org.apache.hyracks.storage.am.rtree.impls.RTree;
+import org.apache.hyracks.storage.am.rtree.impls.RTreePackingType;
 import org.apache.hyracks.storage.am.rtree.tuples.RTreeTypeAwareTupleWriterFactory;
 import org.apache.hyracks.storage.common.MultiComparator;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
@@ -46,6 +47,14 @@ public class RTreeUtils {
             IPrimitiveValueProviderFactory[] valueProviderFactories, IBinaryComparatorFactory[] cmpFactories,
             RTreePolicyType rtreePolicyType, FileReference file, boolean isPointMBR,
             IPageManagerFactory pageManagerFactory) {
+        return createRTree(bufferCache, typeTraits, valueProviderFactories, cmpFactories, rtreePolicyType, file,
+                isPointMBR, pageManagerFactory, RTreePackingType.LINEAR);
+    }
+
+    public static RTree createRTree(IBufferCache bufferCache, ITypeTraits[] typeTraits,
+            IPrimitiveValueProviderFactory[] valueProviderFactories, IBinaryComparatorFactory[] cmpFactories,
+            RTreePolicyType rtreePolicyType, FileReference file, boolean isPointMBR,
+            IPageManagerFactory pageManagerFactory, RTreePackingType packingType) {
 
         RTreeTypeAwareTupleWriterFactory tupleWriterFactory = new RTreeTypeAwareTupleWriterFactory(typeTraits);
         ITreeIndexFrameFactory interiorFrameFactory = new RTreeNSMInteriorFrameFactory(tupleWriterFactory,
@@ -53,7 +62,7 @@ public class RTreeUtils {
         ITreeIndexFrameFactory leafFrameFactory =
                 new RTreeNSMLeafFrameFactory(tupleWriterFactory, valueProviderFactories, rtreePolicyType, isPointMBR);
         return new RTree(bufferCache, pageManagerFactory.createPageManager(bufferCache), interiorFrameFactory,
-                leafFrameFactory, cmpFactories, typeTraits.length, file, isPointMBR);
+                leafFrameFactory, cmpFactories, typeTraits.length, file, isPointMBR, packingType);
     }
 
     // Creates a new MultiComparator by constructing new IBinaryComparators.
@@ -61,6 +61,23 @@ public abstract class EnforcedIndexCursor implements IIndexCursor {
     protected abstract void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred)
             throws HyracksDataException;
 
+    /**
+     * Moves an opened cursor to a new search without going through {@link #close()}.
+     * Cursors that can reuse what they hold from the previous search override {@link #doReopen}.
+     */
+    public final void reopen(ICursorInitialState initialState, ISearchPredicate searchPred)
+            throws HyracksDataException {
+        if (ENFORCE_OPEN_CLOSE_DESTROY && state != State.OPENED) {
+            throw new IllegalStateException("Cannot reopen a cursor in the state " + state);
+        }
+        doReopen(initialState, searchPred);
+    }
+
+    protected void doReopen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        doClose();
+        doOpen(initialState, searchPred);
+    }
+
     @Override
     public final boolean hasNext() throws HyracksDataException {
         if (ENFORCE_NEXT_HAS_NEXT && state != State.OPENED) {
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.cursor.LSMBTreePointSearchCursorTest;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeWithBloomFilterDiskComponent;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LSMBTreeIncreasingKeyInsertTest {
+    private static final int NUM_KEYS = 1000;
+    private static final ITypeTraits[] FILTER_TYPE_TRAITS = { IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] FILTER_CMP_FACTORIES =
+            { PointableBinaryComparatorFactory.of(IntegerPointable.FACTORY) };
+    // the tuples are (key, time, time): the btree stores the first two fields and the filter bounds the third one
+    private static final int[] BTREE_FIELDS = { 0, 1 };
+    private static final int[] FILTER_FIELDS = { 2 };
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            if (lsmBtree != null) {
+                lsmBtree.deactivate();
+                lsmBtree.destroy();
+            }
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    private void createTree(boolean filtered) throws HyracksDataException {
+        lsmBtree = LSMBTreeExamplesTest.createTreeIndex(harness, LSMBTreePointSearchCursorTest.TYPE_TRAITS,
+                LSMBTreePointSearchCursorTest.CMP_FACTORIES, LSMBTreePointSearchCursorTest.BLOOM_FILTER_KEY_FIELDS,
+                filtered ? FILTER_TYPE_TRAITS : null, filtered ? FILTER_CMP_FACTORIES : null,
+                filtered ? BTREE_FIELDS : null, filtered ? FILTER_FIELDS : null);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @Test
+    public void testDuplicatesOfFlushedKeys() throws Exception {
+        createTree(false);
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            accessor.insert(TupleUtils.createIntegerTuple(i, i));
+            if (i % (NUM_KEYS / 4) == NUM_KEYS / 4 - 1) {
+                accessor.scheduleFlush(lsmBtree.getIOOperationCallback());
+            }
+        }
+        Assert.assertEquals(4, lsmBtree.getDiskComponents().size());
+        // components are ordered from the newest to the oldest
+        ITupleReference maxKey =
+                ((LSMBTreeWithBloomFilterDiskComponent) lsmBtree.getDiskComponents().get(0)).getMaxKey();
+        Assert.assertEquals(NUM_KEYS - 1, IntegerPointable.getInteger(maxKey.getFieldData(0), maxKey.getFieldStart(0)));
+
+        // every flushed key is still a duplicate, whether it is the largest key on disk or not
+        for (int key : new int[] { 0, NUM_KEYS / 2, NUM_KEYS - 1 }) {
+            try {
+                accessor.insert(TupleUtils.createIntegerTuple(key, -1));
+                Assert.fail("key " + key + " was inserted twice");
+            } catch (HyracksDataException e) {
+                Assert.assertEquals(ErrorCode.DUPLICATE_KEY, e.getErrorCode());
+            }
+        }
+        // a deleted key can be inserted again
+        accessor.delete(TupleUtils.createIntegerTuple(NUM_KEYS / 2, NUM_KEYS / 2));
+        accessor.scheduleFlush(lsmBtree.getIOOperationCallback());
+        accessor.insert(TupleUtils.createIntegerTuple(NUM_KEYS / 2, -1));
+        // keys above the largest one on disk are inserted without searching the disk components
+        accessor.insert(TupleUtils.createIntegerTuple(NUM_KEYS, NUM_KEYS));
+        try {
+            accessor.insert(TupleUtils.createIntegerTuple(NUM_KEYS, -1));
+            Assert.fail("key " + NUM_KEYS + " was inserted twice");
+        } catch (HyracksDataException e) {
+            Assert.assertEquals(ErrorCode.DUPLICATE_KEY, e.getErrorCode());
+        }
+    }
+
+    /**
+     * Time-ordered keys with a filter on the time: the disk components cover disjoint time ranges, so a search on a
+     * time range only reads the components of that range while inserts skip the disk duplicate checks.
+     */
+    @Test
+    public void testTimeFilter() throws Exception {
+        createTree(true);
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        int numComponents = 4;
+        int keysPerComponent = NUM_KEYS / numComponents;
+        for (int i = 0; i < NUM_KEYS; i++) {
+            accessor.insert(TupleUtils.createIntegerTuple(i, i, i));
+            if (i % keysPerComponent == keysPerComponent - 1) {
+                accessor.scheduleFlush(lsmBtree.getIOOperationCallback());
+            }
+        }
+        Assert.assertEquals(numComponents, lsmBtree.getDiskComponents().size());
+
+        // a time range within the second oldest component only satisfies its filter
+        int low = keysPerComponent + 10;
+        int high = 2 * keysPerComponent - 10;
+        ITupleReference minFilter = TupleUtils.createIntegerTuple(low);
+        ITupleReference maxFilter = TupleUtils.createIntegerTuple(high);
+        MultiComparator filterCmp = MultiComparator.create(FILTER_CMP_FACTORIES);
+        int satisfied = 0;
+        for (ILSMDiskComponent component : lsmBtree.getDiskComponents()) {
+            if (component.getLSMComponentFilter().satisfy(minFilter, maxFilter, filterCmp)) {
+                satisfied++;
+            }
+        }
+        Assert.assertEquals(1, satisfied);
+        // the components of the range hold every key of the range
+        Assert.assertEquals(high - low + 1, count(accessor, low, high, minFilter, maxFilter));
+
+        // keys above every disk component are inserted and found, flushed keys are still duplicates
+        accessor.insert(TupleUtils.createIntegerTuple(NUM_KEYS, NUM_KEYS, NUM_KEYS));
+        try {
+            accessor.insert(TupleUtils.createIntegerTuple(low, NUM_KEYS, NUM_KEYS));
+            Assert.fail("key " + low + " was inserted twice");
+        } catch (HyracksDataException e) {
+            Assert.assertEquals(ErrorCode.DUPLICATE_KEY, e.getErrorCode());
+        }
+        ITupleReference lastTime = TupleUtils.createIntegerTuple(NUM_KEYS);
+        Assert.assertEquals(1, count(accessor, NUM_KEYS, NUM_KEYS, lastTime, lastTime));
+    }
+
+    private int count(ILSMIndexAccessor accessor, int low, int high, ITupleReference minFilter,
+            ITupleReference maxFilter) throws HyracksDataException {
+        ITupleReference lowKey = TupleUtils.createIntegerTuple(low);
+        ITupleReference highKey = TupleUtils.createIntegerTuple(high);
+        MultiComparator cmp = MultiComparator.create(LSMBTreePointSearchCursorTest.CMP_FACTORIES);
+        RangePredicate predicate = new RangePredicate(lowKey, highKey, true, true, cmp, cmp, minFilter, maxFilter);
+        IIndexCursor cursor = accessor.createSearchCursor(false);
+        int count = 0;
+        try {
+            accessor.search(cursor, predicate);
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.cursor;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.BatchPredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.common.tuples.PermutingFrameTupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.LSMBTreeExamplesTest;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTreeBatchPointSearchCursor;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LSMBTreeBatchPointSearchCursorTest {
+    private static final int NUM_KEYS = 3000;
+    private static final int FRAME_SIZE = 32768;
+    @SuppressWarnings("rawtypes")
+    private static final RecordDescriptor KEY_REC_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private LSMBTree lsmBtree;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        lsmBtree = LSMBTreeExamplesTest.createTreeIndex(harness, LSMBTreePointSearchCursorTest.TYPE_TRAITS,
+                LSMBTreePointSearchCursorTest.CMP_FACTORIES, LSMBTreePointSearchCursorTest.BLOOM_FILTER_KEY_FIELDS,
+                null, null, null, null);
+        lsmBtree.create();
+        lsmBtree.activate();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        try {
+            lsmBtree.deactivate();
+            lsmBtree.destroy();
+        } finally {
+            harness.tearDown();
+        }
+    }
+
+    @Test
+    public void testSortedKeys() throws Exception {
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        // even keys are spread over two disk components and the memory component; every fourth key is deleted
+        for (int i = 0; i < NUM_KEYS; i++) {
+            accessor.insert(TupleUtils.createIntegerTuple(2 * i, i));
+            if (i == NUM_KEYS / 3 || i == 2 * NUM_KEYS / 3) {
+                accessor.scheduleFlush(lsmBtree.getIOOperationCallback());
+            }
+        }
+        for (int i = 0; i < NUM_KEYS; i += 2) {
+            accessor.delete(TupleUtils.createIntegerTuple(2 * i, i));
+        }
+
+        FrameTupleAccessor fta = new FrameTupleAccessor(KEY_REC_DESC);
+        FrameTupleAppender appender = new FrameTupleAppender(new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE)));
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        PermutingFrameTupleReference keyRef = new PermutingFrameTupleReference(new int[] { 0 });
+        MultiComparator keyCmp = BTreeUtils.getSearchMultiComparator(LSMBTreePointSearchCursorTest.CMP_FACTORIES,
+                TupleUtils.createIntegerTuple(0));
+        BatchPredicate predicate = new BatchPredicate(keyRef, keyCmp);
+        LSMBTreeBatchPointSearchCursor cursor = new LSMBTreeBatchPointSearchCursor(accessor.getOpContext());
+        int key = -1;
+        int found = 0;
+        try {
+            while (key < 2 * NUM_KEYS) {
+                appender.reset(new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE)), true);
+                int firstKey = key;
+                do {
+                    tb.reset();
+                    tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+                    key++;
+                } while (key <= 2 * NUM_KEYS
+                        && appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+                if (key <= 2 * NUM_KEYS) {
+                    // the last key did not fit into the frame
+                    key--;
+                }
+                fta.reset(appender.getBuffer());
+                predicate.reset(fta);
+                accessor.search(cursor, predicate);
+                try {
+                    while (cursor.hasNext()) {
+                        cursor.next();
+                        int keyValue = firstKey + cursor.getKeyIndex();
+                        Assert.assertEquals(keyValue, IntegerPointable.getInteger(cursor.getTuple().getFieldData(0),
+                                cursor.getTuple().getFieldStart(0)));
+                        Assert.assertEquals(keyValue / 2, IntegerPointable.getInteger(cursor.getTuple().getFieldData(1),
+                                cursor.getTuple().getFieldStart(1)));
+                        Assert.assertTrue(keyValue % 2 == 0 && (keyValue / 2) % 2 == 1);
+                        found++;
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+        } finally {
+            cursor.destroy();
+        }
+        Assert.assertEquals(NUM_KEYS / 2, found);
+    }
+
+    @Test
+    public void testLookupsInterleavedWithUpserts() throws Exception {
+        ILSMIndexAccessor accessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        for (int i = 0; i < NUM_KEYS; i++) {
+            accessor.insert(TupleUtils.createIntegerTuple(2 * i, i));
+        }
+        accessor.scheduleFlush(lsmBtree.getIOOperationCallback());
+        // activate the memory component, so that the search includes it
+        accessor.upsert(TupleUtils.createIntegerTuple(1, 1));
+
+        // unsorted keys, some of them repeated, each one upserted with the value -1 right after it is looked up
+        int[] keys = { 40, 12, 40, 7, 2000, 12, 7, 2 };
+        Integer[] expectedValues = { 20, 6, -1, null, 1000, -1, -1, 1 };
+        FrameTupleAccessor fta = new FrameTupleAccessor(KEY_REC_DESC);
+        FrameTupleAppender appender = new FrameTupleAppender(new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE)));
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        for (int key : keys) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, key);
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        fta.reset(appender.getBuffer());
+        PermutingFrameTupleReference keyRef = new PermutingFrameTupleReference(new int[] { 0 });
+        MultiComparator keyCmp = BTreeUtils.getSearchMultiComparator(LSMBTreePointSearchCursorTest.CMP_FACTORIES,
+                TupleUtils.createIntegerTuple(0));
+        BatchPredicate predicate = new BatchPredicate(keyRef, keyCmp);
+        ILSMIndexAccessor lookupAccessor = lsmBtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        LSMBTreeBatchPointSearchCursor cursor = new LSMBTreeBatchPointSearchCursor(lookupAccessor.getOpContext());
+        try {
+            predicate.reset(fta);
+            lookupAccessor.search(cursor, predicate);
+            try {
+                for (int i = 0; i < keys.length; i++) {
+                    boolean found = cursor.lookup(i);
+                    Assert.assertEquals(expectedValues[i] != null, found);
+                    if (found) {
+                        Assert.assertEquals(expectedValues[i].intValue(), IntegerPointable
+                                .getInteger(cursor.getTuple().getFieldData(1), cursor.getTuple().getFieldStart(1)));
+                    }
+                    cursor.releaseMemoryCursors();
+                    accessor.upsert(TupleUtils.createIntegerTuple(keys[i], -1));
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+    }
+}
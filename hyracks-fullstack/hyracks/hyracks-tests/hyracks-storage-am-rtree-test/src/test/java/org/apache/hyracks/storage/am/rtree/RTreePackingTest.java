@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.DoubleSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.SerdeUtils;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.rtree.frames.RTreePolicyType;
+import org.apache.hyracks.storage.am.rtree.impls.RTree;
+import org.apache.hyracks.storage.am.rtree.impls.RTreePackingType;
+import org.apache.hyracks.storage.am.rtree.impls.SearchPredicate;
+import org.apache.hyracks.storage.am.rtree.util.RTreeUtils;
+import org.apache.hyracks.storage.am.rtree.utils.RTreeTestHarness;
+import org.apache.hyracks.storage.common.IIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Bulk loads the same rectangles with linear and with STR packing and checks that both trees return exactly the
+ * rectangles that intersect each query.
+ */
+@SuppressWarnings("rawtypes")
+public class RTreePackingTest {
+
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 1000;
+    private static final int MAX_OPEN_FILES = 10;
+    private static final int HYRACKS_FRAME_SIZE = 128;
+    private static final int NUM_RECTANGLES = 2000;
+    private static final int NUM_QUERIES = 50;
+    private static final double SPACE_SIZE = 1000.0;
+    private static final double MAX_RECTANGLE_SIDE = 20.0;
+    private static final double QUERY_SIDE = 100.0;
+
+    private final RTreeTestHarness harness =
+            new RTreeTestHarness(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES, HYRACKS_FRAME_SIZE);
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        harness.tearDown();
+    }
+
+    @Test
+    public void sameResultsAsLinearPacking() throws Exception {
+        Random rnd = new Random(42);
+        double[][] rectangles = new double[NUM_RECTANGLES][];
+        for (int i = 0; i < NUM_RECTANGLES; i++) {
+            double x = rnd.nextDouble() * SPACE_SIZE;
+            double y = rnd.nextDouble() * SPACE_SIZE;
+            rectangles[i] = new double[] { x, y, x + rnd.nextDouble() * MAX_RECTANGLE_SIDE,
+                    y + rnd.nextDouble() * MAX_RECTANGLE_SIDE, i };
+        }
+        double[][] queries = new double[NUM_QUERIES][];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            double x = rnd.nextDouble() * (SPACE_SIZE - QUERY_SIDE);
+            double y = rnd.nextDouble() * (SPACE_SIZE - QUERY_SIDE);
+            queries[i] = new double[] { x, y, x + QUERY_SIDE, y + QUERY_SIDE };
+        }
+
+        List<List<Integer>> linear = search(RTreePackingType.LINEAR, rectangles, queries);
+        List<List<Integer>> str = search(RTreePackingType.STR, rectangles, queries);
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            List<Integer> expected = intersecting(rectangles, queries[i]);
+            Assert.assertFalse(expected.isEmpty());
+            Assert.assertEquals(expected, linear.get(i));
+            Assert.assertEquals(expected, str.get(i));
+        }
+    }
+
+    private List<List<Integer>> search(RTreePackingType packingType, double[][] rectangles, double[][] queries)
+            throws Exception {
+        ISerializerDeserializer[] fieldSerdes = new ISerializerDeserializer[5];
+        Arrays.fill(fieldSerdes, DoubleSerializerDeserializer.INSTANCE);
+        int numKeys = 4;
+        ITypeTraits[] typeTraits = SerdeUtils.serdesToTypeTraits(fieldSerdes);
+        IBinaryComparatorFactory[] cmpFactories = SerdeUtils.serdesToComparatorFactories(fieldSerdes, numKeys);
+        RTree rtree = RTreeUtils.createRTree(harness.getBufferCache(), typeTraits,
+                RTreeUtils.createPrimitiveValueProviderFactories(numKeys, DoublePointable.FACTORY), cmpFactories,
+                RTreePolicyType.RTREE, harness.getFileReference(), false, harness.getMetadataManagerFactory(),
+                packingType);
+        rtree.create();
+        rtree.activate();
+        try {
+            IIndexBulkLoader bulkLoader = rtree.createBulkLoader(1.0f, false, rectangles.length, true);
+            for (double[] rectangle : rectangles) {
+                bulkLoader.add(TupleUtils.createDoubleTuple(rectangle));
+            }
+            bulkLoader.end();
+
+            List<List<Integer>> results = new ArrayList<>();
+            IIndexAccessor accessor = rtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+            IIndexCursor cursor = accessor.createSearchCursor(false);
+            try {
+                for (double[] query : queries) {
+                    ITupleReference key = TupleUtils.createDoubleTuple(query);
+                    MultiComparator cmp = RTreeUtils.getSearchMultiComparator(cmpFactories, key);
+                    accessor.search(cursor, new SearchPredicate(key, cmp));
+                    List<Integer> ids = new ArrayList<>();
+                    try {
+                        while (cursor.hasNext()) {
+                            cursor.next();
+                            ITupleReference tuple = cursor.getTuple();
+                            ids.add((int) DoublePointable.getDouble(tuple.getFieldData(4), tuple.getFieldStart(4)));
+                        }
+                    } finally {
+                        cursor.close();
+                    }
+                    ids.sort(null);
+                    results.add(ids);
+                }
+            } finally {
+                cursor.destroy();
+                accessor.destroy();
+            }
+            return results;
+        } finally {
+            rtree.deactivate();
+            rtree.destroy();
+        }
+    }
+
+    private static List<Integer> intersecting(double[][] rectangles, double[] query) {
+        List<Integer> ids = new ArrayList<>();
+        for (double[] r : rectangles) {
+            if (r[0] <= query[2] && query[0] <= r[2] && r[1] <= query[3] && query[1] <= r[3]) {
+                ids.add((int) r[4]);
+            }
+        }
+        return ids;
+    }
+}
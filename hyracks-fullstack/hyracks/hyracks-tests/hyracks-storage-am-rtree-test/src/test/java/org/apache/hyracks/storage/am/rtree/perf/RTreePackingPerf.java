@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.rtree.perf;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.DoubleSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.SerdeUtils;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.rtree.frames.RTreePolicyType;
+import org.apache.hyracks.storage.am.rtree.impls.RTree;
+import org.apache.hyracks.storage.am.rtree.impls.RTreePackingType;
+import org.apache.hyracks.storage.am.rtree.impls.SearchPredicate;
+import org.apache.hyracks.storage.am.rtree.linearize.HilbertDoubleComparatorFactory;
+import org.apache.hyracks.storage.am.rtree.util.RTreeUtils;
+import org.apache.hyracks.storage.am.rtree.utils.RTreeTestHarness;
+import org.apache.hyracks.storage.common.IIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.DebugBufferCache;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+
+/**
+ * Bulk loads the same Hilbert-ordered rectangles with linear and with STR packing and reports the number of pages
+ * touched per range query for each packing.
+ */
+@SuppressWarnings("rawtypes")
+public class RTreePackingPerf {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final int NUM_PAGES = 32768;
+    private static final int MAX_OPEN_FILES = 10;
+    private static final int HYRACKS_FRAME_SIZE = 128;
+    private static final int NUM_RECTANGLES = 50000;
+    private static final int NUM_QUERIES = 200;
+    private static final double SPACE_SIZE = 10000.0;
+    private static final double MAX_RECTANGLE_SIDE = 20.0;
+    private static final double QUERY_SIDE = 200.0;
+
+    private final RTreeTestHarness harness =
+            new RTreeTestHarness(PAGE_SIZE, NUM_PAGES, MAX_OPEN_FILES, HYRACKS_FRAME_SIZE);
+
+    public static void main(String[] args) throws Exception {
+        RTreePackingPerf perf = new RTreePackingPerf();
+        perf.harness.setUp();
+        try {
+            perf.pagesTouchedPerQuery();
+        } finally {
+            perf.harness.tearDown();
+            // the IO managers of the harness would otherwise keep the JVM alive
+            perf.harness.getHyracksTaskContext().getIoManager().close();
+            TestStorageManagerComponentHolder.getIOManager().close();
+        }
+    }
+
+    private void pagesTouchedPerQuery() throws Exception {
+        Random rnd = harness.getRandom();
+        double[][] rectangles = new double[NUM_RECTANGLES][];
+        for (int i = 0; i < NUM_RECTANGLES; i++) {
+            double x = rnd.nextDouble() * SPACE_SIZE;
+            double y = rnd.nextDouble() * SPACE_SIZE;
+            rectangles[i] = new double[] { x, y, x + rnd.nextDouble() * MAX_RECTANGLE_SIDE,
+                    y + rnd.nextDouble() * MAX_RECTANGLE_SIDE, i };
+        }
+        sortByHilbertValue(rectangles);
+        double[][] queries = new double[NUM_QUERIES][];
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            double x = rnd.nextDouble() * (SPACE_SIZE - QUERY_SIDE);
+            double y = rnd.nextDouble() * (SPACE_SIZE - QUERY_SIDE);
+            queries[i] = new double[] { x, y, x + QUERY_SIDE, y + QUERY_SIDE };
+        }
+
+        long[] linear = run(RTreePackingType.LINEAR, rectangles, queries);
+        long[] str = run(RTreePackingType.STR, rectangles, queries);
+        System.out.println("RESULTS: " + linear[0] + " (linear), " + str[0] + " (STR)");
+        System.out.println("LINEAR PACKING: " + (double) linear[1] / NUM_QUERIES + " pages touched per query");
+        System.out.println("STR PACKING: " + (double) str[1] / NUM_QUERIES + " pages touched per query");
+    }
+
+    // returns { total results, total pages touched }
+    private long[] run(RTreePackingType packingType, double[][] rectangles, double[][] queries) throws Exception {
+        ISerializerDeserializer[] fieldSerdes = new ISerializerDeserializer[5];
+        Arrays.fill(fieldSerdes, DoubleSerializerDeserializer.INSTANCE);
+        int numKeys = 4;
+        ITypeTraits[] typeTraits = SerdeUtils.serdesToTypeTraits(fieldSerdes);
+        IBinaryComparatorFactory[] cmpFactories = SerdeUtils.serdesToComparatorFactories(fieldSerdes, numKeys);
+        DebugBufferCache bufferCache = new DebugBufferCache(harness.getBufferCache());
+        RTree rtree = RTreeUtils.createRTree(bufferCache, typeTraits,
+                RTreeUtils.createPrimitiveValueProviderFactories(numKeys, DoublePointable.FACTORY), cmpFactories,
+                RTreePolicyType.RTREE, harness.getFileReference(), false, harness.getMetadataManagerFactory(),
+                packingType);
+        rtree.create();
+        rtree.activate();
+        try {
+            IIndexBulkLoader bulkLoader = rtree.createBulkLoader(1.0f, false, rectangles.length, true);
+            for (double[] rectangle : rectangles) {
+                bulkLoader.add(TupleUtils.createDoubleTuple(rectangle));
+            }
+            bulkLoader.end();
+
+            long results = 0;
+            long pagesTouched = 0;
+            IIndexAccessor accessor = rtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+            IIndexCursor cursor = accessor.createSearchCursor(false);
+            try {
+                for (double[] query : queries) {
+                    ITupleReference key = TupleUtils.createDoubleTuple(query);
+                    MultiComparator cmp = RTreeUtils.getSearchMultiComparator(cmpFactories, key);
+                    bufferCache.resetCounters();
+                    accessor.search(cursor, new SearchPredicate(key, cmp));
+                    try {
+                        while (cursor.hasNext()) {
+                            cursor.next();
+                            results++;
+                        }
+                    } finally {
+                        cursor.close();
+                    }
+                    pagesTouched += bufferCache.getPinCount();
+                }
+            } finally {
+                cursor.destroy();
+                accessor.destroy();
+            }
+            return new long[] { results, pagesTouched };
+        } finally {
+            rtree.deactivate();
+            rtree.destroy();
+        }
+    }
+
+    private static void sortByHilbertValue(double[][] rectangles) {
+        IBinaryComparator hilbertCmp = new HilbertDoubleComparatorFactory(2).createBinaryComparator();
+        byte[][] corners = new byte[rectangles.length][];
+        Integer[] order = new Integer[rectangles.length];
+        for (int i = 0; i < rectangles.length; i++) {
+            corners[i] = new byte[16];
+            DoublePointable.setDouble(corners[i], 0, rectangles[i][0]);
+            DoublePointable.setDouble(corners[i], 8, rectangles[i][1]);
+            order[i] = i;
+        }
+        // like the linearized tuples of the LSM RTrees, the comparator gets the length of the first coordinate and
+        // reads the second one right after it
+        Arrays.sort(order, (a, b) -> {
+            try {
+                return hilbertCmp.compare(corners[a], 0, Double.BYTES, corners[b], 0, Double.BYTES);
+            } catch (HyracksDataException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        double[][] sorted = new double[rectangles.length][];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = rectangles[order[i]];
+        }
+        System.arraycopy(sorted, 0, rectangles, 0, sorted.length);
+    }
+}